@@ -0,0 +1,520 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * このクラスは、１レコード分のデータを保持する再利用可能なレコードの基底クラスです。
+ * <p>
+ * 列の値は内部の文字バッファに保持し、数値型の取得時は文字列を生成せずに直接変換します。
+ * リーダーに同一インスタンスを繰り返し渡すことで、レコードごとのオブジェクト生成を抑えられます。
+ * </p>
+ * <p>
+ * このクラスはスレッドセーフではありません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public abstract class AbstractRecord {
+
+	/** 10の累乗 */
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+			1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/** 文字バッファ */
+	private char[] buffer;
+
+	/** 列開始位置 */
+	private int[] starts;
+
+	/** 列終了位置 */
+	private int[] ends;
+
+	/** 列数 */
+	private int size;
+
+	/** 日付フォーマット */
+	private SimpleDateFormat[] dateFormats;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aColumns 想定列数
+	 */
+	protected AbstractRecord(final int aColumns) {
+		buffer = new char[256];
+		starts = new int[Math.max(1, aColumns)];
+		ends = new int[Math.max(1, aColumns)];
+		size = 0;
+	}
+
+	/**
+	 * 列数を取得する。
+	 *
+	 * @return 列数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 列の値が空か判断する。
+	 *
+	 * @param aIndex 列番号
+	 * @return 空文字の場合、<code>true</code>を返す。
+	 */
+	public boolean isNull(final int aIndex) {
+		checkIndex(aIndex);
+		return starts[aIndex] == ends[aIndex];
+	}
+
+	/**
+	 * 列の値を文字列として取得する。
+	 *
+	 * @param aIndex 列番号
+	 * @return 値
+	 */
+	public String getString(final int aIndex) {
+		checkIndex(aIndex);
+		return new String(buffer, starts[aIndex], ends[aIndex] - starts[aIndex]);
+	}
+
+	/**
+	 * 列の値を文字列として取得する。
+	 *
+	 * @param aName 列名
+	 * @return 値
+	 */
+	public String getString(final String aName) {
+		return getString(indexOf(aName));
+	}
+
+	/**
+	 * 列の値をint型として取得する。
+	 *
+	 * @param aIndex 列番号
+	 * @return 値
+	 * @throws NumberFormatException 数値として解析できない場合
+	 */
+	public int getInt(final int aIndex) {
+		long value = getLong(aIndex);
+		if (Integer.MIN_VALUE > value || Integer.MAX_VALUE < value) {
+			throw new NumberFormatException("Out of int range : " + getString(aIndex));
+		}
+		return (int) value;
+	}
+
+	/**
+	 * 列の値をint型として取得する。
+	 *
+	 * @param aName 列名
+	 * @return 値
+	 * @throws NumberFormatException 数値として解析できない場合
+	 */
+	public int getInt(final String aName) {
+		return getInt(indexOf(aName));
+	}
+
+	/**
+	 * 列の値をlong型として取得する。
+	 *
+	 * @param aIndex 列番号
+	 * @return 値
+	 * @throws NumberFormatException 数値として解析できない場合
+	 */
+	public long getLong(final int aIndex) {
+		checkIndex(aIndex);
+		int start = skipLeadingSpace(starts[aIndex], ends[aIndex]);
+		int end = skipTrailingSpace(start, ends[aIndex]);
+		if (start == end) {
+			throw new NumberFormatException("Empty value.");
+		}
+		boolean negative = false;
+		int i = start;
+		char c = buffer[i];
+		if ('-' == c || '+' == c) {
+			negative = ('-' == c);
+			i++;
+			if (i == end) {
+				throw new NumberFormatException("For input string: \"" + getString(aIndex) + "\"");
+			}
+		}
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multmin = limit / 10;
+		long result = 0;
+		for (; i < end; i++) {
+			int digit = buffer[i] - '0';
+			if (0 > digit || 9 < digit || result < multmin) {
+				throw new NumberFormatException("For input string: \"" + getString(aIndex) + "\"");
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw new NumberFormatException("For input string: \"" + getString(aIndex) + "\"");
+			}
+			result -= digit;
+		}
+		return negative ? result : -result;
+	}
+
+	/**
+	 * 列の値をlong型として取得する。
+	 *
+	 * @param aName 列名
+	 * @return 値
+	 * @throws NumberFormatException 数値として解析できない場合
+	 */
+	public long getLong(final String aName) {
+		return getLong(indexOf(aName));
+	}
+
+	/**
+	 * 列の値をdouble型として取得する。
+	 * <p>
+	 * 指数表記を含まない18桁以内の10進数は文字列を生成せずに変換する。
+	 * </p>
+	 *
+	 * @param aIndex 列番号
+	 * @return 値
+	 * @throws NumberFormatException 数値として解析できない場合
+	 */
+	public double getDouble(final int aIndex) {
+		checkIndex(aIndex);
+		int start = skipLeadingSpace(starts[aIndex], ends[aIndex]);
+		int end = skipTrailingSpace(start, ends[aIndex]);
+		if (start == end) {
+			throw new NumberFormatException("Empty value.");
+		}
+		int i = start;
+		boolean negative = false;
+		if ('-' == buffer[i] || '+' == buffer[i]) {
+			negative = ('-' == buffer[i]);
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int fraction = -1;
+		boolean numeric = false;
+		boolean fast = (i < end);
+		for (; i < end && fast; i++) {
+			char c = buffer[i];
+			if ('0' <= c && '9' >= c) {
+				numeric = true;
+				if (0 < mantissa || '0' != c) {
+					digits++;
+				}
+				mantissa = mantissa * 10 + (c - '0');
+				if (0 <= fraction) {
+					fraction++;
+				}
+				if (18 < digits) {
+					fast = false;
+				}
+			} else if ('.' == c && 0 > fraction) {
+				fraction = 0;
+			} else {
+				fast = false;
+			}
+		}
+		if (fast && numeric) {
+			int scale = Math.max(0, fraction);
+			if ((1L << 53) >= mantissa && POWERS_OF_TEN.length > scale) {
+				double value = (double) mantissa / POWERS_OF_TEN[scale];
+				return negative ? -value : value;
+			}
+		}
+		return Double.parseDouble(new String(buffer, start, end - start));
+	}
+
+	/**
+	 * 列の値をdouble型として取得する。
+	 *
+	 * @param aName 列名
+	 * @return 値
+	 * @throws NumberFormatException 数値として解析できない場合
+	 */
+	public double getDouble(final String aName) {
+		return getDouble(indexOf(aName));
+	}
+
+	/**
+	 * 列の値をboolean型として取得する。
+	 * <p>
+	 * 「true」「1」を<code>true</code>、「false」「0」を<code>false</code>として扱う。(大文字小文字は区別しない)
+	 * </p>
+	 *
+	 * @param aIndex 列番号
+	 * @return 値
+	 * @throws IllegalArgumentException 真偽値として解析できない場合
+	 */
+	public boolean getBoolean(final int aIndex) {
+		checkIndex(aIndex);
+		int start = skipLeadingSpace(starts[aIndex], ends[aIndex]);
+		int end = skipTrailingSpace(start, ends[aIndex]);
+		if (equalsIgnoreCase(start, end, "true") || equalsIgnoreCase(start, end, "1")) {
+			return true;
+		} else if (equalsIgnoreCase(start, end, "false") || equalsIgnoreCase(start, end, "0")) {
+			return false;
+		}
+		throw new IllegalArgumentException("Not a boolean value : " + getString(aIndex));
+	}
+
+	/**
+	 * 列の値をboolean型として取得する。
+	 *
+	 * @param aName 列名
+	 * @return 値
+	 * @throws IllegalArgumentException 真偽値として解析できない場合
+	 */
+	public boolean getBoolean(final String aName) {
+		return getBoolean(indexOf(aName));
+	}
+
+	/**
+	 * 列の値を日付型として取得する。
+	 * <p>
+	 * 列定義の日付パターンで解析する。
+	 * </p>
+	 *
+	 * @param aIndex 列番号
+	 * @return 値、値が空の場合<code>null</code>
+	 * @throws IllegalArgumentException 日付として解析できない場合
+	 */
+	public Date getDate(final int aIndex) {
+		checkIndex(aIndex);
+		if (isNull(aIndex)) {
+			return null;
+		}
+		String value = getString(aIndex).trim();
+		SimpleDateFormat format = getDateFormat(aIndex);
+		ParsePosition position = new ParsePosition(0);
+		Date date = format.parse(value, position);
+		if (null == date || value.length() != position.getIndex()) {
+			throw new IllegalArgumentException("Not a date value : " + value);
+		}
+		return date;
+	}
+
+	/**
+	 * 列の値を日付型として取得する。
+	 *
+	 * @param aName 列名
+	 * @return 値、値が空の場合<code>null</code>
+	 * @throws IllegalArgumentException 日付として解析できない場合
+	 */
+	public Date getDate(final String aName) {
+		return getDate(indexOf(aName));
+	}
+
+	/**
+	 * 列定義の型に従って列の値を取得する。
+	 * <p>
+	 * 列定義が存在しない場合は文字列として取得する。値が空の場合は<code>null</code>を返す。
+	 * </p>
+	 *
+	 * @param aIndex 列番号
+	 * @return 値
+	 */
+	public Object get(final int aIndex) {
+		if (isNull(aIndex)) {
+			return null;
+		}
+		CsvColumnType type = getColumnType(aIndex);
+		switch ((null != type) ? type : CsvColumnType.STRING) {
+		case INTEGER:
+			return Integer.valueOf(getInt(aIndex));
+		case LONG:
+			return Long.valueOf(getLong(aIndex));
+		case DOUBLE:
+			return Double.valueOf(getDouble(aIndex));
+		case BOOLEAN:
+			return Boolean.valueOf(getBoolean(aIndex));
+		case DATE:
+			return getDate(aIndex);
+		default:
+			return getString(aIndex);
+		}
+	}
+
+	/**
+	 * 列定義の型に従って列の値を取得する。
+	 *
+	 * @param aName 列名
+	 * @return 値
+	 */
+	public Object get(final String aName) {
+		return get(indexOf(aName));
+	}
+
+	/**
+	 * 全列の値を文字列リストとして取得する。
+	 *
+	 * @return 値リスト
+	 */
+	public List<String> toList() {
+		List<String> result = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			result.add(getString(i));
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return toList().toString();
+	}
+
+	/**
+	 * 列の型を取得する。
+	 *
+	 * @param aIndex 列番号
+	 * @return 型、列定義が存在しない場合<code>null</code>
+	 */
+	protected abstract CsvColumnType getColumnType(final int aIndex);
+
+	/**
+	 * 列の日付パターンを取得する。
+	 *
+	 * @param aIndex 列番号
+	 * @return 日付パターン、列定義が存在しない場合<code>null</code>
+	 */
+	protected abstract String getDatePattern(final int aIndex);
+
+	/**
+	 * 列名から列番号を取得する。
+	 *
+	 * @param aName 列名
+	 * @return 列番号、存在しない場合<code>-1</code>
+	 */
+	protected abstract int getColumnIndex(final String aName);
+
+	/**
+	 * 列をすべて消去する。
+	 */
+	final void clearFields() {
+		size = 0;
+	}
+
+	/**
+	 * 文字バッファの容量を確保する。
+	 *
+	 * @param aCapacity 容量
+	 * @return 文字バッファ
+	 */
+	final char[] ensureCapacity(final int aCapacity) {
+		if (buffer.length < aCapacity) {
+			buffer = new char[Math.max(aCapacity, buffer.length * 2)];
+		}
+		return buffer;
+	}
+
+	/**
+	 * 列を追加する。
+	 *
+	 * @param aStart 開始位置
+	 * @param aEnd 終了位置
+	 */
+	final void addField(final int aStart, final int aEnd) {
+		if (starts.length == size) {
+			int[] newStarts = new int[size * 2];
+			int[] newEnds = new int[size * 2];
+			System.arraycopy(starts, 0, newStarts, 0, size);
+			System.arraycopy(ends, 0, newEnds, 0, size);
+			starts = newStarts;
+			ends = newEnds;
+		}
+		starts[size] = aStart;
+		ends[size] = aEnd;
+		size++;
+	}
+
+	/**
+	 * 列名から列番号を取得する。
+	 *
+	 * @param aName 列名
+	 * @return 列番号
+	 */
+	private int indexOf(final String aName) {
+		int index = getColumnIndex(aName);
+		if (-1 == index) {
+			throw new IllegalArgumentException("Unknown column : " + aName);
+		}
+		return index;
+	}
+
+	private void checkIndex(final int aIndex) {
+		if (0 > aIndex || size <= aIndex) {
+			throw new IndexOutOfBoundsException("Index: " + aIndex + ", Size: " + size);
+		}
+	}
+
+	private int skipLeadingSpace(final int aStart, final int aEnd) {
+		int i = aStart;
+		while (i < aEnd && ' ' == buffer[i]) {
+			i++;
+		}
+		return i;
+	}
+
+	private int skipTrailingSpace(final int aStart, final int aEnd) {
+		int i = aEnd;
+		while (i > aStart && ' ' == buffer[i - 1]) {
+			i--;
+		}
+		return i;
+	}
+
+	private boolean equalsIgnoreCase(final int aStart, final int aEnd, final String aString) {
+		if (aEnd - aStart != aString.length()) {
+			return false;
+		}
+		for (int i = 0; i < aString.length(); i++) {
+			if (Character.toLowerCase(buffer[aStart + i]) != aString.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private SimpleDateFormat getDateFormat(final int aIndex) {
+		String pattern = getDatePattern(aIndex);
+		if (null == pattern) {
+			throw new IllegalStateException("Date pattern is not defined : " + aIndex);
+		}
+		if (null == dateFormats || dateFormats.length <= aIndex) {
+			SimpleDateFormat[] formats = new SimpleDateFormat[Math.max(aIndex + 1, size)];
+			if (null != dateFormats) {
+				System.arraycopy(dateFormats, 0, formats, 0, dateFormats.length);
+			}
+			dateFormats = formats;
+		}
+		SimpleDateFormat format = dateFormats[aIndex];
+		if (null == format) {
+			format = new SimpleDateFormat(pattern);
+			format.setLenient(false);
+			dateFormats[aIndex] = format;
+		}
+		return format;
+	}
+}
@@ -0,0 +1,274 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import org.azkfw.util.BloomFilter;
+
+/**
+ * このクラスは、CSVファイルのキー列からブルームフィルターを生成するビルダークラスです。
+ * <p>
+ * CSVファイルを一度だけ走査してキー列の値を登録し、CSVファイルと同じディレクトリに「ファイル名.bloom」として書き出します。
+ * 書き出したフィルターは{@link #load(File)}で読み込み、全件走査を行わずにキーの非存在を判定できます。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CsvBloomFilterBuilder {
+
+	/** インデックスファイルの拡張子 */
+	public static final String INDEX_SUFFIX = ".bloom";
+
+	/** 件数推定時に読み込むサイズ */
+	private static final int SAMPLE_SIZE = 64 * 1024;
+
+	/** CSVファイル */
+	private final File file;
+
+	/** 文字エンコーディング */
+	private final Charset charset;
+
+	/** キー列番号 */
+	private int keyColumn;
+
+	/** ヘッダー行有無 */
+	private boolean header;
+
+	/** 区切り文字 */
+	private Character separateCharacter;
+
+	/** 偽陽性率 */
+	private double falsePositiveProbability;
+
+	/** 想定件数 */
+	private long expectedInsertions;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aFile CSVファイル
+	 * @param aCharset 文字エンコーディング
+	 */
+	public CsvBloomFilterBuilder(final File aFile, final Charset aCharset) {
+		file = aFile;
+		charset = aCharset;
+		keyColumn = 0;
+		header = false;
+		separateCharacter = ',';
+		falsePositiveProbability = 0.01;
+		expectedInsertions = -1;
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aFile CSVファイル
+	 * @param aCharset 文字エンコーディング
+	 */
+	public CsvBloomFilterBuilder(final File aFile, final String aCharset) {
+		this(aFile, Charset.forName(aCharset));
+	}
+
+	/**
+	 * キー列番号を設定する。
+	 *
+	 * @param aColumn 列番号(0始まり)
+	 */
+	public void setKeyColumn(final int aColumn) {
+		keyColumn = aColumn;
+	}
+
+	/**
+	 * ヘッダー行有無を設定する。
+	 *
+	 * @param aHeader 1行目をヘッダーとして読み飛ばす場合、<code>true</code>
+	 */
+	public void setHeader(final boolean aHeader) {
+		header = aHeader;
+	}
+
+	/**
+	 * 区切り文字を設定する。
+	 *
+	 * @param aCharacter 区切り文字
+	 */
+	public void setSeparateCharacter(final Character aCharacter) {
+		separateCharacter = aCharacter;
+	}
+
+	/**
+	 * 偽陽性率を設定する。
+	 *
+	 * @param aProbability 偽陽性率(0より大きく1未満)
+	 */
+	public void setFalsePositiveProbability(final double aProbability) {
+		falsePositiveProbability = aProbability;
+	}
+
+	/**
+	 * 想定件数を設定する。
+	 * <p>
+	 * 設定しない場合、ファイル先頭の行長からファイル全体の行数を推定する。
+	 * </p>
+	 *
+	 * @param aExpectedInsertions 想定件数
+	 */
+	public void setExpectedInsertions(final long aExpectedInsertions) {
+		expectedInsertions = aExpectedInsertions;
+	}
+
+	/**
+	 * ブルームフィルターを生成し、インデックスファイルへ書き出す。
+	 *
+	 * @return ブルームフィルター
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public BloomFilter build() throws IOException {
+		long expected = (0 < expectedInsertions) ? expectedInsertions : estimateLineCount(file);
+		BloomFilter filter = new BloomFilter(expected, falsePositiveProbability);
+
+		CsvBufferedReader reader = null;
+		try {
+			reader = new CsvBufferedReader(file, charset);
+			reader.setSeparateCharacter(separateCharacter);
+			if (header) {
+				reader.readLine();
+			}
+			List<String> data;
+			while (null != (data = reader.readCsvLine())) {
+				if (keyColumn < data.size()) {
+					filter.put(data.get(keyColumn));
+				}
+			}
+		} finally {
+			if (null != reader) {
+				reader.close();
+			}
+		}
+
+		File indexFile = getIndexFile(file);
+		File tempFile = new File(indexFile.getPath() + ".tmp");
+		OutputStream stream = null;
+		try {
+			stream = new BufferedOutputStream(new FileOutputStream(tempFile));
+			filter.writeTo(stream);
+		} finally {
+			if (null != stream) {
+				stream.close();
+			}
+		}
+		if (indexFile.exists() && !indexFile.delete()) {
+			throw new IOException("Failed to replace index file : " + indexFile.getPath());
+		}
+		if (!tempFile.renameTo(indexFile)) {
+			throw new IOException("Failed to rename index file : " + tempFile.getPath());
+		}
+		return filter;
+	}
+
+	/**
+	 * CSVファイルに対応するインデックスファイルを取得する。
+	 *
+	 * @param aFile CSVファイル
+	 * @return インデックスファイル
+	 */
+	public static File getIndexFile(final File aFile) {
+		return new File(aFile.getPath() + INDEX_SUFFIX);
+	}
+
+	/**
+	 * CSVファイルに対して有効なインデックスファイルが存在するか判断する。
+	 * <p>
+	 * インデックスファイル生成後にCSVファイルが更新されている場合は無効と判断する。
+	 * </p>
+	 *
+	 * @param aFile CSVファイル
+	 * @return 有効なインデックスが存在する場合、<code>true</code>を返す。
+	 */
+	public static boolean isIndexAvailable(final File aFile) {
+		File indexFile = getIndexFile(aFile);
+		return indexFile.isFile() && indexFile.lastModified() >= aFile.lastModified();
+	}
+
+	/**
+	 * CSVファイルに対応するブルームフィルターを読み込む。
+	 *
+	 * @param aFile CSVファイル
+	 * @return ブルームフィルター
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public static BloomFilter load(final File aFile) throws IOException {
+		InputStream stream = null;
+		try {
+			stream = new BufferedInputStream(new FileInputStream(getIndexFile(aFile)));
+			return BloomFilter.readFrom(stream);
+		} finally {
+			if (null != stream) {
+				stream.close();
+			}
+		}
+	}
+
+	/**
+	 * ファイル先頭の行長からファイル全体の行数を推定する。
+	 *
+	 * @param aFile ファイル
+	 * @return 推定行数
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private static long estimateLineCount(final File aFile) throws IOException {
+		long length = aFile.length();
+		byte[] buffer = new byte[(int) Math.min(SAMPLE_SIZE, Math.max(1, length))];
+		int read = 0;
+		InputStream stream = null;
+		try {
+			stream = new FileInputStream(aFile);
+			int size;
+			while (read < buffer.length && -1 != (size = stream.read(buffer, read, buffer.length - read))) {
+				read += size;
+			}
+		} finally {
+			if (null != stream) {
+				stream.close();
+			}
+		}
+		long lines = 0;
+		for (int i = 0; i < read; i++) {
+			if ('\n' == buffer[i]) {
+				lines++;
+			}
+		}
+		if (0 == lines || 0 == read) {
+			return Math.max(1, length / 16);
+		}
+		// 行長のばらつきを考慮して1割増しで見積もる
+		return (long) (length * (double) lines / read * 1.1) + 1;
+	}
+}
@@ -35,7 +35,7 @@ import org.azkfw.util.StringUtility;
  * このクラスは、CSVファイルを読み込むリーダークラスです。
  * 
  * @since 1.0.0
- * @version 1.0.0 2013/07/02
+ * @version 1.6.1 2026/10/19
  * @author Kawakicchi
  */
 public class CsvBufferedReader extends BufferedReader {
@@ -152,6 +152,25 @@ public class CsvBufferedReader extends BufferedReader {
 		return result;
 	}
 
+	/**
+	 * CSVとして１行読み取り、レコードへ設定する。
+	 * <p>
+	 * レコードは再利用されるため、行ごとのオブジェクト生成を抑えて読み込みを行えます。
+	 * </p>
+	 * 
+	 * @param record レコード
+	 * @return 読み取った場合<code>true</code>、ファイル終端に達した場合<code>false</code>
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public boolean readCsvRecord(final CsvRecord record) throws IOException {
+		String line = readLine();
+		if (null == line) {
+			return false;
+		}
+		record.parse(line, separateCharacter);
+		return true;
+	}
+
 	/**
 	 * CSV行を解析しデータ単位にする。
 	 * 
@@ -159,6 +178,17 @@ public class CsvBufferedReader extends BufferedReader {
 	 * @return データ
 	 */
 	private List<String> purseLine(final String line) {
+		return parseLine(line, separateCharacter);
+	}
+
+	/**
+	 * CSV行を解析しデータ単位にする。
+	 * 
+	 * @param line CSV行文字列
+	 * @param separateCharacter 区切り文字
+	 * @return データ
+	 */
+	static List<String> parseLine(final String line, final char separateCharacter) {
 		List<String> result = new ArrayList<String>();
 		if (StringUtility.isNotEmpty(line)) {
 			StringBuilder sb = new StringBuilder();
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+/**
+ * このクラスは、CSV列の定義を保持するクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class CsvColumn {
+
+	/** 列名 */
+	private final String name;
+
+	/** データ型 */
+	private final CsvColumnType type;
+
+	/** 空値許可 */
+	private final boolean nullable;
+
+	/** 日付パターン */
+	private final String datePattern;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aName 列名
+	 * @param aType データ型
+	 * @param aNullable 空値を許可する場合、<code>true</code>
+	 */
+	public CsvColumn(final String aName, final CsvColumnType aType, final boolean aNullable) {
+		this(aName, aType, aNullable, null);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aName 列名
+	 * @param aType データ型
+	 * @param aNullable 空値を許可する場合、<code>true</code>
+	 * @param aDatePattern 日付パターン({@link java.text.SimpleDateFormat}形式)
+	 */
+	public CsvColumn(final String aName, final CsvColumnType aType, final boolean aNullable, final String aDatePattern) {
+		if (CsvColumnType.DATE == aType && null == aDatePattern) {
+			throw new IllegalArgumentException("Date pattern is required for DATE column.");
+		}
+		name = aName;
+		type = aType;
+		nullable = aNullable;
+		datePattern = aDatePattern;
+	}
+
+	/**
+	 * 列名を取得する。
+	 *
+	 * @return 列名
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * データ型を取得する。
+	 *
+	 * @return データ型
+	 */
+	public CsvColumnType getType() {
+		return type;
+	}
+
+	/**
+	 * 空値を許可するか判断する。
+	 *
+	 * @return 空値を許可する場合、<code>true</code>を返す。
+	 */
+	public boolean isNullable() {
+		return nullable;
+	}
+
+	/**
+	 * 日付パターンを取得する。
+	 *
+	 * @return 日付パターン
+	 */
+	public String getDatePattern() {
+		return datePattern;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append(name).append(':').append(type);
+		if (null != datePattern) {
+			s.append('(').append(datePattern).append(')');
+		}
+		if (nullable) {
+			s.append('?');
+		}
+		return s.toString();
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * このクラスは、読み込み元ファイルの情報を伴うCSV１行分のデータを保持するクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class CsvFileLine {
+
+	/** ファイル */
+	private final File file;
+
+	/** 行番号 */
+	private final long lineNumber;
+
+	/** データ */
+	private final List<String> data;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aFile ファイル
+	 * @param aLineNumber 行番号(1始まり)
+	 * @param aData データ
+	 */
+	public CsvFileLine(final File aFile, final long aLineNumber, final List<String> aData) {
+		file = aFile;
+		lineNumber = aLineNumber;
+		data = aData;
+	}
+
+	/**
+	 * 読み込み元ファイルを取得する。
+	 *
+	 * @return ファイル
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * 読み込み元ファイル内の行番号を取得する。
+	 *
+	 * @return 行番号(1始まり)
+	 */
+	public long getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * CSV１行データを取得する。
+	 *
+	 * @return データ
+	 */
+	public List<String> getData() {
+		return data;
+	}
+
+	@Override
+	public String toString() {
+		return file.getName() + ":" + lineNumber + " " + data;
+	}
+}
@@ -0,0 +1,343 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import org.azkfw.util.FileUtility;
+
+/**
+ * このクラスは、複数のCSVファイルを並列に読み込み、１つのストリームとして返すリーダークラスです。
+ * <p>
+ * ファイルはサイズの大きい順に読み込みを開始し、同時に開くファイル数はスレッド数で制限されます。
+ * 同一ファイル内の行は順序通りに返されますが、ファイル間の行の順序は保証されません。
+ * 各行には読み込み元のファイルと行番号が付与されます。
+ * </p>
+ * 
+ * <pre>
+ * CsvMultiFileReader reader = new CsvMultiFileReader(FileUtility.listFiles(dir, &quot;^.*\.csv$&quot;), &quot;UTF-8&quot;);
+ * try {
+ * 	CsvFileLine line;
+ * 	while (null != (line = reader.readCsvLine())) {
+ * 		...
+ * 	}
+ * } finally {
+ * 	reader.close();
+ * }
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CsvMultiFileReader implements Closeable {
+
+	/** 終端を表すバッチ */
+	private static final List<CsvFileLine> END = Collections.unmodifiableList(new ArrayList<CsvFileLine>());
+
+	/** ファイル一覧(サイズ降順) */
+	private final List<File> files;
+
+	/** 文字エンコーディング */
+	private final Charset charset;
+
+	/** スレッド数 */
+	private int threads;
+
+	/** バッチサイズ */
+	private int batchSize;
+
+	/** キューサイズ */
+	private int queueSize;
+
+	/** ヘッダー行有無 */
+	private boolean header;
+
+	/** 区切り文字 */
+	private Character separateCharacter;
+
+	/** バッチキュー */
+	private BlockingQueue<List<CsvFileLine>> queue;
+
+	/** スレッドプール */
+	private ExecutorService executor;
+
+	/** 未完了ファイル数 */
+	private AtomicInteger remaining;
+
+	/** 発生した例外 */
+	private final AtomicReference<Throwable> failure;
+
+	/** 現在のバッチ */
+	private Iterator<CsvFileLine> current;
+
+	/** 終了済み */
+	private boolean finished;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aFiles ファイル一覧
+	 * @param aCharset 文字エンコーディング
+	 */
+	public CsvMultiFileReader(final List<File> aFiles, final Charset aCharset) {
+		files = new ArrayList<File>(aFiles);
+		Collections.sort(files, new Comparator<File>() {
+			@Override
+			public int compare(final File aFile1, final File aFile2) {
+				long size1 = aFile1.length();
+				long size2 = aFile2.length();
+				return (size1 < size2) ? 1 : ((size1 == size2) ? 0 : -1);
+			}
+		});
+		charset = aCharset;
+		threads = Runtime.getRuntime().availableProcessors();
+		batchSize = 512;
+		queueSize = 64;
+		header = false;
+		separateCharacter = ',';
+		failure = new AtomicReference<Throwable>();
+		finished = false;
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aFiles ファイル一覧
+	 * @param aCharset 文字エンコーディング
+	 */
+	public CsvMultiFileReader(final List<File> aFiles, final String aCharset) {
+		this(aFiles, Charset.forName(aCharset));
+	}
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * ディレクトリ配下のファイルパスがパターンにマッチするファイルを再帰的に読み込む。
+	 * </p>
+	 *
+	 * @param aDirectory ディレクトリ
+	 * @param aPattern パターン
+	 * @param aCharset 文字エンコーディング
+	 */
+	public CsvMultiFileReader(final File aDirectory, final Pattern aPattern, final Charset aCharset) {
+		this(FileUtility.listFiles(aDirectory, aPattern), aCharset);
+	}
+
+	/**
+	 * 並列に読み込むスレッド数(同時に開くファイル数)を設定する。
+	 *
+	 * @param aThreads スレッド数
+	 */
+	public void setThreads(final int aThreads) {
+		threads = aThreads;
+	}
+
+	/**
+	 * スレッド間で受け渡す行数を設定する。
+	 *
+	 * @param aSize 行数
+	 */
+	public void setBatchSize(final int aSize) {
+		batchSize = aSize;
+	}
+
+	/**
+	 * 読み込み済みで保持するバッチの上限数を設定する。
+	 *
+	 * @param aSize バッチ数
+	 */
+	public void setQueueSize(final int aSize) {
+		queueSize = aSize;
+	}
+
+	/**
+	 * ヘッダー行有無を設定する。
+	 *
+	 * @param aHeader 各ファイルの1行目を読み飛ばす場合、<code>true</code>
+	 */
+	public void setHeader(final boolean aHeader) {
+		header = aHeader;
+	}
+
+	/**
+	 * 区切り文字を設定する。
+	 *
+	 * @param aCharacter 区切り文字
+	 */
+	public void setSeparateCharacter(final Character aCharacter) {
+		separateCharacter = aCharacter;
+	}
+
+	/**
+	 * 読み込み対象のファイル一覧を取得する。
+	 *
+	 * @return ファイル一覧(読み込み開始順)
+	 */
+	public List<File> getFiles() {
+		return Collections.unmodifiableList(files);
+	}
+
+	/**
+	 * CSVとして１行読み取る。
+	 * <p>
+	 * 初回呼び出し時に読み込みを開始する。
+	 * </p>
+	 *
+	 * @return CSV１行データ、全ファイルの終端に達した場合<code>null</code>
+	 * @throws IOException いずれかのファイルの読み込みで問題が発生した場合
+	 */
+	public CsvFileLine readCsvLine() throws IOException {
+		if (null == executor) {
+			start();
+		}
+		while (true) {
+			if (null != current && current.hasNext()) {
+				return current.next();
+			}
+			if (finished) {
+				throwIfFailed();
+				return null;
+			}
+			List<CsvFileLine> batch;
+			try {
+				batch = queue.take();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while reading.", ex);
+			}
+			if (END == batch) {
+				finished = true;
+				current = null;
+				executor.shutdownNow();
+			} else {
+				throwIfFailed();
+				current = batch.iterator();
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		finished = true;
+		if (null != executor) {
+			executor.shutdownNow();
+			queue.clear();
+		}
+	}
+
+	private synchronized void start() {
+		queue = new ArrayBlockingQueue<List<CsvFileLine>>(Math.max(1, queueSize));
+		remaining = new AtomicInteger(files.size());
+		final AtomicInteger number = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, Math.max(1, files.size()))), new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable aRunnable) {
+				Thread thread = new Thread(aRunnable, "CsvMultiFileReader-" + number.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		if (files.isEmpty()) {
+			queue.add(END);
+		}
+		for (final File file : files) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					read(file);
+				}
+			});
+		}
+		executor.shutdown();
+	}
+
+	private void read(final File aFile) {
+		try {
+			if (null == failure.get()) {
+				CsvBufferedReader reader = new CsvBufferedReader(aFile, charset);
+				try {
+					reader.setSeparateCharacter(separateCharacter);
+					long lineNumber = 0;
+					if (header && null != reader.readLine()) {
+						lineNumber++;
+					}
+					List<CsvFileLine> batch = new ArrayList<CsvFileLine>(batchSize);
+					List<String> data;
+					while (null != (data = reader.readCsvLine())) {
+						lineNumber++;
+						batch.add(new CsvFileLine(aFile, lineNumber, data));
+						if (batch.size() >= batchSize) {
+							queue.put(batch);
+							batch = new ArrayList<CsvFileLine>(batchSize);
+						}
+						if (null != failure.get()) {
+							return;
+						}
+					}
+					if (!batch.isEmpty()) {
+						queue.put(batch);
+					}
+				} finally {
+					reader.close();
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			failure.compareAndSet(null, ex);
+		} catch (Throwable ex) {
+			failure.compareAndSet(null, new IOException("Failed to read " + aFile.getPath(), ex));
+		} finally {
+			if (0 == remaining.decrementAndGet() || null != failure.get()) {
+				// 失敗時は残りのファイルを待たずに終端を通知する
+				try {
+					queue.put(END);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+
+	private void throwIfFailed() throws IOException {
+		Throwable cause = failure.get();
+		if (null == cause) {
+			return;
+		}
+		if (cause instanceof IOException) {
+			throw (IOException) cause;
+		}
+		throw new IOException(cause);
+	}
+}
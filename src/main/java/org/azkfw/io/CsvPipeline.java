@@ -0,0 +1,402 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * このクラスは、CSVの読み込み・解析・変換・書き出しを並列に行うパイプラインクラスです。
+ * <p>
+ * 読み込みスレッドが行をブロック単位でまとめ、複数の解析スレッドがブロックごとに解析と変換を行います。
+ * 書き出しは呼び出し元スレッドで行い、ブロックは読み込み順に並べ替えてから書き出されるため、出力の行順は入力と一致します。
+ * </p>
+ * <p>
+ * 処理中のブロック数は{@link #setQueueSize(int)}で制限され、書き出しが遅い場合は読み込みが待機します。
+ * いずれかの工程で例外が発生した場合、他の工程を中断し{@link #execute()}から最初の例外を送出します。
+ * </p>
+ * 
+ * <pre>
+ * CsvPipeline pipeline = new CsvPipeline(reader, writer, new CsvTransformer() {
+ * 	public List&lt;String&gt; transform(final List&lt;String&gt; aData) {
+ * 		...
+ * 	}
+ * });
+ * CsvPipelineStatistics statistics = pipeline.execute();
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CsvPipeline {
+
+	/** 終端を表すブロック */
+	private static final Block END = new Block(-1, 0, null);
+
+	/** リーダー */
+	private final CsvBufferedReader reader;
+
+	/** ライター */
+	private final CsvBufferedWriter writer;
+
+	/** 変換処理 */
+	private final CsvTransformer transformer;
+
+	/** 解析スレッド数 */
+	private int threads;
+
+	/** ブロックサイズ */
+	private int blockSize;
+
+	/** キューサイズ */
+	private int queueSize;
+
+	/** ヘッダー行有無 */
+	private boolean header;
+
+	/** 区切り文字 */
+	private char separateCharacter;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * リーダーおよびライターのクローズは呼び出し元で行ってください。
+	 * </p>
+	 *
+	 * @param aReader リーダー
+	 * @param aWriter ライター
+	 * @param aTransformer 変換処理
+	 */
+	public CsvPipeline(final CsvBufferedReader aReader, final CsvBufferedWriter aWriter, final CsvTransformer aTransformer) {
+		reader = aReader;
+		writer = aWriter;
+		transformer = aTransformer;
+		threads = Runtime.getRuntime().availableProcessors();
+		blockSize = 1024;
+		queueSize = -1;
+		header = false;
+		separateCharacter = ',';
+	}
+
+	/**
+	 * 解析・変換を行うスレッド数を設定する。
+	 *
+	 * @param aThreads スレッド数
+	 */
+	public void setThreads(final int aThreads) {
+		threads = aThreads;
+	}
+
+	/**
+	 * 工程間で受け渡す行数を設定する。
+	 *
+	 * @param aSize 行数
+	 */
+	public void setBlockSize(final int aSize) {
+		blockSize = aSize;
+	}
+
+	/**
+	 * 同時に処理中とするブロックの上限数を設定する。
+	 * <p>
+	 * 設定しない場合、解析スレッド数の4倍とする。
+	 * </p>
+	 *
+	 * @param aSize ブロック数
+	 */
+	public void setQueueSize(final int aSize) {
+		queueSize = aSize;
+	}
+
+	/**
+	 * ヘッダー行有無を設定する。
+	 *
+	 * @param aHeader 1行目を変換せずにそのまま書き出す場合、<code>true</code>
+	 */
+	public void setHeader(final boolean aHeader) {
+		header = aHeader;
+	}
+
+	/**
+	 * 入力の区切り文字を設定する。
+	 *
+	 * @param aCharacter 区切り文字
+	 */
+	public void setSeparateCharacter(final char aCharacter) {
+		separateCharacter = aCharacter;
+	}
+
+	/**
+	 * パイプラインを実行する。
+	 *
+	 * @return 統計情報
+	 * @throws IOException 読み込みまたは書き出しで問題が発生した場合
+	 * @throws CsvPipelineException 変換に失敗した場合
+	 */
+	public CsvPipelineStatistics execute() throws IOException, CsvPipelineException {
+		final CsvPipelineStatistics statistics = new CsvPipelineStatistics();
+		long start = System.nanoTime();
+
+		if (header) {
+			String line = reader.readLine();
+			if (null != line) {
+				writer.writeCsvLine(CsvBufferedReader.parseLine(line, separateCharacter));
+			}
+		}
+
+		final int workers = Math.max(1, threads);
+		final int size = Math.max(1, blockSize);
+		final Semaphore permits = new Semaphore((0 < queueSize) ? queueSize : workers * 4);
+		final BlockingQueue<Block> parseQueue = new LinkedBlockingQueue<Block>();
+		final BlockingQueue<Block> writeQueue = new LinkedBlockingQueue<Block>();
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		final AtomicInteger number = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(workers + 1, new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable aRunnable) {
+				Thread thread = new Thread(aRunnable, "CsvPipeline-" + number.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					read(size, permits, parseQueue, writeQueue, failure, statistics);
+				}
+			});
+			for (int i = 0; i < workers; i++) {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						parse(parseQueue, writeQueue, failure, statistics);
+					}
+				});
+			}
+			executor.shutdown();
+
+			write(permits, writeQueue, failure, statistics);
+			writer.flush();
+		} finally {
+			executor.shutdownNow();
+			statistics.elapsedTime.set(System.nanoTime() - start);
+		}
+		return statistics;
+	}
+
+	/**
+	 * 読み込み工程
+	 */
+	private void read(final int aBlockSize, final Semaphore aPermits, final BlockingQueue<Block> aParseQueue, final BlockingQueue<Block> aWriteQueue,
+			final AtomicReference<Throwable> aFailure, final CsvPipelineStatistics aStatistics) {
+		long sequence = 0;
+		long lineNumber = header ? 1 : 0;
+		try {
+			boolean eof = false;
+			while (!eof && null == aFailure.get()) {
+				long t1 = System.nanoTime();
+				aPermits.acquire();
+				long t2 = System.nanoTime();
+				List<String> lines = new ArrayList<String>(aBlockSize);
+				String line;
+				while (lines.size() < aBlockSize) {
+					if (null == (line = reader.readLine())) {
+						eof = true;
+						break;
+					}
+					lines.add(line);
+				}
+				long t3 = System.nanoTime();
+				aStatistics.readWaitTime.addAndGet(t2 - t1);
+				aStatistics.readTime.addAndGet(t3 - t2);
+				if (lines.isEmpty()) {
+					aPermits.release();
+				} else {
+					aParseQueue.put(new Block(sequence++, lineNumber + 1, lines));
+					lineNumber += lines.size();
+					aStatistics.readLines.addAndGet(lines.size());
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			fail(aFailure, aWriteQueue, ex);
+		} catch (Throwable ex) {
+			fail(aFailure, aWriteQueue, ex);
+		} finally {
+			aStatistics.blocks.set(sequence);
+			// 解析スレッドへの終端通知と、書き出し工程へのブロック総数通知
+			aParseQueue.offer(END);
+			aWriteQueue.offer(new Block(-1, sequence, null));
+		}
+	}
+
+	/**
+	 * 解析・変換工程
+	 */
+	private void parse(final BlockingQueue<Block> aParseQueue, final BlockingQueue<Block> aWriteQueue, final AtomicReference<Throwable> aFailure,
+			final CsvPipelineStatistics aStatistics) {
+		try {
+			while (true) {
+				long t1 = System.nanoTime();
+				Block block = aParseQueue.take();
+				aStatistics.parseWaitTime.addAndGet(System.nanoTime() - t1);
+				if (END == block) {
+					aParseQueue.put(END);
+					break;
+				}
+				if (null != aFailure.get()) {
+					break;
+				}
+
+				long parseTime = 0;
+				long transformTime = 0;
+				List<List<String>> results = new ArrayList<List<String>>(block.lines.size());
+				for (int i = 0; i < block.lines.size(); i++) {
+					long t2 = System.nanoTime();
+					List<String> data = CsvBufferedReader.parseLine(block.lines.get(i), separateCharacter);
+					long t3 = System.nanoTime();
+					List<String> result;
+					try {
+						result = transformer.transform(data);
+					} catch (CsvPipelineException ex) {
+						throw ex;
+					} catch (RuntimeException ex) {
+						throw new CsvPipelineException("Failed to transform line " + (block.lineNumber + i), ex);
+					}
+					transformTime += System.nanoTime() - t3;
+					parseTime += t3 - t2;
+					if (null != result) {
+						results.add(result);
+					}
+				}
+				aStatistics.parseTime.addAndGet(parseTime);
+				aStatistics.transformTime.addAndGet(transformTime);
+
+				block.lines = null;
+				block.results = results;
+				aWriteQueue.put(block);
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			fail(aFailure, aWriteQueue, ex);
+		} catch (Throwable ex) {
+			fail(aFailure, aWriteQueue, ex);
+		}
+	}
+
+	/**
+	 * 書き出し工程
+	 */
+	private void write(final Semaphore aPermits, final BlockingQueue<Block> aWriteQueue, final AtomicReference<Throwable> aFailure,
+			final CsvPipelineStatistics aStatistics) throws IOException, CsvPipelineException {
+		Map<Long, Block> pending = new HashMap<Long, Block>();
+		long next = 0;
+		long total = -1;
+		while (-1 == total || next < total) {
+			Block block;
+			long t1 = System.nanoTime();
+			try {
+				block = aWriteQueue.take();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				aFailure.compareAndSet(null, new CsvPipelineException("Interrupted while writing.", ex));
+				throwFailure(aFailure);
+				return;
+			}
+			aStatistics.writeWaitTime.addAndGet(System.nanoTime() - t1);
+			throwFailure(aFailure);
+
+			if (-1 == block.sequence) {
+				total = block.lineNumber;
+				continue;
+			}
+			pending.put(block.sequence, block);
+
+			long t2 = System.nanoTime();
+			while (null != (block = pending.remove(next))) {
+				for (List<String> data : block.results) {
+					writer.writeCsvLine(data);
+				}
+				aStatistics.writtenLines.addAndGet(block.results.size());
+				next++;
+				aPermits.release();
+			}
+			aStatistics.writeTime.addAndGet(System.nanoTime() - t2);
+		}
+		throwFailure(aFailure);
+	}
+
+	private static void fail(final AtomicReference<Throwable> aFailure, final BlockingQueue<Block> aWriteQueue, final Throwable aCause) {
+		if (aFailure.compareAndSet(null, aCause)) {
+			// 書き出し工程を起こす
+			aWriteQueue.offer(END);
+		}
+	}
+
+	private static void throwFailure(final AtomicReference<Throwable> aFailure) throws IOException, CsvPipelineException {
+		Throwable cause = aFailure.get();
+		if (null == cause) {
+			return;
+		}
+		if (cause instanceof IOException) {
+			throw (IOException) cause;
+		}
+		if (cause instanceof CsvPipelineException) {
+			throw (CsvPipelineException) cause;
+		}
+		throw new CsvPipelineException(cause);
+	}
+
+	/**
+	 * このクラスは、工程間で受け渡す行のまとまりを表現するクラスです。
+	 */
+	private static final class Block {
+
+		/** 通番 */
+		private final long sequence;
+
+		/** 先頭行番号 */
+		private final long lineNumber;
+
+		/** 行文字列 */
+		private List<String> lines;
+
+		/** 変換結果 */
+		private List<List<String>> results;
+
+		private Block(final long aSequence, final long aLineNumber, final List<String> aLines) {
+			sequence = aSequence;
+			lineNumber = aLineNumber;
+			lines = aLines;
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * このクラスは、{@link CsvPipeline}および{@link CsvStoreBuilder}の各工程の処理件数と処理時間を保持するクラスです。
+ * <p>
+ * 時間はナノ秒単位です。待機時間はキューが空または満杯のために待った時間で、どの工程が律速となっているかの判断に利用できます。
+ * {@link CsvStoreBuilder}では、書き出しはストアへの登録を表します。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class CsvPipelineStatistics {
+
+	/** 読み込み行数 */
+	final AtomicLong readLines = new AtomicLong();
+
+	/** 書き出し行数 */
+	final AtomicLong writtenLines = new AtomicLong();
+
+	/** ブロック数 */
+	final AtomicLong blocks = new AtomicLong();
+
+	/** 読み込み時間 */
+	final AtomicLong readTime = new AtomicLong();
+
+	/** 読み込み待機時間 */
+	final AtomicLong readWaitTime = new AtomicLong();
+
+	/** 解析時間 */
+	final AtomicLong parseTime = new AtomicLong();
+
+	/** 変換時間 */
+	final AtomicLong transformTime = new AtomicLong();
+
+	/** 解析待機時間 */
+	final AtomicLong parseWaitTime = new AtomicLong();
+
+	/** 書き出し時間 */
+	final AtomicLong writeTime = new AtomicLong();
+
+	/** 書き出し待機時間 */
+	final AtomicLong writeWaitTime = new AtomicLong();
+
+	/** 経過時間 */
+	final AtomicLong elapsedTime = new AtomicLong();
+
+	/**
+	 * コンストラクタ
+	 */
+	CsvPipelineStatistics() {
+	}
+
+	/**
+	 * 読み込み行数を取得する。
+	 *
+	 * @return 行数
+	 */
+	public long getReadLines() {
+		return readLines.get();
+	}
+
+	/**
+	 * 書き出し行数を取得する。
+	 *
+	 * @return 行数
+	 */
+	public long getWrittenLines() {
+		return writtenLines.get();
+	}
+
+	/**
+	 * 処理したブロック数を取得する。
+	 *
+	 * @return ブロック数
+	 */
+	public long getBlocks() {
+		return blocks.get();
+	}
+
+	/**
+	 * 読み込み工程の処理時間を取得する。
+	 *
+	 * @return 時間(ナノ秒)
+	 */
+	public long getReadTime() {
+		return readTime.get();
+	}
+
+	/**
+	 * 読み込み工程が後続工程の空きを待った時間を取得する。
+	 *
+	 * @return 時間(ナノ秒)
+	 */
+	public long getReadWaitTime() {
+		return readWaitTime.get();
+	}
+
+	/**
+	 * 解析工程の処理時間(全スレッド合計)を取得する。
+	 *
+	 * @return 時間(ナノ秒)
+	 */
+	public long getParseTime() {
+		return parseTime.get();
+	}
+
+	/**
+	 * 変換工程の処理時間(全スレッド合計)を取得する。
+	 *
+	 * @return 時間(ナノ秒)
+	 */
+	public long getTransformTime() {
+		return transformTime.get();
+	}
+
+	/**
+	 * 解析工程がブロックの到着を待った時間(全スレッド合計)を取得する。
+	 *
+	 * @return 時間(ナノ秒)
+	 */
+	public long getParseWaitTime() {
+		return parseWaitTime.get();
+	}
+
+	/**
+	 * 書き出し工程の処理時間を取得する。
+	 *
+	 * @return 時間(ナノ秒)
+	 */
+	public long getWriteTime() {
+		return writeTime.get();
+	}
+
+	/**
+	 * 書き出し工程が次のブロックを待った時間を取得する。
+	 *
+	 * @return 時間(ナノ秒)
+	 */
+	public long getWriteWaitTime() {
+		return writeWaitTime.get();
+	}
+
+	/**
+	 * 全体の経過時間を取得する。
+	 *
+	 * @return 時間(ナノ秒)
+	 */
+	public long getElapsedTime() {
+		return elapsedTime.get();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("lines=").append(getReadLines()).append("/").append(getWrittenLines());
+		s.append(", blocks=").append(getBlocks());
+		s.append(", read=").append(toMillis(getReadTime())).append("ms(wait ").append(toMillis(getReadWaitTime())).append("ms)");
+		s.append(", parse=").append(toMillis(getParseTime())).append("ms");
+		s.append(", transform=").append(toMillis(getTransformTime())).append("ms(wait ").append(toMillis(getParseWaitTime())).append("ms)");
+		s.append(", write=").append(toMillis(getWriteTime())).append("ms(wait ").append(toMillis(getWriteWaitTime())).append("ms)");
+		s.append(", elapsed=").append(toMillis(getElapsedTime())).append("ms");
+		return s.toString();
+	}
+
+	private static long toMillis(final long aNanos) {
+		return aNanos / 1000000L;
+	}
+}
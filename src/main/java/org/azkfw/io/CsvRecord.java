@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+/**
+ * このクラスは、CSV１行分のデータを保持する再利用可能なレコードクラスです。
+ * <p>
+ * {@link CsvBufferedReader#readCsvRecord(CsvRecord)}に同一インスタンスを繰り返し渡すことで、行ごとのオブジェクト生成を抑えられます。
+ * スキーマを設定した場合、列名による取得および{@link #get(int)}による型変換を行えます。
+ * </p>
+ * <p>
+ * このクラスはスレッドセーフではありません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CsvRecord extends AbstractRecord {
+
+	/** スキーマ */
+	private final CsvSchema schema;
+
+	/**
+	 * コンストラクタ
+	 */
+	public CsvRecord() {
+		this(null);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aSchema スキーマ
+	 */
+	public CsvRecord(final CsvSchema aSchema) {
+		super((null != aSchema) ? aSchema.size() : 16);
+		schema = aSchema;
+	}
+
+	/**
+	 * スキーマを取得する。
+	 *
+	 * @return スキーマ
+	 */
+	public CsvSchema getSchema() {
+		return schema;
+	}
+
+	@Override
+	protected CsvColumnType getColumnType(final int aIndex) {
+		if (null == schema || aIndex >= schema.size()) {
+			return null;
+		}
+		return schema.getColumn(aIndex).getType();
+	}
+
+	@Override
+	protected String getDatePattern(final int aIndex) {
+		if (null == schema || aIndex >= schema.size()) {
+			return null;
+		}
+		return schema.getColumn(aIndex).getDatePattern();
+	}
+
+	@Override
+	protected int getColumnIndex(final String aName) {
+		if (null == schema) {
+			throw new IllegalStateException("Schema is not defined.");
+		}
+		return schema.indexOf(aName);
+	}
+
+	/**
+	 * CSV行を解析しレコードに設定する。
+	 *
+	 * @param aLine CSV行文字列
+	 * @param aSeparator 区切り文字
+	 */
+	void parse(final String aLine, final char aSeparator) {
+		clearFields();
+		int length = aLine.length();
+		if (0 == length) {
+			return;
+		}
+		char[] buffer = ensureCapacity(length);
+		int pos = 0;
+		int start = 0;
+		boolean dblFlg = false;
+		for (int i = 0; i < length; i++) {
+			char c = aLine.charAt(i);
+			if (dblFlg) {
+				if ('"' == c) {
+					if (length > i + 1 && '"' == aLine.charAt(i + 1)) {
+						buffer[pos++] = '"';
+						i++;
+					} else {
+						dblFlg = false;
+					}
+				} else {
+					buffer[pos++] = c;
+				}
+			} else {
+				if ('"' == c) {
+					dblFlg = true;
+				} else if (aSeparator == c) {
+					addField(start, pos);
+					start = pos;
+				} else {
+					buffer[pos++] = c;
+				}
+			}
+		}
+		addField(start, pos);
+	}
+}
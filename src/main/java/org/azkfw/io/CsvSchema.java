@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * このクラスは、CSVファイルの列構成を保持するスキーマクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class CsvSchema {
+
+	/** 列定義 */
+	private final List<CsvColumn> columns;
+
+	/** 列名インデックス */
+	private final Map<String, Integer> indexes;
+
+	/** ヘッダー行有無 */
+	private final boolean header;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aColumns 列定義
+	 * @param aHeader 1行目がヘッダー行の場合、<code>true</code>
+	 */
+	public CsvSchema(final List<CsvColumn> aColumns, final boolean aHeader) {
+		columns = Collections.unmodifiableList(new ArrayList<CsvColumn>(aColumns));
+		indexes = new HashMap<String, Integer>();
+		for (int i = 0; i < columns.size(); i++) {
+			String name = columns.get(i).getName();
+			if (null != name && !indexes.containsKey(name)) {
+				indexes.put(name, i);
+			}
+		}
+		header = aHeader;
+	}
+
+	/**
+	 * 列数を取得する。
+	 *
+	 * @return 列数
+	 */
+	public int size() {
+		return columns.size();
+	}
+
+	/**
+	 * 列定義を取得する。
+	 *
+	 * @param aIndex 列番号
+	 * @return 列定義
+	 */
+	public CsvColumn getColumn(final int aIndex) {
+		return columns.get(aIndex);
+	}
+
+	/**
+	 * 列定義一覧を取得する。
+	 *
+	 * @return 列定義一覧
+	 */
+	public List<CsvColumn> getColumns() {
+		return columns;
+	}
+
+	/**
+	 * 列名から列番号を取得する。
+	 *
+	 * @param aName 列名
+	 * @return 列番号、存在しない場合<code>-1</code>
+	 */
+	public int indexOf(final String aName) {
+		Integer index = indexes.get(aName);
+		return (null != index) ? index.intValue() : -1;
+	}
+
+	/**
+	 * 1行目がヘッダー行か判断する。
+	 *
+	 * @return ヘッダー行の場合、<code>true</code>を返す。
+	 */
+	public boolean isHeader() {
+		return header;
+	}
+
+	@Override
+	public String toString() {
+		return columns.toString();
+	}
+}
@@ -0,0 +1,409 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * このクラスは、CSVファイルのレコードを標本抽出して列のデータ型を推定するクラスです。
+ * <p>
+ * 先頭から指定件数のレコードを{@link CsvBufferedReader}で読み込み、さらにファイル内の無作為な位置から指定件数のレコードを抽出して、
+ * 各列の型(int/long/double/boolean/日付/文字列)と空値有無を推定します。推定結果の{@link CsvSchema}は{@link CsvRecord}にそのまま渡せます。
+ * </p>
+ * <p>
+ * 先頭が「0」で始まる2桁以上の数字(例: "00123")はコード値とみなし、文字列型として扱います。
+ * 無作為抽出はバイト位置から次の改行までを読み飛ばすため、ASCII互換の文字エンコーディング(UTF-8、Shift_JIS等)を前提とします。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CsvSchemaInference {
+
+	/** 推定対象の日付パターン */
+	private static final String[] DATE_PATTERNS = { "yyyy-MM-dd", "yyyy/MM/dd", "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss",
+			"yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd HH:mm:ss.SSS", "yyyy/MM/dd HH:mm:ss.SSS" };
+
+	/** 先頭標本件数 */
+	private int headSampleSize;
+
+	/** 無作為標本件数 */
+	private int randomSampleSize;
+
+	/** ヘッダー行有無 */
+	private boolean header;
+
+	/** 区切り文字 */
+	private char separateCharacter;
+
+	/** 乱数 */
+	private Random random;
+
+	/**
+	 * コンストラクタ
+	 */
+	public CsvSchemaInference() {
+		headSampleSize = 1000;
+		randomSampleSize = 1000;
+		header = true;
+		separateCharacter = ',';
+		random = new Random();
+	}
+
+	/**
+	 * 先頭から標本とするレコード数を設定する。
+	 *
+	 * @param aSize レコード数
+	 */
+	public void setHeadSampleSize(final int aSize) {
+		headSampleSize = aSize;
+	}
+
+	/**
+	 * 無作為に標本とするレコード数を設定する。
+	 *
+	 * @param aSize レコード数
+	 */
+	public void setRandomSampleSize(final int aSize) {
+		randomSampleSize = aSize;
+	}
+
+	/**
+	 * ヘッダー行有無を設定する。
+	 *
+	 * @param aHeader 1行目がヘッダー行の場合、<code>true</code>
+	 */
+	public void setHeader(final boolean aHeader) {
+		header = aHeader;
+	}
+
+	/**
+	 * 区切り文字を設定する。
+	 *
+	 * @param aCharacter 区切り文字
+	 */
+	public void setSeparateCharacter(final char aCharacter) {
+		separateCharacter = aCharacter;
+	}
+
+	/**
+	 * 乱数の種を設定する。
+	 *
+	 * @param aSeed 種
+	 */
+	public void setSeed(final long aSeed) {
+		random = new Random(aSeed);
+	}
+
+	/**
+	 * CSVファイルのスキーマを推定する。
+	 *
+	 * @param aFile CSVファイル
+	 * @param aCharset 文字エンコーディング
+	 * @return スキーマ
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public CsvSchema infer(final File aFile, final Charset aCharset) throws IOException {
+		Statistics statistics = new Statistics();
+		CsvBufferedReader reader = new CsvBufferedReader(aFile, aCharset);
+		try {
+			readHead(reader, statistics);
+		} finally {
+			reader.close();
+		}
+
+		if (0 < randomSampleSize && 0 < aFile.length()) {
+			RandomAccessFile raf = new RandomAccessFile(aFile, "r");
+			try {
+				long length = raf.length();
+				for (int i = 0; i < randomSampleSize; i++) {
+					long offset = (long) (random.nextDouble() * length);
+					String line = readLineAfter(raf, offset, aCharset);
+					if (null != line) {
+						statistics.add(CsvBufferedReader.parseLine(line, separateCharacter));
+					}
+				}
+			} finally {
+				raf.close();
+			}
+		}
+		return statistics.toSchema(header);
+	}
+
+	/**
+	 * CSVファイルのスキーマを推定する。
+	 *
+	 * @param aFile CSVファイル
+	 * @param aCharset 文字エンコーディング
+	 * @return スキーマ
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public CsvSchema infer(final File aFile, final String aCharset) throws IOException {
+		return infer(aFile, Charset.forName(aCharset));
+	}
+
+	/**
+	 * リーダーの先頭レコードからスキーマを推定する。
+	 * <p>
+	 * 無作為抽出は行わず、先頭から{@link #setHeadSampleSize(int)}件のみを標本とする。
+	 * </p>
+	 *
+	 * @param aReader リーダー
+	 * @return スキーマ
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public CsvSchema infer(final CsvBufferedReader aReader) throws IOException {
+		Statistics statistics = new Statistics();
+		readHead(aReader, statistics);
+		return statistics.toSchema(header);
+	}
+
+	private void readHead(final CsvBufferedReader aReader, final Statistics aStatistics) throws IOException {
+		aReader.setSeparateCharacter(separateCharacter);
+		if (header) {
+			List<String> names = aReader.readCsvLine();
+			if (null != names) {
+				aStatistics.names = names;
+			}
+		}
+		List<String> data;
+		for (int i = 0; i < headSampleSize && null != (data = aReader.readCsvLine()); i++) {
+			aStatistics.add(data);
+		}
+	}
+
+	/**
+	 * 指定位置以降の次の完全な1行を読み込む。
+	 *
+	 * @param aFile ファイル
+	 * @param aOffset 位置
+	 * @param aCharset 文字エンコーディング
+	 * @return 行文字列、存在しない場合<code>null</code>
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private static String readLineAfter(final RandomAccessFile aFile, final long aOffset, final Charset aCharset) throws IOException {
+		byte[] buffer = new byte[8192];
+		long position = aOffset;
+		boolean skipping = true;
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		while (true) {
+			aFile.seek(position);
+			int size = aFile.read(buffer);
+			if (-1 == size) {
+				break;
+			}
+			int start = 0;
+			for (int i = 0; i < size; i++) {
+				if ('\n' == buffer[i]) {
+					if (skipping) {
+						skipping = false;
+						start = i + 1;
+					} else {
+						line.write(buffer, start, i - start);
+						return toLine(line, aCharset);
+					}
+				}
+			}
+			if (!skipping) {
+				line.write(buffer, start, size - start);
+			}
+			position += size;
+		}
+		return (skipping || 0 == line.size()) ? null : toLine(line, aCharset);
+	}
+
+	private static String toLine(final ByteArrayOutputStream aLine, final Charset aCharset) {
+		String line = new String(aLine.toByteArray(), aCharset);
+		if (line.endsWith("\r")) {
+			line = line.substring(0, line.length() - 1);
+		}
+		return line;
+	}
+
+	/**
+	 * このクラスは、列ごとの推定状態を保持するクラスです。
+	 */
+	private static final class ColumnStatistics {
+
+		private boolean integer = true;
+		private boolean lng = true;
+		private boolean dbl = true;
+		private boolean bool = true;
+		private int datePatterns = (1 << DATE_PATTERNS.length) - 1;
+		private boolean nullable = false;
+		private long values = 0;
+
+		private void add(final String aValue, final SimpleDateFormat[] aFormats) {
+			String value = aValue.trim();
+			if (0 == value.length()) {
+				nullable = true;
+				return;
+			}
+			values++;
+			if (lng || integer) {
+				if (isCode(value)) {
+					integer = false;
+					lng = false;
+				} else {
+					try {
+						long l = Long.parseLong(value);
+						if (Integer.MIN_VALUE > l || Integer.MAX_VALUE < l) {
+							integer = false;
+						}
+					} catch (NumberFormatException ex) {
+						integer = false;
+						lng = false;
+					}
+				}
+			}
+			if (dbl) {
+				if (isCode(value) || !isDecimal(value)) {
+					dbl = false;
+				}
+			}
+			if (bool) {
+				bool = "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value);
+			}
+			if (0 != datePatterns) {
+				for (int i = 0; i < aFormats.length; i++) {
+					if (0 != (datePatterns & (1 << i))) {
+						ParsePosition position = new ParsePosition(0);
+						if (null == aFormats[i].parse(value, position) || value.length() != position.getIndex()) {
+							datePatterns &= ~(1 << i);
+						}
+					}
+				}
+			}
+		}
+
+		private CsvColumn toColumn(final String aName) {
+			if (0 == values) {
+				return new CsvColumn(aName, CsvColumnType.STRING, true);
+			} else if (integer) {
+				return new CsvColumn(aName, CsvColumnType.INTEGER, nullable);
+			} else if (lng) {
+				return new CsvColumn(aName, CsvColumnType.LONG, nullable);
+			} else if (dbl) {
+				return new CsvColumn(aName, CsvColumnType.DOUBLE, nullable);
+			} else if (bool) {
+				return new CsvColumn(aName, CsvColumnType.BOOLEAN, nullable);
+			} else if (0 != datePatterns) {
+				String pattern = DATE_PATTERNS[Integer.numberOfTrailingZeros(datePatterns)];
+				return new CsvColumn(aName, CsvColumnType.DATE, nullable, pattern);
+			}
+			return new CsvColumn(aName, CsvColumnType.STRING, nullable);
+		}
+
+		private static boolean isCode(final String aValue) {
+			int i = ('-' == aValue.charAt(0) || '+' == aValue.charAt(0)) ? 1 : 0;
+			return aValue.length() > i + 1 && '0' == aValue.charAt(i) && Character.isDigit(aValue.charAt(i + 1));
+		}
+
+		private static boolean isDecimal(final String aValue) {
+			int i = 0;
+			int length = aValue.length();
+			if ('-' == aValue.charAt(0) || '+' == aValue.charAt(0)) {
+				i++;
+			}
+			boolean digit = false;
+			boolean dot = false;
+			for (; i < length; i++) {
+				char c = aValue.charAt(i);
+				if ('0' <= c && '9' >= c) {
+					digit = true;
+				} else if ('.' == c && !dot) {
+					dot = true;
+				} else if (('e' == c || 'E' == c) && digit) {
+					try {
+						Double.parseDouble(aValue);
+						return true;
+					} catch (NumberFormatException ex) {
+						return false;
+					}
+				} else {
+					return false;
+				}
+			}
+			return digit;
+		}
+	}
+
+	/**
+	 * このクラスは、標本全体の推定状態を保持するクラスです。
+	 */
+	private static final class Statistics {
+
+		private final SimpleDateFormat[] formats;
+		private final List<ColumnStatistics> columns;
+		private List<String> names;
+		private long records;
+
+		private Statistics() {
+			formats = new SimpleDateFormat[DATE_PATTERNS.length];
+			for (int i = 0; i < DATE_PATTERNS.length; i++) {
+				formats[i] = new SimpleDateFormat(DATE_PATTERNS[i]);
+				formats[i].setLenient(false);
+			}
+			columns = new ArrayList<ColumnStatistics>();
+		}
+
+		private void add(final List<String> aData) {
+			if (aData.isEmpty()) {
+				return;
+			}
+			while (columns.size() < aData.size()) {
+				ColumnStatistics column = new ColumnStatistics();
+				// 途中から出現した列は、それ以前のレコードでは空値とみなす
+				column.nullable = (0 < records);
+				columns.add(column);
+			}
+			for (int i = 0; i < columns.size(); i++) {
+				if (i < aData.size()) {
+					columns.get(i).add(aData.get(i), formats);
+				} else {
+					columns.get(i).nullable = true;
+				}
+			}
+			records++;
+		}
+
+		private CsvSchema toSchema(final boolean aHeader) {
+			int size = Math.max(columns.size(), (null != names) ? names.size() : 0);
+			List<CsvColumn> result = new ArrayList<CsvColumn>(size);
+			for (int i = 0; i < size; i++) {
+				String name = (null != names && i < names.size()) ? names.get(i) : "COLUMN" + (i + 1);
+				if (i < columns.size()) {
+					result.add(columns.get(i).toColumn(name));
+				} else {
+					result.add(new CsvColumn(name, CsvColumnType.STRING, true));
+				}
+			}
+			return new CsvSchema(result, aHeader);
+		}
+	}
+}
@@ -0,0 +1,527 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.azkfw.store.ImmutableStoreBuilder;
+import org.azkfw.store.Store;
+
+/**
+ * このクラスは、CSVファイルをキー列で索引付けしてストアへ一括登録するビルダークラスです。
+ * <p>
+ * 読み込みスレッドが行をブロック単位でまとめ、複数の解析スレッドがブロックごとに解析とキーの抽出を行います。
+ * 登録は呼び出し元スレッドでブロックごとに{@link Store#putAll(Map)}で行い、ブロックは読み込み順に登録するため、
+ * 同じキーの行が複数ある場合はファイル内で後にある行が有効となります。
+ * 登録先には{@link Store}のほか、最小完全ハッシュで索引付けする{@link ImmutableStoreBuilder}を指定できます。
+ * </p>
+ * <p>
+ * キーはキー列の値を区切り文字で連結した文字列、値は行データです。変換処理を設定した場合は変換後のデータを値とし、
+ * 変換結果が<code>null</code>の行およびキー列が存在しない行は登録しません。
+ * </p>
+ *
+ * <pre>
+ * CsvStoreBuilder builder = new CsvStoreBuilder(file, &quot;UTF-8&quot;);
+ * builder.setHeader(true);
+ * builder.setKeyColumns(0, 2);
+ * ConcurrentStore&lt;String, List&lt;String&gt;&gt; store = new ConcurrentStore&lt;String, List&lt;String&gt;&gt;();
+ * CsvPipelineStatistics statistics = builder.build(store);
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CsvStoreBuilder {
+
+	/** 終端を表すブロック */
+	private static final Block END = new Block(-1, 0, null);
+
+	/** CSVファイル */
+	private final File file;
+
+	/** 文字エンコーディング */
+	private final Charset charset;
+
+	/** キー列番号 */
+	private int[] keyColumns;
+
+	/** キー列の区切り文字 */
+	private String keySeparator;
+
+	/** 変換処理 */
+	private CsvTransformer transformer;
+
+	/** 解析スレッド数 */
+	private int threads;
+
+	/** ブロックサイズ */
+	private int blockSize;
+
+	/** キューサイズ */
+	private int queueSize;
+
+	/** ヘッダー行有無 */
+	private boolean header;
+
+	/** 区切り文字 */
+	private char separateCharacter;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aFile CSVファイル
+	 * @param aCharset 文字エンコーディング
+	 */
+	public CsvStoreBuilder(final File aFile, final Charset aCharset) {
+		file = aFile;
+		charset = aCharset;
+		keyColumns = new int[] { 0 };
+		keySeparator = "\t";
+		transformer = null;
+		threads = Runtime.getRuntime().availableProcessors();
+		blockSize = 1024;
+		queueSize = -1;
+		header = false;
+		separateCharacter = ',';
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aFile CSVファイル
+	 * @param aCharset 文字エンコーディング
+	 */
+	public CsvStoreBuilder(final File aFile, final String aCharset) {
+		this(aFile, Charset.forName(aCharset));
+	}
+
+	/**
+	 * キー列番号を設定する。
+	 *
+	 * @param aColumns 列番号(0始まり)
+	 */
+	public void setKeyColumns(final int... aColumns) {
+		if (0 == aColumns.length) {
+			throw new IllegalArgumentException("Key columns are empty.");
+		}
+		keyColumns = aColumns.clone();
+	}
+
+	/**
+	 * 複数のキー列を連結する区切り文字を設定する。
+	 *
+	 * @param aSeparator 区切り文字
+	 */
+	public void setKeySeparator(final String aSeparator) {
+		keySeparator = aSeparator;
+	}
+
+	/**
+	 * 値とする行データの変換処理を設定する。
+	 * <p>
+	 * 複数スレッドから同時に呼び出される。キーは変換前のデータから抽出する。
+	 * </p>
+	 *
+	 * @param aTransformer 変換処理
+	 */
+	public void setTransformer(final CsvTransformer aTransformer) {
+		transformer = aTransformer;
+	}
+
+	/**
+	 * 解析を行うスレッド数を設定する。
+	 *
+	 * @param aThreads スレッド数
+	 */
+	public void setThreads(final int aThreads) {
+		threads = aThreads;
+	}
+
+	/**
+	 * 工程間で受け渡す行数(１回の一括登録の最大件数)を設定する。
+	 *
+	 * @param aSize 行数
+	 */
+	public void setBlockSize(final int aSize) {
+		blockSize = aSize;
+	}
+
+	/**
+	 * 同時に処理中とするブロックの上限数を設定する。
+	 * <p>
+	 * 設定しない場合、解析スレッド数の4倍とする。
+	 * </p>
+	 *
+	 * @param aSize ブロック数
+	 */
+	public void setQueueSize(final int aSize) {
+		queueSize = aSize;
+	}
+
+	/**
+	 * ヘッダー行有無を設定する。
+	 *
+	 * @param aHeader 1行目をヘッダーとして読み飛ばす場合、<code>true</code>
+	 */
+	public void setHeader(final boolean aHeader) {
+		header = aHeader;
+	}
+
+	/**
+	 * 区切り文字を設定する。
+	 *
+	 * @param aCharacter 区切り文字
+	 */
+	public void setSeparateCharacter(final char aCharacter) {
+		separateCharacter = aCharacter;
+	}
+
+	/**
+	 * CSVファイルを読み込み、ストアへ登録する。
+	 *
+	 * @param aStore ストア
+	 * @return 統計情報(書き出し行数は登録した行数)
+	 * @throws IOException 読み込みで問題が発生した場合
+	 * @throws CsvPipelineException 変換または登録に失敗した場合
+	 */
+	public CsvPipelineStatistics build(final Store<String, List<String>> aStore) throws IOException, CsvPipelineException {
+		return execute(new Target() {
+			@Override
+			public void putAll(final Map<String, List<String>> aEntries) {
+				aStore.putAll(aEntries);
+			}
+		});
+	}
+
+	/**
+	 * CSVファイルを読み込み、読み取り専用ストアのビルダーへ登録する。
+	 * <p>
+	 * 値のシリアライザーには{@link org.azkfw.store.StringListSerializer}を使用できる。
+	 * 登録後に{@link ImmutableStoreBuilder#write(File)}でファイルへ書き出すか、{@link ImmutableStoreBuilder#build()}でストアを構築する。
+	 * </p>
+	 *
+	 * @param aBuilder ビルダー
+	 * @return 統計情報(書き出し行数は登録した行数)
+	 * @throws IOException 読み込みで問題が発生した場合
+	 * @throws CsvPipelineException 変換または登録に失敗した場合
+	 */
+	public CsvPipelineStatistics build(final ImmutableStoreBuilder<String, List<String>> aBuilder) throws IOException, CsvPipelineException {
+		return execute(new Target() {
+			@Override
+			public void putAll(final Map<String, List<String>> aEntries) {
+				aBuilder.putAll(aEntries);
+			}
+		});
+	}
+
+	private CsvPipelineStatistics execute(final Target aTarget) throws IOException, CsvPipelineException {
+		final CsvPipelineStatistics statistics = new CsvPipelineStatistics();
+		long start = System.nanoTime();
+
+		final CsvBufferedReader reader = new CsvBufferedReader(file, charset);
+		try {
+			if (header) {
+				reader.readLine();
+			}
+
+			final int workers = Math.max(1, threads);
+			final int size = Math.max(1, blockSize);
+			final Semaphore permits = new Semaphore((0 < queueSize) ? queueSize : workers * 4);
+			final BlockingQueue<Block> parseQueue = new LinkedBlockingQueue<Block>();
+			final BlockingQueue<Block> storeQueue = new LinkedBlockingQueue<Block>();
+			final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+			final AtomicInteger number = new AtomicInteger();
+			ExecutorService executor = Executors.newFixedThreadPool(workers + 1, new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable aRunnable) {
+					Thread thread = new Thread(aRunnable, "CsvStoreBuilder-" + number.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			try {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						read(reader, size, permits, parseQueue, storeQueue, failure, statistics);
+					}
+				});
+				for (int i = 0; i < workers; i++) {
+					executor.execute(new Runnable() {
+						@Override
+						public void run() {
+							parse(parseQueue, storeQueue, failure, statistics);
+						}
+					});
+				}
+				executor.shutdown();
+
+				store(aTarget, permits, storeQueue, failure, statistics);
+			} finally {
+				executor.shutdownNow();
+			}
+		} finally {
+			reader.close();
+			statistics.elapsedTime.set(System.nanoTime() - start);
+		}
+		return statistics;
+	}
+
+	/**
+	 * 読み込み工程
+	 */
+	private void read(final CsvBufferedReader aReader, final int aBlockSize, final Semaphore aPermits, final BlockingQueue<Block> aParseQueue,
+			final BlockingQueue<Block> aStoreQueue, final AtomicReference<Throwable> aFailure, final CsvPipelineStatistics aStatistics) {
+		long sequence = 0;
+		long lineNumber = header ? 1 : 0;
+		try {
+			boolean eof = false;
+			while (!eof && null == aFailure.get()) {
+				long t1 = System.nanoTime();
+				aPermits.acquire();
+				long t2 = System.nanoTime();
+				List<String> lines = new ArrayList<String>(aBlockSize);
+				String line;
+				while (lines.size() < aBlockSize) {
+					if (null == (line = aReader.readLine())) {
+						eof = true;
+						break;
+					}
+					lines.add(line);
+				}
+				long t3 = System.nanoTime();
+				aStatistics.readWaitTime.addAndGet(t2 - t1);
+				aStatistics.readTime.addAndGet(t3 - t2);
+				if (lines.isEmpty()) {
+					aPermits.release();
+				} else {
+					aParseQueue.put(new Block(sequence++, lineNumber + 1, lines));
+					lineNumber += lines.size();
+					aStatistics.readLines.addAndGet(lines.size());
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			fail(aFailure, aStoreQueue, ex);
+		} catch (Throwable ex) {
+			fail(aFailure, aStoreQueue, ex);
+		} finally {
+			aStatistics.blocks.set(sequence);
+			// 解析スレッドへの終端通知と、登録工程へのブロック総数通知
+			aParseQueue.offer(END);
+			aStoreQueue.offer(new Block(-1, sequence, null));
+		}
+	}
+
+	/**
+	 * 解析・キー抽出工程
+	 */
+	private void parse(final BlockingQueue<Block> aParseQueue, final BlockingQueue<Block> aStoreQueue, final AtomicReference<Throwable> aFailure,
+			final CsvPipelineStatistics aStatistics) {
+		try {
+			while (true) {
+				long t1 = System.nanoTime();
+				Block block = aParseQueue.take();
+				aStatistics.parseWaitTime.addAndGet(System.nanoTime() - t1);
+				if (END == block) {
+					aParseQueue.put(END);
+					break;
+				}
+				if (null != aFailure.get()) {
+					break;
+				}
+
+				long parseTime = 0;
+				long transformTime = 0;
+				// ブロック内の重複キーは後の行で上書きする
+				Map<String, List<String>> entries = new LinkedHashMap<String, List<String>>(block.lines.size() * 4 / 3 + 1);
+				StringBuilder key = new StringBuilder();
+				for (int i = 0; i < block.lines.size(); i++) {
+					long t2 = System.nanoTime();
+					List<String> data = CsvBufferedReader.parseLine(block.lines.get(i), separateCharacter);
+					long t3 = System.nanoTime();
+					parseTime += t3 - t2;
+					if (!buildKey(data, key)) {
+						continue;
+					}
+					List<String> value = data;
+					if (null != transformer) {
+						try {
+							value = transformer.transform(data);
+						} catch (CsvPipelineException ex) {
+							throw ex;
+						} catch (RuntimeException ex) {
+							throw new CsvPipelineException("Failed to transform line " + (block.lineNumber + i), ex);
+						}
+						transformTime += System.nanoTime() - t3;
+					}
+					if (null != value) {
+						entries.put(key.toString(), value);
+					}
+				}
+				aStatistics.parseTime.addAndGet(parseTime);
+				aStatistics.transformTime.addAndGet(transformTime);
+
+				block.lines = null;
+				block.entries = entries;
+				aStoreQueue.put(block);
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			fail(aFailure, aStoreQueue, ex);
+		} catch (Throwable ex) {
+			fail(aFailure, aStoreQueue, ex);
+		}
+	}
+
+	/**
+	 * 登録工程
+	 */
+	private void store(final Target aTarget, final Semaphore aPermits, final BlockingQueue<Block> aStoreQueue,
+			final AtomicReference<Throwable> aFailure, final CsvPipelineStatistics aStatistics) throws IOException, CsvPipelineException {
+		Map<Long, Block> pending = new HashMap<Long, Block>();
+		long next = 0;
+		long total = -1;
+		while (-1 == total || next < total) {
+			Block block;
+			long t1 = System.nanoTime();
+			try {
+				block = aStoreQueue.take();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				aFailure.compareAndSet(null, new CsvPipelineException("Interrupted while storing.", ex));
+				throwFailure(aFailure);
+				return;
+			}
+			aStatistics.writeWaitTime.addAndGet(System.nanoTime() - t1);
+			throwFailure(aFailure);
+
+			if (-1 == block.sequence) {
+				total = block.lineNumber;
+				continue;
+			}
+			pending.put(block.sequence, block);
+
+			long t2 = System.nanoTime();
+			while (null != (block = pending.remove(next))) {
+				if (!block.entries.isEmpty()) {
+					try {
+						aTarget.putAll(block.entries);
+					} catch (RuntimeException ex) {
+						aFailure.compareAndSet(null, new CsvPipelineException("Failed to store block at line " + block.lineNumber, ex));
+						throwFailure(aFailure);
+					}
+				}
+				aStatistics.writtenLines.addAndGet(block.entries.size());
+				next++;
+				aPermits.release();
+			}
+			aStatistics.writeTime.addAndGet(System.nanoTime() - t2);
+		}
+		throwFailure(aFailure);
+	}
+
+	/**
+	 * キー列の値からキーを組み立てる。
+	 *
+	 * @return キー列がすべて存在する場合、<code>true</code>
+	 */
+	private boolean buildKey(final List<String> aData, final StringBuilder aKey) {
+		aKey.setLength(0);
+		for (int i = 0; i < keyColumns.length; i++) {
+			if (keyColumns[i] >= aData.size()) {
+				return false;
+			}
+			if (0 < i) {
+				aKey.append(keySeparator);
+			}
+			aKey.append(aData.get(keyColumns[i]));
+		}
+		return true;
+	}
+
+	private static void fail(final AtomicReference<Throwable> aFailure, final BlockingQueue<Block> aStoreQueue, final Throwable aCause) {
+		if (aFailure.compareAndSet(null, aCause)) {
+			// 登録工程を起こす
+			aStoreQueue.offer(END);
+		}
+	}
+
+	private static void throwFailure(final AtomicReference<Throwable> aFailure) throws IOException, CsvPipelineException {
+		Throwable cause = aFailure.get();
+		if (null == cause) {
+			return;
+		}
+		if (cause instanceof IOException) {
+			throw (IOException) cause;
+		}
+		if (cause instanceof CsvPipelineException) {
+			throw (CsvPipelineException) cause;
+		}
+		throw new CsvPipelineException(cause);
+	}
+
+	/**
+	 * このインターフェースは、登録先を表現するインターフェースです。
+	 */
+	private interface Target {
+
+		void putAll(Map<String, List<String>> aEntries);
+	}
+
+	/**
+	 * このクラスは、工程間で受け渡す行のまとまりを表現するクラスです。
+	 */
+	private static final class Block {
+
+		/** 通番 */
+		private final long sequence;
+
+		/** 先頭行番号 */
+		private final long lineNumber;
+
+		/** 行文字列 */
+		private List<String> lines;
+
+		/** キーと値 */
+		private Map<String, List<String>> entries;
+
+		private Block(final long aSequence, final long aLineNumber, final List<String> aLines) {
+			sequence = aSequence;
+			lineNumber = aLineNumber;
+			lines = aLines;
+		}
+	}
+}
@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.util.List;
+
+/**
+ * このインターフェースは、CSV１行データの変換処理を表現するインターフェースです。
+ * <p>
+ * {@link CsvPipeline}から複数スレッドで同時に呼び出されるため、実装はスレッドセーフである必要があります。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public interface CsvTransformer {
+
+	/**
+	 * CSV１行データを変換する。
+	 *
+	 * @param aData CSV１行データ
+	 * @return 変換後のデータ、出力しない場合<code>null</code>
+	 * @throws CsvPipelineException 変換に失敗した場合
+	 */
+	public List<String> transform(final List<String> aData) throws CsvPipelineException;
+}
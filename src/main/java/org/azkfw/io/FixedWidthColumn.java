@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+/**
+ * このクラスは、固定長レコードの列定義を保持するクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class FixedWidthColumn {
+
+	/** 列名 */
+	private final String name;
+
+	/** 開始位置(バイト) */
+	private final int offset;
+
+	/** 長さ(バイト) */
+	private final int length;
+
+	/** データ型 */
+	private final CsvColumnType type;
+
+	/** 日付パターン */
+	private final String datePattern;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aName 列名
+	 * @param aOffset 開始位置(バイト)
+	 * @param aLength 長さ(バイト)
+	 * @param aType データ型
+	 * @param aDatePattern 日付パターン({@link java.text.SimpleDateFormat}形式)
+	 */
+	public FixedWidthColumn(final String aName, final int aOffset, final int aLength, final CsvColumnType aType, final String aDatePattern) {
+		if (0 > aOffset || 0 >= aLength) {
+			throw new IllegalArgumentException("Illegal column range : offset=" + aOffset + ", length=" + aLength);
+		}
+		if (CsvColumnType.DATE == aType && null == aDatePattern) {
+			throw new IllegalArgumentException("Date pattern is required for DATE column.");
+		}
+		name = aName;
+		offset = aOffset;
+		length = aLength;
+		type = aType;
+		datePattern = aDatePattern;
+	}
+
+	/**
+	 * 列名を取得する。
+	 *
+	 * @return 列名
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * 開始位置を取得する。
+	 *
+	 * @return 開始位置(バイト)
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * 長さを取得する。
+	 *
+	 * @return 長さ(バイト)
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * データ型を取得する。
+	 *
+	 * @return データ型
+	 */
+	public CsvColumnType getType() {
+		return type;
+	}
+
+	/**
+	 * 日付パターンを取得する。
+	 *
+	 * @return 日付パターン
+	 */
+	public String getDatePattern() {
+		return datePattern;
+	}
+
+	@Override
+	public String toString() {
+		return name + "[" + offset + "+" + length + "]:" + type;
+	}
+}
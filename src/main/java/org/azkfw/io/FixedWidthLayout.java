@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * このクラスは、固定長レコードの列構成を定義するレイアウトクラスです。
+ * <p>
+ * 列は追加した順に先頭から連続して配置されます。使用しない領域は{@link #addFiller(int)}で読み飛ばします。
+ * 位置と長さはバイト単位で指定します。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class FixedWidthLayout {
+
+	/** 列定義 */
+	private final List<FixedWidthColumn> columns;
+
+	/** 列名インデックス */
+	private final Map<String, Integer> indexes;
+
+	/** 列定義の終端位置 */
+	private int position;
+
+	/** レコード長 */
+	private int recordLength;
+
+	/**
+	 * コンストラクタ
+	 */
+	public FixedWidthLayout() {
+		columns = new ArrayList<FixedWidthColumn>();
+		indexes = new HashMap<String, Integer>();
+		position = 0;
+		recordLength = 0;
+	}
+
+	/**
+	 * 列を追加する。
+	 *
+	 * @param aName 列名
+	 * @param aLength 長さ(バイト)
+	 * @param aType データ型
+	 * @return 本レイアウト
+	 */
+	public FixedWidthLayout addColumn(final String aName, final int aLength, final CsvColumnType aType) {
+		return addColumn(aName, aLength, aType, null);
+	}
+
+	/**
+	 * 列を追加する。
+	 *
+	 * @param aName 列名
+	 * @param aLength 長さ(バイト)
+	 * @param aType データ型
+	 * @param aDatePattern 日付パターン({@link java.text.SimpleDateFormat}形式)
+	 * @return 本レイアウト
+	 */
+	public FixedWidthLayout addColumn(final String aName, final int aLength, final CsvColumnType aType, final String aDatePattern) {
+		FixedWidthColumn column = new FixedWidthColumn(aName, position, aLength, aType, aDatePattern);
+		if (null != aName && !indexes.containsKey(aName)) {
+			indexes.put(aName, columns.size());
+		}
+		columns.add(column);
+		position += aLength;
+		return this;
+	}
+
+	/**
+	 * 読み飛ばす領域を追加する。
+	 *
+	 * @param aLength 長さ(バイト)
+	 * @return 本レイアウト
+	 */
+	public FixedWidthLayout addFiller(final int aLength) {
+		if (0 >= aLength) {
+			throw new IllegalArgumentException("Illegal filler length : " + aLength);
+		}
+		position += aLength;
+		return this;
+	}
+
+	/**
+	 * レコード長を設定する。
+	 * <p>
+	 * 設定しない場合、列定義の終端をレコード長とする。
+	 * </p>
+	 *
+	 * @param aLength レコード長(バイト)
+	 * @return 本レイアウト
+	 */
+	public FixedWidthLayout setRecordLength(final int aLength) {
+		recordLength = aLength;
+		return this;
+	}
+
+	/**
+	 * レコード長を取得する。
+	 *
+	 * @return レコード長(バイト)
+	 */
+	public int getRecordLength() {
+		return Math.max(recordLength, position);
+	}
+
+	/**
+	 * 列数を取得する。
+	 *
+	 * @return 列数
+	 */
+	public int size() {
+		return columns.size();
+	}
+
+	/**
+	 * 列定義を取得する。
+	 *
+	 * @param aIndex 列番号
+	 * @return 列定義
+	 */
+	public FixedWidthColumn getColumn(final int aIndex) {
+		return columns.get(aIndex);
+	}
+
+	/**
+	 * 列定義一覧を取得する。
+	 *
+	 * @return 列定義一覧
+	 */
+	public List<FixedWidthColumn> getColumns() {
+		return Collections.unmodifiableList(columns);
+	}
+
+	/**
+	 * 列名から列番号を取得する。
+	 *
+	 * @param aName 列名
+	 * @return 列番号、存在しない場合<code>-1</code>
+	 */
+	public int indexOf(final String aName) {
+		Integer index = indexes.get(aName);
+		return (null != index) ? index.intValue() : -1;
+	}
+
+	@Override
+	public String toString() {
+		return columns.toString();
+	}
+}
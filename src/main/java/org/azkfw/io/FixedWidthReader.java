@@ -0,0 +1,326 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * このクラスは、固定長ファイルを読み込むリーダークラスです。
+ * <p>
+ * {@link FixedWidthLayout}で定義した列構成に従ってレコードを読み込み、{@link FixedWidthRecord}へ設定します。
+ * ファイルを指定した場合はメモリマップドファイルとして一定サイズごとに領域を割り当てるため、2GBを超えるファイルも扱えます。
+ * </p>
+ * <p>
+ * 既定ではレコード間の改行コード(CR、LF)を読み飛ばします。改行を含まない、またはEBCDIC等のファイルを読み込む場合は
+ * {@link #setSkipLineSeparator(boolean)}で無効にしてください。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class FixedWidthReader implements Closeable {
+
+	/** 既定のマッピングサイズ */
+	private static final long DEFAULT_MAPPING_SIZE = 64L * 1024L * 1024L;
+
+	/** レイアウト */
+	private final FixedWidthLayout layout;
+
+	/** レコード長 */
+	private final int recordLength;
+
+	/** デコーダー */
+	private final CharsetDecoder decoder;
+
+	/** 1バイト文字コード */
+	private final boolean singleByte;
+
+	/** ファイル */
+	private final RandomAccessFile file;
+
+	/** チャネル */
+	private final FileChannel channel;
+
+	/** ストリーム */
+	private final InputStream stream;
+
+	/** ストリーム読み込みバッファ */
+	private byte[] bytes;
+
+	/** ストリーム読み込みバッファのラッパー */
+	private ByteBuffer byteBuffer;
+
+	/** ファイルサイズ */
+	private long fileSize;
+
+	/** マッピング領域 */
+	private MappedByteBuffer window;
+
+	/** マッピング領域の開始位置 */
+	private long windowStart;
+
+	/** マッピングサイズ */
+	private long mappingSize;
+
+	/** 読み込み位置 */
+	private long position;
+
+	/** レコード番号 */
+	private long recordNumber;
+
+	/** 改行読み飛ばし */
+	private boolean skipLineSeparator;
+
+	/** 末尾空白除去 */
+	private boolean trim;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aFile ファイル
+	 * @param aLayout レイアウト
+	 * @param aCharset 文字エンコーディング
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public FixedWidthReader(final File aFile, final FixedWidthLayout aLayout, final Charset aCharset) throws IOException {
+		layout = aLayout;
+		recordLength = aLayout.getRecordLength();
+		decoder = createDecoder(aCharset);
+		singleByte = isSingleByte(aCharset);
+		file = new RandomAccessFile(aFile, "r");
+		channel = file.getChannel();
+		stream = null;
+		fileSize = channel.size();
+		mappingSize = DEFAULT_MAPPING_SIZE;
+		setup();
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aFile ファイル
+	 * @param aLayout レイアウト
+	 * @param aCharset 文字エンコーディング
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public FixedWidthReader(final String aFile, final FixedWidthLayout aLayout, final String aCharset) throws IOException {
+		this(new File(aFile), aLayout, Charset.forName(aCharset));
+	}
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * ストリームから順次読み込む。
+	 * </p>
+	 *
+	 * @param aStream ストリーム
+	 * @param aLayout レイアウト
+	 * @param aCharset 文字エンコーディング
+	 */
+	public FixedWidthReader(final InputStream aStream, final FixedWidthLayout aLayout, final Charset aCharset) {
+		layout = aLayout;
+		recordLength = aLayout.getRecordLength();
+		decoder = createDecoder(aCharset);
+		singleByte = isSingleByte(aCharset);
+		file = null;
+		channel = null;
+		stream = new BufferedInputStream(aStream);
+		bytes = new byte[recordLength];
+		byteBuffer = ByteBuffer.wrap(bytes);
+		setup();
+	}
+
+	private void setup() {
+		if (0 >= recordLength) {
+			throw new IllegalArgumentException("Layout has no columns.");
+		}
+		position = 0;
+		recordNumber = 0;
+		skipLineSeparator = true;
+		trim = true;
+	}
+
+	/**
+	 * 改行コードを読み飛ばすか設定する。
+	 *
+	 * @param aSkip 読み飛ばす場合、<code>true</code>
+	 */
+	public void setSkipLineSeparator(final boolean aSkip) {
+		skipLineSeparator = aSkip;
+	}
+
+	/**
+	 * 列末尾の空白を除去するか設定する。
+	 *
+	 * @param aTrim 除去する場合、<code>true</code>
+	 */
+	public void setTrim(final boolean aTrim) {
+		trim = aTrim;
+	}
+
+	/**
+	 * 一度にマッピングするサイズを設定する。
+	 *
+	 * @param aSize サイズ(バイト)
+	 */
+	public void setMappingSize(final long aSize) {
+		mappingSize = aSize;
+	}
+
+	/**
+	 * レイアウトを取得する。
+	 *
+	 * @return レイアウト
+	 */
+	public FixedWidthLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * 読み込んだレコード数を取得する。
+	 *
+	 * @return レコード数
+	 */
+	public long getRecordNumber() {
+		return recordNumber;
+	}
+
+	/**
+	 * レコードを１件読み込み、レコードへ設定する。
+	 *
+	 * @param aRecord レコード
+	 * @return 読み込んだ場合<code>true</code>、ファイル終端に達した場合<code>false</code>
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public boolean readRecord(final FixedWidthRecord aRecord) throws IOException {
+		ByteBuffer buffer;
+		int offset;
+		if (null != channel) {
+			if (skipLineSeparator) {
+				while (position < fileSize && isLineSeparator(byteAt(position))) {
+					position++;
+				}
+			}
+			if (position >= fileSize) {
+				return false;
+			}
+			if (position + recordLength > fileSize) {
+				throw new IOException("Truncated record at " + position + " (record " + (recordNumber + 1) + ")");
+			}
+			map(position, recordLength);
+			buffer = window;
+			offset = (int) (position - windowStart);
+		} else {
+			int b;
+			do {
+				b = stream.read();
+			} while (skipLineSeparator && -1 != b && isLineSeparator((byte) b));
+			if (-1 == b) {
+				return false;
+			}
+			bytes[0] = (byte) b;
+			int read = 1;
+			while (read < recordLength) {
+				int size = stream.read(bytes, read, recordLength - read);
+				if (-1 == size) {
+					throw new IOException("Truncated record at " + position + " (record " + (recordNumber + 1) + ")");
+				}
+				read += size;
+			}
+			buffer = byteBuffer;
+			offset = 0;
+		}
+
+		if (singleByte) {
+			aRecord.decodeSingleByte(buffer, offset, trim);
+		} else {
+			aRecord.decode(buffer, offset, decoder, trim);
+		}
+		position += recordLength;
+		recordNumber++;
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		if (null != file) {
+			file.close();
+		}
+		if (null != stream) {
+			stream.close();
+		}
+	}
+
+	/**
+	 * 指定位置のバイトを取得する。
+	 *
+	 * @param aPosition 位置
+	 * @return バイト
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private byte byteAt(final long aPosition) throws IOException {
+		map(aPosition, 1);
+		return window.get((int) (aPosition - windowStart));
+	}
+
+	/**
+	 * 指定範囲がマッピング領域に含まれるよう割り当てる。
+	 *
+	 * @param aPosition 位置
+	 * @param aLength 長さ
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private void map(final long aPosition, final int aLength) throws IOException {
+		if (null != window && aPosition >= windowStart && aPosition + aLength <= windowStart + window.limit()) {
+			return;
+		}
+		long size = Math.min(Math.max(mappingSize, recordLength), fileSize - aPosition);
+		size = Math.min(size, Integer.MAX_VALUE);
+		window = channel.map(FileChannel.MapMode.READ_ONLY, aPosition, size);
+		windowStart = aPosition;
+	}
+
+	private static boolean isLineSeparator(final byte aByte) {
+		return '\r' == aByte || '\n' == aByte;
+	}
+
+	private static boolean isSingleByte(final Charset aCharset) {
+		String name = aCharset.name();
+		return "ISO-8859-1".equals(name) || "US-ASCII".equals(name);
+	}
+
+	private static CharsetDecoder createDecoder(final Charset aCharset) {
+		CharsetDecoder decoder = aCharset.newDecoder();
+		decoder.onMalformedInput(CodingErrorAction.REPLACE);
+		decoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		return decoder;
+	}
+}
@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+
+/**
+ * このクラスは、固定長レコード１件分のデータを保持する再利用可能なレコードクラスです。
+ * <p>
+ * {@link FixedWidthReader#readRecord(FixedWidthRecord)}に同一インスタンスを繰り返し渡すことで、レコードごとのオブジェクト生成を抑えられます。
+ * 型付きの取得方法は{@link CsvRecord}と共通です。
+ * </p>
+ * <p>
+ * このクラスはスレッドセーフではありません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class FixedWidthRecord extends AbstractRecord {
+
+	/** レイアウト */
+	private final FixedWidthLayout layout;
+
+	/** 文字バッファのラッパー */
+	private CharBuffer charBuffer;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aLayout レイアウト
+	 */
+	public FixedWidthRecord(final FixedWidthLayout aLayout) {
+		super(aLayout.size());
+		layout = aLayout;
+	}
+
+	/**
+	 * レイアウトを取得する。
+	 *
+	 * @return レイアウト
+	 */
+	public FixedWidthLayout getLayout() {
+		return layout;
+	}
+
+	@Override
+	protected CsvColumnType getColumnType(final int aIndex) {
+		return (aIndex < layout.size()) ? layout.getColumn(aIndex).getType() : null;
+	}
+
+	@Override
+	protected String getDatePattern(final int aIndex) {
+		return (aIndex < layout.size()) ? layout.getColumn(aIndex).getDatePattern() : null;
+	}
+
+	@Override
+	protected int getColumnIndex(final String aName) {
+		return layout.indexOf(aName);
+	}
+
+	/**
+	 * バイト列を１バイト１文字として復号しレコードに設定する。
+	 * <p>
+	 * ISO-8859-1、US-ASCII向けの高速処理です。
+	 * </p>
+	 *
+	 * @param aSource バイトバッファ
+	 * @param aOffset レコード開始位置
+	 * @param aTrim 列末尾の空白を除去する場合、<code>true</code>
+	 */
+	void decodeSingleByte(final ByteBuffer aSource, final int aOffset, final boolean aTrim) {
+		clearFields();
+		char[] buffer = ensureCapacity(layout.getRecordLength());
+		int pos = 0;
+		for (int i = 0; i < layout.size(); i++) {
+			FixedWidthColumn column = layout.getColumn(i);
+			int start = pos;
+			int base = aOffset + column.getOffset();
+			for (int j = 0; j < column.getLength(); j++) {
+				buffer[pos++] = (char) (aSource.get(base + j) & 0xFF);
+			}
+			if (aTrim) {
+				while (pos > start && ' ' == buffer[pos - 1]) {
+					pos--;
+				}
+			}
+			addField(start, pos);
+		}
+	}
+
+	/**
+	 * バイト列を文字エンコーディングに従って復号しレコードに設定する。
+	 *
+	 * @param aSource バイトバッファ
+	 * @param aOffset レコード開始位置
+	 * @param aDecoder デコーダー
+	 * @param aTrim 列末尾の空白を除去する場合、<code>true</code>
+	 */
+	void decode(final ByteBuffer aSource, final int aOffset, final CharsetDecoder aDecoder, final boolean aTrim) {
+		clearFields();
+		int capacity = (int) Math.ceil(layout.getRecordLength() * (double) aDecoder.maxCharsPerByte()) + layout.size();
+		char[] buffer = ensureCapacity(capacity);
+		if (null == charBuffer || charBuffer.array() != buffer) {
+			charBuffer = CharBuffer.wrap(buffer);
+		}
+		charBuffer.clear();
+		int limit = aSource.limit();
+		for (int i = 0; i < layout.size(); i++) {
+			FixedWidthColumn column = layout.getColumn(i);
+			int start = charBuffer.position();
+			int base = aOffset + column.getOffset();
+			aSource.limit(base + column.getLength());
+			aSource.position(base);
+			aDecoder.reset();
+			aDecoder.decode(aSource, charBuffer, true);
+			aDecoder.flush(charBuffer);
+			aSource.limit(limit);
+			int pos = charBuffer.position();
+			if (aTrim) {
+				while (pos > start && ' ' == buffer[pos - 1]) {
+					pos--;
+				}
+				charBuffer.position(pos);
+			}
+			addField(start, pos);
+		}
+	}
+}
@@ -21,13 +21,23 @@ import org.azkfw.lang.LoggingObject;
 
 /**
  * このクラスは、ストア機能の実装を行うための基底クラスです。
+ * <p>
+ * 変更イベントのリスナーを登録できます。イベントを発生させるサブクラスは{@link #isStoreEventSupported()}をオーバーライドします。
+ * イベントを発生させないストアへリスナーを登録した場合は{@link UnsupportedOperationException}を送出します。
+ * </p>
  * 
  * @since 1.0.0
- * @version 1.0.0 2013/01/01
+ * @version 1.6.1 2026/10/19
  * @author Kawakicchi
  */
 public abstract class AbstractStore<K, V> extends LoggingObject implements Store<K, V> {
 
+	/** 通知待ちのイベントのデフォルト上限数 */
+	public static final int DEFAULT_LISTENER_CAPACITY = 64 * 1024;
+
+	/** イベント通知 */
+	private volatile StoreEventDispatcher<K, V> dispatcher;
+
 	/**
 	 * コンストラクタ
 	 */
@@ -52,4 +62,103 @@ public abstract class AbstractStore<K, V> extends LoggingObject implements Store
 	public AbstractStore(final Class<?> aClass) {
 		super(aClass);
 	}
+
+	/**
+	 * 変更イベントのリスナーを登録する。
+	 * <p>
+	 * 通知待ちのイベントが{@link #DEFAULT_LISTENER_CAPACITY}件に達した場合は、最も古いイベントを破棄する。
+	 * </p>
+	 *
+	 * @param aListener リスナー
+	 * @throws UnsupportedOperationException イベントを発生させないストアの場合
+	 */
+	public void addStoreListener(final StoreListener<K, V> aListener) {
+		addStoreListener(aListener, DEFAULT_LISTENER_CAPACITY, OverflowPolicy.DROP_OLDEST);
+	}
+
+	/**
+	 * 変更イベントのリスナーを登録する。
+	 * <p>
+	 * {@link OverflowPolicy#BLOCK}の場合、追い出しなどストア内部のロックを保持した状態で待機することがあるため、
+	 * リスナーから同じストアを更新しないでください。
+	 * </p>
+	 *
+	 * @param aListener リスナー
+	 * @param aCapacity 通知待ちのイベントの上限数
+	 * @param aPolicy 上限に達した場合の扱い
+	 * @throws UnsupportedOperationException イベントを発生させないストアの場合
+	 */
+	public void addStoreListener(final StoreListener<K, V> aListener, final int aCapacity, final OverflowPolicy aPolicy) {
+		if (!isStoreEventSupported()) {
+			throw new UnsupportedOperationException("Store events are not supported : " + getClass().getName());
+		}
+		synchronized (this) {
+			if (null == dispatcher) {
+				dispatcher = new StoreEventDispatcher<K, V>();
+			}
+		}
+		dispatcher.add(aListener, aCapacity, aPolicy);
+	}
+
+	/**
+	 * 変更イベントのリスナーの登録を解除する。
+	 *
+	 * @param aListener リスナー
+	 */
+	public void removeStoreListener(final StoreListener<K, V> aListener) {
+		StoreEventDispatcher<K, V> d = dispatcher;
+		if (null != d) {
+			d.remove(aListener);
+		}
+	}
+
+	/**
+	 * 上限に達したために破棄したイベント数を取得する。
+	 *
+	 * @param aListener リスナー
+	 * @return イベント数
+	 */
+	public long getDroppedEventCount(final StoreListener<K, V> aListener) {
+		StoreEventDispatcher<K, V> d = dispatcher;
+		return (null != d) ? d.getDroppedCount(aListener) : 0;
+	}
+
+	/**
+	 * 変更イベントを発生させるか判断する。
+	 * <p>
+	 * イベントを発生させるサブクラスでオーバーライドする。
+	 * </p>
+	 *
+	 * @return 発生させる場合、<code>true</code>
+	 */
+	protected boolean isStoreEventSupported() {
+		return false;
+	}
+
+	/**
+	 * 変更イベントのリスナーが登録されているか判断する。
+	 * <p>
+	 * イベントの生成を省略するために使用する。
+	 * </p>
+	 *
+	 * @return 登録されている場合、<code>true</code>
+	 */
+	protected final boolean hasStoreListeners() {
+		StoreEventDispatcher<K, V> d = dispatcher;
+		return null != d && d.hasListeners();
+	}
+
+	/**
+	 * 変更イベントを発生させる。
+	 *
+	 * @param aType 種類
+	 * @param aKey キー
+	 * @param aValue 値
+	 */
+	protected final void publish(final StoreEventType aType, final K aKey, final V aValue) {
+		StoreEventDispatcher<K, V> d = dispatcher;
+		if (null != d && d.hasListeners()) {
+			d.publish(new StoreEvent<K, V>(aType, aKey, aValue));
+		}
+	}
 }
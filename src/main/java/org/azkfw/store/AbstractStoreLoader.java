@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * このクラスは、ストアローダーの実装を行うための基底クラスです。
+ * <p>
+ * {@link #loadAll(Collection)}は{@link #load(Object)}を順に呼び出します。まとめて読み込める場合はオーバーライドしてください。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public abstract class AbstractStoreLoader<K, V> implements StoreLoader<K, V> {
+
+	@Override
+	public Map<K, V> loadAll(final Collection<? extends K> aKeys) {
+		Map<K, V> result = new HashMap<K, V>();
+		for (K key : aKeys) {
+			V value = load(key);
+			if (null != value) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+/**
+ * このクラスは、非同期に操作を行うストア機能を表現するインターフェースです。
+ * <p>
+ * 各操作は直ちに{@link StoreFuture}を返し、操作の完了時に結果が設定されます。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public interface AsyncStore<K, V> {
+
+	/**
+	 * 値を非同期に取得する。
+	 *
+	 * @param aKey キー
+	 * @return 値のフューチャー(存在しない場合の結果は<code>null</code>)
+	 */
+	public StoreFuture<V> getAsync(final K aKey);
+
+	/**
+	 * 値を非同期に格納する。
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 * @return 格納完了のフューチャー
+	 */
+	public StoreFuture<Void> putAsync(final K aKey, final V aValue);
+
+	/**
+	 * 値を非同期に削除する。
+	 *
+	 * @param aKey キー
+	 * @return 削除完了のフューチャー
+	 */
+	public StoreFuture<Void> removeAsync(final K aKey);
+}
@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * このクラスは、バイト配列をそのまま格納するシリアライザークラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class ByteArraySerializer implements Serializer<byte[]> {
+
+	@Override
+	public int getSize(final byte[] aValue) {
+		return aValue.length;
+	}
+
+	@Override
+	public void serialize(final byte[] aValue, final ByteBuffer aBuffer) {
+		aBuffer.put(aValue);
+	}
+
+	@Override
+	public byte[] deserialize(final ByteBuffer aBuffer, final int aLength) {
+		byte[] value = new byte[aLength];
+		aBuffer.get(value);
+		return value;
+	}
+}
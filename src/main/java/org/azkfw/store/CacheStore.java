@@ -0,0 +1,525 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * このクラスは、件数上限付きのキャッシュとして利用するストアクラスです。
+ * <p>
+ * 追い出しはW-TinyLFU方式で行います。新規エントリーは小さなウィンドウ(LRU)に入り、
+ * ウィンドウから溢れたエントリーはメイン領域の最も古いエントリーと出現頻度を比較し、頻度の高い方が残ります。
+ * メイン領域は試用(probation)と保護(protected)の２段のLRUで構成され、試用中に再度参照されたエントリーは保護領域へ昇格します。
+ * 一度しか参照されないキーの走査によって、頻繁に参照されるエントリーが追い出されることはありません。
+ * </p>
+ * <p>
+ * 追い出し管理はキーのハッシュ値によって複数のセグメントに分割され、全体を対象とするロックは取得しません。
+ * 参照時の順序更新はセグメントのロックを取得できた場合のみ行い、競合時は記録を省略します。
+ * 上限件数はセグメント単位で管理されるため、キーの偏りによって全体の件数は上限をわずかに下回る場合があります。
+ * </p>
+ * <p>
+ * キーに<code>null</code>は指定できません。
+ * </p>
+ * <p>
+ * 格納・削除・追い出しは{@link #addStoreListener(StoreListener)}で登録したリスナーへ通知します。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CacheStore<K, V> extends AbstractStore<K, V> {
+
+	/** ウィンドウ領域 */
+	private static final int WINDOW = 0;
+
+	/** 試用領域 */
+	private static final int PROBATION = 1;
+
+	/** 保護領域 */
+	private static final int PROTECTED = 2;
+
+	/** ウィンドウ領域の割合 */
+	private static final double WINDOW_RATIO = 0.01;
+
+	/** メイン領域に占める保護領域の割合 */
+	private static final double PROTECTED_RATIO = 0.8;
+
+	/** セグメントあたりの最小件数 */
+	private static final int MIN_SEGMENT_SIZE = 64;
+
+	/** 最大件数 */
+	private final long maximumSize;
+
+	/** データ */
+	private final ConcurrentMap<K, Node<K, V>> data;
+
+	/** セグメント */
+	private final Segment<K, V>[] segments;
+
+	/** セグメント選択用マスク */
+	private final int segmentMask;
+
+	/** 統計 */
+	private volatile StatisticsRecorder recorder;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aMaximumSize 最大件数
+	 */
+	public CacheStore(final long aMaximumSize) {
+		this(aMaximumSize, Runtime.getRuntime().availableProcessors() * 4);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aMaximumSize 最大件数
+	 * @param aConcurrencyLevel 同時更新スレッド数の想定値(セグメント数)
+	 */
+	public CacheStore(final long aMaximumSize, final int aConcurrencyLevel) {
+		super(CacheStore.class);
+		if (0 >= aMaximumSize) {
+			throw new IllegalArgumentException("Maximum size must be positive.");
+		}
+		maximumSize = aMaximumSize;
+		int count = 1;
+		while (count < aConcurrencyLevel && (long) (count << 1) * MIN_SEGMENT_SIZE <= aMaximumSize && count < (1 << 16)) {
+			count <<= 1;
+		}
+		segmentMask = count - 1;
+		@SuppressWarnings("unchecked")
+		Segment<K, V>[] array = (Segment<K, V>[]) new Segment<?, ?>[count];
+		for (int i = 0; i < count; i++) {
+			long size = aMaximumSize / count + ((i < aMaximumSize % count) ? 1 : 0);
+			array[i] = new Segment<K, V>(this, size);
+		}
+		segments = array;
+		data = new ConcurrentHashMap<K, Node<K, V>>((int) Math.min(aMaximumSize, 1 << 20), 0.75f, count);
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		int hash = hash(aKey);
+		segmentFor(hash).put(aKey, hash, aValue);
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		Node<K, V> node = data.get(aKey);
+		if (null == node) {
+			int hash = hash(aKey);
+			segmentFor(hash).recordMiss(hash);
+			return aDefault;
+		}
+		segmentFor(node.hash).recordHit(node);
+		return node.value;
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		return data.containsKey(aKey);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		int hash = hash(aKey);
+		segmentFor(hash).remove(aKey);
+	}
+
+	@Override
+	protected boolean isStoreEventSupported() {
+		return true;
+	}
+
+	/**
+	 * 格納件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public int size() {
+		return data.size();
+	}
+
+	/**
+	 * 最大件数を取得する。
+	 *
+	 * @return 最大件数
+	 */
+	public long getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * 追い出した件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getEvictionCount() {
+		long count = 0;
+		for (Segment<K, V> segment : segments) {
+			count += segment.evictionCount;
+		}
+		return count;
+	}
+
+	/**
+	 * 追い出し件数の記録先を設定する。
+	 * <p>
+	 * 統計の件数の取得元としてこのストアを登録する。
+	 * </p>
+	 *
+	 * @param aRecorder 統計
+	 */
+	public void setStatisticsRecorder(final StatisticsRecorder aRecorder) {
+		recorder = aRecorder;
+		if (null != aRecorder) {
+			aRecorder.setSizeSource(new StoreSizeSource() {
+				@Override
+				public long getSize() {
+					return size();
+				}
+
+				@Override
+				public long getWeight() {
+					return -1;
+				}
+			});
+		}
+	}
+
+	/**
+	 * すべての値を削除する。
+	 */
+	public void clear() {
+		for (Segment<K, V> segment : segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * エントリーが追い出された時に呼び出される。
+	 * <p>
+	 * セグメントのロックを保持した状態で呼び出されるため、時間のかかる処理は行わないでください。
+	 * 呼び出し中はエントリーをまだ参照できるため、別のストアへ移す場合も値が一時的に見えなくなることはありません。
+	 * </p>
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 */
+	protected void onEviction(final K aKey, final V aValue) {
+	}
+
+	private Segment<K, V> segmentFor(final int aHash) {
+		return segments[(aHash >>> 16) & segmentMask];
+	}
+
+	private static int hash(final Object aKey) {
+		if (null == aKey) {
+			throw new NullPointerException("Key is null.");
+		}
+		int h = aKey.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * このクラスは、キャッシュエントリーを表現するクラスです。
+	 * <p>
+	 * 前後のリンクと所属領域はセグメントのロックで保護されます。
+	 * </p>
+	 */
+	private static final class Node<K, V> {
+
+		private final K key;
+
+		private final int hash;
+
+		private volatile V value;
+
+		private int queue;
+
+		private Node<K, V> prev;
+
+		private Node<K, V> next;
+
+		private Node(final K aKey, final int aHash, final V aValue) {
+			key = aKey;
+			hash = aHash;
+			value = aValue;
+		}
+	}
+
+	/**
+	 * このクラスは、アクセス順に並んだ循環リストを表現するクラスです。
+	 */
+	private static final class AccessOrderDeque<K, V> {
+
+		/** 番兵 */
+		private final Node<K, V> head;
+
+		/** 件数 */
+		private long size;
+
+		private AccessOrderDeque() {
+			head = new Node<K, V>(null, 0, null);
+			head.prev = head;
+			head.next = head;
+			size = 0;
+		}
+
+		private void addLast(final Node<K, V> aNode) {
+			aNode.prev = head.prev;
+			aNode.next = head;
+			head.prev.next = aNode;
+			head.prev = aNode;
+			size++;
+		}
+
+		private void unlink(final Node<K, V> aNode) {
+			aNode.prev.next = aNode.next;
+			aNode.next.prev = aNode.prev;
+			aNode.prev = null;
+			aNode.next = null;
+			size--;
+		}
+
+		private void moveToLast(final Node<K, V> aNode) {
+			if (head.prev != aNode) {
+				unlink(aNode);
+				addLast(aNode);
+			}
+		}
+
+		private Node<K, V> peekFirst() {
+			return (head.next != head) ? head.next : null;
+		}
+
+		private void clear() {
+			head.prev = head;
+			head.next = head;
+			size = 0;
+		}
+	}
+
+	/**
+	 * このクラスは、追い出し管理の単位となるセグメントを表現するクラスです。
+	 */
+	private static final class Segment<K, V> extends ReentrantLock {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = 6082461417043536958L;
+
+		private final CacheStore<K, V> store;
+
+		private final long maximumSize;
+
+		private final long maximumWindowSize;
+
+		private final long maximumProtectedSize;
+
+		private final AccessOrderDeque<K, V> window;
+
+		private final AccessOrderDeque<K, V> probation;
+
+		private final AccessOrderDeque<K, V> protect;
+
+		private final FrequencySketch sketch;
+
+		private volatile long evictionCount;
+
+		private Segment(final CacheStore<K, V> aStore, final long aMaximumSize) {
+			store = aStore;
+			maximumSize = Math.max(1, aMaximumSize);
+			maximumWindowSize = Math.max(1, (long) (maximumSize * WINDOW_RATIO));
+			maximumProtectedSize = (long) ((maximumSize - maximumWindowSize) * PROTECTED_RATIO);
+			window = new AccessOrderDeque<K, V>();
+			probation = new AccessOrderDeque<K, V>();
+			protect = new AccessOrderDeque<K, V>();
+			sketch = new FrequencySketch(maximumSize);
+			evictionCount = 0;
+		}
+
+		private void put(final K aKey, final int aHash, final V aValue) {
+			lock();
+			try {
+				Node<K, V> node = store.data.get(aKey);
+				// 通知はロック内で行い、同じキーへの変更および追い出しと順序を揃える
+				if (null != node) {
+					node.value = aValue;
+					onAccess(node);
+					store.publish(StoreEventType.PUT, aKey, aValue);
+					return;
+				}
+				node = new Node<K, V>(aKey, aHash, aValue);
+				node.queue = WINDOW;
+				store.data.put(aKey, node);
+				window.addLast(node);
+				sketch.increment(aHash);
+				store.publish(StoreEventType.PUT, aKey, aValue);
+				evict();
+			} finally {
+				unlock();
+			}
+		}
+
+		private void remove(final K aKey) {
+			lock();
+			try {
+				Node<K, V> node = store.data.remove(aKey);
+				if (null != node) {
+					dequeOf(node).unlink(node);
+					store.publish(StoreEventType.REMOVE, aKey, node.value);
+				}
+			} finally {
+				unlock();
+			}
+		}
+
+		private void recordHit(final Node<K, V> aNode) {
+			if (tryLock()) {
+				try {
+					// ロック取得前に削除されている場合はリンクが外れている
+					if (null != aNode.next) {
+						onAccess(aNode);
+					}
+				} finally {
+					unlock();
+				}
+			}
+		}
+
+		private void recordMiss(final int aHash) {
+			if (tryLock()) {
+				try {
+					sketch.increment(aHash);
+				} finally {
+					unlock();
+				}
+			}
+		}
+
+		private void clear() {
+			lock();
+			try {
+				clearDeque(window);
+				clearDeque(probation);
+				clearDeque(protect);
+			} finally {
+				unlock();
+			}
+		}
+
+		private void clearDeque(final AccessOrderDeque<K, V> aDeque) {
+			Node<K, V> node;
+			while (null != (node = aDeque.peekFirst())) {
+				store.data.remove(node.key, node);
+				aDeque.unlink(node);
+			}
+			aDeque.clear();
+		}
+
+		private void onAccess(final Node<K, V> aNode) {
+			sketch.increment(aNode.hash);
+			if (WINDOW == aNode.queue) {
+				window.moveToLast(aNode);
+			} else if (PROBATION == aNode.queue) {
+				probation.unlink(aNode);
+				aNode.queue = PROTECTED;
+				protect.addLast(aNode);
+				// 保護領域から溢れたエントリーは試用領域へ降格する
+				while (protect.size > maximumProtectedSize) {
+					Node<K, V> demoted = protect.peekFirst();
+					protect.unlink(demoted);
+					demoted.queue = PROBATION;
+					probation.addLast(demoted);
+				}
+			} else {
+				protect.moveToLast(aNode);
+			}
+		}
+
+		private void evict() {
+			// ウィンドウから溢れたエントリーを候補として試用領域へ移す
+			while (window.size > maximumWindowSize) {
+				Node<K, V> candidate = window.peekFirst();
+				window.unlink(candidate);
+				candidate.queue = PROBATION;
+				probation.addLast(candidate);
+
+				if (window.size + probation.size + protect.size > maximumSize) {
+					Node<K, V> victim = probation.peekFirst();
+					if (victim == candidate) {
+						evictNode(candidate);
+					} else if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+						evictNode(victim);
+					} else {
+						evictNode(candidate);
+					}
+				}
+			}
+			while (window.size + probation.size + protect.size > maximumSize) {
+				Node<K, V> victim = probation.peekFirst();
+				if (null == victim) {
+					victim = protect.peekFirst();
+				}
+				if (null == victim) {
+					victim = window.peekFirst();
+				}
+				evictNode(victim);
+			}
+		}
+
+		private void evictNode(final Node<K, V> aNode) {
+			dequeOf(aNode).unlink(aNode);
+			evictionCount++;
+			StatisticsRecorder statistics = store.recorder;
+			if (null != statistics) {
+				statistics.recordEviction();
+			}
+			// 通知先が値を移し終えるまで参照できるよう、通知後にマップから外す
+			store.onEviction(aNode.key, aNode.value);
+			store.data.remove(aNode.key, aNode);
+			store.publish(StoreEventType.EVICT, aNode.key, aNode.value);
+		}
+
+		private AccessOrderDeque<K, V> dequeOf(final Node<K, V> aNode) {
+			if (WINDOW == aNode.queue) {
+				return window;
+			} else if (PROBATION == aNode.queue) {
+				return probation;
+			}
+			return protect;
+		}
+	}
+}
@@ -0,0 +1,232 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * このクラスは、一定サイズ以上の値を圧縮してバイト列のストアへ格納するストアクラスです。
+ * <p>
+ * 値はシリアライザーでバイト列に変換し、閾値以上のサイズであれば圧縮方式で圧縮して格納します。
+ * 圧縮しても十分に小さくならない値はそのまま格納します。展開は{@link #get(Object)}で値を取得する時にのみ行うため、
+ * 格納先が{@link OffHeapStore}や{@link WeightedStore}のような容量制限のあるストアであれば、同じ容量により多くの値を保持できます。
+ * </p>
+ *
+ * <pre>
+ * 格納形式 : 種別(byte、0:無圧縮、1:圧縮)、[圧縮前のバイト数(int)]、バイト列
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CompressingStore<K, V> extends AbstractStore<K, V> {
+
+	/** 無圧縮 */
+	private static final byte RAW = 0;
+
+	/** 圧縮 */
+	private static final byte COMPRESSED = 1;
+
+	/** 未格納を表す値 */
+	private static final byte[] MISSING = new byte[0];
+
+	/** 格納先のストア */
+	private final Store<K, byte[]> store;
+
+	/** 値のシリアライザー */
+	private final Serializer<V> serializer;
+
+	/** 圧縮方式 */
+	private final CompressionCodec codec;
+
+	/** 圧縮前のバイト数の累計 */
+	private final AtomicLong rawBytes;
+
+	/** 格納したバイト数の累計 */
+	private final AtomicLong storedBytes;
+
+	/** 圧縮を行う最小バイト数 */
+	private volatile int threshold;
+
+	/** 圧縮を採用する最大の圧縮率 */
+	private volatile double maxRatio;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aStore 格納先のストア
+	 * @param aSerializer 値のシリアライザー
+	 */
+	public CompressingStore(final Store<K, byte[]> aStore, final Serializer<V> aSerializer) {
+		this(aStore, aSerializer, new LzCodec());
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aStore 格納先のストア
+	 * @param aSerializer 値のシリアライザー
+	 * @param aCodec 圧縮方式
+	 */
+	public CompressingStore(final Store<K, byte[]> aStore, final Serializer<V> aSerializer, final CompressionCodec aCodec) {
+		super(CompressingStore.class);
+		store = aStore;
+		serializer = aSerializer;
+		codec = aCodec;
+		threshold = 256;
+		maxRatio = 0.875;
+		rawBytes = new AtomicLong();
+		storedBytes = new AtomicLong();
+	}
+
+	/**
+	 * 圧縮を行う最小バイト数を設定する。
+	 *
+	 * @param aThreshold バイト数
+	 */
+	public void setThreshold(final int aThreshold) {
+		threshold = aThreshold;
+	}
+
+	/**
+	 * 圧縮を採用する最大の圧縮率を設定する。
+	 * <p>
+	 * 圧縮後のサイズが圧縮前のサイズに対してこの割合を超える場合は、展開の負荷を避けるため無圧縮で格納する。
+	 * </p>
+	 *
+	 * @param aRatio 圧縮率(0～1)
+	 */
+	public void setMaxRatio(final double aRatio) {
+		maxRatio = aRatio;
+	}
+
+	/**
+	 * 格納先のストアを取得する。
+	 *
+	 * @return ストア
+	 */
+	public Store<K, byte[]> getStore() {
+		return store;
+	}
+
+	/**
+	 * これまでに格納した値の圧縮率を取得する。
+	 *
+	 * @return 格納したバイト数 / 圧縮前のバイト数、格納していない場合1
+	 */
+	public double getCompressionRatio() {
+		long raw = rawBytes.get();
+		return (0 == raw) ? 1.0 : (double) storedBytes.get() / raw;
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		store.put(aKey, encode(aValue));
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		Map<K, byte[]> map = new HashMap<K, byte[]>(aMap.size() * 4 / 3 + 1);
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			map.put(entry.getKey(), encode(entry.getValue()));
+		}
+		store.putAll(map);
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		byte[] bytes = store.get(aKey, MISSING);
+		if (MISSING == bytes) {
+			return aDefault;
+		}
+		return decode(bytes);
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		return store.has(aKey);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		store.remove(aKey);
+	}
+
+	/**
+	 * 値を格納形式へ変換する。
+	 *
+	 * @param aValue 値
+	 * @return バイト列
+	 */
+	private byte[] encode(final V aValue) {
+		if (null == aValue) {
+			return null;
+		}
+		int size = serializer.getSize(aValue);
+		ByteBuffer buffer = ByteBuffer.allocate(1 + size);
+		buffer.put(RAW);
+		serializer.serialize(aValue, buffer);
+		byte[] raw = buffer.array();
+		byte[] result = raw;
+		if (threshold <= size) {
+			byte[] compressed = new byte[5 + codec.maxCompressedLength(size)];
+			int length = codec.compress(raw, 1, size, compressed, 5);
+			if (length <= size * maxRatio) {
+				ByteBuffer header = ByteBuffer.wrap(compressed);
+				header.put(COMPRESSED);
+				header.putInt(size);
+				result = Arrays.copyOf(compressed, 5 + length);
+			}
+		}
+		rawBytes.addAndGet(size);
+		storedBytes.addAndGet(result.length);
+		return result;
+	}
+
+	/**
+	 * 格納形式から値を復元する。
+	 *
+	 * @param aBytes バイト列
+	 * @return 値
+	 */
+	private V decode(final byte[] aBytes) {
+		if (null == aBytes) {
+			return null;
+		}
+		if (RAW == aBytes[0]) {
+			return serializer.deserialize(ByteBuffer.wrap(aBytes, 1, aBytes.length - 1), aBytes.length - 1);
+		}
+		if (COMPRESSED != aBytes[0]) {
+			throw new StoreException("Unknown value format : " + aBytes[0]);
+		}
+		int size = ByteBuffer.wrap(aBytes).getInt(1);
+		byte[] raw = new byte[size];
+		codec.decompress(aBytes, 5, aBytes.length - 5, raw, 0, size);
+		return serializer.deserialize(ByteBuffer.wrap(raw), size);
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+/**
+ * このインターフェースは、バイト列の圧縮方式を表現するインターフェースです。
+ * <p>
+ * 実装はスレッドセーフである必要があります。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public interface CompressionCodec {
+
+	/**
+	 * 圧縮後の最大バイト数を取得する。
+	 *
+	 * @param aLength 圧縮前のバイト数
+	 * @return 最大バイト数
+	 */
+	public int maxCompressedLength(final int aLength);
+
+	/**
+	 * バイト列を圧縮する。
+	 * <p>
+	 * 出力先には{@link #maxCompressedLength(int)}以上の領域を確保すること。
+	 * </p>
+	 *
+	 * @param aSrc 圧縮前のバイト列
+	 * @param aSrcOffset 開始位置
+	 * @param aSrcLength バイト数
+	 * @param aDst 出力先
+	 * @param aDstOffset 出力先の開始位置
+	 * @return 圧縮後のバイト数
+	 */
+	public int compress(final byte[] aSrc, final int aSrcOffset, final int aSrcLength, final byte[] aDst, final int aDstOffset);
+
+	/**
+	 * バイト列を展開する。
+	 *
+	 * @param aSrc 圧縮後のバイト列
+	 * @param aSrcOffset 開始位置
+	 * @param aSrcLength バイト数
+	 * @param aDst 出力先
+	 * @param aDstOffset 出力先の開始位置
+	 * @param aDstLength 圧縮前のバイト数
+	 * @throws StoreException 圧縮データが壊れている場合
+	 */
+	public void decompress(final byte[] aSrc, final int aSrcOffset, final int aSrcLength, final byte[] aDst, final int aDstOffset, final int aDstLength);
+}
@@ -0,0 +1,170 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * このクラスは、キーの順序を保持し複数スレッドから同時に利用可能なストアクラスです。
+ * <p>
+ * スキップリストで実装しているため、参照・範囲検索はロックを取得せず、更新と並行して実行できます。
+ * 範囲検索の結果は走査時点の内容を順に返し、走査中の更新は反映される場合とされない場合があります。
+ * </p>
+ * <p>
+ * キー・値に<code>null</code>は指定できません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class ConcurrentSortedStore<K, V> extends AbstractStore<K, V> implements SortedStore<K, V> {
+
+	/** データ */
+	private final ConcurrentNavigableMap<K, V> data;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * キーの自然順序で並べる。
+	 * </p>
+	 */
+	public ConcurrentSortedStore() {
+		this(null);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aComparator キーのコンパレーター
+	 */
+	public ConcurrentSortedStore(final Comparator<? super K> aComparator) {
+		super(ConcurrentSortedStore.class);
+		data = new ConcurrentSkipListMap<K, V>(aComparator);
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		data.put(aKey, aValue);
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		data.putAll(aMap);
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return data.get(aKey);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		V value = data.get(aKey);
+		return (null != value) ? value : aDefault;
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		return data.containsKey(aKey);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		data.remove(aKey);
+	}
+
+	@Override
+	public Iterable<Map.Entry<K, V>> range(final K aFrom, final K aTo) {
+		ConcurrentNavigableMap<K, V> map;
+		if (null != aFrom && null != aTo) {
+			if (0 <= compare(aFrom, aTo)) {
+				return Collections.emptyList();
+			}
+			map = data.subMap(aFrom, true, aTo, false);
+		} else if (null != aFrom) {
+			map = data.tailMap(aFrom, true);
+		} else if (null != aTo) {
+			map = data.headMap(aTo, false);
+		} else {
+			map = data;
+		}
+		return Collections.unmodifiableMap(map).entrySet();
+	}
+
+	@Override
+	public Map.Entry<K, V> first() {
+		return data.firstEntry();
+	}
+
+	@Override
+	public Map.Entry<K, V> last() {
+		return data.lastEntry();
+	}
+
+	@Override
+	public Map.Entry<K, V> floor(final K aKey) {
+		return data.floorEntry(aKey);
+	}
+
+	@Override
+	public Map.Entry<K, V> ceiling(final K aKey) {
+		return data.ceilingEntry(aKey);
+	}
+
+	/**
+	 * 格納件数を取得する。
+	 * <p>
+	 * 全件を走査するため、件数に比例した時間がかかります。
+	 * </p>
+	 *
+	 * @return 件数
+	 */
+	public int size() {
+		return data.size();
+	}
+
+	/**
+	 * ストアが空か判断する。
+	 *
+	 * @return 空の場合、<code>true</code>を返す。
+	 */
+	public boolean isEmpty() {
+		return data.isEmpty();
+	}
+
+	/**
+	 * すべての値を削除する。
+	 */
+	public void clear() {
+		data.clear();
+	}
+
+	@SuppressWarnings("unchecked")
+	private int compare(final K aKey1, final K aKey2) {
+		Comparator<? super K> comparator = data.comparator();
+		if (null != comparator) {
+			return comparator.compare(aKey1, aKey2);
+		}
+		return ((Comparable<? super K>) aKey1).compareTo(aKey2);
+	}
+}
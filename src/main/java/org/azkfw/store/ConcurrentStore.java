@@ -0,0 +1,631 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * このクラスは、複数スレッドから同時に利用可能なオンメモリのストアクラスです。
+ * <p>
+ * キーのハッシュ値によって内部を複数のセグメントに分割し、更新はセグメント単位のロックで行います。
+ * 参照({@link #get(Object)}、{@link #has(Object)})はロックを取得しません。
+ * {@link #putAll(Map)}はキー単位で原子的に反映されますが、マップ全体としての原子性は保証しません。
+ * </p>
+ * <p>
+ * キーに<code>null</code>は指定できません。値には<code>null</code>を格納できます。
+ * </p>
+ * <p>
+ * {@link #snapshot()}で取得したスナップショットは、更新を止めずに取得時点の全件を走査できます。
+ * スナップショットが有効な間、更新はバケット配列と更新対象のチェインのみを複製して行い、マップ全体は複製しません。
+ * </p>
+ * <p>
+ * 格納・削除は{@link #addStoreListener(StoreListener)}で登録したリスナーへ通知します。{@link #clear()}は通知しません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class ConcurrentStore<K, V> extends AbstractStore<K, V> implements SnapshotStore<K, V> {
+
+	/** デフォルトセグメント数 */
+	private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+
+	/** デフォルト初期容量 */
+	private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+	/** 最大セグメント数 */
+	private static final int MAX_SEGMENTS = 1 << 16;
+
+	/** 最大テーブルサイズ */
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	/** 負荷係数 */
+	private static final float LOAD_FACTOR = 0.75f;
+
+	/** セグメント */
+	private final Segment<K, V>[] segments;
+
+	/** セグメント選択用シフト数 */
+	private final int segmentShift;
+
+	/** セグメント選択用マスク */
+	private final int segmentMask;
+
+	/**
+	 * コンストラクタ
+	 */
+	public ConcurrentStore() {
+		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aInitialCapacity 初期容量
+	 */
+	public ConcurrentStore(final int aInitialCapacity) {
+		this(aInitialCapacity, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aInitialCapacity 初期容量
+	 * @param aConcurrencyLevel 同時更新スレッド数の想定値(セグメント数)
+	 */
+	public ConcurrentStore(final int aInitialCapacity, final int aConcurrencyLevel) {
+		super(ConcurrentStore.class);
+		if (0 > aInitialCapacity || 0 >= aConcurrencyLevel) {
+			throw new IllegalArgumentException("Illegal capacity or concurrency level.");
+		}
+		int shift = 0;
+		int size = 1;
+		while (size < Math.min(aConcurrencyLevel, MAX_SEGMENTS)) {
+			shift++;
+			size <<= 1;
+		}
+		segmentShift = 32 - shift;
+		segmentMask = size - 1;
+
+		int capacity = Math.min(aInitialCapacity, MAXIMUM_CAPACITY) / size;
+		if (capacity * size < aInitialCapacity) {
+			capacity++;
+		}
+		int tableSize = 2;
+		while (tableSize < capacity) {
+			tableSize <<= 1;
+		}
+		@SuppressWarnings("unchecked")
+		Segment<K, V>[] array = (Segment<K, V>[]) new Segment<?, ?>[size];
+		for (int i = 0; i < size; i++) {
+			array[i] = new Segment<K, V>(this, tableSize);
+		}
+		segments = array;
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		int hash = hash(aKey);
+		segmentFor(hash).put(aKey, hash, aValue, false);
+	}
+
+	/**
+	 * キーに値が存在しない場合のみ値を格納する。
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 * @return 格納した場合、<code>true</code>を返す。
+	 */
+	public boolean putIfAbsent(final K aKey, final V aValue) {
+		int hash = hash(aKey);
+		return segmentFor(hash).put(aKey, hash, aValue, true);
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		// セグメントごとにまとめ、ロックの取得をセグメントあたり１回にする
+		@SuppressWarnings("unchecked")
+		List<Map.Entry<K, V>>[] groups = new List[segments.length];
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			int index = (hash(entry.getKey()) >>> segmentShift) & segmentMask;
+			if (null == groups[index]) {
+				groups[index] = new ArrayList<Map.Entry<K, V>>();
+			}
+			groups[index].add(entry);
+		}
+		for (int i = 0; i < groups.length; i++) {
+			if (null != groups[i]) {
+				segments[i].putAll(groups[i]);
+			}
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		int hash = hash(aKey);
+		Node<K, V> node = segmentFor(hash).getNode(aKey, hash);
+		return (null != node) ? node.value : null;
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		int hash = hash(aKey);
+		Node<K, V> node = segmentFor(hash).getNode(aKey, hash);
+		return (null != node) ? node.value : aDefault;
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		int hash = hash(aKey);
+		return null != segmentFor(hash).getNode(aKey, hash);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		int hash = hash(aKey);
+		segmentFor(hash).remove(aKey, hash);
+	}
+
+	@Override
+	protected boolean isStoreEventSupported() {
+		return true;
+	}
+
+	/**
+	 * 格納件数を取得する。
+	 * <p>
+	 * 更新中の場合、値は概算となります。
+	 * </p>
+	 *
+	 * @return 件数
+	 */
+	public int size() {
+		long size = 0;
+		for (Segment<K, V> segment : segments) {
+			size += segment.count;
+		}
+		return (int) Math.min(Integer.MAX_VALUE, size);
+	}
+
+	/**
+	 * ストアが空か判断する。
+	 *
+	 * @return 空の場合、<code>true</code>を返す。
+	 */
+	public boolean isEmpty() {
+		for (Segment<K, V> segment : segments) {
+			if (0 != segment.count) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * すべての値を削除する。
+	 */
+	public void clear() {
+		for (Segment<K, V> segment : segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * 現時点の全件のスナップショットを取得する。
+	 * <p>
+	 * 取得時に全セグメントのロックを短時間保持してバケット配列を確定させます。走査中の更新は待機させません。
+	 * 走査後は{@link StoreSnapshot#close()}を呼び出してください。
+	 * </p>
+	 *
+	 * @return スナップショット
+	 */
+	@Override
+	public StoreSnapshot<K, V> snapshot() {
+		@SuppressWarnings("unchecked")
+		AtomicReferenceArray<Node<K, V>>[] tables = (AtomicReferenceArray<Node<K, V>>[]) new AtomicReferenceArray<?>[segments.length];
+		long size = 0;
+		for (Segment<K, V> segment : segments) {
+			segment.lock();
+		}
+		try {
+			for (int i = 0; i < segments.length; i++) {
+				tables[i] = segments[i].share();
+				size += segments[i].count;
+			}
+		} finally {
+			for (Segment<K, V> segment : segments) {
+				segment.unlock();
+			}
+		}
+		return new Snapshot<K, V>(segments, tables, (int) Math.min(Integer.MAX_VALUE, size));
+	}
+
+	private Segment<K, V> segmentFor(final int aHash) {
+		return segments[(aHash >>> segmentShift) & segmentMask];
+	}
+
+	/**
+	 * キーのハッシュ値を攪拌する。
+	 * <p>
+	 * 上位ビットをセグメント選択、下位ビットをテーブル位置に使用するため、全ビットに偏りが出ないようにする。
+	 * </p>
+	 */
+	private static int hash(final Object aKey) {
+		if (null == aKey) {
+			throw new NullPointerException("Key is null.");
+		}
+		int h = aKey.hashCode();
+		h ^= (h >>> 16);
+		h *= 0x85EBCA6B;
+		h ^= (h >>> 13);
+		h *= 0xC2B2AE35;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * このクラスは、ハッシュチェインの要素を表現するクラスです。
+	 * <p>
+	 * ロックなしで参照できるよう、値以外のフィールドは不変とし、削除時はチェインの前方を複製します。
+	 * 値はスナップショットから参照されていない要素(生成後にスナップショットを取得していない要素)のみ直接更新します。
+	 * </p>
+	 */
+	private static final class Node<K, V> {
+
+		private final int hash;
+
+		private final K key;
+
+		private volatile V value;
+
+		private final Node<K, V> next;
+
+		/** 生成時のセグメントの世代 */
+		private final int epoch;
+
+		private Node(final int aHash, final K aKey, final V aValue, final Node<K, V> aNext, final int aEpoch) {
+			hash = aHash;
+			key = aKey;
+			value = aValue;
+			next = aNext;
+			epoch = aEpoch;
+		}
+	}
+
+	/**
+	 * このクラスは、ロック単位となるハッシュテーブルの断片を表現するクラスです。
+	 */
+	private static final class Segment<K, V> extends ReentrantLock {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = -2486447413526377312L;
+
+		/** ストア(変更の通知先) */
+		private final ConcurrentStore<K, V> store;
+
+		/** テーブル */
+		private volatile AtomicReferenceArray<Node<K, V>> table;
+
+		/** 件数 */
+		private volatile int count;
+
+		/** 拡張閾値 */
+		private int threshold;
+
+		/** 世代(スナップショット取得ごとに加算) */
+		private int epoch;
+
+		/** 有効なスナップショット数 */
+		private int snapshots;
+
+		/** 現在のバケット配列をスナップショットと共有している */
+		private boolean shared;
+
+		private Segment(final ConcurrentStore<K, V> aStore, final int aCapacity) {
+			store = aStore;
+			table = new AtomicReferenceArray<Node<K, V>>(aCapacity);
+			threshold = (int) (aCapacity * LOAD_FACTOR);
+		}
+
+		private Node<K, V> getNode(final Object aKey, final int aHash) {
+			AtomicReferenceArray<Node<K, V>> tab = table;
+			Node<K, V> node = tab.get(aHash & (tab.length() - 1));
+			while (null != node) {
+				if (node.hash == aHash && (node.key == aKey || node.key.equals(aKey))) {
+					return node;
+				}
+				node = node.next;
+			}
+			return null;
+		}
+
+		private boolean put(final K aKey, final int aHash, final V aValue, final boolean aOnlyIfAbsent) {
+			lock();
+			try {
+				return putLocked(aKey, aHash, aValue, aOnlyIfAbsent);
+			} finally {
+				unlock();
+			}
+		}
+
+		private void putAll(final List<Map.Entry<K, V>> aEntries) {
+			lock();
+			try {
+				for (Map.Entry<K, V> entry : aEntries) {
+					K key = entry.getKey();
+					putLocked(key, hash(key), entry.getValue(), false);
+				}
+			} finally {
+				unlock();
+			}
+		}
+
+		/**
+		 * 値を格納し、ロック内で変更を通知する。ロックを保持した状態で呼び出すこと。
+		 * <p>
+		 * ロック内で通知することで、同じキーへの変更は格納と同じ順序で通知される。
+		 * </p>
+		 */
+		private boolean putLocked(final K aKey, final int aHash, final V aValue, final boolean aOnlyIfAbsent) {
+			AtomicReferenceArray<Node<K, V>> tab = table;
+			int index = aHash & (tab.length() - 1);
+			Node<K, V> first = tab.get(index);
+			for (Node<K, V> node = first; null != node; node = node.next) {
+				if (node.hash == aHash && (node.key == aKey || node.key.equals(aKey))) {
+					if (aOnlyIfAbsent) {
+						return false;
+					}
+					if (0 == snapshots || node.epoch == epoch) {
+						node.value = aValue;
+					} else {
+						// スナップショットから参照されている要素は置き換える
+						writableTable().set(index, replace(first, node, new Node<K, V>(aHash, aKey, aValue, node.next, epoch)));
+					}
+					store.publish(StoreEventType.PUT, aKey, aValue);
+					return true;
+				}
+			}
+			int c = count + 1;
+			if (c > threshold && tab.length() < MAXIMUM_CAPACITY) {
+				tab = rehash(tab);
+				index = aHash & (tab.length() - 1);
+				first = tab.get(index);
+			} else {
+				tab = writableTable();
+			}
+			tab.set(index, new Node<K, V>(aHash, aKey, aValue, first, epoch));
+			count = c;
+			store.publish(StoreEventType.PUT, aKey, aValue);
+			return true;
+		}
+
+		private void remove(final K aKey, final int aHash) {
+			lock();
+			try {
+				AtomicReferenceArray<Node<K, V>> tab = table;
+				int index = aHash & (tab.length() - 1);
+				Node<K, V> first = tab.get(index);
+				Node<K, V> target = first;
+				while (null != target && !(target.hash == aHash && (target.key == aKey || target.key.equals(aKey)))) {
+					target = target.next;
+				}
+				if (null == target) {
+					return;
+				}
+				writableTable().set(index, replace(first, target, target.next));
+				count = count - 1;
+				store.publish(StoreEventType.REMOVE, aKey, target.value);
+			} finally {
+				unlock();
+			}
+		}
+
+		private void clear() {
+			lock();
+			try {
+				table = new AtomicReferenceArray<Node<K, V>>(table.length());
+				shared = false;
+				count = 0;
+			} finally {
+				unlock();
+			}
+		}
+
+		/**
+		 * スナップショットと共有するバケット配列を取得する。ロックを保持した状態で呼び出すこと。
+		 *
+		 * @return バケット配列
+		 */
+		private AtomicReferenceArray<Node<K, V>> share() {
+			epoch++;
+			snapshots++;
+			shared = true;
+			return table;
+		}
+
+		/**
+		 * スナップショットの終了を通知する。
+		 */
+		private void release() {
+			lock();
+			try {
+				snapshots--;
+			} finally {
+				unlock();
+			}
+		}
+
+		/**
+		 * 更新可能なバケット配列を取得する。ロックを保持した状態で呼び出すこと。
+		 * <p>
+		 * スナップショットと共有している場合は配列を複製する。チェインの要素は複製しません。
+		 * </p>
+		 *
+		 * @return バケット配列
+		 */
+		private AtomicReferenceArray<Node<K, V>> writableTable() {
+			if (!shared) {
+				return table;
+			}
+			AtomicReferenceArray<Node<K, V>> tab = table;
+			int length = tab.length();
+			AtomicReferenceArray<Node<K, V>> copy = new AtomicReferenceArray<Node<K, V>>(length);
+			for (int i = 0; i < length; i++) {
+				copy.lazySet(i, tab.get(i));
+			}
+			table = copy;
+			shared = false;
+			return copy;
+		}
+
+		/**
+		 * チェイン中の要素を置き換えた新しいチェインを生成する。対象より前方の要素を複製します。
+		 *
+		 * @param aFirst チェインの先頭
+		 * @param aTarget 置き換え対象
+		 * @param aReplacement 置き換え後のチェイン(対象の後方を含む)
+		 * @return 新しいチェインの先頭
+		 */
+		private Node<K, V> replace(final Node<K, V> aFirst, final Node<K, V> aTarget, final Node<K, V> aReplacement) {
+			Node<K, V> head = aReplacement;
+			for (Node<K, V> node = aFirst; node != aTarget; node = node.next) {
+				head = new Node<K, V>(node.hash, node.key, node.value, head, epoch);
+			}
+			return head;
+		}
+
+		/**
+		 * テーブルを２倍に拡張する。
+		 * <p>
+		 * 旧テーブルは変更しないため、拡張中も参照スレッドは旧テーブルを読み続けられます。
+		 * </p>
+		 */
+		private AtomicReferenceArray<Node<K, V>> rehash(final AtomicReferenceArray<Node<K, V>> aTable) {
+			int oldCapacity = aTable.length();
+			int newCapacity = oldCapacity << 1;
+			int mask = newCapacity - 1;
+			AtomicReferenceArray<Node<K, V>> newTable = new AtomicReferenceArray<Node<K, V>>(newCapacity);
+			for (int i = 0; i < oldCapacity; i++) {
+				for (Node<K, V> node = aTable.get(i); null != node; node = node.next) {
+					int index = node.hash & mask;
+					newTable.set(index, new Node<K, V>(node.hash, node.key, node.value, newTable.get(index), epoch));
+				}
+			}
+			table = newTable;
+			shared = false;
+			threshold = (int) (newCapacity * LOAD_FACTOR);
+			return newTable;
+		}
+	}
+
+	/**
+	 * このクラスは、取得時点のバケット配列を保持するスナップショットクラスです。
+	 */
+	private static final class Snapshot<K, V> implements StoreSnapshot<K, V> {
+
+		private final Segment<K, V>[] segments;
+
+		private final AtomicReferenceArray<Node<K, V>>[] tables;
+
+		private final int size;
+
+		private volatile boolean closed;
+
+		private Snapshot(final Segment<K, V>[] aSegments, final AtomicReferenceArray<Node<K, V>>[] aTables, final int aSize) {
+			segments = aSegments;
+			tables = aTables;
+			size = aSize;
+			closed = false;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			if (closed) {
+				throw new IllegalStateException("Snapshot is closed.");
+			}
+			return new Iterator<Map.Entry<K, V>>() {
+
+				private int segment = 0;
+
+				private int bucket = -1;
+
+				private Node<K, V> next = advance(null);
+
+				@Override
+				public boolean hasNext() {
+					return null != next;
+				}
+
+				@Override
+				public Map.Entry<K, V> next() {
+					if (null == next) {
+						throw new NoSuchElementException();
+					}
+					if (closed) {
+						throw new IllegalStateException("Snapshot is closed.");
+					}
+					Node<K, V> node = next;
+					next = advance(node.next);
+					return new AbstractMap.SimpleImmutableEntry<K, V>(node.key, node.value);
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+
+				private Node<K, V> advance(final Node<K, V> aNode) {
+					Node<K, V> node = aNode;
+					while (null == node && segment < tables.length) {
+						AtomicReferenceArray<Node<K, V>> tab = tables[segment];
+						if (++bucket < tab.length()) {
+							node = tab.get(bucket);
+						} else {
+							segment++;
+							bucket = -1;
+						}
+					}
+					return node;
+				}
+			};
+		}
+
+		@Override
+		public synchronized void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			for (Segment<K, V> segment : segments) {
+				segment.release();
+			}
+		}
+	}
+}
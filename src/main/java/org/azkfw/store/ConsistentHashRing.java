@@ -0,0 +1,238 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * このクラスは、仮想ノードを用いたコンシステントハッシュ法でキーの担当ノードを決定するクラスです。
+ * <p>
+ * 各ノードを名前から求めた複数の位置(仮想ノード)に配置し、キーのハッシュ値から時計回りに最初に見つかったノードを担当とします。
+ * ノードを追加・削除した場合、担当が変わるキーは追加・削除したノードに関係するものに限られます。
+ * </p>
+ * <p>
+ * 参照は不変のスナップショットに対して行うため、ロックを使用しません。ノードの追加・削除はスナップショットを作り直します。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class ConsistentHashRing<N> {
+
+	/** 既定の仮想ノード数 */
+	public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+	/** ノードあたりの仮想ノード数 */
+	private final int virtualNodes;
+
+	/** ノード(追加順) */
+	private final Map<String, N> nodes;
+
+	/** スナップショット */
+	private volatile Ring<N> ring;
+
+	/**
+	 * コンストラクタ
+	 */
+	public ConsistentHashRing() {
+		this(DEFAULT_VIRTUAL_NODES);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aVirtualNodes ノードあたりの仮想ノード数
+	 */
+	public ConsistentHashRing(final int aVirtualNodes) {
+		if (0 >= aVirtualNodes) {
+			throw new IllegalArgumentException("Virtual nodes must be positive.");
+		}
+		virtualNodes = aVirtualNodes;
+		nodes = new LinkedHashMap<String, N>();
+		ring = new Ring<N>(new long[0], new Object[0]);
+	}
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * 同じノード構成を持つリングを複製する。
+	 * </p>
+	 *
+	 * @param aRing リング
+	 */
+	public ConsistentHashRing(final ConsistentHashRing<N> aRing) {
+		synchronized (aRing) {
+			virtualNodes = aRing.virtualNodes;
+			nodes = new LinkedHashMap<String, N>(aRing.nodes);
+			ring = aRing.ring;
+		}
+	}
+
+	/**
+	 * ノードを追加する。
+	 *
+	 * @param aName ノード名(リング上の位置の決定に使用)
+	 * @param aNode ノード
+	 */
+	public synchronized void addNode(final String aName, final N aNode) {
+		if (nodes.containsKey(aName)) {
+			throw new IllegalArgumentException("Duplicate node name : " + aName);
+		}
+		nodes.put(aName, aNode);
+		rebuild();
+	}
+
+	/**
+	 * ノードを削除する。
+	 *
+	 * @param aName ノード名
+	 * @return 削除したノード、存在しない場合<code>null</code>
+	 */
+	public synchronized N removeNode(final String aName) {
+		N node = nodes.remove(aName);
+		if (null != node) {
+			rebuild();
+		}
+		return node;
+	}
+
+	/**
+	 * ノードを取得する。
+	 *
+	 * @param aName ノード名
+	 * @return ノード
+	 */
+	public synchronized N getNode(final String aName) {
+		return nodes.get(aName);
+	}
+
+	/**
+	 * ノード名の一覧を取得する。
+	 *
+	 * @return ノード名
+	 */
+	public synchronized List<String> getNodeNames() {
+		return Collections.unmodifiableList(new ArrayList<String>(nodes.keySet()));
+	}
+
+	/**
+	 * ノード数を取得する。
+	 *
+	 * @return ノード数
+	 */
+	public synchronized int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * キーの担当ノードを取得する。
+	 *
+	 * @param aKey キー
+	 * @return ノード、ノードが存在しない場合<code>null</code>
+	 */
+	public N locate(final Object aKey) {
+		if (null == aKey) {
+			throw new NullPointerException("Key is null.");
+		}
+		return ring.locate(mix(aKey.hashCode()));
+	}
+
+	private void rebuild() {
+		int size = nodes.size() * virtualNodes;
+		long[] points = new long[size];
+		int index = 0;
+		for (String name : nodes.keySet()) {
+			for (int i = 0; i < virtualNodes; i++) {
+				points[index++] = hash(name + "#" + i);
+			}
+		}
+		long[] sorted = points.clone();
+		Arrays.sort(sorted);
+		Object[] owners = new Object[size];
+		Map<Long, N> pointOwners = new LinkedHashMap<Long, N>();
+		index = 0;
+		for (Map.Entry<String, N> entry : nodes.entrySet()) {
+			for (int i = 0; i < virtualNodes; i++) {
+				Long point = Long.valueOf(points[index++]);
+				// 位置が衝突した場合は先に追加したノードを優先する
+				if (!pointOwners.containsKey(point)) {
+					pointOwners.put(point, entry.getValue());
+				}
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			owners[i] = pointOwners.get(Long.valueOf(sorted[i]));
+		}
+		ring = new Ring<N>(sorted, owners);
+	}
+
+	/**
+	 * 文字列の64bitハッシュ値(FNV-1a)を算出する。
+	 */
+	private static long hash(final String aValue) {
+		long h = 0xCBF29CE484222325L;
+		for (int i = 0; i < aValue.length(); i++) {
+			h ^= aValue.charAt(i);
+			h *= 0x100000001B3L;
+		}
+		return mix(h);
+	}
+
+	private static long mix(final long aValue) {
+		long z = aValue;
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return z ^ (z >>> 33);
+	}
+
+	/**
+	 * このクラスは、リング上の位置と担当ノードの不変のスナップショットクラスです。
+	 */
+	private static final class Ring<N> {
+
+		private final long[] points;
+
+		private final Object[] owners;
+
+		private Ring(final long[] aPoints, final Object[] aOwners) {
+			points = aPoints;
+			owners = aOwners;
+		}
+
+		@SuppressWarnings("unchecked")
+		private N locate(final long aHash) {
+			if (0 == points.length) {
+				return null;
+			}
+			int index = Arrays.binarySearch(points, aHash);
+			if (0 > index) {
+				index = -index - 1;
+				if (index == points.length) {
+					index = 0;
+				}
+			}
+			return (N) owners[index];
+		}
+	}
+}
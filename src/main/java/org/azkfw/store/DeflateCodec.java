@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * このクラスは、Deflate形式で圧縮を行う圧縮方式クラスです。
+ * <p>
+ * 圧縮率を優先する場合に使用します。ヘッダーおよびチェックサムは付与しません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class DeflateCodec implements CompressionCodec {
+
+	/** 圧縮レベル */
+	private final int level;
+
+	/**
+	 * コンストラクタ
+	 */
+	public DeflateCodec() {
+		this(Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aLevel 圧縮レベル(0～9、{@link Deflater#DEFAULT_COMPRESSION})
+	 */
+	public DeflateCodec(final int aLevel) {
+		level = aLevel;
+	}
+
+	@Override
+	public int maxCompressedLength(final int aLength) {
+		// zlibのcompressBoundと同じ見積もり
+		return aLength + (aLength >>> 12) + (aLength >>> 14) + (aLength >>> 25) + 13;
+	}
+
+	@Override
+	public int compress(final byte[] aSrc, final int aSrcOffset, final int aSrcLength, final byte[] aDst, final int aDstOffset) {
+		Deflater deflater = new Deflater(level, true);
+		try {
+			deflater.setInput(aSrc, aSrcOffset, aSrcLength);
+			deflater.finish();
+			int offset = aDstOffset;
+			while (!deflater.finished()) {
+				if (offset >= aDst.length) {
+					throw new StoreException("Insufficient output buffer.");
+				}
+				offset += deflater.deflate(aDst, offset, aDst.length - offset);
+			}
+			return offset - aDstOffset;
+		} finally {
+			deflater.end();
+		}
+	}
+
+	@Override
+	public void decompress(final byte[] aSrc, final int aSrcOffset, final int aSrcLength, final byte[] aDst, final int aDstOffset, final int aDstLength) {
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(aSrc, aSrcOffset, aSrcLength);
+			int offset = aDstOffset;
+			int end = aDstOffset + aDstLength;
+			while (offset < end) {
+				int size = inflater.inflate(aDst, offset, end - offset);
+				if (0 == size && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+					throw new StoreException("Broken compressed data.");
+				}
+				offset += size;
+			}
+		} catch (DataFormatException ex) {
+			throw new StoreException("Broken compressed data.", ex);
+		} finally {
+			inflater.end();
+		}
+	}
+}
@@ -0,0 +1,34 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+/**
+ * この列挙型は、書き込みをディスクへ同期する水準を表現する列挙型です。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public enum Durability {
+	/** 同期しない(OSのキャッシュへの書き込みのみ、プロセス異常終了には耐えるがOS停止時は失われる) */
+	NONE,
+	/** 一定間隔でまとめて同期する(OS停止時は直近の間隔分が失われる) */
+	ASYNC,
+	/** 書き込みごとに同期が完了するまで待機する(並行する書き込みの同期はまとめて行う) */
+	SYNC;
+}
@@ -0,0 +1,371 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * このクラスは、更新を先行書き込みログへ記録してからストアへ反映する永続化ストアクラスです。
+ * <p>
+ * 更新はまず{@link WriteAheadLog}へ追記し、その後に内部のストアへ反映します。反映はログへの追記と同じ書き込みロック内で行うため、
+ * 同じキーへの並行した更新もログの順序どおりに反映され、復元後の状態と一致します。{@link #checkpoint()}で内部のストアの
+ * スナップショットをファイルへ書き出すと、それ以前のログは削除されます。起動時はスナップショットを読み込み、
+ * それ以降のログを再生することで、異常終了の直前までの状態を復元します。
+ * </p>
+ * <p>
+ * 同期水準は{@link #setDurability(Durability)}で指定します。{@link Durability#SYNC}の場合、更新メソッドはログの同期が完了してから戻りますが、
+ * 内部のストアへの反映は同期の前に行うため、他のスレッドからは同期の完了前に更新内容を参照できます。
+ * </p>
+ *
+ * <pre>
+ * ログレコード形式 : 操作(byte)、キー、値(格納時のみ)
+ * スナップショット形式 : レコード番号(long)、{@link StoreExporter}の出力
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class DurableStore<K, V> extends AbstractStore<K, V> implements Closeable {
+
+	/** スナップショットファイル名 */
+	public static final String SNAPSHOT_FILE = "snapshot.dat";
+
+	/** ログのディレクトリ名 */
+	public static final String LOG_DIRECTORY = "wal";
+
+	/** ディレクトリ */
+	private final File directory;
+
+	/** ストア */
+	private final SnapshotStore<K, V> store;
+
+	/** キーのシリアライザー */
+	private final Serializer<K> keySerializer;
+
+	/** 値のシリアライザー */
+	private final Serializer<V> valueSerializer;
+
+	/** 先行書き込みログ */
+	private final WriteAheadLog log;
+
+	/** チェックポイントロック(更新は共有、チェックポイントは排他) */
+	private final ReadWriteLock checkpointLock;
+
+	/** 同期水準 */
+	private volatile Durability durability;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * ディレクトリ内のスナップショットとログからストアの内容を復元する。
+	 * </p>
+	 *
+	 * @param aDirectory ディレクトリ
+	 * @param aStore ストア(空であること)
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public DurableStore(final File aDirectory, final SnapshotStore<K, V> aStore, final Serializer<K> aKeySerializer,
+			final Serializer<V> aValueSerializer) throws IOException {
+		super(DurableStore.class);
+		directory = aDirectory;
+		store = aStore;
+		keySerializer = aKeySerializer;
+		valueSerializer = aValueSerializer;
+		checkpointLock = new ReentrantReadWriteLock();
+		durability = Durability.SYNC;
+
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Failed to create directory : " + directory.getPath());
+		}
+		log = new WriteAheadLog(new File(directory, LOG_DIRECTORY));
+		try {
+			recover();
+		} catch (IOException ex) {
+			log.close();
+			throw ex;
+		} catch (RuntimeException ex) {
+			log.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * 同期水準を設定する。
+	 *
+	 * @param aDurability 同期水準
+	 */
+	public void setDurability(final Durability aDurability) {
+		durability = aDurability;
+	}
+
+	/**
+	 * 先行書き込みログを取得する。
+	 *
+	 * @return 先行書き込みログ
+	 */
+	public WriteAheadLog getWriteAheadLog() {
+		return log;
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(StoreProtocol.PUT);
+			StoreProtocol.write(out, aKey, keySerializer);
+			StoreProtocol.write(out, aValue, valueSerializer);
+		} catch (IOException ex) {
+			throw new StoreException(ex);
+		}
+
+		long lsn;
+		checkpointLock.readLock().lock();
+		try {
+			lsn = append(bytes.toByteArray(), new Runnable() {
+				@Override
+				public void run() {
+					store.put(aKey, aValue);
+				}
+			});
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+		commit(lsn);
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		if (aMap.isEmpty()) {
+			return;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(StoreProtocol.PUT_ALL);
+			out.writeInt(aMap.size());
+			for (Map.Entry<K, V> entry : aMap.entrySet()) {
+				StoreProtocol.write(out, entry.getKey(), keySerializer);
+				StoreProtocol.write(out, entry.getValue(), valueSerializer);
+			}
+		} catch (IOException ex) {
+			throw new StoreException(ex);
+		}
+
+		long lsn;
+		checkpointLock.readLock().lock();
+		try {
+			lsn = append(bytes.toByteArray(), new Runnable() {
+				@Override
+				public void run() {
+					store.putAll(aMap);
+				}
+			});
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+		commit(lsn);
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return store.get(aKey);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		return store.get(aKey, aDefault);
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		return store.has(aKey);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(StoreProtocol.REMOVE);
+			StoreProtocol.write(out, aKey, keySerializer);
+		} catch (IOException ex) {
+			throw new StoreException(ex);
+		}
+
+		long lsn;
+		checkpointLock.readLock().lock();
+		try {
+			lsn = append(bytes.toByteArray(), new Runnable() {
+				@Override
+				public void run() {
+					store.remove(aKey);
+				}
+			});
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+		commit(lsn);
+	}
+
+	/**
+	 * チェックポイントを作成する。
+	 * <p>
+	 * 更新を一時的に止めてスナップショットを取得し、更新を再開してからスナップショットをファイルへ書き出す。
+	 * 書き出しが完了した時点で、スナップショットに含まれるログを削除する。
+	 * </p>
+	 *
+	 * @return チェックポイントのレコード番号
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public long checkpoint() throws IOException {
+		long lsn;
+		StoreSnapshot<K, V> snapshot;
+		checkpointLock.writeLock().lock();
+		try {
+			lsn = log.getLastLsn();
+			snapshot = store.snapshot();
+		} finally {
+			checkpointLock.writeLock().unlock();
+		}
+
+		try {
+			File file = new File(directory, SNAPSHOT_FILE);
+			File temp = new File(file.getPath() + ".tmp");
+			FileOutputStream stream = new FileOutputStream(temp);
+			try {
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+				out.writeLong(lsn);
+				new StoreExporter<K, V>(keySerializer, valueSerializer).export(snapshot, out);
+				out.flush();
+				stream.getFD().sync();
+			} finally {
+				stream.close();
+			}
+			WriteAheadLog.replaceFile(temp, file);
+		} finally {
+			snapshot.close();
+		}
+		log.checkpoint(lsn);
+		return lsn;
+	}
+
+	@Override
+	public void close() throws IOException {
+		log.close();
+	}
+
+	private long append(final byte[] aRecord, final Runnable aAction) {
+		try {
+			// 同期は共有ロックの解放後に行う
+			return log.append(aRecord, Durability.NONE, aAction);
+		} catch (IOException ex) {
+			throw new StoreException("Failed to append write-ahead log.", ex);
+		}
+	}
+
+	private void commit(final long aLsn) {
+		try {
+			log.commit(aLsn, durability);
+		} catch (IOException ex) {
+			throw new StoreException("Failed to sync write-ahead log.", ex);
+		}
+	}
+
+	/**
+	 * スナップショットを読み込み、それ以降のログを再生する。
+	 */
+	private void recover() throws IOException {
+		long lsn = 0;
+		File file = new File(directory, SNAPSHOT_FILE);
+		File temp = new File(file.getPath() + ".tmp");
+		if (temp.exists()) {
+			// 置き換え前に停止した書き込み途中のスナップショット(ログは削除前のため不要)
+			warn("Discard incomplete snapshot : " + temp.getPath());
+			if (!temp.delete()) {
+				throw new IOException("Failed to delete file : " + temp.getPath());
+			}
+		}
+		if (file.isFile()) {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try {
+				lsn = in.readLong();
+				long count = new StoreExporter<K, V>(keySerializer, valueSerializer).importTo(in, store);
+				info("Loaded " + count + " entries from snapshot at " + lsn + ".");
+			} finally {
+				in.close();
+			}
+		}
+		if (lsn < log.getCheckpointLsn()) {
+			// チェックポイント以前のログは削除済みのため復元できない
+			throw new IOException("Snapshot is missing or older than checkpoint " + log.getCheckpointLsn() + " : " + file.getPath());
+		}
+		// スナップショット作成後、ログのチェックポイント記録前に停止した場合もスナップショットを優先する
+		long count = log.replay(lsn, new WriteAheadLogHandler() {
+			@Override
+			public void handle(final long aLsn, final byte[] aPayload) {
+				apply(aLsn, aPayload);
+			}
+		});
+		if (0 < count) {
+			info("Replayed " + count + " records from write-ahead log.");
+		}
+	}
+
+	private void apply(final long aLsn, final byte[] aPayload) {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(aPayload));
+		try {
+			byte op = in.readByte();
+			if (StoreProtocol.PUT == op) {
+				K key = StoreProtocol.read(in, keySerializer);
+				store.put(key, StoreProtocol.read(in, valueSerializer));
+			} else if (StoreProtocol.PUT_ALL == op) {
+				int size = in.readInt();
+				Map<K, V> map = new HashMap<K, V>();
+				for (int i = 0; i < size; i++) {
+					K key = StoreProtocol.read(in, keySerializer);
+					map.put(key, StoreProtocol.read(in, valueSerializer));
+				}
+				store.putAll(map);
+			} else if (StoreProtocol.REMOVE == op) {
+				store.remove(StoreProtocol.read(in, keySerializer));
+			} else {
+				throw new StoreException("Unknown log operation : " + op + " at " + aLsn);
+			}
+		} catch (IOException ex) {
+			throw new StoreException("Broken log record at " + aLsn, ex);
+		}
+	}
+}
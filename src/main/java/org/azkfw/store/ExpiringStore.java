@@ -0,0 +1,382 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * このクラスは、有効期限付きで値を保持するストアクラスです。
+ * <p>
+ * 書き込みからの有効期間(time-to-live)と、最終参照からの有効期間(time-to-idle)を指定できます。
+ * 期限切れの値は参照時に存在しないものとして扱われ、実際の削除は{@link TimerWheel}により期限の近いものから順に行われます。
+ * 削除は書き込み時、一定回数の参照ごと、{@link #cleanUp()}の呼び出し時、
+ * または{@link #startMaintenance(long, TimeUnit)}で開始した保守スレッドにより少しずつ行われ、全件を走査することはありません。
+ * </p>
+ * <p>
+ * 参照はロックを取得しません。time-to-idleの延長は参照時刻の記録のみで行い、期限到来時に再評価します。
+ * 格納時は新しいエントリーに置き換えるため、参照中のスレッドが値と期限の組み合わせを途中の状態で読むことはありません。
+ * キーに<code>null</code>は指定できません。
+ * </p>
+ * <p>
+ * 格納・削除・期限切れは{@link #addStoreListener(StoreListener)}で登録したリスナーへ通知します。期限切れの通知は削除が行われた時点で行います。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class ExpiringStore<K, V> extends AbstractStore<K, V> {
+
+	/** 期限切れ処理を試みる参照回数の間隔(2のべき乗-1) */
+	private static final int CLEANUP_READ_MASK = 0x3F;
+
+	/** 書き込みからの有効期間(ナノ秒)、0以下は無期限 */
+	private final long expireAfterWrite;
+
+	/** 最終参照からの有効期間(ナノ秒)、0以下は無期限 */
+	private final long expireAfterAccess;
+
+	/** データ */
+	private final ConcurrentMap<K, Node<K, V>> data;
+
+	/** タイミングホイール */
+	private final TimerWheel wheel;
+
+	/** ホイール操作用ロック */
+	private final ReentrantLock lock;
+
+	/** 参照回数 */
+	private final AtomicInteger reads;
+
+	/** ティッカー */
+	private Ticker ticker;
+
+	/** 時刻の起点 */
+	private long origin;
+
+	/** 保守スレッド */
+	private ScheduledExecutorService maintenance;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aExpireAfterWrite 書き込みからの有効期間(0以下は無期限)
+	 * @param aExpireAfterAccess 最終参照からの有効期間(0以下は無期限)
+	 * @param aUnit 時間単位
+	 */
+	public ExpiringStore(final long aExpireAfterWrite, final long aExpireAfterAccess, final TimeUnit aUnit) {
+		super(ExpiringStore.class);
+		expireAfterWrite = aUnit.toNanos(aExpireAfterWrite);
+		expireAfterAccess = aUnit.toNanos(aExpireAfterAccess);
+		data = new ConcurrentHashMap<K, Node<K, V>>();
+		wheel = new TimerWheel();
+		lock = new ReentrantLock();
+		reads = new AtomicInteger();
+		setTicker(Ticker.SYSTEM);
+	}
+
+	/**
+	 * ティッカーを設定する。
+	 * <p>
+	 * 値を格納する前に設定してください。
+	 * </p>
+	 *
+	 * @param aTicker ティッカー
+	 */
+	public void setTicker(final Ticker aTicker) {
+		ticker = aTicker;
+		origin = aTicker.read();
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		put(aKey, aValue, expireAfterWrite);
+	}
+
+	/**
+	 * 値を個別の有効期間で格納する。
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 * @param aDuration 書き込みからの有効期間(0以下は無期限)
+	 * @param aUnit 時間単位
+	 */
+	public void put(final K aKey, final V aValue, final long aDuration, final TimeUnit aUnit) {
+		put(aKey, aValue, aUnit.toNanos(aDuration));
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			put(entry.getKey(), entry.getValue(), expireAfterWrite);
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		Node<K, V> node = getNode(aKey);
+		if (null == node) {
+			return aDefault;
+		}
+		if (0 < node.timeToIdle) {
+			node.accessTime = now();
+		}
+		return node.value;
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		return null != getNode(aKey);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		lock.lock();
+		try {
+			Node<K, V> node = data.remove(aKey);
+			if (null != node) {
+				wheel.deschedule(node);
+				publish(StoreEventType.REMOVE, aKey, node.value);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	protected boolean isStoreEventSupported() {
+		return true;
+	}
+
+	/**
+	 * 格納件数を取得する。
+	 * <p>
+	 * 削除前の期限切れの値を含みます。
+	 * </p>
+	 *
+	 * @return 件数
+	 */
+	public int size() {
+		return data.size();
+	}
+
+	/**
+	 * すべての値を削除する。
+	 */
+	public void clear() {
+		lock.lock();
+		try {
+			for (Node<K, V> node : data.values()) {
+				wheel.deschedule(node);
+			}
+			data.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 期限切れの値を削除する。
+	 */
+	public void cleanUp() {
+		lock.lock();
+		try {
+			expire(now());
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 保守スレッドを開始する。
+	 * <p>
+	 * 指定間隔で{@link #cleanUp()}を実行する。保守スレッドはデーモンスレッドとして動作します。
+	 * </p>
+	 *
+	 * @param aInterval 実行間隔
+	 * @param aUnit 時間単位
+	 */
+	public synchronized void startMaintenance(final long aInterval, final TimeUnit aUnit) {
+		if (null != maintenance) {
+			return;
+		}
+		maintenance = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable aRunnable) {
+				Thread thread = new Thread(aRunnable, "ExpiringStore-maintenance");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		maintenance.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					cleanUp();
+				} catch (RuntimeException ex) {
+					error("Expiration failed.", ex);
+				}
+			}
+		}, aInterval, aInterval, aUnit);
+	}
+
+	/**
+	 * 保守スレッドを停止する。
+	 */
+	public synchronized void stopMaintenance() {
+		if (null != maintenance) {
+			maintenance.shutdownNow();
+			maintenance = null;
+		}
+	}
+
+	/**
+	 * 値が期限切れにより削除された時に呼び出される。
+	 * <p>
+	 * ストア内部のロックを保持した状態で呼び出されるため、時間のかかる処理は行わないでください。
+	 * </p>
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 */
+	protected void onExpiration(final K aKey, final V aValue) {
+	}
+
+	private void put(final K aKey, final V aValue, final long aTimeToLive) {
+		if (null == aKey) {
+			throw new NullPointerException("Key is null.");
+		}
+		long now = now();
+		lock.lock();
+		try {
+			expire(now);
+			Node<K, V> node = new Node<K, V>(aKey, aValue, now, aTimeToLive, expireAfterAccess);
+			node.time = node.deadline();
+			if (Long.MAX_VALUE != node.time) {
+				wheel.schedule(node);
+			}
+			Node<K, V> old = data.put(aKey, node);
+			if (null != old) {
+				wheel.deschedule(old);
+			}
+			publish(StoreEventType.PUT, aKey, aValue);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Node<K, V> getNode(final Object aKey) {
+		Node<K, V> node = data.get(aKey);
+		boolean expired = null != node && node.deadline() <= now();
+		if (expired || 0 == (reads.incrementAndGet() & CLEANUP_READ_MASK)) {
+			if (lock.tryLock()) {
+				try {
+					expire(now());
+				} finally {
+					lock.unlock();
+				}
+			}
+		}
+		return expired ? null : node;
+	}
+
+	/**
+	 * 期限切れの値を削除する。ロックを保持した状態で呼び出すこと。
+	 */
+	private void expire(final long aNow) {
+		List<TimerWheel.Timer> timers = new ArrayList<TimerWheel.Timer>();
+		wheel.advance(aNow, timers);
+		for (TimerWheel.Timer timer : timers) {
+			@SuppressWarnings("unchecked")
+			Node<K, V> node = (Node<K, V>) timer;
+			long deadline = node.deadline();
+			if (deadline <= aNow) {
+				if (data.remove(node.key, node)) {
+					onExpiration(node.key, node.value);
+					publish(StoreEventType.EXPIRE, node.key, node.value);
+				}
+			} else {
+				// 参照により期限が延長されている
+				node.time = deadline;
+				wheel.schedule(node);
+			}
+		}
+	}
+
+	private long now() {
+		return ticker.read() - origin;
+	}
+
+	/**
+	 * このクラスは、有効期限付きのエントリーを表現するクラスです。
+	 */
+	private static final class Node<K, V> extends TimerWheel.Timer {
+
+		private final K key;
+
+		private final V value;
+
+		private final long writeTime;
+
+		private volatile long accessTime;
+
+		private final long timeToLive;
+
+		private final long timeToIdle;
+
+		private Node(final K aKey, final V aValue, final long aWriteTime, final long aTimeToLive, final long aTimeToIdle) {
+			key = aKey;
+			value = aValue;
+			writeTime = aWriteTime;
+			accessTime = aWriteTime;
+			timeToLive = aTimeToLive;
+			timeToIdle = aTimeToIdle;
+		}
+
+		/**
+		 * 期限を算出する。
+		 *
+		 * @return 期限、無期限の場合{@link Long#MAX_VALUE}
+		 */
+		private long deadline() {
+			long deadline = Long.MAX_VALUE;
+			if (0 < timeToLive) {
+				deadline = writeTime + timeToLive;
+			}
+			if (0 < timeToIdle) {
+				deadline = Math.min(deadline, accessTime + timeToIdle);
+			}
+			return deadline;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+/**
+ * このクラスは、キーの出現頻度を近似的に記録するCount-Minスケッチクラスです。
+ * <p>
+ * 4bitのカウンターを64bit値に16個詰めて保持し、4つのハッシュ関数で更新します。
+ * 記録回数がサンプルサイズに達するとすべてのカウンターを半減させ、過去の頻度の影響を減衰させます。
+ * </p>
+ * <p>
+ * このクラスはスレッドセーフではありません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+final class FrequencySketch {
+
+	/** 半減時に各カウンターの最上位ビットを落とすマスク */
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	/** 半減時に奇数カウンターを数えるマスク */
+	private static final long ONE_MASK = 0x1111111111111111L;
+
+	/** ハッシュ関数の種 */
+	private static final long[] SEED = { 0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L };
+
+	/** カウンター */
+	private final long[] table;
+
+	/** テーブル位置マスク */
+	private final int tableMask;
+
+	/** サンプルサイズ */
+	private final int sampleSize;
+
+	/** 半減までの記録回数 */
+	private int size;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aMaximumSize 想定する最大件数
+	 */
+	FrequencySketch(final long aMaximumSize) {
+		int capacity = (int) Math.min(Math.max(aMaximumSize, 1), 1 << 30);
+		int length = 1;
+		while (length < capacity) {
+			length <<= 1;
+		}
+		table = new long[Math.max(length >>> 2, 1)];
+		tableMask = table.length - 1;
+		sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+		size = 0;
+	}
+
+	/**
+	 * 出現頻度を推定する。
+	 *
+	 * @param aHash キーのハッシュ値
+	 * @return 出現頻度(0～15)
+	 */
+	int frequency(final int aHash) {
+		int start = (aHash & 3) << 2;
+		int frequency = Integer.MAX_VALUE;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(aHash, i);
+			int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xFL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	/**
+	 * 出現を記録する。
+	 *
+	 * @param aHash キーのハッシュ値
+	 */
+	void increment(final int aHash) {
+		int start = (aHash & 3) << 2;
+		boolean added = false;
+		for (int i = 0; i < 4; i++) {
+			int index = indexOf(aHash, i);
+			int offset = (start + i) << 2;
+			long mask = 0xFL << offset;
+			if ((table[index] & mask) != mask) {
+				table[index] += 1L << offset;
+				added = true;
+			}
+		}
+		if (added && ++size == sampleSize) {
+			reset();
+		}
+	}
+
+	/**
+	 * すべてのカウンターを半減させる。
+	 */
+	private void reset() {
+		int count = 0;
+		for (int i = 0; i < table.length; i++) {
+			count += Long.bitCount(table[i] & ONE_MASK);
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size = (size >>> 1) - (count >>> 2);
+	}
+
+	private int indexOf(final int aHash, final int aIndex) {
+		long hash = (aHash + SEED[aIndex]) * SEED[aIndex];
+		hash += (hash >>> 32);
+		return ((int) hash) & tableMask;
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * このクラスは、シリアライズ済みキーのハッシュ値を算出するユーティリティクラスです。
+ * <p>
+ * ファイルに永続化する索引でも使用するため、算出方法を変更してはいけません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+final class Hashing {
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * インスタンス生成を禁止する。
+	 * </p>
+	 */
+	private Hashing() {
+	}
+
+	/**
+	 * バッファの残り部分のハッシュ値を算出する。
+	 * <p>
+	 * バッファの位置は変更しない。
+	 * </p>
+	 *
+	 * @param aBuffer バッファ
+	 * @return ハッシュ値
+	 */
+	static int hash(final ByteBuffer aBuffer) {
+		int h = 0x9747B28C ^ aBuffer.remaining();
+		for (int i = aBuffer.position(); i < aBuffer.limit(); i++) {
+			h = (h ^ aBuffer.get(i)) * 0x01000193;
+		}
+		return mix(h);
+	}
+
+	/**
+	 * バッファの残り部分の64bitハッシュ値を算出する。
+	 * <p>
+	 * バッファの位置およびバイト順に関係なく、同じバイト列とシードからは同じ値を返す。
+	 * </p>
+	 *
+	 * @param aBuffer バッファ
+	 * @param aSeed シード
+	 * @return ハッシュ値
+	 */
+	static long hash64(final ByteBuffer aBuffer, final long aSeed) {
+		ByteBuffer buffer = (ByteOrder.BIG_ENDIAN == aBuffer.order()) ? aBuffer : aBuffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+		int limit = buffer.limit();
+		long h = aSeed ^ (buffer.remaining() * 0xC6A4A7935BD1E995L);
+		int i = buffer.position();
+		for (; i + 8 <= limit; i += 8) {
+			h ^= mix64(buffer.getLong(i));
+			h = Long.rotateLeft(h, 27) * 0x9E3779B97F4A7C15L + 0x52DCE729L;
+		}
+		long tail = 0;
+		for (int shift = 0; i < limit; i++, shift += 8) {
+			tail |= (buffer.get(i) & 0xFFL) << shift;
+		}
+		h ^= mix64(tail);
+		return mix64(h);
+	}
+
+	/**
+	 * 32bit値を攪拌する。
+	 *
+	 * @param aValue 値
+	 * @return 攪拌後の値
+	 */
+	static int mix(final int aValue) {
+		int h = aValue;
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * 64bit値を攪拌する。
+	 *
+	 * @param aValue 値
+	 * @return 攪拌後の値
+	 */
+	static long mix64(final long aValue) {
+		long z = aValue;
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return z ^ (z >>> 33);
+	}
+}
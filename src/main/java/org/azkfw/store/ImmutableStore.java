@@ -0,0 +1,279 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * このクラスは、最小完全ハッシュで索引付けされた読み取り専用のストアクラスです。
+ * <p>
+ * {@link ImmutableStoreBuilder}で構築します。キーのハッシュ値からバケットの変位を１つ読み、変位とハッシュ値から求めた位置のエントリーを
+ * １回比較するだけで参照でき、衝突の連鎖や空きスロットは存在しません。
+ * データはヒープ上のバイト配列、またはファイルをメモリマップした領域に構築時と同じ形式で保持するため、
+ * {@link #open(File, Serializer, Serializer)}はファイルの読み込みや索引の再構築を行わずに利用を開始できます。
+ * </p>
+ * <p>
+ * 格納・削除は{@link UnsupportedOperationException}を送出します。参照はスレッドセーフです。
+ * </p>
+ *
+ * <pre>
+ * ファイル形式 : 識別子(int)、バージョン(int)、件数(int)、バケット数(int)、シード(long)、
+ *                変位(int × バケット数)、エントリー位置(long × (件数 + 1))、
+ *                {キー長(int)、値長(int、nullは-1)、キー、値}の繰り返し(位置順)
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class ImmutableStore<K, V> extends AbstractStore<K, V> implements Closeable {
+
+	/** ファイル識別子 */
+	static final int MAGIC = 0x415A494D; // "AZIM"
+
+	/** フォーマットバージョン */
+	static final int FORMAT_VERSION = 1;
+
+	/** ヘッダーサイズ */
+	static final int HEADER_SIZE = 24;
+
+	/** マップする領域サイズ */
+	private static final long REGION_SIZE = 1L << 30;
+
+	/** キーのシリアライザー */
+	private final Serializer<K> keySerializer;
+
+	/** 値のシリアライザー */
+	private final Serializer<V> valueSerializer;
+
+	/** ヒープ上のデータ */
+	private final ByteBuffer heap;
+
+	/** メモリマップしたデータ */
+	private final MappedRegions regions;
+
+	/** 件数 */
+	private final int count;
+
+	/** バケット数 */
+	private final int bucketCount;
+
+	/** シード */
+	private final long seed;
+
+	/** エントリー位置の開始位置 */
+	private final long offsetPosition;
+
+	/** エントリーの開始位置 */
+	private final long dataPosition;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aHeap ヒープ上のデータ
+	 * @param aRegions メモリマップしたデータ
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 * @throws IOException データの形式が不正な場合
+	 */
+	ImmutableStore(final ByteBuffer aHeap, final MappedRegions aRegions, final Serializer<K> aKeySerializer, final Serializer<V> aValueSerializer)
+			throws IOException {
+		super(ImmutableStore.class);
+		heap = aHeap;
+		regions = aRegions;
+		keySerializer = aKeySerializer;
+		valueSerializer = aValueSerializer;
+		if (MAGIC != getInt(0)) {
+			throw new IOException("Not an immutable store.");
+		}
+		int version = getInt(4);
+		if (FORMAT_VERSION != version) {
+			throw new IOException("Unsupported immutable store version : " + version);
+		}
+		count = getInt(8);
+		bucketCount = getInt(12);
+		seed = getLong(16);
+		offsetPosition = HEADER_SIZE + 4L * bucketCount;
+		dataPosition = offsetPosition + 8L * (count + 1);
+	}
+
+	/**
+	 * ファイルをメモリマップして開く。
+	 *
+	 * @param aFile ファイル
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 * @return ストア
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public static <K, V> ImmutableStore<K, V> open(final File aFile, final Serializer<K> aKeySerializer, final Serializer<V> aValueSerializer)
+			throws IOException {
+		if (HEADER_SIZE > aFile.length()) {
+			throw new IOException("Not an immutable store file : " + aFile.getPath());
+		}
+		MappedRegions regions = new MappedRegions(aFile, REGION_SIZE, true);
+		try {
+			return new ImmutableStore<K, V>(null, regions, aKeySerializer, aValueSerializer);
+		} catch (IOException ex) {
+			regions.close();
+			throw new IOException(ex.getMessage() + " : " + aFile.getPath(), ex);
+		}
+	}
+
+	/**
+	 * 件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public int size() {
+		return count;
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		throw new UnsupportedOperationException("Immutable store.");
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		throw new UnsupportedOperationException("Immutable store.");
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		long position = find(aKey);
+		if (-1 == position) {
+			return aDefault;
+		}
+		int keyLength = getInt(position);
+		int valueLength = getInt(position + 4);
+		if (-1 == valueLength) {
+			return null;
+		}
+		byte[] bytes = new byte[valueLength];
+		read(position + 8 + keyLength, bytes);
+		return valueSerializer.deserialize(ByteBuffer.wrap(bytes), valueLength);
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		return -1 != find(aKey);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		throw new UnsupportedOperationException("Immutable store.");
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (null != regions) {
+			regions.close();
+		}
+	}
+
+	/**
+	 * キーのハッシュ値からバケット番号を算出する。
+	 *
+	 * @param aHash ハッシュ値
+	 * @param aBucketCount バケット数
+	 * @return バケット番号
+	 */
+	static int bucket(final long aHash, final int aBucketCount) {
+		return (int) (((aHash & 0xFFFFFFFFL) * aBucketCount) >>> 32);
+	}
+
+	/**
+	 * キーのハッシュ値と変位から位置を算出する。
+	 *
+	 * @param aHash ハッシュ値
+	 * @param aDisplacement 変位
+	 * @param aCount 件数
+	 * @return 位置
+	 */
+	static int slot(final long aHash, final int aDisplacement, final int aCount) {
+		long x = Hashing.mix64(aHash ^ (aDisplacement * 0x9E3779B97F4A7C15L));
+		return (int) (((x >>> 32) * aCount) >>> 32);
+	}
+
+	/**
+	 * キーのエントリー位置を検索する。
+	 *
+	 * @return エントリーの位置、存在しない場合-1
+	 */
+	private long find(final K aKey) {
+		if (null == aKey) {
+			throw new NullPointerException("Key is null.");
+		}
+		if (0 == count) {
+			return -1;
+		}
+		ByteBuffer key = ByteBuffer.allocate(keySerializer.getSize(aKey));
+		keySerializer.serialize(aKey, key);
+		key.flip();
+
+		long hash = Hashing.hash64(key, seed);
+		int displacement = getInt(HEADER_SIZE + 4L * bucket(hash, bucketCount));
+		long position = dataPosition + getLong(offsetPosition + 8L * slot(hash, displacement, count));
+		// 登録されていないキーも必ずいずれかの位置に割り当たるため、キーを比較する
+		if (key.remaining() != getInt(position) || !matches(position + 8, key)) {
+			return -1;
+		}
+		return position;
+	}
+
+	private int getInt(final long aPosition) {
+		return (null != regions) ? regions.getInt(aPosition) : heap.getInt((int) aPosition);
+	}
+
+	private long getLong(final long aPosition) {
+		return (null != regions) ? regions.getLong(aPosition) : heap.getLong((int) aPosition);
+	}
+
+	private void read(final long aPosition, final byte[] aBytes) {
+		if (null != regions) {
+			regions.read(aPosition, aBytes, 0, aBytes.length);
+		} else {
+			ByteBuffer buffer = heap.duplicate();
+			buffer.position((int) aPosition);
+			buffer.get(aBytes);
+		}
+	}
+
+	private boolean matches(final long aPosition, final ByteBuffer aKey) {
+		if (null != regions) {
+			return regions.equals(aPosition, aKey);
+		}
+		int position = (int) aPosition;
+		for (int i = 0; i < aKey.remaining(); i++) {
+			if (heap.get(position + i) != aKey.get(aKey.position() + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,362 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * このクラスは、{@link ImmutableStore}を構築するビルダークラスです。
+ * <p>
+ * 登録したキーの集合に対して、CHD(hash-and-displace)方式で最小完全ハッシュ関数を求めます。
+ * キーを平均{@value #BUCKET_SIZE}件ずつのバケットに分け、大きいバケットから順に、バケット内の全キーが空き位置に重複なく割り当たる変位を探索します。
+ * 索引に必要な領域はバケットごとの変位のみで、キー{@value #BUCKET_SIZE}件あたり1個のintです。
+ * </p>
+ * <p>
+ * 同じキーを複数回登録した場合は最後の値が有効となります。このクラスはスレッドセーフではありません。
+ * </p>
+ *
+ * <pre>
+ * ImmutableStoreBuilder&lt;String, String&gt; builder = new ImmutableStoreBuilder&lt;String, String&gt;(new StringSerializer(), new StringSerializer());
+ * builder.put(&quot;key&quot;, &quot;value&quot;);
+ * builder.write(file);
+ * ImmutableStore&lt;String, String&gt; store = ImmutableStore.open(file, new StringSerializer(), new StringSerializer());
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class ImmutableStoreBuilder<K, V> {
+
+	/** 平均バケットサイズ */
+	public static final int BUCKET_SIZE = 4;
+
+	/** バケットごとの変位の探索上限の最小値 */
+	private static final int MIN_DISPLACEMENT_LIMIT = 1 << 24;
+
+	/** キー1件あたりの変位の探索上限 */
+	private static final int DISPLACEMENT_PER_KEY = 32;
+
+	/** シードの変更回数の上限 */
+	private static final int MAX_ATTEMPTS = 16;
+
+	/** キーのシリアライザー */
+	private final Serializer<K> keySerializer;
+
+	/** 値のシリアライザー */
+	private final Serializer<V> valueSerializer;
+
+	/** キーから登録順への索引 */
+	private final Map<K, Integer> index;
+
+	/** シリアライズ済みキー */
+	private final List<byte[]> keys;
+
+	/** シリアライズ済み値 */
+	private final List<byte[]> values;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 */
+	public ImmutableStoreBuilder(final Serializer<K> aKeySerializer, final Serializer<V> aValueSerializer) {
+		keySerializer = aKeySerializer;
+		valueSerializer = aValueSerializer;
+		index = new HashMap<K, Integer>();
+		keys = new ArrayList<byte[]>();
+		values = new ArrayList<byte[]>();
+	}
+
+	/**
+	 * 値を登録する。
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 */
+	public void put(final K aKey, final V aValue) {
+		if (null == aKey) {
+			throw new NullPointerException("Key is null.");
+		}
+		byte[] value = null;
+		if (null != aValue) {
+			ByteBuffer buffer = ByteBuffer.allocate(valueSerializer.getSize(aValue));
+			valueSerializer.serialize(aValue, buffer);
+			value = buffer.array();
+		}
+		Integer position = index.get(aKey);
+		if (null != position) {
+			values.set(position, value);
+			return;
+		}
+		ByteBuffer key = ByteBuffer.allocate(keySerializer.getSize(aKey));
+		keySerializer.serialize(aKey, key);
+		index.put(aKey, keys.size());
+		keys.add(key.array());
+		values.add(value);
+	}
+
+	/**
+	 * 複数の値を登録する。
+	 *
+	 * @param aMap キーと値のマップ
+	 */
+	public void putAll(final Map<K, V> aMap) {
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * 登録件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public int size() {
+		return keys.size();
+	}
+
+	/**
+	 * ヒープ上にストアを構築する。
+	 *
+	 * @return ストア
+	 */
+	public ImmutableStore<K, V> build() {
+		Layout layout = layout();
+		long size = layout.size();
+		if (Integer.MAX_VALUE < size) {
+			throw new StoreException("Too large to build on heap, use write(File) : " + size);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) size);
+		try {
+			writeTo(layout, bytes);
+			return new ImmutableStore<K, V>(ByteBuffer.wrap(bytes.toByteArray()), null, keySerializer, valueSerializer);
+		} catch (IOException ex) {
+			throw new StoreException(ex);
+		}
+	}
+
+	/**
+	 * ストアをファイルへ書き出す。
+	 * <p>
+	 * 書き出したファイルは{@link ImmutableStore#open(File, Serializer, Serializer)}で開く。
+	 * </p>
+	 *
+	 * @param aFile ファイル
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public void write(final File aFile) throws IOException {
+		Layout layout = layout();
+		File temp = new File(aFile.getPath() + ".tmp");
+		FileOutputStream stream = new FileOutputStream(temp);
+		try {
+			writeTo(layout, new BufferedOutputStream(stream));
+			stream.getFD().sync();
+		} finally {
+			stream.close();
+		}
+		WriteAheadLog.replaceFile(temp, aFile);
+	}
+
+	private void writeTo(final Layout aLayout, final OutputStream aStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(aStream);
+		out.writeInt(ImmutableStore.MAGIC);
+		out.writeInt(ImmutableStore.FORMAT_VERSION);
+		out.writeInt(aLayout.entries.length);
+		out.writeInt(aLayout.displacements.length);
+		out.writeLong(aLayout.seed);
+		for (int displacement : aLayout.displacements) {
+			out.writeInt(displacement);
+		}
+		long offset = 0;
+		for (int entry : aLayout.entries) {
+			out.writeLong(offset);
+			offset += entrySize(entry);
+		}
+		out.writeLong(offset);
+		for (int entry : aLayout.entries) {
+			byte[] key = keys.get(entry);
+			byte[] value = values.get(entry);
+			out.writeInt(key.length);
+			out.writeInt((null != value) ? value.length : -1);
+			out.write(key);
+			if (null != value) {
+				out.write(value);
+			}
+		}
+		out.flush();
+	}
+
+	private long entrySize(final int aEntry) {
+		byte[] value = values.get(aEntry);
+		return 8L + keys.get(aEntry).length + ((null != value) ? value.length : 0);
+	}
+
+	/**
+	 * 最小完全ハッシュ関数を求め、位置ごとのエントリーを決定する。
+	 */
+	private Layout layout() {
+		int count = keys.size();
+		int bucketCount = Math.max(1, (count + BUCKET_SIZE - 1) / BUCKET_SIZE);
+		long[] hashes = new long[count];
+		long seed = 0x27D4EB2F165667C5L;
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			for (int i = 0; i < count; i++) {
+				hashes[i] = Hashing.hash64(ByteBuffer.wrap(keys.get(i)), seed);
+			}
+			int[] displacements = new int[bucketCount];
+			int[] entries = place(hashes, bucketCount, displacements);
+			if (null != entries) {
+				return new Layout(seed, displacements, entries);
+			}
+			seed = Hashing.mix64(seed + attempt + 1);
+		}
+		throw new StoreException("Failed to find a perfect hash function for " + count + " keys.");
+	}
+
+	/**
+	 * バケットごとに変位を探索する。
+	 *
+	 * @return 位置ごとのエントリー番号、探索上限に達した場合<code>null</code>
+	 */
+	private static int[] place(final long[] aHashes, final int aBucketCount, final int[] aDisplacements) {
+		int count = aHashes.length;
+		// バケットごとのキーを連続して並べる
+		int[] start = new int[aBucketCount + 1];
+		int[] buckets = new int[count];
+		for (int i = 0; i < count; i++) {
+			buckets[i] = ImmutableStore.bucket(aHashes[i], aBucketCount);
+			start[buckets[i] + 1]++;
+		}
+		int maxSize = 0;
+		for (int b = 0; b < aBucketCount; b++) {
+			maxSize = Math.max(maxSize, start[b + 1]);
+			start[b + 1] += start[b];
+		}
+		int[] members = new int[count];
+		int[] fill = start.clone();
+		for (int i = 0; i < count; i++) {
+			members[fill[buckets[i]]++] = i;
+		}
+
+		// 大きいバケットから処理する
+		int[] sizeStart = new int[maxSize + 2];
+		for (int b = 0; b < aBucketCount; b++) {
+			sizeStart[maxSize - (start[b + 1] - start[b]) + 1]++;
+		}
+		for (int s = 0; s <= maxSize; s++) {
+			sizeStart[s + 1] += sizeStart[s];
+		}
+		int[] order = new int[aBucketCount];
+		for (int b = 0; b < aBucketCount; b++) {
+			order[sizeStart[maxSize - (start[b + 1] - start[b])]++] = b;
+		}
+
+		int limit = displacementLimit(count);
+		int[] entries = new int[count];
+		boolean[] used = new boolean[count];
+		int[] slots = new int[Math.max(1, maxSize)];
+		for (int bucket : order) {
+			int from = start[bucket];
+			int size = start[bucket + 1] - from;
+			if (0 == size) {
+				break;
+			}
+			int displacement = 0;
+			while (true) {
+				if (limit <= displacement) {
+					return null;
+				}
+				boolean ok = true;
+				for (int j = 0; j < size && ok; j++) {
+					int slot = ImmutableStore.slot(aHashes[members[from + j]], displacement, count);
+					if (used[slot]) {
+						ok = false;
+					}
+					for (int k = 0; k < j && ok; k++) {
+						if (slots[k] == slot) {
+							ok = false;
+						}
+					}
+					slots[j] = slot;
+				}
+				if (ok) {
+					break;
+				}
+				displacement++;
+			}
+			for (int j = 0; j < size; j++) {
+				used[slots[j]] = true;
+				entries[slots[j]] = members[from + j];
+			}
+			aDisplacements[bucket] = displacement;
+		}
+		return entries;
+	}
+
+	/**
+	 * 変位の探索上限を算出する。
+	 * <p>
+	 * 最後に処理するバケットは空き位置が残り少なく、1件のバケットでも空き位置が1つの場合は平均でキー件数分の探索を要するため、キー件数に比例させる。
+	 * </p>
+	 *
+	 * @param aCount キー件数
+	 * @return 探索上限
+	 */
+	static int displacementLimit(final int aCount) {
+		return (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_DISPLACEMENT_LIMIT, (long) DISPLACEMENT_PER_KEY * aCount));
+	}
+
+	/**
+	 * このクラスは、最小完全ハッシュ関数とエントリーの配置を表現するクラスです。
+	 */
+	private final class Layout {
+
+		private final long seed;
+
+		private final int[] displacements;
+
+		private final int[] entries;
+
+		private Layout(final long aSeed, final int[] aDisplacements, final int[] aEntries) {
+			seed = aSeed;
+			displacements = aDisplacements;
+			entries = aEntries;
+		}
+
+		private long size() {
+			long size = ImmutableStore.HEADER_SIZE + 4L * displacements.length + 8L * (entries.length + 1);
+			for (int entry : entries) {
+				size += entrySize(entry);
+			}
+			return size;
+		}
+	}
+}
@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Map;
+
+/**
+ * このクラスは、委譲先ストアへの操作の統計を記録するストアクラスです。
+ * <p>
+ * 参照のヒット・ミス、格納、削除の件数と、参照・格納の所要時間を{@link StatisticsRecorder}に記録します。
+ * </p>
+ *
+ * <pre>
+ * StatisticsRecorder recorder = new StatisticsRecorder();
+ * CacheStore&lt;String, String&gt; cache = new CacheStore&lt;String, String&gt;(10000);
+ * cache.setStatisticsRecorder(recorder);
+ * InstrumentedStore&lt;String, String&gt; store = new InstrumentedStore&lt;String, String&gt;(cache, recorder);
+ * ...
+ * StoreStatistics statistics = store.getStatistics();
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class InstrumentedStore<K, V> extends AbstractStore<K, V> {
+
+	/** 未格納を表す値 */
+	private static final Object MISSING = new Object();
+
+	/** 委譲先ストア */
+	private final Store<K, V> store;
+
+	/** 統計 */
+	private final StatisticsRecorder recorder;
+
+	/** ティッカー */
+	private Ticker ticker;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aStore 委譲先ストア
+	 */
+	public InstrumentedStore(final Store<K, V> aStore) {
+		this(aStore, new StatisticsRecorder());
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aStore 委譲先ストア
+	 * @param aRecorder 統計
+	 */
+	public InstrumentedStore(final Store<K, V> aStore, final StatisticsRecorder aRecorder) {
+		super(InstrumentedStore.class);
+		store = aStore;
+		recorder = aRecorder;
+		ticker = Ticker.SYSTEM;
+	}
+
+	/**
+	 * ティッカーを設定する。
+	 *
+	 * @param aTicker ティッカー
+	 */
+	public void setTicker(final Ticker aTicker) {
+		ticker = aTicker;
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		long start = ticker.read();
+		store.put(aKey, aValue);
+		recorder.recordPut(ticker.read() - start);
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		long start = ticker.read();
+		V value = store.get(aKey, (V) MISSING);
+		if (MISSING == value) {
+			recorder.recordMiss(ticker.read() - start);
+			return aDefault;
+		}
+		recorder.recordHit(ticker.read() - start);
+		return value;
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		return store.has(aKey);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		store.remove(aKey);
+		recorder.recordRemove();
+	}
+
+	/**
+	 * 委譲先ストアを取得する。
+	 *
+	 * @return ストア
+	 */
+	public Store<K, V> getStore() {
+		return store;
+	}
+
+	/**
+	 * 統計の記録先を取得する。
+	 *
+	 * @return 統計
+	 */
+	public StatisticsRecorder getRecorder() {
+		return recorder;
+	}
+
+	/**
+	 * 現時点の統計を取得する。
+	 *
+	 * @return 統計
+	 */
+	public StoreStatistics getStatistics() {
+		return recorder.snapshot();
+	}
+}
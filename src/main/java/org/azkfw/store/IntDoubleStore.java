@@ -0,0 +1,276 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Arrays;
+
+/**
+ * このクラスは、キーをint、値をdoubleで保持するストアクラスです。
+ * <p>
+ * キーと値をプリミティブ配列に格納する線形探索のオープンアドレス法で実装しており、
+ * {@link Store}&lt;Integer, Double&gt;と比べてボクシングによるオブジェクト生成がなく、参照時にメモリ確保を行いません。
+ * 削除時は後続要素を詰めるため、削除を繰り返しても探索長は伸びません。キー<code>0</code>は配列の空きを表すため別枠で保持します。
+ * </p>
+ * <p>
+ * このクラスはスレッドセーフではありません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class IntDoubleStore {
+
+	/** デフォルト初期容量 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** 負荷係数 */
+	private static final float LOAD_FACTOR = 0.75f;
+
+	/** キー */
+	private int[] keys;
+
+	/** 値 */
+	private double[] values;
+
+	/** キー0の有無 */
+	private boolean hasZeroKey;
+
+	/** キー0の値 */
+	private double zeroValue;
+
+	/** 件数(キー0を除く) */
+	private int size;
+
+	/** 拡張閾値 */
+	private int threshold;
+
+	/**
+	 * コンストラクタ
+	 */
+	public IntDoubleStore() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aExpectedSize 想定件数
+	 */
+	public IntDoubleStore(final int aExpectedSize) {
+		if (0 > aExpectedSize) {
+			throw new IllegalArgumentException("Illegal expected size : " + aExpectedSize);
+		}
+		int capacity = 2;
+		while (capacity * LOAD_FACTOR < aExpectedSize && capacity < (1 << 30)) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	/**
+	 * 値を格納する。
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 */
+	public void put(final int aKey, final double aValue) {
+		if (0 == aKey) {
+			hasZeroKey = true;
+			zeroValue = aValue;
+			return;
+		}
+		int mask = keys.length - 1;
+		int index = hash(aKey) & mask;
+		int current;
+		while (0 != (current = keys[index])) {
+			if (current == aKey) {
+				values[index] = aValue;
+				return;
+			}
+			index = (index + 1) & mask;
+		}
+		keys[index] = aKey;
+		values[index] = aValue;
+		if (++size > threshold) {
+			rehash(keys.length << 1);
+		}
+	}
+
+	/**
+	 * 値を取得する。
+	 *
+	 * @param aKey キー
+	 * @return 値、存在しない場合<code>0.0</code>
+	 */
+	public double get(final int aKey) {
+		return getOrDefault(aKey, 0.0);
+	}
+
+	/**
+	 * 値を取得する。
+	 *
+	 * @param aKey キー
+	 * @param aDefault デフォルト値
+	 * @return 値、存在しない場合デフォルト値
+	 */
+	public double getOrDefault(final int aKey, final double aDefault) {
+		if (0 == aKey) {
+			return hasZeroKey ? zeroValue : aDefault;
+		}
+		int index = indexOf(aKey);
+		return (-1 != index) ? values[index] : aDefault;
+	}
+
+	/**
+	 * キーに値が存在するか判断する。
+	 *
+	 * @param aKey キー
+	 * @return 判断結果
+	 */
+	public boolean has(final int aKey) {
+		if (0 == aKey) {
+			return hasZeroKey;
+		}
+		return -1 != indexOf(aKey);
+	}
+
+	/**
+	 * 値を削除する。
+	 *
+	 * @param aKey キー
+	 */
+	public void remove(final int aKey) {
+		if (0 == aKey) {
+			hasZeroKey = false;
+			zeroValue = 0.0;
+			return;
+		}
+		int index = indexOf(aKey);
+		if (-1 == index) {
+			return;
+		}
+		// 後続要素を詰める
+		int mask = keys.length - 1;
+		int hole = index;
+		int next = (hole + 1) & mask;
+		int key;
+		while (0 != (key = keys[next])) {
+			int home = hash(key) & mask;
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = key;
+				values[hole] = values[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		keys[hole] = 0;
+		values[hole] = 0.0;
+		size--;
+	}
+
+	/**
+	 * 格納件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public int size() {
+		return size + (hasZeroKey ? 1 : 0);
+	}
+
+	/**
+	 * ストアが空か判断する。
+	 *
+	 * @return 空の場合、<code>true</code>を返す。
+	 */
+	public boolean isEmpty() {
+		return 0 == size();
+	}
+
+	/**
+	 * すべての値を削除する。
+	 */
+	public void clear() {
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, 0.0);
+		hasZeroKey = false;
+		zeroValue = 0.0;
+		size = 0;
+	}
+
+	/**
+	 * キーの一覧を取得する。
+	 *
+	 * @return キー(順序不定)
+	 */
+	public int[] keys() {
+		int[] result = new int[size()];
+		int count = 0;
+		if (hasZeroKey) {
+			result[count++] = 0;
+		}
+		for (int key : keys) {
+			if (0 != key) {
+				result[count++] = key;
+			}
+		}
+		return result;
+	}
+
+	private int indexOf(final int aKey) {
+		int mask = keys.length - 1;
+		int index = hash(aKey) & mask;
+		int current;
+		while (0 != (current = keys[index])) {
+			if (current == aKey) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void allocate(final int aCapacity) {
+		keys = new int[aCapacity];
+		values = new double[aCapacity];
+		threshold = Math.min(aCapacity - 1, (int) (aCapacity * LOAD_FACTOR));
+	}
+
+	private void rehash(final int aCapacity) {
+		int[] oldKeys = keys;
+		double[] oldValues = values;
+		allocate(aCapacity);
+		int mask = aCapacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			int key = oldKeys[i];
+			if (0 != key) {
+				int index = hash(key) & mask;
+				while (0 != keys[index]) {
+					index = (index + 1) & mask;
+				}
+				keys[index] = key;
+				values[index] = oldValues[i];
+			}
+		}
+	}
+
+	private static int hash(final int aKey) {
+		int h = aKey * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * このクラスは、ロックを使用せずに所要時間の分布を記録するヒストグラムクラスです。
+ * <p>
+ * 値を2のべき乗ごとの区間に分け、さらに各区間を{@value #SUB_BUCKETS}分割したバケットで計数します。
+ * 百分位値の相対誤差は1/{@value #SUB_BUCKETS}以内です。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+final class LatencyHistogram {
+
+	/** 区間あたりの分割数のビット数 */
+	private static final int SUB_BUCKET_BITS = 3;
+
+	/** 区間あたりの分割数 */
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/** バケット数 */
+	static final int BUCKET_COUNT = 64 * SUB_BUCKETS;
+
+	/** バケット */
+	private final AtomicLongArray buckets;
+
+	/** 合計値 */
+	private final StripedCounter total;
+
+	/** 最大値 */
+	private final AtomicLong max;
+
+	/**
+	 * コンストラクタ
+	 */
+	LatencyHistogram() {
+		buckets = new AtomicLongArray(BUCKET_COUNT);
+		total = new StripedCounter();
+		max = new AtomicLong();
+	}
+
+	/**
+	 * 値を記録する。
+	 *
+	 * @param aValue 値(ナノ秒)
+	 */
+	void record(final long aValue) {
+		long value = Math.max(0, aValue);
+		buckets.incrementAndGet(indexOf(value));
+		total.add(value);
+		long current;
+		while (value > (current = max.get())) {
+			if (max.compareAndSet(current, value)) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * バケットの計数を複製する。
+	 *
+	 * @return 計数
+	 */
+	long[] counts() {
+		long[] counts = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = buckets.get(i);
+		}
+		return counts;
+	}
+
+	/**
+	 * 合計値を取得する。
+	 *
+	 * @return 合計値
+	 */
+	long total() {
+		return total.sum();
+	}
+
+	/**
+	 * 最大値を取得する。
+	 *
+	 * @return 最大値
+	 */
+	long max() {
+		return max.get();
+	}
+
+	/**
+	 * 記録をリセットする。
+	 */
+	void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			buckets.set(i, 0);
+		}
+		total.reset();
+		max.set(0);
+	}
+
+	/**
+	 * 百分位値を算出する。
+	 *
+	 * @param aCounts バケットの計数
+	 * @param aPercentile 百分位(0～100)
+	 * @return 百分位値(バケットの上限値)、記録がない場合0
+	 */
+	static long percentile(final long[] aCounts, final double aPercentile) {
+		long count = 0;
+		for (long c : aCounts) {
+			count += c;
+		}
+		if (0 == count) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(count * Math.min(100.0, Math.max(0.0, aPercentile)) / 100.0);
+		rank = Math.max(1, rank);
+		long cumulative = 0;
+		for (int i = 0; i < aCounts.length; i++) {
+			cumulative += aCounts[i];
+			if (cumulative >= rank) {
+				return upperBoundOf(i);
+			}
+		}
+		return upperBoundOf(aCounts.length - 1);
+	}
+
+	/**
+	 * 値のバケット番号を取得する。
+	 *
+	 * @param aValue 値
+	 * @return バケット番号
+	 */
+	static int indexOf(final long aValue) {
+		if (aValue < SUB_BUCKETS) {
+			return (int) aValue;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(aValue);
+		int sub = (int) (aValue >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + sub;
+	}
+
+	/**
+	 * バケットに含まれる最大値を取得する。
+	 *
+	 * @param aIndex バケット番号
+	 * @return 最大値
+	 */
+	static long upperBoundOf(final int aIndex) {
+		if (aIndex < SUB_BUCKETS) {
+			return aIndex;
+		}
+		int exponent = (aIndex >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+		long sub = aIndex & (SUB_BUCKETS - 1);
+		if (62 < exponent) {
+			return Long.MAX_VALUE;
+		}
+		long lower = (1L << exponent) + (sub << (exponent - SUB_BUCKET_BITS));
+		return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+}
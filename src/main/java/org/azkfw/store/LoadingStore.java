@@ -0,0 +1,442 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * このクラスは、存在しない値をローダーから読み込んで格納するストアクラスです。
+ * <p>
+ * 値の保持は委譲先のストアで行います。同じキーの読み込みが同時に要求された場合、ローダーの呼び出しは１回のみで、
+ * 他のスレッドは同じ読み込みの完了を待ちます。{@link #getAll(Collection)}は存在しないキーをまとめて{@link StoreLoader#loadAll(Collection)}で読み込みます。
+ * </p>
+ * <p>
+ * {@link #setRefreshAfterWrite(long, TimeUnit, Executor)}を設定した場合、格納から指定時間を経過した値が参照された時点で、
+ * 現在の値を返しつつ非同期に再読み込みを行います。委譲先に{@link ExpiringStore}を使用する場合、有効期間より短い時間を設定することで期限切れ前に値を更新できます。
+ * 委譲先で追い出された値の格納時刻は、参照時に値が存在しなかった時点、または格納時刻の件数が増加した時点で破棄します。
+ * </p>
+ * <p>
+ * 読み込み中のキーに対して{@link #put(Object, Object)}または{@link #remove(Object)}が行われた場合、読み込んだ値は格納されません。
+ * ローダーが<code>null</code>を返した値は格納しません。{@link StoreLoader#loadAll(Collection)}が<code>null</code>を返した場合は、全てのキーが存在しないものとして扱います。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class LoadingStore<K, V> extends AbstractStore<K, V> {
+
+	/** 格納時刻の整理を行う最小件数 */
+	private static final int MIN_SWEEP_SIZE = 1024;
+
+	/** 委譲先ストア */
+	private final Store<K, V> store;
+
+	/** ローダー */
+	private final StoreLoader<K, V> loader;
+
+	/** 読み込み中のキー */
+	private final ConcurrentMap<K, LoadTask<V>> loading;
+
+	/** 格納時刻 */
+	private final ConcurrentMap<K, Long> writeTimes;
+
+	/** 格納時刻の整理を行う件数 */
+	private volatile int sweepSize;
+
+	/** 格納時刻の整理中 */
+	private final AtomicBoolean sweeping;
+
+	/** 再読み込みまでの時間(ナノ秒)、0以下は無効 */
+	private long refreshAfterWrite;
+
+	/** 再読み込みを行うエグゼキューター */
+	private Executor refreshExecutor;
+
+	/** ティッカー */
+	private Ticker ticker;
+
+	/** 統計 */
+	private StatisticsRecorder recorder;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aStore 委譲先ストア
+	 * @param aLoader ローダー
+	 */
+	public LoadingStore(final Store<K, V> aStore, final StoreLoader<K, V> aLoader) {
+		super(LoadingStore.class);
+		store = aStore;
+		loader = aLoader;
+		loading = new ConcurrentHashMap<K, LoadTask<V>>();
+		writeTimes = new ConcurrentHashMap<K, Long>();
+		sweepSize = MIN_SWEEP_SIZE;
+		sweeping = new AtomicBoolean();
+		refreshAfterWrite = 0;
+		ticker = Ticker.SYSTEM;
+	}
+
+	/**
+	 * 非同期再読み込みを設定する。
+	 *
+	 * @param aDuration 格納から再読み込みまでの時間
+	 * @param aUnit 時間単位
+	 * @param aExecutor 再読み込みを行うエグゼキューター
+	 */
+	public void setRefreshAfterWrite(final long aDuration, final TimeUnit aUnit, final Executor aExecutor) {
+		refreshAfterWrite = aUnit.toNanos(aDuration);
+		refreshExecutor = aExecutor;
+	}
+
+	/**
+	 * ティッカーを設定する。
+	 *
+	 * @param aTicker ティッカー
+	 */
+	public void setTicker(final Ticker aTicker) {
+		ticker = aTicker;
+	}
+
+	/**
+	 * 読み込み件数・時間の記録先を設定する。
+	 *
+	 * @param aRecorder 統計
+	 */
+	public void setStatisticsRecorder(final StatisticsRecorder aRecorder) {
+		recorder = aRecorder;
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		invalidateLoading(aKey);
+		store.put(aKey, aValue);
+		recordWrite(aKey);
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		for (K key : aMap.keySet()) {
+			invalidateLoading(key);
+		}
+		store.putAll(aMap);
+		for (K key : aMap.keySet()) {
+			recordWrite(key);
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		V value = store.get(aKey);
+		if (null != value) {
+			refreshIfNeeded(aKey);
+			return value;
+		}
+		// 委譲先で追い出された値の格納時刻を破棄する
+		writeTimes.remove(aKey);
+		value = load(aKey);
+		return (null != value) ? value : aDefault;
+	}
+
+	/**
+	 * 複数の値を取得する。
+	 * <p>
+	 * 存在しないキーは、他スレッドが読み込み中のものを除きまとめて読み込む。
+	 * </p>
+	 *
+	 * @param aKeys キー一覧
+	 * @return キーと値のマップ(値が存在しないキーは含まない)
+	 */
+	public Map<K, V> getAll(final Collection<? extends K> aKeys) {
+		Map<K, V> result = new HashMap<K, V>();
+		List<K> owned = new ArrayList<K>();
+		Map<K, LoadTask<V>> tasks = new HashMap<K, LoadTask<V>>();
+		Map<K, LoadTask<V>> waiting = new HashMap<K, LoadTask<V>>();
+		for (K key : aKeys) {
+			if (result.containsKey(key) || tasks.containsKey(key) || waiting.containsKey(key)) {
+				continue;
+			}
+			V value = store.get(key);
+			if (null != value) {
+				result.put(key, value);
+				refreshIfNeeded(key);
+				continue;
+			}
+			writeTimes.remove(key);
+			LoadTask<V> task = new LoadTask<V>();
+			LoadTask<V> existing = loading.putIfAbsent(key, task);
+			if (null == existing) {
+				owned.add(key);
+				tasks.put(key, task);
+			} else {
+				waiting.put(key, existing);
+			}
+		}
+
+		if (!owned.isEmpty()) {
+			Map<K, V> values = new HashMap<K, V>();
+			Throwable failure = null;
+			long start = ticker.read();
+			try {
+				Map<K, V> loaded = loader.loadAll(owned);
+				// nullは全件存在しないものとして扱う
+				if (null != loaded) {
+					for (K key : owned) {
+						V value = loaded.get(key);
+						if (null != value) {
+							values.put(key, value);
+						}
+					}
+				}
+			} catch (RuntimeException ex) {
+				failure = ex;
+			} catch (Error ex) {
+				failure = ex;
+			}
+			long elapsed = ticker.read() - start;
+			// 格納に失敗した場合も、読み込みを待つスレッドが待機し続けないよう全キーを完了させる
+			RuntimeException error = null;
+			for (K key : owned) {
+				try {
+					complete(key, tasks.get(key), values.get(key), failure);
+				} catch (RuntimeException ex) {
+					if (null == error) {
+						error = ex;
+					}
+				}
+			}
+			recordLoad(elapsed, null == failure);
+			if (failure instanceof RuntimeException) {
+				throw (RuntimeException) failure;
+			}
+			if (failure instanceof Error) {
+				throw (Error) failure;
+			}
+			if (null != error) {
+				throw error;
+			}
+			result.putAll(values);
+		}
+		for (Map.Entry<K, LoadTask<V>> entry : waiting.entrySet()) {
+			V value = entry.getValue().future.join();
+			if (null != value) {
+				result.put(entry.getKey(), value);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		return store.has(aKey);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		invalidateLoading(aKey);
+		store.remove(aKey);
+		writeTimes.remove(aKey);
+	}
+
+	/**
+	 * 値を再読み込みする。
+	 * <p>
+	 * 同じキーが読み込み中の場合は、その完了を待つ。
+	 * </p>
+	 *
+	 * @param aKey キー
+	 * @return 値
+	 */
+	public V refresh(final K aKey) {
+		return load(aKey);
+	}
+
+	/**
+	 * 委譲先ストアを取得する。
+	 *
+	 * @return ストア
+	 */
+	public Store<K, V> getStore() {
+		return store;
+	}
+
+	/**
+	 * ローダーでの読み込みに要した時間を通知する。
+	 * <p>
+	 * 読み込みが完了するたびに呼び出される。サブクラスで統計の記録に使用する。
+	 * </p>
+	 *
+	 * @param aNanos 時間(ナノ秒)
+	 * @param aSuccess 成功した場合、<code>true</code>
+	 */
+	protected void onLoad(final long aNanos, final boolean aSuccess) {
+	}
+
+	private void recordLoad(final long aNanos, final boolean aSuccess) {
+		if (null != recorder) {
+			recorder.recordLoad(aNanos, aSuccess);
+		}
+		onLoad(aNanos, aSuccess);
+	}
+
+	/**
+	 * 値を読み込む。同じキーの読み込みは１つにまとめる。
+	 */
+	private V load(final K aKey) {
+		LoadTask<V> task = new LoadTask<V>();
+		LoadTask<V> existing = loading.putIfAbsent(aKey, task);
+		if (null != existing) {
+			return existing.future.join();
+		}
+		long start = ticker.read();
+		V value;
+		try {
+			value = loader.load(aKey);
+		} catch (RuntimeException ex) {
+			recordLoad(ticker.read() - start, false);
+			complete(aKey, task, null, ex);
+			throw ex;
+		} catch (Error ex) {
+			recordLoad(ticker.read() - start, false);
+			complete(aKey, task, null, ex);
+			throw ex;
+		}
+		recordLoad(ticker.read() - start, true);
+		complete(aKey, task, value, null);
+		return value;
+	}
+
+	private void complete(final K aKey, final LoadTask<V> aTask, final V aValue, final Throwable aFailure) {
+		try {
+			if (null == aFailure && null != aValue) {
+				// 読み込み中の更新と競合した場合に古い値で上書きしないよう、判定と格納を同期する
+				synchronized (aTask) {
+					if (!aTask.obsolete) {
+						store.put(aKey, aValue);
+						recordWrite(aKey);
+					}
+				}
+			}
+		} finally {
+			loading.remove(aKey, aTask);
+			if (null == aFailure) {
+				aTask.future.set(aValue);
+			} else {
+				aTask.future.setException(aFailure);
+			}
+		}
+	}
+
+	private void invalidateLoading(final K aKey) {
+		LoadTask<V> task = loading.get(aKey);
+		if (null != task) {
+			synchronized (task) {
+				task.obsolete = true;
+			}
+		}
+	}
+
+	private void recordWrite(final K aKey) {
+		if (0 < refreshAfterWrite) {
+			writeTimes.put(aKey, ticker.read());
+			if (writeTimes.size() > sweepSize) {
+				sweepWriteTimes();
+			}
+		}
+	}
+
+	/**
+	 * 委譲先に存在しないキーの格納時刻を破棄する。
+	 */
+	private void sweepWriteTimes() {
+		if (!sweeping.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			for (Map.Entry<K, Long> entry : writeTimes.entrySet()) {
+				if (!store.has(entry.getKey())) {
+					// 整理中に格納された時刻は破棄しない
+					writeTimes.remove(entry.getKey(), entry.getValue());
+				}
+			}
+			sweepSize = Math.max(MIN_SWEEP_SIZE, writeTimes.size() * 2);
+		} finally {
+			sweeping.set(false);
+		}
+	}
+
+	/**
+	 * 保持している格納時刻の件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	int getWriteTimeCount() {
+		return writeTimes.size();
+	}
+
+	private void refreshIfNeeded(final K aKey) {
+		if (0 >= refreshAfterWrite) {
+			return;
+		}
+		Long written = writeTimes.get(aKey);
+		if (null != written && ticker.read() - written.longValue() < refreshAfterWrite) {
+			return;
+		}
+		if (loading.containsKey(aKey)) {
+			return;
+		}
+		// 重複した再読み込みを避けるため、実行前に時刻を更新する
+		writeTimes.put(aKey, ticker.read());
+		refreshExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					load(aKey);
+				} catch (RuntimeException ex) {
+					warn("Failed to refresh : " + aKey, ex);
+				}
+			}
+		});
+	}
+
+	/**
+	 * このクラスは、読み込み中の処理を表現するクラスです。
+	 */
+	private static final class LoadTask<V> {
+
+		/** 結果 */
+		private final StoreFuture<V> future = new StoreFuture<V>();
+
+		/** 読み込み中に更新された */
+		private boolean obsolete;
+	}
+}
@@ -0,0 +1,835 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * このクラスは、追記のみでデータを書き込むログ構造の永続ストアクラスです。
+ * <p>
+ * 格納・削除はディレクトリ内のセグメントファイルへの追記で行い、メモリ上の索引がキーごとに最新レコードの位置を保持します。
+ * 参照は索引の位置から値を１回読み込むだけで行えます。セグメントが一定サイズに達すると新しいセグメントへ切り替え、
+ * 切り替えたセグメントには索引の再構築用にヒントファイルを書き出します。起動時はヒントファイルがあればデータファイルを走査しません。
+ * </p>
+ * <p>
+ * 上書き・削除により不要となったレコードは{@link #compact()}で除去します。書き込み中でないすべてのセグメントから有効なレコードのみを新しいセグメントへ複製し、
+ * 元のセグメントを削除します。各レコードは書き込み順の通番を持ち、同じキーのレコードが複数のファイルに存在する場合は通番の大きいものが有効となります。
+ * 複製先はディレクトリを含めて同期してから元のセグメントを古い順に削除するため、削除レコードより先に削除前の値のレコードが消え、
+ * 圧縮中に異常終了しても削除済みのキーが復活することはありません。
+ * </p>
+ * <p>
+ * キーの型は{@link Object#equals(Object)}と{@link Object#hashCode()}を実装している必要があります。キーおよび値に<code>null</code>は指定できません。
+ * </p>
+ *
+ * <pre>
+ * レコード形式 : CRC(int)、通番(long)、キー長(int)、値長(int、削除は-1)、キー、値
+ * ヒント形式 : 識別子(int)、{通番(long)、位置(long)、キー長(int)、値長(int)、キー}の繰り返し
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class LogStructuredStore<K, V> extends AbstractStore<K, V> implements Closeable {
+
+	/** データファイルの拡張子 */
+	public static final String DATA_SUFFIX = ".data";
+
+	/** ヒントファイルの拡張子 */
+	public static final String HINT_SUFFIX = ".hint";
+
+	/** デフォルトセグメントサイズ */
+	public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+	/** ヒントファイル識別子 */
+	private static final int HINT_MAGIC = 0x415A4C48; // "AZLH"
+
+	/** レコードヘッダーサイズ */
+	private static final int HEADER_SIZE = 20;
+
+	/** ディレクトリ */
+	private final File directory;
+
+	/** キーのシリアライザー */
+	private final Serializer<K> keySerializer;
+
+	/** 値のシリアライザー */
+	private final Serializer<V> valueSerializer;
+
+	/** 索引 */
+	private final ConcurrentMap<K, Location> index;
+
+	/** セグメント */
+	private final ConcurrentMap<Long, Segment> segments;
+
+	/** 書き込みロック */
+	private final ReentrantLock writeLock;
+
+	/** 圧縮ロック */
+	private final ReentrantLock compactionLock;
+
+	/** セグメント番号 */
+	private final AtomicLong segmentSequence;
+
+	/** レコード通番 */
+	private final AtomicLong recordSequence;
+
+	/** 有効レコードのバイト数 */
+	private final AtomicLong liveBytes;
+
+	/** 書き込み中のセグメント */
+	private volatile Segment active;
+
+	/** 書き込み中のセグメントのヒント */
+	private ByteArrayOutputStream activeHint;
+
+	/** セグメントサイズ */
+	private long maxSegmentSize;
+
+	/** 書き込みごとに同期するか */
+	private boolean syncOnWrite;
+
+	/** 自動圧縮を行う不要レコードの割合 */
+	private double compactionThreshold;
+
+	/** 圧縮スレッド */
+	private ScheduledExecutorService compaction;
+
+	/** クローズ済み */
+	private volatile boolean closed;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * ディレクトリ内の既存セグメントから索引を構築し、新しいセグメントへの書き込みを開始する。
+	 * </p>
+	 *
+	 * @param aDirectory ディレクトリ
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public LogStructuredStore(final File aDirectory, final Serializer<K> aKeySerializer, final Serializer<V> aValueSerializer) throws IOException {
+		super(LogStructuredStore.class);
+		directory = aDirectory;
+		keySerializer = aKeySerializer;
+		valueSerializer = aValueSerializer;
+		index = new ConcurrentHashMap<K, Location>();
+		segments = new ConcurrentHashMap<Long, Segment>();
+		writeLock = new ReentrantLock();
+		compactionLock = new ReentrantLock();
+		segmentSequence = new AtomicLong();
+		recordSequence = new AtomicLong();
+		liveBytes = new AtomicLong();
+		maxSegmentSize = DEFAULT_SEGMENT_SIZE;
+		syncOnWrite = false;
+		compactionThreshold = 0.5;
+		closed = false;
+
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Failed to create directory : " + directory.getPath());
+		}
+		load();
+		active = createSegment(segmentSequence.incrementAndGet());
+		activeHint = new ByteArrayOutputStream();
+	}
+
+	/**
+	 * セグメントサイズを設定する。
+	 *
+	 * @param aSize バイト数
+	 */
+	public void setMaxSegmentSize(final long aSize) {
+		maxSegmentSize = aSize;
+	}
+
+	/**
+	 * 書き込みごとにディスクへ同期するかを設定する。
+	 *
+	 * @param aSync 同期する場合、<code>true</code>
+	 */
+	public void setSyncOnWrite(final boolean aSync) {
+		syncOnWrite = aSync;
+	}
+
+	/**
+	 * 自動圧縮を行う不要レコードの割合を設定する。
+	 *
+	 * @param aThreshold 割合(0～1)
+	 */
+	public void setCompactionThreshold(final double aThreshold) {
+		compactionThreshold = aThreshold;
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		if (null == aValue) {
+			throw new NullPointerException("Value is null.");
+		}
+		ByteBuffer key = serializeKey(aKey);
+		int valueSize = valueSerializer.getSize(aValue);
+		ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + key.remaining() + valueSize);
+		record.position(HEADER_SIZE);
+		record.put(key);
+		valueSerializer.serialize(aValue, record);
+		append(aKey, record, valueSize);
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		// 圧縮によりセグメントが削除された場合は索引を引き直す
+		for (int retry = 0; retry < 16; retry++) {
+			Location location = index.get(aKey);
+			if (null == location) {
+				return aDefault;
+			}
+			Segment segment = segments.get(location.segment);
+			if (null == segment) {
+				continue;
+			}
+			try {
+				ByteBuffer value = ByteBuffer.allocate(location.valueLength);
+				segment.read(location.position + HEADER_SIZE + location.keyLength, value);
+				value.flip();
+				return valueSerializer.deserialize(value, location.valueLength);
+			} catch (ClosedChannelException ex) {
+				continue;
+			} catch (IOException ex) {
+				throw new StoreException("Failed to read log segment : " + segment.file.getPath(), ex);
+			}
+		}
+		throw new StoreException("Too many retries while reading : " + aKey);
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		return index.containsKey(aKey);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		if (!index.containsKey(aKey)) {
+			return;
+		}
+		ByteBuffer key = serializeKey(aKey);
+		ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + key.remaining());
+		record.position(HEADER_SIZE);
+		record.put(key);
+		append(aKey, record, -1);
+	}
+
+	/**
+	 * 格納件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public int size() {
+		return index.size();
+	}
+
+	/**
+	 * セグメント数を取得する。
+	 *
+	 * @return セグメント数
+	 */
+	public int getSegmentCount() {
+		return segments.size();
+	}
+
+	/**
+	 * 全セグメントのバイト数を取得する。
+	 *
+	 * @return バイト数
+	 */
+	public long getTotalBytes() {
+		long total = 0;
+		for (Segment segment : segments.values()) {
+			total += segment.size;
+		}
+		return total;
+	}
+
+	/**
+	 * 有効なレコードのバイト数を取得する。
+	 *
+	 * @return バイト数
+	 */
+	public long getLiveBytes() {
+		return liveBytes.get();
+	}
+
+	/**
+	 * 書き込み内容をディスクへ同期する。
+	 */
+	public void flush() {
+		writeLock.lock();
+		try {
+			active.channel.force(false);
+		} catch (IOException ex) {
+			throw new StoreException("Failed to sync log segment.", ex);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * 不要なレコードを除去する。
+	 * <p>
+	 * 書き込み中のセグメントを切り替えた上で、それ以前のすべてのセグメントの有効なレコードを新しいセグメントへ複製する。
+	 * 圧縮中も読み書きは継続できます。
+	 * </p>
+	 *
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public void compact() throws IOException {
+		compactionLock.lock();
+		try {
+			writeLock.lock();
+			try {
+				rotate();
+			} finally {
+				writeLock.unlock();
+			}
+			long activeId = active.id;
+			List<Segment> targets = new ArrayList<Segment>();
+			for (Segment segment : segments.values()) {
+				if (segment.id < activeId) {
+					targets.add(segment);
+				}
+			}
+			if (targets.isEmpty()) {
+				return;
+			}
+			// 削除レコードより先に、それ以前のレコードを含むセグメントを削除する
+			Collections.sort(targets, new Comparator<Segment>() {
+				@Override
+				public int compare(final Segment aSegment1, final Segment aSegment2) {
+					return (aSegment1.id < aSegment2.id) ? -1 : ((aSegment1.id == aSegment2.id) ? 0 : 1);
+				}
+			});
+			Map<Long, Segment> targetMap = new HashMap<Long, Segment>();
+			for (Segment segment : targets) {
+				targetMap.put(segment.id, segment);
+			}
+
+			Segment output = null;
+			ByteArrayOutputStream outputHint = null;
+			List<Segment> outputs = new ArrayList<Segment>();
+			try {
+				for (Map.Entry<K, Location> entry : index.entrySet()) {
+					Location location = entry.getValue();
+					Segment source = targetMap.get(location.segment);
+					if (null == source) {
+						continue;
+					}
+					int size = location.size();
+					if (null == output || output.size + size > maxSegmentSize && 0 < output.size) {
+						if (null != output) {
+							finishSegment(output, outputHint);
+						}
+						output = createSegment(segmentSequence.incrementAndGet());
+						outputHint = new ByteArrayOutputStream();
+						outputs.add(output);
+					}
+					ByteBuffer record = ByteBuffer.allocate(size);
+					source.read(location.position, record);
+					record.flip();
+					long position = output.append(record);
+					Location moved = new Location(output.id, position, location.keyLength, location.valueLength, location.sequence);
+					writeHint(outputHint, moved, record);
+					// 圧縮中に更新・削除されたキーは置き換えず、複製したレコードは不要となる
+					index.replace(entry.getKey(), location, moved);
+				}
+				if (null != output) {
+					finishSegment(output, outputHint);
+				}
+			} catch (IOException ex) {
+				// 複製途中のセグメントは通番により無効となるため、元のセグメントを残す
+				error("Compaction failed.", ex);
+				throw ex;
+			}
+
+			// 複製先のデータ・ヒント・ディレクトリエントリは同期済み
+			for (Segment segment : targets) {
+				segments.remove(segment.id);
+				segment.close();
+				deleteFile(hintFile(segment.id));
+				deleteFile(segment.file);
+				onSegmentDeleted(segment.id);
+			}
+			WriteAheadLog.syncDirectory(directory);
+			info("Compacted " + targets.size() + " segments into " + outputs.size() + ".");
+		} finally {
+			compactionLock.unlock();
+		}
+	}
+
+	/**
+	 * 不要レコードの割合を定期的に確認し、閾値を超えた場合に圧縮を行うスレッドを開始する。
+	 *
+	 * @param aInterval 確認間隔
+	 * @param aUnit 時間単位
+	 */
+	public synchronized void startCompaction(final long aInterval, final TimeUnit aUnit) {
+		if (null != compaction) {
+			return;
+		}
+		compaction = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable aRunnable) {
+				Thread thread = new Thread(aRunnable, "LogStructuredStore-compaction");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		compaction.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				long total = getTotalBytes();
+				if (closed || 0 == total) {
+					return;
+				}
+				double garbage = 1.0 - (double) liveBytes.get() / total;
+				if (garbage >= compactionThreshold) {
+					try {
+						compact();
+					} catch (IOException ex) {
+						error("Background compaction failed.", ex);
+					} catch (RuntimeException ex) {
+						error("Background compaction failed.", ex);
+					}
+				}
+			}
+		}, aInterval, aInterval, aUnit);
+	}
+
+	/**
+	 * 圧縮スレッドを停止する。
+	 */
+	public synchronized void stopCompaction() {
+		if (null != compaction) {
+			compaction.shutdownNow();
+			compaction = null;
+		}
+	}
+
+	/**
+	 * 書き込み中のセグメントのヒントファイルを書き出し、すべてのセグメントを閉じる。
+	 *
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	@Override
+	public void close() throws IOException {
+		stopCompaction();
+		compactionLock.lock();
+		writeLock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (0 == active.size) {
+				segments.remove(active.id);
+				active.close();
+				deleteFile(active.file);
+			} else {
+				finishSegment(active, activeHint);
+			}
+			for (Segment segment : segments.values()) {
+				segment.close();
+			}
+			segments.clear();
+		} finally {
+			writeLock.unlock();
+			compactionLock.unlock();
+		}
+	}
+
+	private void append(final K aKey, final ByteBuffer aRecord, final int aValueLength) {
+		writeLock.lock();
+		try {
+			if (closed) {
+				throw new StoreException("Store is closed.");
+			}
+			int keyLength = aRecord.capacity() - HEADER_SIZE - Math.max(0, aValueLength);
+			long sequence = recordSequence.incrementAndGet();
+			aRecord.putLong(4, sequence);
+			aRecord.putInt(12, keyLength);
+			aRecord.putInt(16, aValueLength);
+			aRecord.putInt(0, checksum(aRecord.array(), aRecord.capacity()));
+			aRecord.position(0);
+			aRecord.limit(aRecord.capacity());
+
+			if (active.size + aRecord.capacity() > maxSegmentSize && 0 < active.size) {
+				rotate();
+			}
+			long position = active.append(aRecord);
+			if (syncOnWrite) {
+				active.channel.force(false);
+			}
+			Location location = new Location(active.id, position, keyLength, aValueLength, sequence);
+			writeHint(activeHint, location, aRecord);
+
+			Location previous;
+			if (0 > aValueLength) {
+				previous = index.remove(aKey);
+			} else {
+				previous = index.put(aKey, location);
+				liveBytes.addAndGet(location.size());
+			}
+			if (null != previous) {
+				liveBytes.addAndGet(-previous.size());
+			}
+		} catch (IOException ex) {
+			throw new StoreException("Failed to append log record.", ex);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * 書き込み中のセグメントを切り替える。書き込みロックを保持した状態で呼び出すこと。
+	 */
+	private void rotate() throws IOException {
+		if (0 == active.size) {
+			return;
+		}
+		finishSegment(active, activeHint);
+		active = createSegment(segmentSequence.incrementAndGet());
+		activeHint = new ByteArrayOutputStream();
+	}
+
+	private Segment createSegment(final long aId) throws IOException {
+		Segment segment = new Segment(aId, dataFile(aId), true);
+		segments.put(aId, segment);
+		return segment;
+	}
+
+	/**
+	 * セグメントを同期し、ヒントファイルを書き出す。
+	 */
+	private void finishSegment(final Segment aSegment, final ByteArrayOutputStream aHint) throws IOException {
+		aSegment.channel.force(true);
+		File hint = hintFile(aSegment.id);
+		File temp = new File(hint.getPath() + ".tmp");
+		FileOutputStream stream = new FileOutputStream(temp);
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+			out.writeInt(HINT_MAGIC);
+			aHint.writeTo(out);
+			out.flush();
+			stream.getFD().sync();
+		} finally {
+			stream.close();
+		}
+		// データファイルのディレクトリエントリもあわせて同期される
+		WriteAheadLog.replaceFile(temp, hint);
+	}
+
+	/**
+	 * 圧縮により元のセグメントを削除した時に呼び出される。
+	 *
+	 * @param aId セグメント番号
+	 */
+	void onSegmentDeleted(final long aId) {
+	}
+
+	private static void writeHint(final ByteArrayOutputStream aHint, final Location aLocation, final ByteBuffer aRecord) {
+		ByteBuffer entry = ByteBuffer.allocate(24 + aLocation.keyLength);
+		entry.putLong(aLocation.sequence);
+		entry.putLong(aLocation.position);
+		entry.putInt(aLocation.keyLength);
+		entry.putInt(aLocation.valueLength);
+		entry.put(aRecord.array(), aRecord.arrayOffset() + HEADER_SIZE, aLocation.keyLength);
+		aHint.write(entry.array(), 0, entry.capacity());
+	}
+
+	/**
+	 * 既存のセグメントから索引を構築する。
+	 */
+	private void load() throws IOException {
+		List<Long> ids = new ArrayList<Long>();
+		File[] files = directory.listFiles();
+		if (null != files) {
+			for (File file : files) {
+				String name = file.getName();
+				if (name.endsWith(DATA_SUFFIX)) {
+					try {
+						ids.add(Long.valueOf(name.substring(0, name.length() - DATA_SUFFIX.length())));
+					} catch (NumberFormatException ex) {
+						warn("Ignore unknown file : " + file.getPath());
+					}
+				}
+			}
+		}
+		Collections.sort(ids);
+
+		// 削除レコードも通番の比較に使用するため一旦索引に含める
+		Map<K, Location> all = new HashMap<K, Location>();
+		long maxSequence = 0;
+		for (Long id : ids) {
+			Segment segment = new Segment(id, dataFile(id), false);
+			segments.put(id, segment);
+			File hint = hintFile(id);
+			List<Object[]> entries = hint.isFile() ? readHint(id, hint) : scan(segment);
+			for (Object[] entry : entries) {
+				ByteBuffer key = (ByteBuffer) entry[0];
+				Location location = (Location) entry[1];
+				K k = keySerializer.deserialize(key, key.remaining());
+				Location current = all.get(k);
+				if (null == current || current.sequence < location.sequence) {
+					all.put(k, location);
+				}
+				maxSequence = Math.max(maxSequence, location.sequence);
+			}
+			segmentSequence.set(Math.max(segmentSequence.get(), id));
+		}
+		for (Map.Entry<K, Location> entry : all.entrySet()) {
+			if (0 <= entry.getValue().valueLength) {
+				index.put(entry.getKey(), entry.getValue());
+				liveBytes.addAndGet(entry.getValue().size());
+			}
+		}
+		recordSequence.set(maxSequence);
+		if (!ids.isEmpty()) {
+			info("Loaded " + index.size() + " keys from " + ids.size() + " segments.");
+		}
+	}
+
+	private List<Object[]> readHint(final long aId, final File aHint) throws IOException {
+		List<Object[]> entries = new ArrayList<Object[]>();
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(aHint)));
+		try {
+			if (HINT_MAGIC != in.readInt()) {
+				throw new IOException("Not a hint file : " + aHint.getPath());
+			}
+			while (true) {
+				long sequence;
+				try {
+					sequence = in.readLong();
+				} catch (EOFException ex) {
+					break;
+				}
+				long position = in.readLong();
+				int keyLength = in.readInt();
+				int valueLength = in.readInt();
+				byte[] key = new byte[keyLength];
+				in.readFully(key);
+				entries.add(new Object[] { ByteBuffer.wrap(key), new Location(aId, position, keyLength, valueLength, sequence) });
+			}
+		} finally {
+			in.close();
+		}
+		return entries;
+	}
+
+	/**
+	 * データファイルを走査する。チェックサムが一致しないレコード以降は切り捨てる。
+	 */
+	private List<Object[]> scan(final Segment aSegment) throws IOException {
+		List<Object[]> entries = new ArrayList<Object[]>();
+		long position = 0;
+		long length = aSegment.channel.size();
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while (position + HEADER_SIZE <= length) {
+			header.clear();
+			aSegment.read(position, header);
+			int keyLength = header.getInt(12);
+			int valueLength = header.getInt(16);
+			if (0 > keyLength || -1 > valueLength || position + HEADER_SIZE + keyLength + Math.max(0, valueLength) > length) {
+				break;
+			}
+			int size = HEADER_SIZE + keyLength + Math.max(0, valueLength);
+			ByteBuffer record = ByteBuffer.allocate(size);
+			aSegment.read(position, record);
+			if (record.getInt(0) != checksum(record.array(), size)) {
+				break;
+			}
+			ByteBuffer key = ByteBuffer.wrap(record.array(), HEADER_SIZE, keyLength).slice();
+			entries.add(new Object[] { key, new Location(aSegment.id, position, keyLength, valueLength, record.getLong(4)) });
+			position += size;
+		}
+		if (position < length) {
+			warn("Truncate broken log segment : " + aSegment.file.getPath() + " at " + position);
+			aSegment.truncate(position);
+		}
+		return entries;
+	}
+
+	private File dataFile(final long aId) {
+		return new File(directory, String.format("%016d", aId) + DATA_SUFFIX);
+	}
+
+	private File hintFile(final long aId) {
+		return new File(directory, String.format("%016d", aId) + HINT_SUFFIX);
+	}
+
+	private void deleteFile(final File aFile) {
+		if (aFile.exists() && !aFile.delete()) {
+			warn("Failed to delete file : " + aFile.getPath());
+		}
+	}
+
+	private ByteBuffer serializeKey(final K aKey) {
+		if (null == aKey) {
+			throw new NullPointerException("Key is null.");
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(keySerializer.getSize(aKey));
+		keySerializer.serialize(aKey, buffer);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * レコードのCRCを算出する。対象は通番以降。
+	 */
+	private static int checksum(final byte[] aRecord, final int aSize) {
+		CRC32 crc = new CRC32();
+		crc.update(aRecord, 4, aSize - 4);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * このクラスは、レコードの位置を表現するクラスです。
+	 */
+	private static final class Location {
+
+		private final long segment;
+
+		private final long position;
+
+		private final int keyLength;
+
+		private final int valueLength;
+
+		private final long sequence;
+
+		private Location(final long aSegment, final long aPosition, final int aKeyLength, final int aValueLength, final long aSequence) {
+			segment = aSegment;
+			position = aPosition;
+			keyLength = aKeyLength;
+			valueLength = aValueLength;
+			sequence = aSequence;
+		}
+
+		private int size() {
+			return HEADER_SIZE + keyLength + Math.max(0, valueLength);
+		}
+	}
+
+	/**
+	 * このクラスは、セグメントファイルを表現するクラスです。
+	 */
+	private static final class Segment {
+
+		private final long id;
+
+		private final File file;
+
+		private final RandomAccessFile raf;
+
+		private final FileChannel channel;
+
+		private volatile long size;
+
+		private Segment(final long aId, final File aFile, final boolean aWritable) throws IOException {
+			id = aId;
+			file = aFile;
+			raf = new RandomAccessFile(aFile, aWritable ? "rw" : "r");
+			channel = raf.getChannel();
+			size = channel.size();
+		}
+
+		private long append(final ByteBuffer aRecord) throws IOException {
+			long position = size;
+			ByteBuffer buffer = aRecord.duplicate();
+			long offset = position;
+			while (buffer.hasRemaining()) {
+				offset += channel.write(buffer, offset);
+			}
+			size = offset;
+			return position;
+		}
+
+		private void read(final long aPosition, final ByteBuffer aBuffer) throws IOException {
+			long offset = aPosition;
+			while (aBuffer.hasRemaining()) {
+				int read = channel.read(aBuffer, offset);
+				if (0 > read) {
+					throw new EOFException("Unexpected end of segment : " + file.getPath());
+				}
+				offset += read;
+			}
+		}
+
+		private void truncate(final long aSize) throws IOException {
+			RandomAccessFile writable = new RandomAccessFile(file, "rw");
+			try {
+				writable.getChannel().truncate(aSize);
+			} finally {
+				writable.close();
+			}
+			size = aSize;
+		}
+
+		private void close() throws IOException {
+			raf.close();
+		}
+	}
+}
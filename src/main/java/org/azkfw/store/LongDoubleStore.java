@@ -0,0 +1,276 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Arrays;
+
+/**
+ * このクラスは、キーをlong、値をdoubleで保持するストアクラスです。
+ * <p>
+ * キーと値をプリミティブ配列に格納する線形探索のオープンアドレス法で実装しており、
+ * {@link Store}&lt;Long, Double&gt;と比べてボクシングによるオブジェクト生成がなく、参照時にメモリ確保を行いません。
+ * 削除時は後続要素を詰めるため、削除を繰り返しても探索長は伸びません。キー<code>0</code>は配列の空きを表すため別枠で保持します。
+ * </p>
+ * <p>
+ * このクラスはスレッドセーフではありません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class LongDoubleStore {
+
+	/** デフォルト初期容量 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** 負荷係数 */
+	private static final float LOAD_FACTOR = 0.75f;
+
+	/** キー */
+	private long[] keys;
+
+	/** 値 */
+	private double[] values;
+
+	/** キー0の有無 */
+	private boolean hasZeroKey;
+
+	/** キー0の値 */
+	private double zeroValue;
+
+	/** 件数(キー0を除く) */
+	private int size;
+
+	/** 拡張閾値 */
+	private int threshold;
+
+	/**
+	 * コンストラクタ
+	 */
+	public LongDoubleStore() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aExpectedSize 想定件数
+	 */
+	public LongDoubleStore(final int aExpectedSize) {
+		if (0 > aExpectedSize) {
+			throw new IllegalArgumentException("Illegal expected size : " + aExpectedSize);
+		}
+		int capacity = 2;
+		while (capacity * LOAD_FACTOR < aExpectedSize && capacity < (1 << 30)) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	/**
+	 * 値を格納する。
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 */
+	public void put(final long aKey, final double aValue) {
+		if (0L == aKey) {
+			hasZeroKey = true;
+			zeroValue = aValue;
+			return;
+		}
+		int mask = keys.length - 1;
+		int index = hash(aKey) & mask;
+		long current;
+		while (0L != (current = keys[index])) {
+			if (current == aKey) {
+				values[index] = aValue;
+				return;
+			}
+			index = (index + 1) & mask;
+		}
+		keys[index] = aKey;
+		values[index] = aValue;
+		if (++size > threshold) {
+			rehash(keys.length << 1);
+		}
+	}
+
+	/**
+	 * 値を取得する。
+	 *
+	 * @param aKey キー
+	 * @return 値、存在しない場合<code>0.0</code>
+	 */
+	public double get(final long aKey) {
+		return getOrDefault(aKey, 0.0);
+	}
+
+	/**
+	 * 値を取得する。
+	 *
+	 * @param aKey キー
+	 * @param aDefault デフォルト値
+	 * @return 値、存在しない場合デフォルト値
+	 */
+	public double getOrDefault(final long aKey, final double aDefault) {
+		if (0L == aKey) {
+			return hasZeroKey ? zeroValue : aDefault;
+		}
+		int index = indexOf(aKey);
+		return (-1 != index) ? values[index] : aDefault;
+	}
+
+	/**
+	 * キーに値が存在するか判断する。
+	 *
+	 * @param aKey キー
+	 * @return 判断結果
+	 */
+	public boolean has(final long aKey) {
+		if (0L == aKey) {
+			return hasZeroKey;
+		}
+		return -1 != indexOf(aKey);
+	}
+
+	/**
+	 * 値を削除する。
+	 *
+	 * @param aKey キー
+	 */
+	public void remove(final long aKey) {
+		if (0L == aKey) {
+			hasZeroKey = false;
+			zeroValue = 0.0;
+			return;
+		}
+		int index = indexOf(aKey);
+		if (-1 == index) {
+			return;
+		}
+		// 後続要素を詰める
+		int mask = keys.length - 1;
+		int hole = index;
+		int next = (hole + 1) & mask;
+		long key;
+		while (0L != (key = keys[next])) {
+			int home = hash(key) & mask;
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = key;
+				values[hole] = values[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		keys[hole] = 0L;
+		values[hole] = 0.0;
+		size--;
+	}
+
+	/**
+	 * 格納件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public int size() {
+		return size + (hasZeroKey ? 1 : 0);
+	}
+
+	/**
+	 * ストアが空か判断する。
+	 *
+	 * @return 空の場合、<code>true</code>を返す。
+	 */
+	public boolean isEmpty() {
+		return 0 == size();
+	}
+
+	/**
+	 * すべての値を削除する。
+	 */
+	public void clear() {
+		Arrays.fill(keys, 0L);
+		Arrays.fill(values, 0.0);
+		hasZeroKey = false;
+		zeroValue = 0.0;
+		size = 0;
+	}
+
+	/**
+	 * キーの一覧を取得する。
+	 *
+	 * @return キー(順序不定)
+	 */
+	public long[] keys() {
+		long[] result = new long[size()];
+		int count = 0;
+		if (hasZeroKey) {
+			result[count++] = 0L;
+		}
+		for (long key : keys) {
+			if (0L != key) {
+				result[count++] = key;
+			}
+		}
+		return result;
+	}
+
+	private int indexOf(final long aKey) {
+		int mask = keys.length - 1;
+		int index = hash(aKey) & mask;
+		long current;
+		while (0L != (current = keys[index])) {
+			if (current == aKey) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void allocate(final int aCapacity) {
+		keys = new long[aCapacity];
+		values = new double[aCapacity];
+		threshold = Math.min(aCapacity - 1, (int) (aCapacity * LOAD_FACTOR));
+	}
+
+	private void rehash(final int aCapacity) {
+		long[] oldKeys = keys;
+		double[] oldValues = values;
+		allocate(aCapacity);
+		int mask = aCapacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			long key = oldKeys[i];
+			if (0L != key) {
+				int index = hash(key) & mask;
+				while (0L != keys[index]) {
+					index = (index + 1) & mask;
+				}
+				keys[index] = key;
+				values[index] = oldValues[i];
+			}
+		}
+	}
+
+	private static int hash(final long aKey) {
+		long h = aKey * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * このクラスは、数値(long)を固定8バイトに変換するシリアライザークラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class LongSerializer implements Serializer<Long> {
+
+	@Override
+	public int getSize(final Long aValue) {
+		return 8;
+	}
+
+	@Override
+	public void serialize(final Long aValue, final ByteBuffer aBuffer) {
+		aBuffer.putLong(aValue.longValue());
+	}
+
+	@Override
+	public Long deserialize(final ByteBuffer aBuffer, final int aLength) {
+		return Long.valueOf(aBuffer.getLong());
+	}
+}
@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+/**
+ * このクラスは、LZ77系の高速な圧縮を行う圧縮方式クラスです。
+ * <p>
+ * 直前64KB以内に出現した4バイト以上の一致をハッシュ表で探索し、リテラル列と一致位置の組(シーケンス)として出力します。
+ * 一致の探索は1候補のみのため圧縮率は{@link DeflateCodec}に劣りますが、圧縮・展開ともに数倍高速です。
+ * </p>
+ *
+ * <pre>
+ * シーケンス形式 : トークン(上位4bit:リテラル長、下位4bit:一致長-4)、[リテラル長の拡張]、リテラル、オフセット(2byte、リトルエンディアン)、[一致長の拡張]
+ * 長さの拡張 : 4bitの値が15の場合、255未満の値が現れるまで1byteずつ加算する
+ * 最後のシーケンスはリテラルのみで終わる
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class LzCodec implements CompressionCodec {
+
+	/** 最小一致長 */
+	private static final int MIN_MATCH = 4;
+
+	/** 最大オフセット */
+	private static final int MAX_OFFSET = 65535;
+
+	/** 末尾で一致を探索しないバイト数 */
+	private static final int LAST_LITERALS = 5;
+
+	/** ハッシュ表のビット数 */
+	private static final int HASH_BITS = 12;
+
+	@Override
+	public int maxCompressedLength(final int aLength) {
+		return aLength + (aLength / 255) + 16;
+	}
+
+	@Override
+	public int compress(final byte[] aSrc, final int aSrcOffset, final int aSrcLength, final byte[] aDst, final int aDstOffset) {
+		// 位置+1を保持し、0は未登録を表す
+		int[] table = new int[1 << HASH_BITS];
+		int end = aSrcOffset + aSrcLength;
+		int limit = end - LAST_LITERALS;
+		int anchor = aSrcOffset;
+		int ip = aSrcOffset;
+		int op = aDstOffset;
+		while (ip + MIN_MATCH <= limit) {
+			int sequence = readInt(aSrc, ip);
+			int hash = (sequence * 0x9E3779B1) >>> (32 - HASH_BITS);
+			int ref = table[hash] - 1;
+			table[hash] = ip + 1;
+			if (0 > ref || MAX_OFFSET < ip - ref || sequence != readInt(aSrc, ref)) {
+				ip++;
+				continue;
+			}
+			// 一致を前方へ延長する
+			int length = MIN_MATCH;
+			while (ip + length < limit && aSrc[ref + length] == aSrc[ip + length]) {
+				length++;
+			}
+			op = writeSequence(aSrc, anchor, ip - anchor, aDst, op, ip - ref, length);
+			ip += length;
+			anchor = ip;
+		}
+		return writeLiterals(aSrc, anchor, end - anchor, aDst, op) - aDstOffset;
+	}
+
+	@Override
+	public void decompress(final byte[] aSrc, final int aSrcOffset, final int aSrcLength, final byte[] aDst, final int aDstOffset, final int aDstLength) {
+		int ip = aSrcOffset;
+		int srcEnd = aSrcOffset + aSrcLength;
+		int op = aDstOffset;
+		int dstEnd = aDstOffset + aDstLength;
+		try {
+			while (true) {
+				int token = aSrc[ip++] & 0xFF;
+				int literals = token >>> 4;
+				if (15 == literals) {
+					int b;
+					do {
+						b = aSrc[ip++] & 0xFF;
+						literals += b;
+					} while (255 == b);
+				}
+				if (ip + literals > srcEnd || op + literals > dstEnd) {
+					throw new StoreException("Broken compressed data.");
+				}
+				System.arraycopy(aSrc, ip, aDst, op, literals);
+				ip += literals;
+				op += literals;
+				if (ip >= srcEnd) {
+					break;
+				}
+
+				int offset = (aSrc[ip] & 0xFF) | ((aSrc[ip + 1] & 0xFF) << 8);
+				ip += 2;
+				int length = token & 0x0F;
+				if (15 == length) {
+					int b;
+					do {
+						b = aSrc[ip++] & 0xFF;
+						length += b;
+					} while (255 == b);
+				}
+				length += MIN_MATCH;
+				int ref = op - offset;
+				if (0 == offset || ref < aDstOffset || op + length > dstEnd) {
+					throw new StoreException("Broken compressed data.");
+				}
+				if (offset >= length) {
+					System.arraycopy(aDst, ref, aDst, op, length);
+					op += length;
+				} else {
+					// 重なりのある一致は直前の出力を繰り返す
+					for (int i = 0; i < length; i++) {
+						aDst[op++] = aDst[ref++];
+					}
+				}
+			}
+		} catch (ArrayIndexOutOfBoundsException ex) {
+			throw new StoreException("Broken compressed data.", ex);
+		}
+		if (op != dstEnd) {
+			throw new StoreException("Broken compressed data. (expected=" + aDstLength + ", actual=" + (op - aDstOffset) + ")");
+		}
+	}
+
+	private static int writeSequence(final byte[] aSrc, final int aLiteralOffset, final int aLiteralLength, final byte[] aDst, final int aDstOffset,
+			final int aOffset, final int aMatchLength) {
+		int op = aDstOffset;
+		int token = op++;
+		int match = aMatchLength - MIN_MATCH;
+		aDst[token] = (byte) ((Math.min(aLiteralLength, 15) << 4) | Math.min(match, 15));
+		op = writeLength(aLiteralLength, aDst, op);
+		System.arraycopy(aSrc, aLiteralOffset, aDst, op, aLiteralLength);
+		op += aLiteralLength;
+		aDst[op++] = (byte) aOffset;
+		aDst[op++] = (byte) (aOffset >>> 8);
+		return writeLength(match, aDst, op);
+	}
+
+	private static int writeLiterals(final byte[] aSrc, final int aLiteralOffset, final int aLiteralLength, final byte[] aDst, final int aDstOffset) {
+		int op = aDstOffset;
+		aDst[op++] = (byte) (Math.min(aLiteralLength, 15) << 4);
+		op = writeLength(aLiteralLength, aDst, op);
+		System.arraycopy(aSrc, aLiteralOffset, aDst, op, aLiteralLength);
+		return op + aLiteralLength;
+	}
+
+	/**
+	 * 4bitに収まらない長さの拡張部分を書き込む。
+	 */
+	private static int writeLength(final int aLength, final byte[] aDst, final int aDstOffset) {
+		int op = aDstOffset;
+		if (15 <= aLength) {
+			int rest = aLength - 15;
+			while (255 <= rest) {
+				aDst[op++] = (byte) 255;
+				rest -= 255;
+			}
+			aDst[op++] = (byte) rest;
+		}
+		return op;
+	}
+
+	private static int readInt(final byte[] aData, final int aOffset) {
+		return (aData[aOffset] & 0xFF) | ((aData[aOffset + 1] & 0xFF) << 8) | ((aData[aOffset + 2] & 0xFF) << 16) | ((aData[aOffset + 3] & 0xFF) << 24);
+	}
+}
@@ -0,0 +1,298 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * このクラスは、ファイルを固定サイズの領域ごとにメモリマップし、64bitの位置で読み書きするクラスです。
+ * <p>
+ * {@link MappedByteBuffer}は1つあたり2GB未満に制限されるため、ファイルを複数の領域に分けてマップします。
+ * 領域の境界をまたぐ読み書きは分割して行います。書き込み位置が未マップの領域に達した場合、ファイルを拡張して追加でマップします。
+ * </p>
+ * <p>
+ * マップ済み領域一覧の更新は同期化されていますが、読み書き自体の排他は呼び出し元で行ってください。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+final class MappedRegions implements Closeable {
+
+	/** ファイル */
+	private final RandomAccessFile file;
+
+	/** チャネル */
+	private final FileChannel channel;
+
+	/** 読み取り専用 */
+	private final boolean readOnly;
+
+	/** 領域サイズのシフト数 */
+	private final int regionShift;
+
+	/** 領域サイズ */
+	private final long regionSize;
+
+	/** マップ済み領域 */
+	private volatile MappedByteBuffer[] regions;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * 既存ファイルのサイズ分を領域としてマップする。
+	 * </p>
+	 *
+	 * @param aFile ファイル
+	 * @param aRegionSize 領域サイズ(2のべき乗、1GB以下)
+	 * @param aReadOnly 読み取り専用の場合、<code>true</code>
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	MappedRegions(final File aFile, final long aRegionSize, final boolean aReadOnly) throws IOException {
+		if (0 >= aRegionSize || 0 != (aRegionSize & (aRegionSize - 1)) || aRegionSize > (1L << 30)) {
+			throw new IllegalArgumentException("Region size must be a power of two up to 1GB : " + aRegionSize);
+		}
+		readOnly = aReadOnly;
+		regionSize = aRegionSize;
+		regionShift = Long.numberOfTrailingZeros(aRegionSize);
+		file = new RandomAccessFile(aFile, aReadOnly ? "r" : "rw");
+		channel = file.getChannel();
+		regions = new MappedByteBuffer[0];
+		long length = file.length();
+		if (0 < length) {
+			ensureMapped(length - 1);
+		}
+	}
+
+	/**
+	 * マップ済みのバイト数を取得する。
+	 *
+	 * @return バイト数
+	 */
+	long getMappedSize() {
+		return regions.length * regionSize;
+	}
+
+	/**
+	 * 指定位置までを含む領域をマップする。
+	 *
+	 * @param aPosition 位置
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	synchronized void ensureMapped(final long aPosition) throws IOException {
+		int required = (int) (aPosition >>> regionShift) + 1;
+		MappedByteBuffer[] current = regions;
+		if (required <= current.length) {
+			return;
+		}
+		List<MappedByteBuffer> list = new ArrayList<MappedByteBuffer>(required);
+		for (MappedByteBuffer region : current) {
+			list.add(region);
+		}
+		for (int i = current.length; i < required; i++) {
+			if (readOnly) {
+				long size = Math.min(regionSize, channel.size() - i * regionSize);
+				list.add(channel.map(FileChannel.MapMode.READ_ONLY, i * regionSize, size));
+			} else {
+				list.add(channel.map(FileChannel.MapMode.READ_WRITE, i * regionSize, regionSize));
+			}
+		}
+		regions = list.toArray(new MappedByteBuffer[list.size()]);
+	}
+
+	/**
+	 * int値を読み込む。
+	 *
+	 * @param aPosition 位置
+	 * @return 値
+	 */
+	int getInt(final long aPosition) {
+		int offset = offset(aPosition);
+		if (offset + 4 <= regionSize) {
+			return region(aPosition).getInt(offset);
+		}
+		return read(aPosition, 4).getInt();
+	}
+
+	/**
+	 * long値を読み込む。
+	 *
+	 * @param aPosition 位置
+	 * @return 値
+	 */
+	long getLong(final long aPosition) {
+		int offset = offset(aPosition);
+		if (offset + 8 <= regionSize) {
+			return region(aPosition).getLong(offset);
+		}
+		return read(aPosition, 8).getLong();
+	}
+
+	/**
+	 * int値を書き込む。
+	 *
+	 * @param aPosition 位置
+	 * @param aValue 値
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	void putInt(final long aPosition, final int aValue) throws IOException {
+		ensureMapped(aPosition + 3);
+		int offset = offset(aPosition);
+		if (offset + 4 <= regionSize) {
+			region(aPosition).putInt(offset, aValue);
+		} else {
+			ByteBuffer buffer = ByteBuffer.allocate(4);
+			buffer.putInt(aValue).flip();
+			write(aPosition, buffer);
+		}
+	}
+
+	/**
+	 * long値を書き込む。
+	 *
+	 * @param aPosition 位置
+	 * @param aValue 値
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	void putLong(final long aPosition, final long aValue) throws IOException {
+		ensureMapped(aPosition + 7);
+		int offset = offset(aPosition);
+		if (offset + 8 <= regionSize) {
+			region(aPosition).putLong(offset, aValue);
+		} else {
+			ByteBuffer buffer = ByteBuffer.allocate(8);
+			buffer.putLong(aValue).flip();
+			write(aPosition, buffer);
+		}
+	}
+
+	/**
+	 * 指定バイト数を読み込む。
+	 *
+	 * @param aPosition 位置
+	 * @param aLength バイト数
+	 * @return 読み込んだデータ(位置0)
+	 */
+	ByteBuffer read(final long aPosition, final int aLength) {
+		byte[] bytes = new byte[aLength];
+		read(aPosition, bytes, 0, aLength);
+		return ByteBuffer.wrap(bytes);
+	}
+
+	/**
+	 * 指定バイト数を読み込む。
+	 *
+	 * @param aPosition 位置
+	 * @param aBytes 格納先
+	 * @param aOffset 格納先の開始位置
+	 * @param aLength バイト数
+	 */
+	void read(final long aPosition, final byte[] aBytes, final int aOffset, final int aLength) {
+		long position = aPosition;
+		int done = 0;
+		while (done < aLength) {
+			ByteBuffer region = region(position).duplicate();
+			int offset = offset(position);
+			int size = (int) Math.min(aLength - done, regionSize - offset);
+			region.position(offset);
+			region.get(aBytes, aOffset + done, size);
+			done += size;
+			position += size;
+		}
+	}
+
+	/**
+	 * バッファの残り部分を書き込む。
+	 *
+	 * @param aPosition 位置
+	 * @param aBuffer バッファ
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	void write(final long aPosition, final ByteBuffer aBuffer) throws IOException {
+		int length = aBuffer.remaining();
+		if (0 == length) {
+			return;
+		}
+		ensureMapped(aPosition + length - 1);
+		ByteBuffer source = aBuffer.duplicate();
+		long position = aPosition;
+		while (source.hasRemaining()) {
+			ByteBuffer region = region(position).duplicate();
+			int offset = offset(position);
+			int size = (int) Math.min(source.remaining(), regionSize - offset);
+			region.position(offset);
+			ByteBuffer chunk = source.duplicate();
+			chunk.limit(chunk.position() + size);
+			region.put(chunk);
+			source.position(source.position() + size);
+			position += size;
+		}
+	}
+
+	/**
+	 * 指定範囲がマップ済み領域のバイト列と一致するか判断する。
+	 *
+	 * @param aPosition 位置
+	 * @param aBuffer 比較するバッファ(残り部分)
+	 * @return 一致する場合、<code>true</code>を返す。
+	 */
+	boolean equals(final long aPosition, final ByteBuffer aBuffer) {
+		int length = aBuffer.remaining();
+		int offset = offset(aPosition);
+		if (offset + length <= regionSize) {
+			ByteBuffer region = region(aPosition).duplicate();
+			region.position(offset);
+			region.limit(offset + length);
+			return region.equals(aBuffer);
+		}
+		return read(aPosition, length).equals(aBuffer);
+	}
+
+	/**
+	 * 変更内容をディスクへ書き出す。
+	 */
+	void force() {
+		for (MappedByteBuffer region : regions) {
+			region.force();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		regions = new MappedByteBuffer[0];
+		channel.close();
+		file.close();
+	}
+
+	private MappedByteBuffer region(final long aPosition) {
+		return regions[(int) (aPosition >>> regionShift)];
+	}
+
+	private int offset(final long aPosition) {
+		return (int) (aPosition & (regionSize - 1));
+	}
+}
@@ -0,0 +1,473 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * このクラスは、メモリマップしたファイル上にハッシュ表とレコードを保持する永続ストアクラスです。
+ * <p>
+ * レコードは追記のみで書き込まれ、バケットごとの連結リストで新しいものから順に辿ります。
+ * 削除は削除レコードの追記で表現します。再オープン時はファイルをマップするのみで、内容はアクセス時にページ単位で読み込まれます。
+ * </p>
+ * <p>
+ * 各レコードはCRC32を持ちます。オープン中はヘッダーに使用中フラグを立て、正常にクローズされなかったファイルを開いた場合は
+ * データ領域を先頭から走査し、チェックサムが一致する最後のレコードまでで索引を再構築します。以降の領域はゼロで埋めるため、
+ * 復旧後に追記したレコードの後ろに残っていた古いレコードが、再度の復旧時に有効なレコードとして読み込まれることはありません。
+ * ファイルは1GB単位の複数領域としてマップするため、2GBを超えるファイルも扱えます。ファイルサイズは領域単位で拡張されます。
+ * </p>
+ * <p>
+ * バケット数は作成時に固定されます。想定件数程度のバケット数を指定してください。
+ * 上書き・削除前のレコードはファイル上に残り、ファイルサイズは縮小しません。領域を回収する場合は有効なレコードを新しいストアへ複製してください。
+ * キーおよび値に<code>null</code>は指定できません。
+ * </p>
+ *
+ * <pre>
+ * ファイル形式
+ *   ヘッダー(64バイト) : 識別子、バージョン、使用中フラグ、バケット数、データ終端位置、件数
+ *   バケット(8バイト×バケット数) : 先頭レコードの位置
+ *   レコード : 次レコード位置(long)、CRC(int)、キー長(int)、値長(int、削除は-1)、キー、値
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class MappedStore<K, V> extends AbstractStore<K, V> implements Closeable {
+
+	/** デフォルトバケット数 */
+	public static final int DEFAULT_BUCKET_COUNT = 1 << 16;
+
+	/** デフォルト領域サイズ */
+	public static final long DEFAULT_REGION_SIZE = 1L << 30;
+
+	/** ファイル識別子 */
+	private static final int MAGIC = 0x415A4D53; // "AZMS"
+
+	/** フォーマットバージョン */
+	private static final int FORMAT_VERSION = 1;
+
+	/** ヘッダーサイズ */
+	private static final int HEADER_SIZE = 64;
+
+	/** レコードヘッダーサイズ */
+	private static final int RECORD_HEADER_SIZE = 20;
+
+	/** ヘッダー位置 : 使用中フラグ */
+	private static final int STATE_POSITION = 8;
+
+	/** ヘッダー位置 : バケット数 */
+	private static final int BUCKET_COUNT_POSITION = 12;
+
+	/** ヘッダー位置 : データ終端位置 */
+	private static final int DATA_END_POSITION = 16;
+
+	/** ヘッダー位置 : 件数 */
+	private static final int COUNT_POSITION = 24;
+
+	/** 状態 : 正常クローズ */
+	private static final int STATE_CLEAN = 0;
+
+	/** 状態 : 使用中 */
+	private static final int STATE_DIRTY = 1;
+
+	/** キーのシリアライザー */
+	private final Serializer<K> keySerializer;
+
+	/** 値のシリアライザー */
+	private final Serializer<V> valueSerializer;
+
+	/** マップ済み領域 */
+	private final MappedRegions regions;
+
+	/** ロック */
+	private final ReadWriteLock lock;
+
+	/** バケット数 */
+	private final int bucketCount;
+
+	/** データ開始位置 */
+	private final long dataStart;
+
+	/** データ終端位置 */
+	private long dataEnd;
+
+	/** 件数 */
+	private long count;
+
+	/** 復旧処理を行ったか */
+	private final boolean recovered;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aFile ファイル
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public MappedStore(final File aFile, final Serializer<K> aKeySerializer, final Serializer<V> aValueSerializer) throws IOException {
+		this(aFile, aKeySerializer, aValueSerializer, DEFAULT_BUCKET_COUNT, DEFAULT_REGION_SIZE);
+	}
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * ファイルが存在しない場合は作成する。既存ファイルの場合、バケット数はファイルの値を使用する。
+	 * </p>
+	 *
+	 * @param aFile ファイル
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 * @param aBucketCount バケット数(新規作成時)
+	 * @param aRegionSize マップする領域サイズ(2のべき乗、1GB以下)
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public MappedStore(final File aFile, final Serializer<K> aKeySerializer, final Serializer<V> aValueSerializer, final int aBucketCount,
+			final long aRegionSize) throws IOException {
+		super(MappedStore.class);
+		keySerializer = aKeySerializer;
+		valueSerializer = aValueSerializer;
+		lock = new ReentrantReadWriteLock();
+		boolean exists = aFile.isFile() && 0 < aFile.length();
+		regions = new MappedRegions(aFile, aRegionSize, false);
+		try {
+			if (exists) {
+				if (MAGIC != regions.getInt(0)) {
+					throw new IOException("Not a mapped store file : " + aFile.getPath());
+				}
+				int version = regions.getInt(4);
+				if (FORMAT_VERSION != version) {
+					throw new IOException("Unsupported mapped store version : " + version);
+				}
+				bucketCount = regions.getInt(BUCKET_COUNT_POSITION);
+				dataStart = HEADER_SIZE + 8L * bucketCount;
+				if (STATE_CLEAN == regions.getInt(STATE_POSITION)) {
+					dataEnd = regions.getLong(DATA_END_POSITION);
+					count = regions.getLong(COUNT_POSITION);
+					recovered = false;
+				} else {
+					warn("Mapped store was not closed cleanly. Recovering : " + aFile.getPath());
+					recover();
+					recovered = true;
+				}
+			} else {
+				if (0 >= aBucketCount) {
+					throw new IllegalArgumentException("Bucket count must be positive.");
+				}
+				bucketCount = aBucketCount;
+				dataStart = HEADER_SIZE + 8L * bucketCount;
+				regions.ensureMapped(dataStart);
+				regions.putInt(0, MAGIC);
+				regions.putInt(4, FORMAT_VERSION);
+				regions.putInt(BUCKET_COUNT_POSITION, bucketCount);
+				dataEnd = dataStart;
+				count = 0;
+				recovered = false;
+			}
+			regions.putInt(STATE_POSITION, STATE_DIRTY);
+			writeHeader();
+			regions.force();
+		} catch (IOException ex) {
+			regions.close();
+			throw ex;
+		} catch (RuntimeException ex) {
+			regions.close();
+			throw ex;
+		}
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		if (null == aValue) {
+			throw new NullPointerException("Value is null.");
+		}
+		ByteBuffer key = serializeKey(aKey);
+		int valueSize = valueSerializer.getSize(aValue);
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + key.remaining() + valueSize);
+		record.position(RECORD_HEADER_SIZE);
+		record.put(key.duplicate());
+		valueSerializer.serialize(aValue, record);
+		append(key, record, valueSize);
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		ByteBuffer key = serializeKey(aKey);
+		lock.readLock().lock();
+		try {
+			long position = find(key, Hashing.hash(key));
+			if (0 == position) {
+				return aDefault;
+			}
+			int keyLength = regions.getInt(position + 12);
+			int valueLength = regions.getInt(position + 16);
+			if (0 > valueLength) {
+				return aDefault;
+			}
+			ByteBuffer value = regions.read(position + RECORD_HEADER_SIZE + keyLength, valueLength);
+			return valueSerializer.deserialize(value, valueLength);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		ByteBuffer key = serializeKey(aKey);
+		lock.readLock().lock();
+		try {
+			long position = find(key, Hashing.hash(key));
+			return 0 != position && 0 <= regions.getInt(position + 16);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		ByteBuffer key = serializeKey(aKey);
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + key.remaining());
+		record.position(RECORD_HEADER_SIZE);
+		record.put(key.duplicate());
+		append(key, record, -1);
+	}
+
+	/**
+	 * 格納件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long size() {
+		lock.readLock().lock();
+		try {
+			return count;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * ファイルの使用バイト数を取得する。
+	 *
+	 * @return バイト数
+	 */
+	public long getDataSize() {
+		lock.readLock().lock();
+		try {
+			return dataEnd;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * オープン時に復旧処理を行ったか判断する。
+	 *
+	 * @return 復旧処理を行った場合、<code>true</code>を返す。
+	 */
+	public boolean isRecovered() {
+		return recovered;
+	}
+
+	/**
+	 * 変更内容をディスクへ書き出す。
+	 */
+	public void flush() {
+		lock.writeLock().lock();
+		try {
+			writeHeader();
+			regions.force();
+		} catch (IOException ex) {
+			throw new StoreException("Failed to flush mapped store.", ex);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 変更内容をディスクへ書き出し、ファイルを閉じる。
+	 *
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	@Override
+	public void close() throws IOException {
+		lock.writeLock().lock();
+		try {
+			writeHeader();
+			regions.force();
+			// レコードとヘッダーが書き出された後に正常クローズを記録する
+			regions.putInt(STATE_POSITION, STATE_CLEAN);
+			regions.force();
+			regions.close();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void append(final ByteBuffer aKey, final ByteBuffer aRecord, final int aValueLength) {
+		int hash = Hashing.hash(aKey);
+		int keyLength = aKey.remaining();
+		aRecord.putInt(12, keyLength);
+		aRecord.putInt(16, aValueLength);
+		aRecord.putInt(8, checksum(aRecord, aRecord.capacity()));
+		aRecord.position(0);
+
+		lock.writeLock().lock();
+		try {
+			long existing = find(aKey, hash);
+			boolean live = 0 != existing && 0 <= regions.getInt(existing + 16);
+			if (0 > aValueLength && !live) {
+				return;
+			}
+			long bucket = bucketPosition(hash);
+			long position = dataEnd;
+			aRecord.putLong(0, regions.getLong(bucket));
+			regions.write(position, aRecord);
+			// レコードを書き込んだ後にバケットを更新する
+			regions.putLong(bucket, position);
+			dataEnd = position + aRecord.capacity();
+			if (0 > aValueLength) {
+				count--;
+			} else if (!live) {
+				count++;
+			}
+		} catch (IOException ex) {
+			throw new StoreException("Failed to write mapped store.", ex);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * キーに一致する最新のレコードを検索する。
+	 *
+	 * @return レコード位置、存在しない場合<code>0</code>
+	 */
+	private long find(final ByteBuffer aKey, final int aHash) {
+		int keyLength = aKey.remaining();
+		long position = regions.getLong(bucketPosition(aHash));
+		while (0 != position) {
+			if (keyLength == regions.getInt(position + 12) && regions.equals(position + RECORD_HEADER_SIZE, aKey)) {
+				return position;
+			}
+			position = regions.getLong(position);
+		}
+		return 0;
+	}
+
+	/**
+	 * データ領域を走査し、索引を再構築する。
+	 */
+	private void recover() throws IOException {
+		for (long i = 0; i < bucketCount; i++) {
+			regions.putLong(HEADER_SIZE + 8 * i, 0);
+		}
+		dataEnd = dataStart;
+		count = 0;
+		long limit = regions.getMappedSize();
+		long position = dataStart;
+		while (position + RECORD_HEADER_SIZE <= limit) {
+			int keyLength = regions.getInt(position + 12);
+			int valueLength = regions.getInt(position + 16);
+			if (0 > keyLength || -1 > valueLength) {
+				break;
+			}
+			long size = (long) RECORD_HEADER_SIZE + keyLength + Math.max(0, valueLength);
+			if (position + size > limit || size > Integer.MAX_VALUE) {
+				break;
+			}
+			ByteBuffer record = regions.read(position, (int) size);
+			if (record.getInt(8) != checksum(record, (int) size)) {
+				break;
+			}
+			record.position(RECORD_HEADER_SIZE);
+			record.limit(RECORD_HEADER_SIZE + keyLength);
+			ByteBuffer key = record.slice();
+			int hash = Hashing.hash(key);
+			long existing = find(key, hash);
+			boolean live = 0 != existing && 0 <= regions.getInt(existing + 16);
+			if (0 <= valueLength && !live) {
+				count++;
+			} else if (0 > valueLength && live) {
+				count--;
+			}
+			long bucket = bucketPosition(hash);
+			regions.putLong(position, regions.getLong(bucket));
+			regions.putLong(bucket, position);
+			position += size;
+		}
+		dataEnd = position;
+		// 有効なレコード以降に残る古いレコードを消去する
+		ByteBuffer zero = ByteBuffer.allocate(64 * 1024);
+		while (position < limit) {
+			zero.clear();
+			zero.limit((int) Math.min(zero.capacity(), limit - position));
+			regions.write(position, zero);
+			position += zero.limit();
+		}
+		info("Recovered mapped store. (records end=" + dataEnd + ", count=" + count + ")");
+	}
+
+	private void writeHeader() throws IOException {
+		regions.putLong(DATA_END_POSITION, dataEnd);
+		regions.putLong(COUNT_POSITION, count);
+	}
+
+	private long bucketPosition(final int aHash) {
+		return HEADER_SIZE + 8L * ((aHash & 0x7FFFFFFF) % bucketCount);
+	}
+
+	private ByteBuffer serializeKey(final K aKey) {
+		if (null == aKey) {
+			throw new NullPointerException("Key is null.");
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(keySerializer.getSize(aKey));
+		keySerializer.serialize(aKey, buffer);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * レコードのCRCを算出する。対象はキー長以降(次レコード位置とCRCを除く)。
+	 */
+	private static int checksum(final ByteBuffer aRecord, final int aSize) {
+		CRC32 crc = new CRC32();
+		crc.update(aRecord.array(), aRecord.arrayOffset() + 12, aSize - 12);
+		return (int) crc.getValue();
+	}
+}
@@ -0,0 +1,456 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * このクラスは、キーと値をヒープ外(ダイレクトバッファ)に格納するストアクラスです。
+ * <p>
+ * キーと値は{@link Serializer}でバイト列に変換し、{@link SlabAllocator}が管理するスラブへ格納します。
+ * 索引もプリミティブ配列で保持するため、格納件数が増えてもヒープ上のオブジェクトは増えず、ガベージコレクションの負荷になりません。
+ * 値がヒープへ複製されるのは{@link #get(Object)}の呼び出し時のみです。
+ * </p>
+ * <p>
+ * レコードの形式は「キー長(int)、値長(int)、キー、値」です。1レコードの最大サイズはページサイズです。
+ * キーおよび値に<code>null</code>は指定できません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class OffHeapStore<K, V> extends AbstractStore<K, V> implements Closeable {
+
+	/** デフォルトスラブサイズ */
+	public static final int DEFAULT_SLAB_SIZE = 64 * 1024 * 1024;
+
+	/** デフォルトページサイズ */
+	public static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+
+	/** レコードヘッダーのバイト数 */
+	private static final int HEADER_SIZE = 8;
+
+	/** キーのシリアライザー */
+	private final Serializer<K> keySerializer;
+
+	/** 値のシリアライザー */
+	private final Serializer<V> valueSerializer;
+
+	/** アロケーター */
+	private final SlabAllocator allocator;
+
+	/** セグメント */
+	private final Segment[] segments;
+
+	/** セグメント選択用シフト数 */
+	private final int segmentShift;
+
+	/** セグメント選択用マスク */
+	private final int segmentMask;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 * @param aCapacity 最大メモリサイズ(バイト)
+	 */
+	public OffHeapStore(final Serializer<K> aKeySerializer, final Serializer<V> aValueSerializer, final long aCapacity) {
+		this(aKeySerializer, aValueSerializer, aCapacity, DEFAULT_SLAB_SIZE, DEFAULT_PAGE_SIZE, 16);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 * @param aCapacity 最大メモリサイズ(バイト)
+	 * @param aSlabSize スラブサイズ(バイト)
+	 * @param aPageSize ページサイズ(バイト、2のべき乗)
+	 * @param aConcurrencyLevel 同時更新スレッド数の想定値(セグメント数)
+	 */
+	public OffHeapStore(final Serializer<K> aKeySerializer, final Serializer<V> aValueSerializer, final long aCapacity, final int aSlabSize,
+			final int aPageSize, final int aConcurrencyLevel) {
+		super(OffHeapStore.class);
+		keySerializer = aKeySerializer;
+		valueSerializer = aValueSerializer;
+		int slabSize = (int) Math.max(aPageSize, Math.min(aSlabSize, aCapacity));
+		allocator = new SlabAllocator(aCapacity, slabSize, aPageSize);
+		int shift = 0;
+		int count = 1;
+		while (count < aConcurrencyLevel && count < (1 << 16)) {
+			count <<= 1;
+			shift++;
+		}
+		// ハッシュ値の上位ビットをセグメント選択に使用する
+		segmentShift = 32 - shift;
+		segmentMask = count - 1;
+		segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment(this);
+		}
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		if (!offer(aKey, aValue)) {
+			throw new StoreException("Off-heap memory exhausted. (capacity=" + allocator.getCapacity() + ")");
+		}
+	}
+
+	/**
+	 * 値を格納する。
+	 * <p>
+	 * 空き容量が不足している場合は格納せずに<code>false</code>を返す。この場合、既存の値は変更されません。
+	 * </p>
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 * @return 格納した場合、<code>true</code>を返す。
+	 */
+	public boolean offer(final K aKey, final V aValue) {
+		if (null == aValue) {
+			throw new NullPointerException("Value is null.");
+		}
+		ByteBuffer key = serializeKey(aKey);
+		int hash = Hashing.hash(key);
+		int valueSize = valueSerializer.getSize(aValue);
+		int size = HEADER_SIZE + key.remaining() + valueSize;
+		if (size > allocator.getMaxAllocation()) {
+			throw new StoreException("Record too large : " + size);
+		}
+		Segment segment = segmentFor(hash);
+		segment.lock.writeLock().lock();
+		try {
+			long address = allocator.allocate(size);
+			if (-1 == address) {
+				return false;
+			}
+			ByteBuffer buffer = allocator.buffer(address);
+			buffer.putInt(key.remaining());
+			buffer.putInt(valueSize);
+			buffer.put(key.duplicate());
+			valueSerializer.serialize(aValue, buffer);
+			segment.put(hash, key, address, size);
+		} finally {
+			segment.lock.writeLock().unlock();
+		}
+		return true;
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		ByteBuffer key = serializeKey(aKey);
+		int hash = Hashing.hash(key);
+		byte[] value = segmentFor(hash).get(hash, key);
+		if (null == value) {
+			return aDefault;
+		}
+		return valueSerializer.deserialize(ByteBuffer.wrap(value), value.length);
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		ByteBuffer key = serializeKey(aKey);
+		int hash = Hashing.hash(key);
+		return segmentFor(hash).has(hash, key);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		ByteBuffer key = serializeKey(aKey);
+		int hash = Hashing.hash(key);
+		segmentFor(hash).remove(hash, key);
+	}
+
+	/**
+	 * 格納件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public int size() {
+		long size = 0;
+		for (Segment segment : segments) {
+			size += segment.size;
+		}
+		return (int) Math.min(Integer.MAX_VALUE, size);
+	}
+
+	/**
+	 * 使用中のメモリサイズを取得する。
+	 * <p>
+	 * サイズクラスへの切り上げ分を含みます。
+	 * </p>
+	 *
+	 * @return バイト数
+	 */
+	public long getMemoryUsed() {
+		return allocator.getUsed();
+	}
+
+	/**
+	 * 最大メモリサイズを取得する。
+	 *
+	 * @return バイト数
+	 */
+	public long getMemoryCapacity() {
+		return allocator.getCapacity();
+	}
+
+	/**
+	 * すべての値を削除する。
+	 * <p>
+	 * 確保済みのメモリは再利用されます。
+	 * </p>
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			segment.lock.writeLock().lock();
+		}
+		try {
+			for (Segment segment : segments) {
+				segment.reset();
+			}
+			allocator.reset();
+		} finally {
+			for (Segment segment : segments) {
+				segment.lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * すべての値を削除し、確保済みのメモリを解放する。
+	 */
+	@Override
+	public void close() {
+		clear();
+		allocator.release();
+	}
+
+	private Segment segmentFor(final int aHash) {
+		return segments[segmentIndexOf(aHash)];
+	}
+
+	/**
+	 * ハッシュ値に対応するセグメントの番号を取得する。
+	 *
+	 * @param aHash ハッシュ値
+	 * @return セグメントの番号
+	 */
+	int segmentIndexOf(final int aHash) {
+		return (aHash >>> segmentShift) & segmentMask;
+	}
+
+	private ByteBuffer serializeKey(final K aKey) {
+		if (null == aKey) {
+			throw new NullPointerException("Key is null.");
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(keySerializer.getSize(aKey));
+		keySerializer.serialize(aKey, buffer);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * このクラスは、索引の断片を表現するクラスです。
+	 * <p>
+	 * 線形探索のオープンアドレス法で、削除時は後続要素を詰めて墓標を残しません。
+	 * </p>
+	 */
+	private static final class Segment {
+
+		private final OffHeapStore<?, ?> store;
+
+		private final ReadWriteLock lock;
+
+		/** ハッシュ値 */
+		private int[] hashes;
+
+		/** アドレス+1(0は空き) */
+		private long[] addresses;
+
+		/** レコードサイズ */
+		private int[] sizes;
+
+		private volatile int size;
+
+		private Segment(final OffHeapStore<?, ?> aStore) {
+			store = aStore;
+			lock = new ReentrantReadWriteLock();
+			init(16);
+		}
+
+		private void init(final int aCapacity) {
+			hashes = new int[aCapacity];
+			addresses = new long[aCapacity];
+			sizes = new int[aCapacity];
+			size = 0;
+		}
+
+		private void reset() {
+			init(16);
+		}
+
+		private byte[] get(final int aHash, final ByteBuffer aKey) {
+			lock.readLock().lock();
+			try {
+				int index = find(aHash, aKey);
+				if (-1 == index) {
+					return null;
+				}
+				ByteBuffer buffer = store.allocator.buffer(addresses[index] - 1);
+				int keyLength = buffer.getInt();
+				int valueLength = buffer.getInt();
+				buffer.position(buffer.position() + keyLength);
+				byte[] value = new byte[valueLength];
+				buffer.get(value);
+				return value;
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		private boolean has(final int aHash, final ByteBuffer aKey) {
+			lock.readLock().lock();
+			try {
+				return -1 != find(aHash, aKey);
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		/**
+		 * 索引へ登録する。書き込みロックを保持した状態で呼び出すこと。
+		 */
+		private void put(final int aHash, final ByteBuffer aKey, final long aAddress, final int aSize) {
+			int index = find(aHash, aKey);
+			if (-1 != index) {
+				store.allocator.free(addresses[index] - 1, sizes[index]);
+				addresses[index] = aAddress + 1;
+				sizes[index] = aSize;
+				return;
+			}
+			if ((size + 1) * 4 > hashes.length * 3) {
+				resize();
+			}
+			int mask = hashes.length - 1;
+			index = aHash & mask;
+			while (0 != addresses[index]) {
+				index = (index + 1) & mask;
+			}
+			hashes[index] = aHash;
+			addresses[index] = aAddress + 1;
+			sizes[index] = aSize;
+			size = size + 1;
+		}
+
+		private void remove(final int aHash, final ByteBuffer aKey) {
+			lock.writeLock().lock();
+			try {
+				int index = find(aHash, aKey);
+				if (-1 == index) {
+					return;
+				}
+				store.allocator.free(addresses[index] - 1, sizes[index]);
+				int mask = hashes.length - 1;
+				// 後続要素を詰める
+				int hole = index;
+				int next = (hole + 1) & mask;
+				while (0 != addresses[next]) {
+					int home = hashes[next] & mask;
+					if (((next - home) & mask) >= ((next - hole) & mask)) {
+						hashes[hole] = hashes[next];
+						addresses[hole] = addresses[next];
+						sizes[hole] = sizes[next];
+						hole = next;
+					}
+					next = (next + 1) & mask;
+				}
+				hashes[hole] = 0;
+				addresses[hole] = 0;
+				sizes[hole] = 0;
+				size = size - 1;
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		private int find(final int aHash, final ByteBuffer aKey) {
+			int mask = hashes.length - 1;
+			int index = aHash & mask;
+			while (0 != addresses[index]) {
+				if (hashes[index] == aHash && keyEquals(addresses[index] - 1, aKey)) {
+					return index;
+				}
+				index = (index + 1) & mask;
+			}
+			return -1;
+		}
+
+		private boolean keyEquals(final long aAddress, final ByteBuffer aKey) {
+			ByteBuffer buffer = store.allocator.buffer(aAddress);
+			int keyLength = buffer.getInt();
+			if (keyLength != aKey.remaining()) {
+				return false;
+			}
+			buffer.position(buffer.position() + 4);
+			buffer.limit(buffer.position() + keyLength);
+			return buffer.equals(aKey);
+		}
+
+		private void resize() {
+			int[] oldHashes = hashes;
+			long[] oldAddresses = addresses;
+			int[] oldSizes = sizes;
+			int capacity = oldHashes.length << 1;
+			int mask = capacity - 1;
+			hashes = new int[capacity];
+			addresses = new long[capacity];
+			sizes = new int[capacity];
+			for (int i = 0; i < oldHashes.length; i++) {
+				if (0 != oldAddresses[i]) {
+					int index = oldHashes[i] & mask;
+					while (0 != addresses[index]) {
+						index = (index + 1) & mask;
+					}
+					hashes[index] = oldHashes[i];
+					addresses[index] = oldAddresses[i];
+					sizes[index] = oldSizes[i];
+				}
+			}
+		}
+	}
+}
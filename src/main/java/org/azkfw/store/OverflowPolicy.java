@@ -0,0 +1,34 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+/**
+ * この列挙型は、通知待ちのイベントが上限に達した場合の扱いを表現する列挙型です。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public enum OverflowPolicy {
+	/** 新しいイベントを破棄する */
+	DROP_NEWEST,
+	/** 最も古いイベントを破棄して新しいイベントを追加する */
+	DROP_OLDEST,
+	/** 空きができるまで更新したスレッドを待機させる(ロック内で通知するストアでは同じロックを使う更新も待機する) */
+	BLOCK;
+}
@@ -0,0 +1,324 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * このクラスは、コンシステントハッシュ法で複数のシャードに値を分散して保持するストアクラスです。
+ * <p>
+ * 各キーは{@link ConsistentHashRing}で決定したシャードに格納します。シャードには任意のストアを指定でき、
+ * {@link RemoteStore}を用いることで別プロセス・別ホストの{@link StoreServer}へ分散できます。
+ * </p>
+ * <p>
+ * シャードを追加・削除すると、担当が変わるキーのみが移動対象となります。移動は参照時に旧担当から新担当へ段階的に行い、
+ * 移動が済むまでは旧担当も参照します。キーが判明している場合は{@link #migrate(Iterable)}で一括して移動でき、
+ * すべての移動が済んだ後に{@link #completeMigration()}を呼び出すと旧担当の参照を終了します。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class PartitionedStore<K, V> extends AbstractStore<K, V> {
+
+	/** 未格納を表す値 */
+	private static final Object MISSING = new Object();
+
+	/** ロックのストライプ数 */
+	private static final int STRIPES = 64;
+
+	/** 現在のリング */
+	private final ConsistentHashRing<Store<K, V>> ring;
+
+	/** 移動中の旧リング(新しい順) */
+	private volatile List<ConsistentHashRing<Store<K, V>>> previous;
+
+	/** キー単位の排他ロック */
+	private final ReentrantLock[] locks;
+
+	/**
+	 * コンストラクタ
+	 */
+	public PartitionedStore() {
+		this(ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aVirtualNodes シャードあたりの仮想ノード数
+	 */
+	public PartitionedStore(final int aVirtualNodes) {
+		super(PartitionedStore.class);
+		ring = new ConsistentHashRing<Store<K, V>>(aVirtualNodes);
+		previous = Collections.emptyList();
+		locks = new ReentrantLock[STRIPES];
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * シャードを追加する。
+	 * <p>
+	 * 既にシャードが存在する場合、担当が移るキーは移動中として扱う。値を格納する前に構成した場合は{@link #completeMigration()}で移動中の状態を解除できる。
+	 * </p>
+	 *
+	 * @param aName シャード名
+	 * @param aStore シャード
+	 */
+	public synchronized void addShard(final String aName, final Store<K, V> aStore) {
+		ConsistentHashRing<Store<K, V>> snapshot = new ConsistentHashRing<Store<K, V>>(ring);
+		ring.addNode(aName, aStore);
+		if (0 < snapshot.size()) {
+			pushPrevious(snapshot);
+		}
+	}
+
+	/**
+	 * シャードを削除する。
+	 * <p>
+	 * 削除したシャードの値は移動が完了するまで参照されるため、{@link #completeMigration()}の呼び出しまでシャードを停止しないでください。
+	 * </p>
+	 *
+	 * @param aName シャード名
+	 * @return 削除したシャード、存在しない場合<code>null</code>
+	 */
+	public synchronized Store<K, V> removeShard(final String aName) {
+		ConsistentHashRing<Store<K, V>> snapshot = new ConsistentHashRing<Store<K, V>>(ring);
+		Store<K, V> store = ring.removeNode(aName);
+		if (null != store) {
+			pushPrevious(snapshot);
+		}
+		return store;
+	}
+
+	/**
+	 * シャード名の一覧を取得する。
+	 *
+	 * @return シャード名
+	 */
+	public List<String> getShardNames() {
+		return ring.getNodeNames();
+	}
+
+	/**
+	 * キーを担当するシャードを取得する。
+	 *
+	 * @param aKey キー
+	 * @return シャード
+	 */
+	public Store<K, V> locate(final K aKey) {
+		Store<K, V> store = ring.locate(aKey);
+		if (null == store) {
+			throw new StoreException("No shard available.");
+		}
+		return store;
+	}
+
+	/**
+	 * 移動中のキーが存在するか判断する。
+	 *
+	 * @return 旧担当を参照している場合、<code>true</code>を返す。
+	 */
+	public boolean isMigrating() {
+		return !previous.isEmpty();
+	}
+
+	/**
+	 * 指定したキーを旧担当から新担当へ移動する。
+	 *
+	 * @param aKeys キー
+	 * @return 移動した件数
+	 */
+	public int migrate(final Iterable<K> aKeys) {
+		int count = 0;
+		for (K key : aKeys) {
+			Store<K, V> owner = locate(key);
+			ReentrantLock lock = lockFor(key);
+			lock.lock();
+			try {
+				if (MISSING != moveFromPrevious(key, owner)) {
+					count++;
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 移動を完了し、旧担当の参照を終了する。
+	 * <p>
+	 * 移動していない値は参照できなくなります。
+	 * </p>
+	 */
+	public synchronized void completeMigration() {
+		previous = Collections.emptyList();
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		Store<K, V> owner = locate(aKey);
+		if (previous.isEmpty()) {
+			owner.put(aKey, aValue);
+			return;
+		}
+		ReentrantLock lock = lockFor(aKey);
+		lock.lock();
+		try {
+			owner.put(aKey, aValue);
+			removeFromPrevious(aKey, owner);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		if (!previous.isEmpty()) {
+			for (Map.Entry<K, V> entry : aMap.entrySet()) {
+				put(entry.getKey(), entry.getValue());
+			}
+			return;
+		}
+		// シャードごとにまとめて格納する
+		Map<Store<K, V>, Map<K, V>> groups = new HashMap<Store<K, V>, Map<K, V>>();
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			Store<K, V> owner = locate(entry.getKey());
+			Map<K, V> group = groups.get(owner);
+			if (null == group) {
+				group = new HashMap<K, V>();
+				groups.put(owner, group);
+			}
+			group.put(entry.getKey(), entry.getValue());
+		}
+		for (Map.Entry<Store<K, V>, Map<K, V>> group : groups.entrySet()) {
+			group.getKey().putAll(group.getValue());
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		Store<K, V> owner = locate(aKey);
+		Object value = owner.get(aKey, (V) MISSING);
+		if (MISSING != value || previous.isEmpty()) {
+			return (MISSING == value) ? aDefault : (V) value;
+		}
+		ReentrantLock lock = lockFor(aKey);
+		lock.lock();
+		try {
+			// 移動中の値を取りこぼさないよう、ロック取得後に新担当を再確認する
+			value = owner.get(aKey, (V) MISSING);
+			if (MISSING == value) {
+				value = moveFromPrevious(aKey, owner);
+			}
+		} finally {
+			lock.unlock();
+		}
+		return (MISSING == value) ? aDefault : (V) value;
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		Store<K, V> owner = locate(aKey);
+		if (owner.has(aKey)) {
+			return true;
+		}
+		for (ConsistentHashRing<Store<K, V>> old : previous) {
+			Store<K, V> store = old.locate(aKey);
+			if (null != store && owner != store && store.has(aKey)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		Store<K, V> owner = locate(aKey);
+		if (previous.isEmpty()) {
+			owner.remove(aKey);
+			return;
+		}
+		ReentrantLock lock = lockFor(aKey);
+		lock.lock();
+		try {
+			owner.remove(aKey);
+			removeFromPrevious(aKey, owner);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 旧担当に存在する値を新担当へ移動する。キー単位のロックを保持した状態で呼び出すこと。
+	 *
+	 * @return 移動した値、存在しない場合{@link #MISSING}
+	 */
+	@SuppressWarnings("unchecked")
+	private Object moveFromPrevious(final K aKey, final Store<K, V> aOwner) {
+		for (ConsistentHashRing<Store<K, V>> old : previous) {
+			Store<K, V> store = old.locate(aKey);
+			if (null == store || aOwner == store) {
+				continue;
+			}
+			Object value = store.get(aKey, (V) MISSING);
+			if (MISSING != value) {
+				aOwner.put(aKey, (V) value);
+				removeFromPrevious(aKey, aOwner);
+				return value;
+			}
+		}
+		return MISSING;
+	}
+
+	private void removeFromPrevious(final K aKey, final Store<K, V> aOwner) {
+		for (ConsistentHashRing<Store<K, V>> old : previous) {
+			Store<K, V> store = old.locate(aKey);
+			if (null != store && aOwner != store) {
+				store.remove(aKey);
+			}
+		}
+	}
+
+	private void pushPrevious(final ConsistentHashRing<Store<K, V>> aRing) {
+		List<ConsistentHashRing<Store<K, V>>> list = new ArrayList<ConsistentHashRing<Store<K, V>>>(previous.size() + 1);
+		list.add(aRing);
+		list.addAll(previous);
+		previous = Collections.unmodifiableList(list);
+	}
+
+	private ReentrantLock lockFor(final Object aKey) {
+		int h = aKey.hashCode() * 0x9E3779B9;
+		return locks[(h ^ (h >>> 16)) & (STRIPES - 1)];
+	}
+}
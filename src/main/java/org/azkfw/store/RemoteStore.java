@@ -0,0 +1,305 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * このクラスは、{@link StoreServer}で公開されたストアへソケット経由で操作を行うストアクラスです。
+ * <p>
+ * 接続はプールして再利用し、各操作は借り受けた接続上で要求・応答を同期的に行います。
+ * 通信に失敗した場合は接続を破棄し、{@link StoreException}をスローします。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class RemoteStore<K, V> extends AbstractStore<K, V> implements Closeable {
+
+	/** 接続先 */
+	private final InetSocketAddress address;
+
+	/** キーのシリアライザー */
+	private final Serializer<K> keySerializer;
+
+	/** 値のシリアライザー */
+	private final Serializer<V> valueSerializer;
+
+	/** 待機中の接続 */
+	private final Queue<Connection> idle;
+
+	/** 接続・応答待ちのタイムアウト(ミリ秒) */
+	private int timeout;
+
+	/** 保持する待機中の接続の最大数 */
+	private int maxIdle;
+
+	/** クローズ済み */
+	private volatile boolean closed;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aAddress 接続先
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 */
+	public RemoteStore(final InetSocketAddress aAddress, final Serializer<K> aKeySerializer, final Serializer<V> aValueSerializer) {
+		super(RemoteStore.class);
+		address = aAddress;
+		keySerializer = aKeySerializer;
+		valueSerializer = aValueSerializer;
+		idle = new ConcurrentLinkedQueue<Connection>();
+		timeout = 30000;
+		maxIdle = 8;
+		closed = false;
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aHost ホスト名
+	 * @param aPort ポート番号
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 */
+	public RemoteStore(final String aHost, final int aPort, final Serializer<K> aKeySerializer, final Serializer<V> aValueSerializer) {
+		this(new InetSocketAddress(aHost, aPort), aKeySerializer, aValueSerializer);
+	}
+
+	/**
+	 * 接続・応答待ちのタイムアウトを設定する。
+	 *
+	 * @param aTimeout タイムアウト(ミリ秒)
+	 */
+	public void setTimeout(final int aTimeout) {
+		timeout = aTimeout;
+	}
+
+	/**
+	 * 保持する待機中の接続の最大数を設定する。
+	 *
+	 * @param aMaxIdle 接続数
+	 */
+	public void setMaxIdle(final int aMaxIdle) {
+		maxIdle = aMaxIdle;
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		Connection connection = borrow();
+		boolean reusable = false;
+		try {
+			connection.out.writeByte(StoreProtocol.PUT);
+			StoreProtocol.write(connection.out, aKey, keySerializer);
+			StoreProtocol.write(connection.out, aValue, valueSerializer);
+			connection.out.flush();
+			readStatus(connection);
+			reusable = true;
+		} catch (IOException ex) {
+			throw new StoreException("Failed to put : " + address, ex);
+		} finally {
+			release(connection, reusable);
+		}
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		Connection connection = borrow();
+		boolean reusable = false;
+		try {
+			connection.out.writeByte(StoreProtocol.PUT_ALL);
+			connection.out.writeInt(aMap.size());
+			for (Map.Entry<K, V> entry : aMap.entrySet()) {
+				StoreProtocol.write(connection.out, entry.getKey(), keySerializer);
+				StoreProtocol.write(connection.out, entry.getValue(), valueSerializer);
+			}
+			connection.out.flush();
+			readStatus(connection);
+			reusable = true;
+		} catch (IOException ex) {
+			throw new StoreException("Failed to put : " + address, ex);
+		} finally {
+			release(connection, reusable);
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		Connection connection = borrow();
+		boolean reusable = false;
+		try {
+			connection.out.writeByte(StoreProtocol.GET);
+			StoreProtocol.write(connection.out, aKey, keySerializer);
+			connection.out.flush();
+			V value = aDefault;
+			if (readStatus(connection)) {
+				value = StoreProtocol.read(connection.in, valueSerializer);
+			}
+			reusable = true;
+			return value;
+		} catch (IOException ex) {
+			throw new StoreException("Failed to get : " + address, ex);
+		} finally {
+			release(connection, reusable);
+		}
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		Connection connection = borrow();
+		boolean reusable = false;
+		try {
+			connection.out.writeByte(StoreProtocol.HAS);
+			StoreProtocol.write(connection.out, aKey, keySerializer);
+			connection.out.flush();
+			boolean result = readStatus(connection);
+			reusable = true;
+			return result;
+		} catch (IOException ex) {
+			throw new StoreException("Failed to get : " + address, ex);
+		} finally {
+			release(connection, reusable);
+		}
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		Connection connection = borrow();
+		boolean reusable = false;
+		try {
+			connection.out.writeByte(StoreProtocol.REMOVE);
+			StoreProtocol.write(connection.out, aKey, keySerializer);
+			connection.out.flush();
+			readStatus(connection);
+			reusable = true;
+		} catch (IOException ex) {
+			throw new StoreException("Failed to remove : " + address, ex);
+		} finally {
+			release(connection, reusable);
+		}
+	}
+
+	/**
+	 * 待機中の接続を切断する。
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		Connection connection;
+		while (null != (connection = idle.poll())) {
+			connection.close();
+		}
+	}
+
+	/**
+	 * 応答の状態を読み込む。
+	 *
+	 * @return 値が存在する場合、<code>true</code>を返す。
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	private boolean readStatus(final Connection aConnection) throws IOException {
+		int status = aConnection.in.readByte();
+		if (StoreProtocol.OK == status) {
+			return true;
+		}
+		if (StoreProtocol.NOT_FOUND == status) {
+			return false;
+		}
+		if (StoreProtocol.ERROR == status) {
+			throw new StoreException("Remote store error : " + aConnection.in.readUTF());
+		}
+		throw new IOException("Unknown status : " + status);
+	}
+
+	private Connection borrow() {
+		if (closed) {
+			throw new StoreException("Store is closed.");
+		}
+		Connection connection = idle.poll();
+		if (null != connection) {
+			return connection;
+		}
+		try {
+			return new Connection(address, timeout);
+		} catch (IOException ex) {
+			throw new StoreException("Failed to connect : " + address, ex);
+		}
+	}
+
+	private void release(final Connection aConnection, final boolean aReusable) {
+		if (aReusable && !closed && idle.size() < maxIdle) {
+			idle.offer(aConnection);
+			if (closed && idle.remove(aConnection)) {
+				aConnection.close();
+			}
+		} else {
+			aConnection.close();
+		}
+	}
+
+	/**
+	 * このクラスは、サーバーとの１接続を表現するクラスです。
+	 */
+	private static final class Connection {
+
+		private final Socket socket;
+
+		private final DataInputStream in;
+
+		private final DataOutputStream out;
+
+		private Connection(final InetSocketAddress aAddress, final int aTimeout) throws IOException {
+			socket = new Socket();
+			try {
+				socket.setTcpNoDelay(true);
+				socket.setSoTimeout(aTimeout);
+				socket.connect(aAddress, aTimeout);
+				in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			} catch (IOException ex) {
+				socket.close();
+				throw ex;
+			}
+		}
+
+		private void close() {
+			try {
+				socket.close();
+			} catch (IOException ex) {
+				// 切断時の例外は無視する
+			}
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * このインターフェースは、ストアに格納する値のバイト列への変換を表現するインターフェースです。
+ * <p>
+ * 実装はスレッドセーフである必要があります。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public interface Serializer<T> {
+
+	/**
+	 * 変換後のバイト数を取得する。
+	 *
+	 * @param aValue 値
+	 * @return バイト数
+	 */
+	public int getSize(final T aValue);
+
+	/**
+	 * 値をバッファの現在位置へ書き込む。
+	 * <p>
+	 * {@link #getSize(Object)}と同じバイト数を書き込むこと。
+	 * </p>
+	 *
+	 * @param aValue 値
+	 * @param aBuffer バッファ
+	 */
+	public void serialize(final T aValue, final ByteBuffer aBuffer);
+
+	/**
+	 * バッファの現在位置から値を読み込む。
+	 *
+	 * @param aBuffer バッファ
+	 * @param aLength バイト数
+	 * @return 値
+	 */
+	public T deserialize(final ByteBuffer aBuffer, final int aLength);
+}
@@ -0,0 +1,256 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * このクラスは、ダイレクトバッファ上の領域をサイズクラス単位で割り当てるアロケータークラスです。
+ * <p>
+ * 大きなダイレクトバッファ(スラブ)を固定長のページに分割し、ページごとに１つのサイズクラス(16バイト～ページサイズの2のべき乗)を割り当てます。
+ * 解放された領域はサイズクラスごとの空きリストで再利用されます。
+ * アドレスは上位32bitがスラブ番号、下位32bitがスラブ内のオフセットです。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+final class SlabAllocator {
+
+	/** 最小サイズクラスのシフト数(16バイト) */
+	private static final int MIN_SHIFT = 4;
+
+	/** スラブサイズ */
+	private final int slabSize;
+
+	/** ページサイズ */
+	private final int pageSize;
+
+	/** 最大確保サイズ */
+	private final long capacity;
+
+	/** スラブ */
+	private volatile ByteBuffer[] slabs;
+
+	/** サイズクラスごとの空きアドレス */
+	private final long[][] freeLists;
+
+	/** サイズクラスごとの空き件数 */
+	private final int[] freeCounts;
+
+	/** サイズクラスごとの割当中ページの次アドレス */
+	private final long[] cursors;
+
+	/** サイズクラスごとの割当中ページの残りバイト数 */
+	private final int[] remains;
+
+	/** ページを切り出し中のスラブ番号 */
+	private int currentSlab;
+
+	/** 未使用ページの先頭オフセット */
+	private int pageOffset;
+
+	/** 使用中バイト数 */
+	private long used;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aCapacity 最大確保サイズ(バイト)
+	 * @param aSlabSize スラブサイズ(バイト)
+	 * @param aPageSize ページサイズ(バイト、2のべき乗)
+	 */
+	SlabAllocator(final long aCapacity, final int aSlabSize, final int aPageSize) {
+		if (0 >= aPageSize || 0 != (aPageSize & (aPageSize - 1)) || aPageSize < (1 << MIN_SHIFT)) {
+			throw new IllegalArgumentException("Page size must be a power of two : " + aPageSize);
+		}
+		if (aSlabSize < aPageSize) {
+			throw new IllegalArgumentException("Slab size must be larger than page size.");
+		}
+		capacity = aCapacity;
+		pageSize = aPageSize;
+		slabSize = aSlabSize - (aSlabSize % aPageSize);
+		int classes = Integer.numberOfTrailingZeros(aPageSize) - MIN_SHIFT + 1;
+		freeLists = new long[classes][];
+		freeCounts = new int[classes];
+		cursors = new long[classes];
+		remains = new int[classes];
+		for (int i = 0; i < classes; i++) {
+			freeLists[i] = new long[16];
+		}
+		slabs = new ByteBuffer[0];
+		currentSlab = -1;
+		pageOffset = 0;
+		used = 0;
+	}
+
+	/**
+	 * 領域を割り当てる。
+	 *
+	 * @param aSize バイト数
+	 * @return アドレス、空き容量が不足している場合<code>-1</code>
+	 */
+	synchronized long allocate(final int aSize) {
+		int index = classIndex(aSize);
+		int chunk = 1 << (index + MIN_SHIFT);
+		long address;
+		if (0 < freeCounts[index]) {
+			address = freeLists[index][--freeCounts[index]];
+		} else {
+			if (remains[index] < chunk) {
+				long page = allocatePage();
+				if (-1 == page) {
+					return -1;
+				}
+				cursors[index] = page;
+				remains[index] = pageSize;
+			}
+			address = cursors[index];
+			cursors[index] += chunk;
+			remains[index] -= chunk;
+		}
+		used += chunk;
+		return address;
+	}
+
+	/**
+	 * 領域を解放する。
+	 *
+	 * @param aAddress アドレス
+	 * @param aSize 割り当て時に指定したバイト数
+	 */
+	synchronized void free(final long aAddress, final int aSize) {
+		int index = classIndex(aSize);
+		if (freeCounts[index] == freeLists[index].length) {
+			long[] list = new long[freeLists[index].length * 2];
+			System.arraycopy(freeLists[index], 0, list, 0, freeCounts[index]);
+			freeLists[index] = list;
+		}
+		freeLists[index][freeCounts[index]++] = aAddress;
+		used -= 1 << (index + MIN_SHIFT);
+	}
+
+	/**
+	 * アドレスの位置を指すバッファを取得する。
+	 * <p>
+	 * 返却するバッファは複製のため、位置を変更しても他スレッドに影響しません。
+	 * </p>
+	 *
+	 * @param aAddress アドレス
+	 * @return バッファ
+	 */
+	ByteBuffer buffer(final long aAddress) {
+		ByteBuffer buffer = slabs[(int) (aAddress >>> 32)].duplicate();
+		buffer.position((int) aAddress);
+		return buffer;
+	}
+
+	/**
+	 * 割り当て可能な最大バイト数を取得する。
+	 *
+	 * @return バイト数
+	 */
+	int getMaxAllocation() {
+		return pageSize;
+	}
+
+	/**
+	 * 使用中のバイト数を取得する。
+	 *
+	 * @return バイト数
+	 */
+	synchronized long getUsed() {
+		return used;
+	}
+
+	/**
+	 * 確保済みのスラブの合計バイト数を取得する。
+	 *
+	 * @return バイト数
+	 */
+	long getReserved() {
+		return (long) slabs.length * slabSize;
+	}
+
+	/**
+	 * 最大確保サイズを取得する。
+	 *
+	 * @return バイト数
+	 */
+	long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * すべての領域を解放する。
+	 * <p>
+	 * 確保済みのスラブは先頭から再利用されます。
+	 * </p>
+	 */
+	synchronized void reset() {
+		for (int i = 0; i < freeCounts.length; i++) {
+			freeCounts[i] = 0;
+			remains[i] = 0;
+		}
+		used = 0;
+		currentSlab = -1;
+		pageOffset = 0;
+	}
+
+	/**
+	 * スラブを解放する。
+	 * <p>
+	 * ダイレクトバッファのメモリはガベージコレクションにより回収されます。
+	 * </p>
+	 */
+	synchronized void release() {
+		reset();
+		slabs = new ByteBuffer[0];
+	}
+
+	private long allocatePage() {
+		if (0 > currentSlab || pageOffset + pageSize > slabSize) {
+			ByteBuffer[] current = slabs;
+			if (currentSlab + 1 < current.length) {
+				currentSlab++;
+			} else {
+				if ((long) (current.length + 1) * slabSize > capacity) {
+					return -1;
+				}
+				ByteBuffer[] next = new ByteBuffer[current.length + 1];
+				System.arraycopy(current, 0, next, 0, current.length);
+				next[current.length] = ByteBuffer.allocateDirect(slabSize);
+				slabs = next;
+				currentSlab = current.length;
+			}
+			pageOffset = 0;
+		}
+		long page = (((long) currentSlab) << 32) | pageOffset;
+		pageOffset += pageSize;
+		return page;
+	}
+
+	private int classIndex(final int aSize) {
+		if (aSize > pageSize) {
+			throw new IllegalArgumentException("Too large allocation : " + aSize);
+		}
+		int size = Math.max(aSize, 1 << MIN_SHIFT);
+		return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Map;
+
+/**
+ * このインターフェースは、キーの順序による検索が可能なストア機能を表現するインターフェースです。
+ * <p>
+ * 範囲検索の結果はキーの昇順に走査されます。走査中の更新が結果に反映されるかどうかは実装に依存します。
+ * 文字列キーの前方一致検索は{@link StringSortedStore}を使用してください。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public interface SortedStore<K, V> extends Store<K, V> {
+
+	/**
+	 * 範囲内のエントリーを取得する。
+	 *
+	 * @param aFrom 開始キー(含む)、<code>null</code>の場合は先頭から
+	 * @param aTo 終了キー(含まない)、<code>null</code>の場合は末尾まで
+	 * @return エントリー
+	 */
+	public Iterable<Map.Entry<K, V>> range(final K aFrom, final K aTo);
+
+	/**
+	 * 最小のキーのエントリーを取得する。
+	 *
+	 * @return エントリー、存在しない場合<code>null</code>
+	 */
+	public Map.Entry<K, V> first();
+
+	/**
+	 * 最大のキーのエントリーを取得する。
+	 *
+	 * @return エントリー、存在しない場合<code>null</code>
+	 */
+	public Map.Entry<K, V> last();
+
+	/**
+	 * 指定したキー以下で最大のキーのエントリーを取得する。
+	 *
+	 * @param aKey キー
+	 * @return エントリー、存在しない場合<code>null</code>
+	 */
+	public Map.Entry<K, V> floor(final K aKey);
+
+	/**
+	 * 指定したキー以上で最小のキーのエントリーを取得する。
+	 *
+	 * @param aKey キー
+	 * @return エントリー、存在しない場合<code>null</code>
+	 */
+	public Map.Entry<K, V> ceiling(final K aKey);
+}
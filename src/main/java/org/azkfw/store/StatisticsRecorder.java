@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+/**
+ * このクラスは、ストアの操作統計を記録するクラスです。
+ * <p>
+ * 件数はスレッドごとに分散したカウンターで、所要時間はロックを使用しないヒストグラムで記録するため、
+ * 頻繁に呼び出される処理から記録しても競合はほとんど発生しません。
+ * 記録内容は{@link #snapshot()}でいつでも取得できます。
+ * </p>
+ * <p>
+ * 同じインスタンスを{@link InstrumentedStore}、{@link CacheStore}、{@link LoadingStore}に設定することで、
+ * 参照・追い出し・読み込みの統計を１つにまとめられます。{@link CacheStore}、{@link WeightedStore}に設定した場合は、
+ * そのストアの件数・重みも統計に含めます。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class StatisticsRecorder {
+
+	/** ヒット件数 */
+	private final StripedCounter hitCount;
+
+	/** ミス件数 */
+	private final StripedCounter missCount;
+
+	/** 格納件数 */
+	private final StripedCounter putCount;
+
+	/** 削除件数 */
+	private final StripedCounter removeCount;
+
+	/** 追い出し件数 */
+	private final StripedCounter evictionCount;
+
+	/** 読み込み成功件数 */
+	private final StripedCounter loadSuccessCount;
+
+	/** 読み込み失敗件数 */
+	private final StripedCounter loadFailureCount;
+
+	/** 読み込み時間 */
+	private final LatencyHistogram loadLatency;
+
+	/** 参照時間 */
+	private final LatencyHistogram getLatency;
+
+	/** 格納時間 */
+	private final LatencyHistogram putLatency;
+
+	/** 件数・重みの取得元 */
+	private volatile StoreSizeSource sizeSource;
+
+	/**
+	 * コンストラクタ
+	 */
+	public StatisticsRecorder() {
+		hitCount = new StripedCounter();
+		missCount = new StripedCounter();
+		putCount = new StripedCounter();
+		removeCount = new StripedCounter();
+		evictionCount = new StripedCounter();
+		loadSuccessCount = new StripedCounter();
+		loadFailureCount = new StripedCounter();
+		loadLatency = new LatencyHistogram();
+		getLatency = new LatencyHistogram();
+		putLatency = new LatencyHistogram();
+	}
+
+	/**
+	 * ヒットを記録する。
+	 *
+	 * @param aNanos 所要時間(ナノ秒)
+	 */
+	public void recordHit(final long aNanos) {
+		hitCount.increment();
+		getLatency.record(aNanos);
+	}
+
+	/**
+	 * ミスを記録する。
+	 *
+	 * @param aNanos 所要時間(ナノ秒)
+	 */
+	public void recordMiss(final long aNanos) {
+		missCount.increment();
+		getLatency.record(aNanos);
+	}
+
+	/**
+	 * 格納を記録する。
+	 *
+	 * @param aNanos 所要時間(ナノ秒)
+	 */
+	public void recordPut(final long aNanos) {
+		putCount.increment();
+		putLatency.record(aNanos);
+	}
+
+	/**
+	 * 削除を記録する。
+	 */
+	public void recordRemove() {
+		removeCount.increment();
+	}
+
+	/**
+	 * 追い出しを記録する。
+	 */
+	public void recordEviction() {
+		evictionCount.increment();
+	}
+
+	/**
+	 * 読み込みを記録する。
+	 *
+	 * @param aNanos 所要時間(ナノ秒)
+	 * @param aSuccess 成功した場合、<code>true</code>
+	 */
+	public void recordLoad(final long aNanos, final boolean aSuccess) {
+		if (aSuccess) {
+			loadSuccessCount.increment();
+		} else {
+			loadFailureCount.increment();
+		}
+		loadLatency.record(aNanos);
+	}
+
+	/**
+	 * 件数・重みの取得元を設定する。
+	 *
+	 * @param aSource 取得元
+	 */
+	public void setSizeSource(final StoreSizeSource aSource) {
+		sizeSource = aSource;
+	}
+
+	/**
+	 * 現時点の統計を取得する。
+	 * <p>
+	 * 記録と並行して取得した場合、各項目は厳密に同一時点の値とはなりません。
+	 * </p>
+	 *
+	 * @return 統計
+	 */
+	public StoreStatistics snapshot() {
+		StoreSizeSource source = sizeSource;
+		long size = (null != source) ? source.getSize() : -1;
+		long weight = (null != source) ? source.getWeight() : -1;
+		return new StoreStatistics(size, weight, hitCount.sum(), missCount.sum(), putCount.sum(), removeCount.sum(), evictionCount.sum(), loadSuccessCount.sum(),
+				loadFailureCount.sum(), loadLatency.total(), getLatency.counts(), getLatency.total(), getLatency.max(), putLatency.counts(),
+				putLatency.total(), putLatency.max());
+	}
+
+	/**
+	 * 記録をリセットする。
+	 */
+	public void reset() {
+		hitCount.reset();
+		missCount.reset();
+		putCount.reset();
+		removeCount.reset();
+		evictionCount.reset();
+		loadSuccessCount.reset();
+		loadFailureCount.reset();
+		loadLatency.reset();
+		getLatency.reset();
+		putLatency.reset();
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+/**
+ * このクラスは、ストアの変更イベントを表現するクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class StoreEvent<K, V> {
+
+	/** 種類 */
+	private final StoreEventType type;
+
+	/** キー */
+	private final K key;
+
+	/** 値 */
+	private final V value;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aType 種類
+	 * @param aKey キー
+	 * @param aValue 値
+	 */
+	public StoreEvent(final StoreEventType aType, final K aKey, final V aValue) {
+		type = aType;
+		key = aKey;
+		value = aValue;
+	}
+
+	/**
+	 * 種類を取得する。
+	 *
+	 * @return 種類
+	 */
+	public StoreEventType getType() {
+		return type;
+	}
+
+	/**
+	 * キーを取得する。
+	 *
+	 * @return キー
+	 */
+	public K getKey() {
+		return key;
+	}
+
+	/**
+	 * 値を取得する。
+	 * <p>
+	 * 格納の場合は格納した値、それ以外の場合はストアから外れた値です。
+	 * </p>
+	 *
+	 * @return 値
+	 */
+	public V getValue() {
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return type + "(" + key + "=" + value + ")";
+	}
+}
@@ -0,0 +1,238 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.azkfw.lang.LoggingObject;
+
+/**
+ * このクラスは、ストアの変更イベントをリスナーへ非同期に通知するクラスです。
+ * <p>
+ * リスナーごとにロックフリーのキューを持ち、イベントの追加はキューへの追加のみで完了します。
+ * 通知はスレッドプールで行い、キューに溜まったイベントを最大{@value #BATCH_SIZE}件ずつまとめて渡します。
+ * 遅いリスナーのキューが上限に達した場合は、リスナーごとに指定した{@link OverflowPolicy}に従います。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+final class StoreEventDispatcher<K, V> extends LoggingObject {
+
+	/** １回に通知する最大件数 */
+	static final int BATCH_SIZE = 256;
+
+	/** 待機間隔(ナノ秒) */
+	private static final long PARK_NANOS = 100000L;
+
+	/** スレッド番号 */
+	private static final AtomicInteger NUMBER = new AtomicInteger();
+
+	/** 登録 */
+	private final List<Subscription> subscriptions;
+
+	/** 通知スレッド */
+	private final ExecutorService executor;
+
+	/**
+	 * コンストラクタ
+	 */
+	StoreEventDispatcher() {
+		super(StoreEventDispatcher.class);
+		subscriptions = new CopyOnWriteArrayList<Subscription>();
+		executor = Executors.newCachedThreadPool(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable aRunnable) {
+				Thread thread = new Thread(aRunnable, "StoreEvent-" + NUMBER.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * リスナーを登録する。
+	 *
+	 * @param aListener リスナー
+	 * @param aCapacity 通知待ちのイベントの上限数
+	 * @param aPolicy 上限に達した場合の扱い
+	 */
+	void add(final StoreListener<K, V> aListener, final int aCapacity, final OverflowPolicy aPolicy) {
+		if (0 >= aCapacity) {
+			throw new IllegalArgumentException("Capacity must be positive : " + aCapacity);
+		}
+		subscriptions.add(new Subscription(aListener, aCapacity, aPolicy));
+	}
+
+	/**
+	 * リスナーの登録を解除する。
+	 * <p>
+	 * 通知待ちのイベントは破棄する。
+	 * </p>
+	 *
+	 * @param aListener リスナー
+	 * @return 解除した場合、<code>true</code>
+	 */
+	boolean remove(final StoreListener<K, V> aListener) {
+		for (Subscription subscription : subscriptions) {
+			if (subscription.listener == aListener) {
+				subscription.active = false;
+				subscriptions.remove(subscription);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * リスナーが登録されているか判断する。
+	 *
+	 * @return 登録されている場合、<code>true</code>
+	 */
+	boolean hasListeners() {
+		return !subscriptions.isEmpty();
+	}
+
+	/**
+	 * 破棄したイベント数を取得する。
+	 *
+	 * @param aListener リスナー
+	 * @return イベント数、登録されていない場合0
+	 */
+	long getDroppedCount(final StoreListener<K, V> aListener) {
+		for (Subscription subscription : subscriptions) {
+			if (subscription.listener == aListener) {
+				return subscription.dropped.get();
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * イベントを登録済みの全リスナーの通知待ちに追加する。
+	 *
+	 * @param aEvent イベント
+	 */
+	void publish(final StoreEvent<K, V> aEvent) {
+		for (Subscription subscription : subscriptions) {
+			if (subscription.offer(aEvent) && subscription.scheduled.compareAndSet(false, true)) {
+				executor.execute(subscription);
+			}
+		}
+	}
+
+	/**
+	 * このクラスは、リスナーごとの通知待ちキューを表現するクラスです。
+	 */
+	private final class Subscription implements Runnable {
+
+		private final StoreListener<K, V> listener;
+
+		private final int capacity;
+
+		private final OverflowPolicy policy;
+
+		private final Queue<StoreEvent<K, V>> queue;
+
+		private final AtomicInteger size;
+
+		private final AtomicBoolean scheduled;
+
+		private final AtomicLong dropped;
+
+		private volatile boolean active;
+
+		private Subscription(final StoreListener<K, V> aListener, final int aCapacity, final OverflowPolicy aPolicy) {
+			listener = aListener;
+			capacity = aCapacity;
+			policy = aPolicy;
+			queue = new ConcurrentLinkedQueue<StoreEvent<K, V>>();
+			size = new AtomicInteger();
+			scheduled = new AtomicBoolean();
+			dropped = new AtomicLong();
+			active = true;
+		}
+
+		private boolean offer(final StoreEvent<K, V> aEvent) {
+			if (size.get() >= capacity) {
+				if (OverflowPolicy.DROP_NEWEST == policy) {
+					dropped.incrementAndGet();
+					return false;
+				} else if (OverflowPolicy.DROP_OLDEST == policy) {
+					while (size.get() >= capacity && null != queue.poll()) {
+						size.decrementAndGet();
+						dropped.incrementAndGet();
+					}
+				} else {
+					// 通知が追いつくまで待機する
+					while (size.get() >= capacity && active) {
+						LockSupport.parkNanos(PARK_NANOS);
+					}
+				}
+			}
+			if (!active) {
+				return false;
+			}
+			queue.offer(aEvent);
+			size.incrementAndGet();
+			return true;
+		}
+
+		@Override
+		public void run() {
+			try {
+				List<StoreEvent<K, V>> batch = new ArrayList<StoreEvent<K, V>>(BATCH_SIZE);
+				while (active) {
+					StoreEvent<K, V> event;
+					while (batch.size() < BATCH_SIZE && null != (event = queue.poll())) {
+						batch.add(event);
+					}
+					if (batch.isEmpty()) {
+						break;
+					}
+					size.addAndGet(-batch.size());
+					try {
+						listener.onEvents(Collections.unmodifiableList(batch));
+					} catch (Throwable ex) {
+						error("Store listener failed : " + listener, ex);
+					}
+					batch = new ArrayList<StoreEvent<K, V>>(BATCH_SIZE);
+				}
+			} finally {
+				scheduled.set(false);
+				// 通知終了直前に追加されたイベントを取りこぼさない
+				if (active && !queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+					executor.execute(this);
+				}
+			}
+		}
+	}
+}
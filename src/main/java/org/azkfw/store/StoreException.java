@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+/**
+ * このクラスは、ストア操作の例外を表現する例外クラスです。
+ * <p>
+ * {@link Store}のメソッドは検査例外を宣言しないため、非検査例外として送出します。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class StoreException extends RuntimeException {
+
+	/**
+	 * serialVersionUID
+	 */
+	private static final long serialVersionUID = -6153170914473216395L;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param message Message
+	 */
+	public StoreException(final String message) {
+		super(message);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param throwable Throwable
+	 */
+	public StoreException(final Throwable throwable) {
+		super(throwable);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param message Message
+	 * @param throwable Throwable
+	 */
+	public StoreException(final String message, final Throwable throwable) {
+		super(message, throwable);
+	}
+}
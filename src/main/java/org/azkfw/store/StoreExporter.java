@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * このクラスは、ストアの内容をストリームへ書き出し・読み込みするクラスです。
+ * <p>
+ * {@link SnapshotStore#snapshot()}と組み合わせることで、更新を止めずに全件を書き出せます。
+ * 書き出した内容は再起動後の{@link #importTo(InputStream, Store)}で読み込み、ストアを復元できます。
+ * </p>
+ *
+ * <pre>
+ * StoreExporter&lt;String, String&gt; exporter = new StoreExporter&lt;String, String&gt;(new StringSerializer(), new StringSerializer());
+ * exporter.export(store, stream);
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class StoreExporter<K, V> {
+
+	/** ファイル識別子 */
+	private static final int MAGIC = 0x415A5345; // "AZSE"
+
+	/** フォーマットバージョン */
+	private static final int FORMAT_VERSION = 1;
+
+	/** 読み込み時に一括で格納する件数 */
+	private static final int BATCH_SIZE = 1024;
+
+	/** キーのシリアライザー */
+	private final Serializer<K> keySerializer;
+
+	/** 値のシリアライザー */
+	private final Serializer<V> valueSerializer;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 */
+	public StoreExporter(final Serializer<K> aKeySerializer, final Serializer<V> aValueSerializer) {
+		keySerializer = aKeySerializer;
+		valueSerializer = aValueSerializer;
+	}
+
+	/**
+	 * ストアのスナップショットを取得し、全件を書き出す。
+	 *
+	 * @param aStore ストア
+	 * @param aStream 出力ストリーム
+	 * @return 書き出した件数
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public long export(final SnapshotStore<K, V> aStore, final OutputStream aStream) throws IOException {
+		StoreSnapshot<K, V> snapshot = aStore.snapshot();
+		try {
+			return export(snapshot, aStream);
+		} finally {
+			snapshot.close();
+		}
+	}
+
+	/**
+	 * エントリーを書き出す。
+	 *
+	 * @param aEntries エントリー
+	 * @param aStream 出力ストリーム
+	 * @return 書き出した件数
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public long export(final Iterable<Map.Entry<K, V>> aEntries, final OutputStream aStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(aStream);
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		long count = 0;
+		for (Map.Entry<K, V> entry : aEntries) {
+			out.writeBoolean(true);
+			StoreProtocol.write(out, entry.getKey(), keySerializer);
+			StoreProtocol.write(out, entry.getValue(), valueSerializer);
+			count++;
+		}
+		out.writeBoolean(false);
+		out.writeLong(count);
+		out.flush();
+		return count;
+	}
+
+	/**
+	 * 書き出した内容を読み込み、ストアへ格納する。
+	 *
+	 * @param aStream 入力ストリーム
+	 * @param aStore ストア
+	 * @return 読み込んだ件数
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public long importTo(final InputStream aStream, final Store<K, V> aStore) throws IOException {
+		DataInputStream in = new DataInputStream(aStream);
+		if (MAGIC != in.readInt()) {
+			throw new IOException("Not a store export stream.");
+		}
+		int version = in.readInt();
+		if (FORMAT_VERSION != version) {
+			throw new IOException("Unsupported store export version : " + version);
+		}
+		long count = 0;
+		Map<K, V> batch = new HashMap<K, V>();
+		while (in.readBoolean()) {
+			K key = StoreProtocol.read(in, keySerializer);
+			batch.put(key, StoreProtocol.read(in, valueSerializer));
+			count++;
+			if (BATCH_SIZE <= batch.size()) {
+				aStore.putAll(batch);
+				batch = new HashMap<K, V>();
+			}
+		}
+		if (!batch.isEmpty()) {
+			aStore.putAll(batch);
+		}
+		long expected = in.readLong();
+		if (expected != count) {
+			throw new IOException("Broken store export stream. (expected=" + expected + ", actual=" + count + ")");
+		}
+		return count;
+	}
+}
@@ -0,0 +1,227 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * このクラスは、ストア操作の結果を後から設定する{@link Future}クラスです。
+ * <p>
+ * {@link #addListener(Runnable, Executor)}で完了時の処理を登録できます。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class StoreFuture<V> implements Future<V> {
+
+	/** 完了待ち */
+	private final CountDownLatch latch;
+
+	/** 結果 */
+	private volatile V value;
+
+	/** 例外 */
+	private volatile Throwable failure;
+
+	/** 取消 */
+	private volatile boolean cancelled;
+
+	/** 完了済み */
+	private boolean done;
+
+	/** 完了時の処理 */
+	private List<Runnable> listeners;
+
+	/**
+	 * コンストラクタ
+	 */
+	public StoreFuture() {
+		latch = new CountDownLatch(1);
+		done = false;
+		listeners = new ArrayList<Runnable>();
+	}
+
+	/**
+	 * 完了した結果を持つフューチャーを生成する。
+	 *
+	 * @param aValue 結果
+	 * @return フューチャー
+	 */
+	public static <T> StoreFuture<T> completed(final T aValue) {
+		StoreFuture<T> future = new StoreFuture<T>();
+		future.set(aValue);
+		return future;
+	}
+
+	/**
+	 * 完了時の処理を登録する。
+	 * <p>
+	 * 既に完了している場合は直ちに実行します。処理は成功・失敗・取消のいずれの場合も実行されます。
+	 * </p>
+	 *
+	 * @param aListener 処理
+	 * @param aExecutor 処理を実行するエグゼキューター
+	 */
+	public void addListener(final Runnable aListener, final Executor aExecutor) {
+		Runnable listener = new Runnable() {
+			@Override
+			public void run() {
+				aExecutor.execute(aListener);
+			}
+		};
+		synchronized (latch) {
+			if (!done) {
+				listeners.add(listener);
+				return;
+			}
+		}
+		listener.run();
+	}
+
+	/**
+	 * 結果を設定する。
+	 *
+	 * @param aValue 結果
+	 * @return 設定した場合<code>true</code>、既に完了している場合<code>false</code>
+	 */
+	public boolean set(final V aValue) {
+		synchronized (latch) {
+			if (done) {
+				return false;
+			}
+			value = aValue;
+			done = true;
+		}
+		complete();
+		return true;
+	}
+
+	/**
+	 * 例外を設定する。
+	 *
+	 * @param aFailure 例外
+	 * @return 設定した場合<code>true</code>、既に完了している場合<code>false</code>
+	 */
+	public boolean setException(final Throwable aFailure) {
+		synchronized (latch) {
+			if (done) {
+				return false;
+			}
+			failure = aFailure;
+			done = true;
+		}
+		complete();
+		return true;
+	}
+
+	@Override
+	public boolean cancel(final boolean aMayInterruptIfRunning) {
+		synchronized (latch) {
+			if (done) {
+				return false;
+			}
+			cancelled = true;
+			done = true;
+		}
+		complete();
+		return true;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	@Override
+	public boolean isDone() {
+		return 0 == latch.getCount();
+	}
+
+	@Override
+	public V get() throws InterruptedException, ExecutionException {
+		latch.await();
+		return result();
+	}
+
+	@Override
+	public V get(final long aTimeout, final TimeUnit aUnit) throws InterruptedException, ExecutionException, TimeoutException {
+		if (!latch.await(aTimeout, aUnit)) {
+			throw new TimeoutException();
+		}
+		return result();
+	}
+
+	/**
+	 * 完了を待ち、結果を取得する。
+	 * <p>
+	 * 処理中の例外は{@link StoreException}として送出する。
+	 * </p>
+	 *
+	 * @return 結果
+	 * @throws StoreException 処理が失敗した場合、または待機中に割り込まれた場合
+	 */
+	public V join() {
+		try {
+			return get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new StoreException("Interrupted while waiting.", ex);
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new StoreException(cause);
+		}
+	}
+
+	private void complete() {
+		latch.countDown();
+		List<Runnable> list;
+		synchronized (latch) {
+			list = listeners;
+			listeners = null;
+		}
+		for (Runnable listener : list) {
+			listener.run();
+		}
+	}
+
+	private V result() throws ExecutionException {
+		if (cancelled) {
+			throw new CancellationException();
+		}
+		if (null != failure) {
+			throw new ExecutionException(failure);
+		}
+		return value;
+	}
+}
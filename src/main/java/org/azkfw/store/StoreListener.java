@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.List;
+
+/**
+ * このインターフェースは、ストアの変更イベントを受け取るリスナーを表現するインターフェースです。
+ * <p>
+ * イベントは更新したスレッドとは別のスレッドから、発生順にまとめて通知されます。
+ * 同じリスナーへの通知が同時に行われることはありません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public interface StoreListener<K, V> {
+
+	/**
+	 * 変更イベントを受け取る。
+	 *
+	 * @param aEvents イベント一覧(発生順)
+	 */
+	public void onEvents(final List<StoreEvent<K, V>> aEvents);
+}
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * このインターフェースは、ストアに存在しない値の読み込み処理を表現するインターフェースです。
+ * <p>
+ * 読み込みに失敗した場合は{@link StoreException}を送出してください。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public interface StoreLoader<K, V> {
+
+	/**
+	 * 値を読み込む。
+	 *
+	 * @param aKey キー
+	 * @return 値、存在しない場合<code>null</code>
+	 */
+	public V load(final K aKey);
+
+	/**
+	 * 複数の値をまとめて読み込む。
+	 *
+	 * @param aKeys キー一覧
+	 * @return キーと値のマップ(存在しないキーは含まない)
+	 */
+	public Map<K, V> loadAll(final Collection<? extends K> aKeys);
+}
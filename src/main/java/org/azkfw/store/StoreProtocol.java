@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * このクラスは、{@link StoreServer}と{@link RemoteStore}間の通信形式を定義するクラスです。
+ * <p>
+ * 要求は操作種別(1バイト)に続けて、キー・値を長さ(4バイト)付きのバイト列で送信します。
+ * 応答は状態(1バイト)に続けて、操作に応じた値またはエラーメッセージを送信します。長さ-1は<code>null</code>を表します。
+ * </p>
+ *
+ * <pre>
+ * GET     : [1][key]          → [OK][value] | [NOT_FOUND]
+ * PUT     : [2][key][value]   → [OK]
+ * REMOVE  : [3][key]          → [OK]
+ * HAS     : [4][key]          → [OK] | [NOT_FOUND]
+ * PUT_ALL : [5][count]([key][value])* → [OK]
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+final class StoreProtocol {
+
+	/** 参照 */
+	static final byte GET = 1;
+
+	/** 格納 */
+	static final byte PUT = 2;
+
+	/** 削除 */
+	static final byte REMOVE = 3;
+
+	/** 存在確認 */
+	static final byte HAS = 4;
+
+	/** 一括格納 */
+	static final byte PUT_ALL = 5;
+
+	/** 正常 */
+	static final byte OK = 0;
+
+	/** 未格納 */
+	static final byte NOT_FOUND = 1;
+
+	/** エラー */
+	static final byte ERROR = 2;
+
+	/** 1件あたりの最大バイト数 */
+	static final int MAX_LENGTH = 64 * 1024 * 1024;
+
+	private StoreProtocol() {
+	}
+
+	/**
+	 * 値を長さ付きのバイト列で書き込む。
+	 *
+	 * @param aOut 出力ストリーム
+	 * @param aValue 値
+	 * @param aSerializer シリアライザー
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	static <T> void write(final DataOutputStream aOut, final T aValue, final Serializer<T> aSerializer) throws IOException {
+		if (null == aValue) {
+			aOut.writeInt(-1);
+			return;
+		}
+		int size = aSerializer.getSize(aValue);
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		aSerializer.serialize(aValue, buffer);
+		aOut.writeInt(size);
+		aOut.write(buffer.array(), 0, size);
+	}
+
+	/**
+	 * 長さ付きのバイト列から値を読み込む。
+	 *
+	 * @param aIn 入力ストリーム
+	 * @param aSerializer シリアライザー
+	 * @return 値
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	static <T> T read(final DataInputStream aIn, final Serializer<T> aSerializer) throws IOException {
+		int size = aIn.readInt();
+		if (-1 == size) {
+			return null;
+		}
+		if (0 > size || MAX_LENGTH < size) {
+			throw new IOException("Invalid length : " + size);
+		}
+		byte[] bytes = new byte[size];
+		aIn.readFully(bytes);
+		return aSerializer.deserialize(ByteBuffer.wrap(bytes), size);
+	}
+}
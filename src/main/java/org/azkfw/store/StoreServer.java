@@ -0,0 +1,310 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.azkfw.lang.LoggingObject;
+
+/**
+ * このクラスは、ストアをソケット経由で公開するサーバークラスです。
+ * <p>
+ * {@link RemoteStore}からの要求を接続ごとのスレッドで処理し、委譲先ストアへ反映します。
+ * 通信形式は{@link StoreProtocol}を参照してください。
+ * </p>
+ *
+ * <pre>
+ * StoreServer&lt;String, String&gt; server = new StoreServer&lt;String, String&gt;(store, new StringSerializer(), new StringSerializer());
+ * server.start(new InetSocketAddress(&quot;localhost&quot;, 7001));
+ * ...
+ * server.close();
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class StoreServer<K, V> extends LoggingObject implements Closeable {
+
+	/** 未格納を表す値 */
+	private static final Object MISSING = new Object();
+
+	/** 委譲先ストア */
+	private final Store<K, V> store;
+
+	/** キーのシリアライザー */
+	private final Serializer<K> keySerializer;
+
+	/** 値のシリアライザー */
+	private final Serializer<V> valueSerializer;
+
+	/** 接続中のソケット */
+	private final Set<Socket> sockets;
+
+	/** サーバーソケット */
+	private ServerSocket serverSocket;
+
+	/** 接続処理スレッド */
+	private ExecutorService executor;
+
+	/** 停止済み */
+	private volatile boolean closed;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aStore 委譲先ストア
+	 * @param aKeySerializer キーのシリアライザー
+	 * @param aValueSerializer 値のシリアライザー
+	 */
+	public StoreServer(final Store<K, V> aStore, final Serializer<K> aKeySerializer, final Serializer<V> aValueSerializer) {
+		super(StoreServer.class);
+		store = aStore;
+		keySerializer = aKeySerializer;
+		valueSerializer = aValueSerializer;
+		sockets = Collections.newSetFromMap(new ConcurrentHashMap<Socket, Boolean>());
+		closed = false;
+	}
+
+	/**
+	 * ループバックアドレスの空きポートで待ち受けを開始する。
+	 *
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public void start() throws IOException {
+		start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+	}
+
+	/**
+	 * 待ち受けを開始する。
+	 *
+	 * @param aAddress 待ち受けアドレス
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public synchronized void start(final InetSocketAddress aAddress) throws IOException {
+		if (null != serverSocket) {
+			throw new IllegalStateException("Server already started.");
+		}
+		serverSocket = new ServerSocket();
+		serverSocket.setReuseAddress(true);
+		serverSocket.bind(aAddress);
+		final AtomicInteger number = new AtomicInteger();
+		executor = Executors.newCachedThreadPool(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable aRunnable) {
+				Thread thread = new Thread(aRunnable, "StoreServer-" + number.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		final ServerSocket server = serverSocket;
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				accept(server);
+			}
+		});
+		info("Store server started. (" + serverSocket.getLocalSocketAddress() + ")");
+	}
+
+	/**
+	 * 待ち受けアドレスを取得する。
+	 *
+	 * @return アドレス
+	 */
+	public InetSocketAddress getAddress() {
+		return (InetSocketAddress) serverSocket.getLocalSocketAddress();
+	}
+
+	/**
+	 * 待ち受けポートを取得する。
+	 *
+	 * @return ポート番号
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * 待ち受けを停止し、すべての接続を切断する。
+	 *
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (null != serverSocket) {
+			serverSocket.close();
+		}
+		for (Socket socket : sockets) {
+			closeQuietly(socket);
+		}
+		if (null != executor) {
+			executor.shutdownNow();
+		}
+	}
+
+	private void accept(final ServerSocket aServer) {
+		while (!closed) {
+			final Socket socket;
+			try {
+				socket = aServer.accept();
+			} catch (IOException ex) {
+				if (!closed) {
+					error("Failed to accept connection.", ex);
+				}
+				return;
+			}
+			sockets.add(socket);
+			if (closed) {
+				closeQuietly(socket);
+				return;
+			}
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						serve(socket);
+					} finally {
+						sockets.remove(socket);
+						closeQuietly(socket);
+					}
+				}
+			});
+		}
+	}
+
+	private void serve(final Socket aSocket) {
+		try {
+			aSocket.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(aSocket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(aSocket.getOutputStream()));
+			while (!closed) {
+				int op = in.read();
+				if (-1 == op) {
+					return;
+				}
+				handle((byte) op, in, out);
+				out.flush();
+			}
+		} catch (EOFException ex) {
+			// 接続先による切断
+		} catch (SocketException ex) {
+			if (!closed) {
+				debug("Connection closed. (" + ex.getMessage() + ")");
+			}
+		} catch (IOException ex) {
+			if (!closed) {
+				error("Connection error.", ex);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void handle(final byte aOp, final DataInputStream aIn, final DataOutputStream aOut) throws IOException {
+		// 要求は例外発生時も読み切り、接続を継続する
+		K key = null;
+		V value = null;
+		Map<K, V> map = null;
+		switch (aOp) {
+		case StoreProtocol.GET:
+		case StoreProtocol.REMOVE:
+		case StoreProtocol.HAS:
+			key = StoreProtocol.read(aIn, keySerializer);
+			break;
+		case StoreProtocol.PUT:
+			key = StoreProtocol.read(aIn, keySerializer);
+			value = StoreProtocol.read(aIn, valueSerializer);
+			break;
+		case StoreProtocol.PUT_ALL:
+			int count = aIn.readInt();
+			map = new HashMap<K, V>();
+			for (int i = 0; i < count; i++) {
+				K k = StoreProtocol.read(aIn, keySerializer);
+				map.put(k, StoreProtocol.read(aIn, valueSerializer));
+			}
+			break;
+		default:
+			throw new IOException("Unknown operation : " + aOp);
+		}
+
+		try {
+			switch (aOp) {
+			case StoreProtocol.GET:
+				V result = store.get(key, (V) MISSING);
+				if (MISSING == result) {
+					aOut.writeByte(StoreProtocol.NOT_FOUND);
+				} else {
+					aOut.writeByte(StoreProtocol.OK);
+					StoreProtocol.write(aOut, result, valueSerializer);
+				}
+				break;
+			case StoreProtocol.PUT:
+				store.put(key, value);
+				aOut.writeByte(StoreProtocol.OK);
+				break;
+			case StoreProtocol.REMOVE:
+				store.remove(key);
+				aOut.writeByte(StoreProtocol.OK);
+				break;
+			case StoreProtocol.HAS:
+				aOut.writeByte(store.has(key) ? StoreProtocol.OK : StoreProtocol.NOT_FOUND);
+				break;
+			default:
+				store.putAll(map);
+				aOut.writeByte(StoreProtocol.OK);
+				break;
+			}
+		} catch (RuntimeException ex) {
+			warn("Store operation failed.", ex);
+			aOut.writeByte(StoreProtocol.ERROR);
+			aOut.writeUTF(String.valueOf(ex.getMessage()));
+		}
+	}
+
+	private static void closeQuietly(final Socket aSocket) {
+		try {
+			aSocket.close();
+		} catch (IOException ex) {
+			// 切断時の例外は無視する
+		}
+	}
+}
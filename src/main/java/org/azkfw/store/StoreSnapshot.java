@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.Closeable;
+import java.util.Map;
+
+/**
+ * このインターフェースは、ある時点のストアの全件を走査するスナップショットを表現するインターフェースです。
+ * <p>
+ * スナップショット取得後の更新は走査結果に反映されません。走査中も元のストアは更新できます。
+ * 走査後は{@link #close()}を呼び出し、スナップショットの保持に伴う更新時の複製を終了させてください。
+ * </p>
+ *
+ * <pre>
+ * StoreSnapshot&lt;String, String&gt; snapshot = store.snapshot();
+ * try {
+ * 	for (Map.Entry&lt;String, String&gt; entry : snapshot) {
+ * 		...
+ * 	}
+ * } finally {
+ * 	snapshot.close();
+ * }
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public interface StoreSnapshot<K, V> extends Iterable<Map.Entry<K, V>>, Closeable {
+
+	/**
+	 * スナップショット取得時点の件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public int size();
+
+	/**
+	 * スナップショットを解放する。解放後は走査できません。
+	 */
+	@Override
+	public void close();
+}
@@ -0,0 +1,283 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+/**
+ * このクラスは、ある時点のストアの操作統計を保持するクラスです。
+ * <p>
+ * {@link StatisticsRecorder#snapshot()}で生成し、生成後に値は変化しません。
+ * 所要時間の単位はすべてナノ秒です。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class StoreStatistics {
+
+	private final long size;
+
+	private final long weight;
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final long putCount;
+
+	private final long removeCount;
+
+	private final long evictionCount;
+
+	private final long loadSuccessCount;
+
+	private final long loadFailureCount;
+
+	private final long totalLoadTime;
+
+	private final long[] getLatencies;
+
+	private final long totalGetTime;
+
+	private final long maxGetTime;
+
+	private final long[] putLatencies;
+
+	private final long totalPutTime;
+
+	private final long maxPutTime;
+
+	StoreStatistics(final long aSize, final long aWeight, final long aHitCount, final long aMissCount, final long aPutCount, final long aRemoveCount, final long aEvictionCount,
+			final long aLoadSuccessCount, final long aLoadFailureCount, final long aTotalLoadTime, final long[] aGetLatencies,
+			final long aTotalGetTime, final long aMaxGetTime, final long[] aPutLatencies, final long aTotalPutTime, final long aMaxPutTime) {
+		size = aSize;
+		weight = aWeight;
+		hitCount = aHitCount;
+		missCount = aMissCount;
+		putCount = aPutCount;
+		removeCount = aRemoveCount;
+		evictionCount = aEvictionCount;
+		loadSuccessCount = aLoadSuccessCount;
+		loadFailureCount = aLoadFailureCount;
+		totalLoadTime = aTotalLoadTime;
+		getLatencies = aGetLatencies;
+		totalGetTime = aTotalGetTime;
+		maxGetTime = aMaxGetTime;
+		putLatencies = aPutLatencies;
+		totalPutTime = aTotalPutTime;
+		maxPutTime = aMaxPutTime;
+	}
+
+	/**
+	 * 格納件数を取得する。
+	 *
+	 * @return 件数、取得元が設定されていない場合-1
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * 重みの合計を取得する。
+	 *
+	 * @return 重み、取得元が設定されていないか重みを管理しない場合-1
+	 */
+	public long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * ヒット件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * ミス件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * 参照件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getRequestCount() {
+		return hitCount + missCount;
+	}
+
+	/**
+	 * ヒット率を取得する。
+	 *
+	 * @return ヒット率(参照がない場合1.0)
+	 */
+	public double getHitRatio() {
+		long requests = getRequestCount();
+		return (0 == requests) ? 1.0 : (double) hitCount / requests;
+	}
+
+	/**
+	 * 格納件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getPutCount() {
+		return putCount;
+	}
+
+	/**
+	 * 削除件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getRemoveCount() {
+		return removeCount;
+	}
+
+	/**
+	 * 追い出し件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * 読み込み成功件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getLoadSuccessCount() {
+		return loadSuccessCount;
+	}
+
+	/**
+	 * 読み込み失敗件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getLoadFailureCount() {
+		return loadFailureCount;
+	}
+
+	/**
+	 * 読み込みに要した合計時間を取得する。
+	 *
+	 * @return 時間
+	 */
+	public long getTotalLoadTime() {
+		return totalLoadTime;
+	}
+
+	/**
+	 * 読み込みの平均時間を取得する。
+	 *
+	 * @return 時間(読み込みがない場合0)
+	 */
+	public double getAverageLoadTime() {
+		long loads = loadSuccessCount + loadFailureCount;
+		return (0 == loads) ? 0.0 : (double) totalLoadTime / loads;
+	}
+
+	/**
+	 * 参照の平均時間を取得する。
+	 *
+	 * @return 時間(参照がない場合0)
+	 */
+	public double getAverageGetTime() {
+		long requests = getRequestCount();
+		return (0 == requests) ? 0.0 : (double) totalGetTime / requests;
+	}
+
+	/**
+	 * 参照の最大時間を取得する。
+	 *
+	 * @return 時間
+	 */
+	public long getMaxGetTime() {
+		return maxGetTime;
+	}
+
+	/**
+	 * 参照時間の百分位値を取得する。
+	 *
+	 * @param aPercentile 百分位(0～100)
+	 * @return 時間
+	 */
+	public long getGetTimePercentile(final double aPercentile) {
+		return Math.min(maxGetTime, LatencyHistogram.percentile(getLatencies, aPercentile));
+	}
+
+	/**
+	 * 格納の平均時間を取得する。
+	 *
+	 * @return 時間(格納がない場合0)
+	 */
+	public double getAveragePutTime() {
+		return (0 == putCount) ? 0.0 : (double) totalPutTime / putCount;
+	}
+
+	/**
+	 * 格納の最大時間を取得する。
+	 *
+	 * @return 時間
+	 */
+	public long getMaxPutTime() {
+		return maxPutTime;
+	}
+
+	/**
+	 * 格納時間の百分位値を取得する。
+	 *
+	 * @param aPercentile 百分位(0～100)
+	 * @return 時間
+	 */
+	public long getPutTimePercentile(final double aPercentile) {
+		return Math.min(maxPutTime, LatencyHistogram.percentile(putLatencies, aPercentile));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		if (0 <= size) {
+			s.append("size=").append(size).append(", ");
+		}
+		if (0 <= weight) {
+			s.append("weight=").append(weight).append(", ");
+		}
+		s.append("hit=").append(hitCount);
+		s.append(", miss=").append(missCount);
+		s.append(", hitRatio=").append(getHitRatio());
+		s.append(", put=").append(putCount);
+		s.append(", remove=").append(removeCount);
+		s.append(", eviction=").append(evictionCount);
+		s.append(", loadSuccess=").append(loadSuccessCount);
+		s.append(", loadFailure=").append(loadFailureCount);
+		s.append(", get(p50/p99/max)=").append(getGetTimePercentile(50)).append("/").append(getGetTimePercentile(99)).append("/").append(maxGetTime);
+		s.append(", put(p50/p99/max)=").append(getPutTimePercentile(50)).append("/").append(getPutTimePercentile(99)).append("/").append(maxPutTime);
+		return s.toString();
+	}
+}
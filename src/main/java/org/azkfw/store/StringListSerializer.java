@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * このクラスは、文字列のリスト(CSV１行データなど)をバイト列に変換するシリアライザークラスです。
+ *
+ * <pre>
+ * 形式 : 要素数(int)、{バイト数(int、nullは-1)、UTF-8バイト列}の繰り返し
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class StringListSerializer implements Serializer<List<String>> {
+
+	/** 要素のシリアライザー */
+	private static final StringSerializer ELEMENT = new StringSerializer();
+
+	@Override
+	public int getSize(final List<String> aValue) {
+		int size = 4;
+		for (String element : aValue) {
+			size += 4 + ((null != element) ? ELEMENT.getSize(element) : 0);
+		}
+		return size;
+	}
+
+	@Override
+	public void serialize(final List<String> aValue, final ByteBuffer aBuffer) {
+		aBuffer.putInt(aValue.size());
+		for (String element : aValue) {
+			if (null == element) {
+				aBuffer.putInt(-1);
+			} else {
+				aBuffer.putInt(ELEMENT.getSize(element));
+				ELEMENT.serialize(element, aBuffer);
+			}
+		}
+	}
+
+	@Override
+	public List<String> deserialize(final ByteBuffer aBuffer, final int aLength) {
+		int size = aBuffer.getInt();
+		List<String> list = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			int length = aBuffer.getInt();
+			list.add((-1 == length) ? null : ELEMENT.deserialize(aBuffer, length));
+		}
+		return list;
+	}
+}
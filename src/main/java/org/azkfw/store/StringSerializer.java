@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * このクラスは、文字列をUTF-8のバイト列に変換するシリアライザークラスです。
+ * <p>
+ * 書き込み時は中間のバイト配列を生成せず、バッファへ直接符号化します。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class StringSerializer implements Serializer<String> {
+
+	/** UTF-8 */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	@Override
+	public int getSize(final String aValue) {
+		int length = aValue.length();
+		int size = 0;
+		for (int i = 0; i < length; i++) {
+			char c = aValue.charAt(i);
+			if (c < 0x80) {
+				size++;
+			} else if (c < 0x800) {
+				size += 2;
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(aValue.charAt(i + 1))) {
+				size += 4;
+				i++;
+			} else {
+				size += 3;
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public void serialize(final String aValue, final ByteBuffer aBuffer) {
+		int length = aValue.length();
+		for (int i = 0; i < length; i++) {
+			char c = aValue.charAt(i);
+			if (c < 0x80) {
+				aBuffer.put((byte) c);
+			} else if (c < 0x800) {
+				aBuffer.put((byte) (0xC0 | (c >> 6)));
+				aBuffer.put((byte) (0x80 | (c & 0x3F)));
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(aValue.charAt(i + 1))) {
+				int cp = Character.toCodePoint(c, aValue.charAt(++i));
+				aBuffer.put((byte) (0xF0 | (cp >> 18)));
+				aBuffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+				aBuffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+				aBuffer.put((byte) (0x80 | (cp & 0x3F)));
+			} else {
+				// 対になっていないサロゲートは3バイトのまま符号化し、サイズ計算と一致させる
+				aBuffer.put((byte) (0xE0 | (c >> 12)));
+				aBuffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+				aBuffer.put((byte) (0x80 | (c & 0x3F)));
+			}
+		}
+	}
+
+	@Override
+	public String deserialize(final ByteBuffer aBuffer, final int aLength) {
+		if (aBuffer.hasArray()) {
+			String value = new String(aBuffer.array(), aBuffer.arrayOffset() + aBuffer.position(), aLength, UTF_8);
+			aBuffer.position(aBuffer.position() + aLength);
+			return value;
+		}
+		byte[] bytes = new byte[aLength];
+		aBuffer.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+}
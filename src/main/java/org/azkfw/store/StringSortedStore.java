@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Map;
+
+/**
+ * このクラスは、文字列のキーを自然順序で保持し、前方一致検索が可能なストアクラスです。
+ * <p>
+ * 接頭辞に続く最小の文字列を上限とした範囲検索で前方一致検索を行うため、キーの順序は常に{@link String}の自然順序となります。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class StringSortedStore<V> extends ConcurrentSortedStore<String, V> {
+
+	/**
+	 * コンストラクタ
+	 */
+	public StringSortedStore() {
+		super();
+	}
+
+	/**
+	 * キーが前方一致するエントリーを取得する。
+	 *
+	 * @param aPrefix 接頭辞
+	 * @return エントリー
+	 */
+	public Iterable<Map.Entry<String, V>> prefix(final String aPrefix) {
+		if (null == aPrefix) {
+			throw new NullPointerException("Prefix is null.");
+		}
+		if (0 == aPrefix.length()) {
+			return range(null, null);
+		}
+		return range(aPrefix, upperBound(aPrefix));
+	}
+
+	/**
+	 * 接頭辞で始まる全ての文字列より大きい最小の文字列を求める。
+	 *
+	 * @param aPrefix 接頭辞
+	 * @return 文字列、存在しない場合<code>null</code>
+	 */
+	static String upperBound(final String aPrefix) {
+		// 末尾の最大文字は繰り上げられないため取り除く
+		int end = aPrefix.length();
+		while (0 < end && Character.MAX_VALUE == aPrefix.charAt(end - 1)) {
+			end--;
+		}
+		if (0 == end) {
+			return null;
+		}
+		char[] chars = aPrefix.substring(0, end).toCharArray();
+		chars[end - 1]++;
+		return new String(chars);
+	}
+}
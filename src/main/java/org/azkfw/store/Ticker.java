@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+/**
+ * このインターフェースは、経過時間の取得元を表現するインターフェースです。
+ * <p>
+ * 有効期限の判定に使用します。テストでは任意の時刻を返す実装に差し替えることができます。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public interface Ticker {
+
+	/** {@link System#nanoTime()}を返すティッカー */
+	public static final Ticker SYSTEM = new Ticker() {
+		@Override
+		public long read() {
+			return System.nanoTime();
+		}
+	};
+
+	/**
+	 * 現在時刻を取得する。
+	 * <p>
+	 * 値は任意の起点からの経過時間(ナノ秒)で、差分のみ意味を持ちます。
+	 * </p>
+	 *
+	 * @return 時刻(ナノ秒)
+	 */
+	public long read();
+}
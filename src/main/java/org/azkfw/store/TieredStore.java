@@ -0,0 +1,482 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * このクラスは、ヒープ・オフヒープ・ディスクの3階層で値を保持するストアクラスです。
+ * <p>
+ * 頻繁に参照される値をヒープ上の{@link CacheStore}に、次いで参照される値をオフヒープの{@link OffHeapStore}に、
+ * それ以外の値をディスクを用いた任意のストアに保持します。
+ * ヒープから追い出された値はオフヒープへ、オフヒープの容量が不足した場合は古いものから順にディスクへ自動的に降格し、
+ * 下位の階層で参照された値はヒープへ昇格します。
+ * </p>
+ * <p>
+ * 同じキーの値が一時的に複数の階層に存在する場合がありますが、参照は常に上位の階層から行うため、最新の値が返ります。
+ * 階層ごとのヒット件数を取得できるため、各階層のサイズ調整に利用できます。
+ * </p>
+ * <p>
+ * 格納・削除は{@link #addStoreListener(StoreListener)}で登録したリスナーへ通知します。階層間の昇格・降格は通知しません。
+ * 各階層のストアに登録したリスナーには階層間の移動が格納・削除として通知されるため、このストアに登録してください。
+ * </p>
+ *
+ * <pre>
+ * OffHeapStore&lt;String, String&gt; offHeap = new OffHeapStore&lt;String, String&gt;(new StringSerializer(), new StringSerializer(), 256 * 1024 * 1024);
+ * MappedStore&lt;String, String&gt; disk = new MappedStore&lt;String, String&gt;(file, new StringSerializer(), new StringSerializer());
+ * TieredStore&lt;String, String&gt; store = new TieredStore&lt;String, String&gt;(10000, offHeap, disk);
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class TieredStore<K, V> extends AbstractStore<K, V> implements Closeable {
+
+	/** ロックのストライプ数 */
+	private static final int STRIPES = 64;
+
+	/** 1回の降格でディスクへ移す最大件数 */
+	private static final int MAX_OVERFLOW = 64;
+
+	/** ヒープ階層 */
+	private final HeapTier<K, V> heap;
+
+	/** オフヒープ階層 */
+	private final OffHeapStore<K, V> offHeap;
+
+	/** ディスク階層 */
+	private final Store<K, V> disk;
+
+	/** オフヒープ階層へ格納した順のキー */
+	private final Queue<K> offHeapOrder;
+
+	/** オフヒープ階層の順序キュー件数 */
+	private final AtomicInteger offHeapOrderSize;
+
+	/** キー単位の排他ロック */
+	private final ReentrantLock[] locks;
+
+	/** ヒープ階層のヒット件数 */
+	private final AtomicLong heapHitCount;
+
+	/** オフヒープ階層のヒット件数 */
+	private final AtomicLong offHeapHitCount;
+
+	/** ディスク階層のヒット件数 */
+	private final AtomicLong diskHitCount;
+
+	/** ミス件数 */
+	private final AtomicLong missCount;
+
+	/** 昇格件数 */
+	private final AtomicLong promotionCount;
+
+	/** オフヒープ階層への降格件数 */
+	private final AtomicLong offHeapDemotionCount;
+
+	/** ディスク階層への降格件数 */
+	private final AtomicLong diskDemotionCount;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aHeapSize ヒープ階層の最大件数
+	 * @param aOffHeap オフヒープ階層
+	 * @param aDisk ディスク階層
+	 */
+	public TieredStore(final long aHeapSize, final OffHeapStore<K, V> aOffHeap, final Store<K, V> aDisk) {
+		super(TieredStore.class);
+		heap = new HeapTier<K, V>(this, aHeapSize);
+		offHeap = aOffHeap;
+		disk = aDisk;
+		offHeapOrder = new ConcurrentLinkedQueue<K>();
+		offHeapOrderSize = new AtomicInteger();
+		locks = new ReentrantLock[STRIPES];
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+		heapHitCount = new AtomicLong();
+		offHeapHitCount = new AtomicLong();
+		diskHitCount = new AtomicLong();
+		missCount = new AtomicLong();
+		promotionCount = new AtomicLong();
+		offHeapDemotionCount = new AtomicLong();
+		diskDemotionCount = new AtomicLong();
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		if (null == aValue) {
+			throw new NullPointerException("Value is null.");
+		}
+		ReentrantLock lock = lockFor(aKey);
+		lock.lock();
+		try {
+			// 格納直後にヒープから追い出される場合があるため、下位の階層を先に削除する
+			disk.remove(aKey);
+			offHeap.remove(aKey);
+			heap.put(aKey, aValue);
+			publish(StoreEventType.PUT, aKey, aValue);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		V value = heap.get(aKey);
+		if (null != value) {
+			heapHitCount.incrementAndGet();
+			return value;
+		}
+		ReentrantLock lock = lockFor(aKey);
+		lock.lock();
+		try {
+			// 昇格中の値を取りこぼさないよう、ロック取得後に再確認する
+			value = heap.get(aKey);
+			if (null != value) {
+				heapHitCount.incrementAndGet();
+				return value;
+			}
+			value = offHeap.get(aKey);
+			if (null != value) {
+				offHeapHitCount.incrementAndGet();
+				promote(aKey, value, offHeap);
+				return value;
+			}
+			value = disk.get(aKey);
+			if (null != value) {
+				diskHitCount.incrementAndGet();
+				promote(aKey, value, disk);
+				return value;
+			}
+		} finally {
+			lock.unlock();
+		}
+		missCount.incrementAndGet();
+		return aDefault;
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		if (heap.has(aKey)) {
+			return true;
+		}
+		ReentrantLock lock = lockFor(aKey);
+		lock.lock();
+		try {
+			// 上位から順に確認する間に昇格した値を取りこぼさないよう、ロックを取得して確認する
+			return heap.has(aKey) || offHeap.has(aKey) || disk.has(aKey);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		ReentrantLock lock = lockFor(aKey);
+		lock.lock();
+		try {
+			V value = null;
+			if (hasStoreListeners()) {
+				value = peek(aKey);
+			}
+			// 降格中の値はヒープの削除完了時点で下位の階層へ移っているため、上位から順に削除する
+			heap.remove(aKey);
+			offHeap.remove(aKey);
+			disk.remove(aKey);
+			if (null != value) {
+				publish(StoreEventType.REMOVE, aKey, value);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	protected boolean isStoreEventSupported() {
+		return true;
+	}
+
+	/**
+	 * ヒープ階層の格納件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public int getHeapSize() {
+		return heap.size();
+	}
+
+	/**
+	 * オフヒープ階層の格納件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public int getOffHeapSize() {
+		return offHeap.size();
+	}
+
+	/**
+	 * ヒープ階層のヒット件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getHeapHitCount() {
+		return heapHitCount.get();
+	}
+
+	/**
+	 * オフヒープ階層のヒット件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getOffHeapHitCount() {
+		return offHeapHitCount.get();
+	}
+
+	/**
+	 * ディスク階層のヒット件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getDiskHitCount() {
+		return diskHitCount.get();
+	}
+
+	/**
+	 * いずれの階層にも存在しなかった件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * ヒープ階層へ昇格した件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getPromotionCount() {
+		return promotionCount.get();
+	}
+
+	/**
+	 * オフヒープ階層へ降格した件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getOffHeapDemotionCount() {
+		return offHeapDemotionCount.get();
+	}
+
+	/**
+	 * ディスク階層へ降格した件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getDiskDemotionCount() {
+		return diskDemotionCount.get();
+	}
+
+	/**
+	 * オフヒープ階層を解放し、ディスク階層が{@link Closeable}の場合はクローズする。
+	 * <p>
+	 * ヒープ・オフヒープ階層の値は破棄されます。
+	 * </p>
+	 *
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	@Override
+	public void close() throws IOException {
+		heap.clear();
+		offHeapOrder.clear();
+		offHeapOrderSize.set(0);
+		offHeap.close();
+		if (disk instanceof Closeable) {
+			((Closeable) disk).close();
+		}
+	}
+
+	/**
+	 * 昇格を行わずに値を取得する。
+	 */
+	private V peek(final K aKey) {
+		V value = heap.get(aKey);
+		if (null == value) {
+			value = offHeap.get(aKey);
+		}
+		if (null == value) {
+			value = disk.get(aKey);
+		}
+		return value;
+	}
+
+	/**
+	 * 下位の階層の値をヒープ階層へ昇格する。キー単位のロックを保持した状態で呼び出すこと。
+	 * <p>
+	 * ヒープ階層の参照はロックを取得しないため、ヒープ階層へ格納してから下位の階層から削除する。
+	 * </p>
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 * @param aSource 昇格元の階層
+	 */
+	private void promote(final K aKey, final V aValue, final Store<K, V> aSource) {
+		promotionCount.incrementAndGet();
+		heap.put(aKey, aValue);
+		if (!heap.has(aKey)) {
+			// ヒープ階層に受け入れられず降格済み
+			return;
+		}
+		aSource.remove(aKey);
+		if (!heap.has(aKey)) {
+			// 削除前に追い出され、降格した値を削除した可能性があるため改めて降格する
+			demote(aKey, aValue);
+		}
+	}
+
+	/**
+	 * ヒープ階層から追い出された値をオフヒープ階層へ降格する。
+	 * <p>
+	 * ヒープ階層のセグメントロックを保持した状態で呼び出されるため、キー単位のロックは待機せずに取得を試みる。
+	 * </p>
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 */
+	private void demote(final K aKey, final V aValue) {
+		if (offHeap.has(aKey)) {
+			// 昇格元の値が残っている
+			return;
+		}
+		int overflow = 0;
+		while (!offHeap.offer(aKey, aValue)) {
+			if (overflow++ >= MAX_OVERFLOW || !overflow()) {
+				// オフヒープに空きを作れない場合は直接ディスクへ移す
+				diskDemotionCount.incrementAndGet();
+				disk.put(aKey, aValue);
+				return;
+			}
+		}
+		offHeapDemotionCount.incrementAndGet();
+		offHeapOrder.add(aKey);
+		if (offHeapOrderSize.incrementAndGet() > (offHeap.size() << 1) + 1024) {
+			purgeOffHeapOrder();
+		}
+	}
+
+	/**
+	 * オフヒープ階層の最も古い値をディスク階層へ移す。
+	 *
+	 * @return 移した場合、<code>true</code>を返す。
+	 */
+	private boolean overflow() {
+		int attempts = offHeapOrderSize.get();
+		K key;
+		while (0 <= --attempts && null != (key = offHeapOrder.poll())) {
+			offHeapOrderSize.decrementAndGet();
+			ReentrantLock lock = lockFor(key);
+			if (!lock.tryLock()) {
+				offHeapOrder.add(key);
+				offHeapOrderSize.incrementAndGet();
+				continue;
+			}
+			try {
+				V value = offHeap.get(key);
+				if (null == value) {
+					// 昇格・削除済みのキー
+					continue;
+				}
+				disk.put(key, value);
+				offHeap.remove(key);
+				diskDemotionCount.incrementAndGet();
+				return true;
+			} finally {
+				lock.unlock();
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 順序キューからオフヒープ階層に存在しないキーと、重複したキーを取り除く。
+	 */
+	private void purgeOffHeapOrder() {
+		int size = offHeapOrderSize.get();
+		Set<K> live = new HashSet<K>();
+		for (int i = 0; i < size; i++) {
+			K key = offHeapOrder.poll();
+			if (null == key) {
+				break;
+			}
+			// 昇格後に再度降格したキーは重複して登録されている
+			if (!live.contains(key) && offHeap.has(key)) {
+				live.add(key);
+				offHeapOrder.add(key);
+			} else {
+				offHeapOrderSize.decrementAndGet();
+			}
+		}
+	}
+
+	private ReentrantLock lockFor(final Object aKey) {
+		int h = aKey.hashCode() * 0x9E3779B9;
+		return locks[(h ^ (h >>> 16)) & (STRIPES - 1)];
+	}
+
+	/**
+	 * このクラスは、追い出した値を下位の階層へ降格するヒープ階層クラスです。
+	 */
+	private static final class HeapTier<K, V> extends CacheStore<K, V> {
+
+		private final TieredStore<K, V> store;
+
+		private HeapTier(final TieredStore<K, V> aStore, final long aMaximumSize) {
+			super(aMaximumSize);
+			store = aStore;
+		}
+
+		@Override
+		protected void onEviction(final K aKey, final V aValue) {
+			store.demote(aKey, aValue);
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.List;
+
+/**
+ * このクラスは、有効期限付き要素を管理する階層型タイミングホイールクラスです。
+ * <p>
+ * 期限までの残り時間に応じて、粒度の異なる複数の車輪のバケットへ要素を登録します。
+ * 時刻を進めた際は経過したバケットのみを処理し、まだ期限に達していない要素はより細かい車輪へ再登録します。
+ * 登録・削除はO(1)、期限切れ処理は要素あたり償却O(1)で行えます。
+ * </p>
+ * <p>
+ * 時刻は0以上の経過時間(ナノ秒)で扱います。このクラスはスレッドセーフではありません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+final class TimerWheel {
+
+	/** 各車輪のバケット数 */
+	private static final int[] BUCKETS = { 64, 64, 32, 4, 1 };
+
+	/** 各車輪のバケット幅(約1.07秒、1.14分、1.22時間、1.63日、6.5日) */
+	private static final long[] SPANS = { 1L << 30, 1L << 36, 1L << 42, 1L << 47, 1L << 49, 1L << 49 };
+
+	/** バケット幅のシフト数 */
+	private static final long[] SHIFT = { 30, 36, 42, 47, 49 };
+
+	/** 車輪 */
+	private final Timer[][] wheel;
+
+	/** 現在時刻 */
+	private long nanos;
+
+	/**
+	 * コンストラクタ
+	 */
+	TimerWheel() {
+		wheel = new Timer[BUCKETS.length][];
+		for (int i = 0; i < BUCKETS.length; i++) {
+			wheel[i] = new Timer[BUCKETS[i]];
+			for (int j = 0; j < BUCKETS[i]; j++) {
+				Timer sentinel = new Timer();
+				sentinel.prev = sentinel;
+				sentinel.next = sentinel;
+				wheel[i][j] = sentinel;
+			}
+		}
+		nanos = 0;
+	}
+
+	/**
+	 * 要素を登録する。
+	 * <p>
+	 * 登録済みの場合は現在の期限で再登録する。
+	 * </p>
+	 *
+	 * @param aTimer 要素
+	 */
+	void schedule(final Timer aTimer) {
+		deschedule(aTimer);
+		Timer sentinel = findBucket(aTimer.time);
+		aTimer.prev = sentinel.prev;
+		aTimer.next = sentinel;
+		sentinel.prev.next = aTimer;
+		sentinel.prev = aTimer;
+	}
+
+	/**
+	 * 要素の登録を解除する。
+	 *
+	 * @param aTimer 要素
+	 */
+	void deschedule(final Timer aTimer) {
+		if (null != aTimer.next) {
+			aTimer.prev.next = aTimer.next;
+			aTimer.next.prev = aTimer.prev;
+			aTimer.prev = null;
+			aTimer.next = null;
+		}
+	}
+
+	/**
+	 * 時刻を進め、期限に達した要素を取り出す。
+	 * <p>
+	 * 取り出した要素は登録解除された状態となる。
+	 * </p>
+	 *
+	 * @param aTime 現在時刻
+	 * @param aExpired 期限に達した要素の格納先
+	 */
+	void advance(final long aTime, final List<Timer> aExpired) {
+		long previous = nanos;
+		if (aTime <= previous) {
+			return;
+		}
+		nanos = aTime;
+		for (int i = 0; i < BUCKETS.length; i++) {
+			long previousTicks = previous >>> SHIFT[i];
+			long currentTicks = aTime >>> SHIFT[i];
+			long delta = currentTicks - previousTicks;
+			if (0 >= delta) {
+				break;
+			}
+			expire(i, previousTicks, delta, aExpired);
+		}
+	}
+
+	/**
+	 * 現在時刻を取得する。
+	 *
+	 * @return 時刻
+	 */
+	long getTime() {
+		return nanos;
+	}
+
+	private void expire(final int aIndex, final long aPreviousTicks, final long aDelta, final List<Timer> aExpired) {
+		Timer[] buckets = wheel[aIndex];
+		int mask = buckets.length - 1;
+		int steps = (int) Math.min(1 + aDelta, buckets.length);
+		int start = (int) (aPreviousTicks & mask);
+		for (int i = start; i < start + steps; i++) {
+			Timer sentinel = buckets[i & mask];
+			Timer timer = sentinel.next;
+			sentinel.prev = sentinel;
+			sentinel.next = sentinel;
+			while (sentinel != timer) {
+				Timer next = timer.next;
+				timer.prev = null;
+				timer.next = null;
+				if (timer.time <= nanos) {
+					aExpired.add(timer);
+				} else {
+					schedule(timer);
+				}
+				timer = next;
+			}
+		}
+	}
+
+	private Timer findBucket(final long aTime) {
+		// 既に期限を過ぎている要素は次回の時刻更新で処理されるよう現在のバケットへ登録する
+		long time = Math.max(aTime, nanos);
+		long duration = time - nanos;
+		int length = wheel.length - 1;
+		for (int i = 0; i < length; i++) {
+			if (duration < SPANS[i + 1]) {
+				long ticks = time >>> SHIFT[i];
+				return wheel[i][(int) (ticks & (wheel[i].length - 1))];
+			}
+		}
+		return wheel[length][0];
+	}
+
+	/**
+	 * このクラスは、タイミングホイールに登録する要素を表現するクラスです。
+	 */
+	static class Timer {
+
+		/** 期限 */
+		long time;
+
+		/** 前要素 */
+		Timer prev;
+
+		/** 次要素 */
+		Timer next;
+	}
+}
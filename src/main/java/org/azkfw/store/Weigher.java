@@ -0,0 +1,40 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+/**
+ * このインターフェースは、エントリーの重み(メモリ上のバイト数など)を算出する機能を表現するインターフェースです。
+ * <p>
+ * 実装はスレッドセーフである必要があります。また、同じエントリーに対して常に同じ値を返す必要があります。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public interface Weigher<K, V> {
+
+	/**
+	 * エントリーの重みを算出する。
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 * @return 重み(0以上)
+	 */
+	public int weigh(final K aKey, final V aValue);
+}
@@ -0,0 +1,515 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * このクラスは、エントリーの重みの合計を上限以下に保つストアクラスです。
+ * <p>
+ * 各エントリーの重みを{@link Weigher}で算出し、合計が上限を超えた場合は{@link EvictionPolicy}に従ってエントリーを追い出します。
+ * 値の大きさにばらつきがある場合でも、件数ではなくバイト数などで使用量を制限できます。
+ * </p>
+ * <p>
+ * {@link #enableMemoryPressureShedding(double, double)}を呼び出すと、GC後の旧世代領域の使用率が閾値を超えた通知を受けた時点で
+ * 保持しているエントリーの一部を追い出し、ヒープの使用量を抑えます。
+ * </p>
+ * <p>
+ * 参照はロックを取得しません。参照順の更新はロックを取得できた場合のみ行うため、高負荷時のLRUは近似となります。
+ * キー・値に<code>null</code>は指定できません。
+ * </p>
+ * <p>
+ * 格納・削除・追い出しは{@link #addStoreListener(StoreListener)}で登録したリスナーへ通知します。上限を超えるエントリーは格納を通知せずに追い出しのみを通知します。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class WeightedStore<K, V> extends AbstractStore<K, V> {
+
+	/** 使用率に応じた追い出しを有効にしているストアと閾値 */
+	private static final Map<WeightedStore<?, ?>, Double> PRESSURE_THRESHOLDS = new IdentityHashMap<WeightedStore<?, ?>, Double>();
+
+	/** 重み */
+	private final Weigher<K, V> weigher;
+
+	/** データ */
+	private final ConcurrentMap<K, Node<K, V>> data;
+
+	/** 更新・追い出し用ロック */
+	private final ReentrantLock lock;
+
+	/** 追い出し順序の先頭(番兵) */
+	private final Node<K, V> head;
+
+	/** 追い出し方法 */
+	private volatile EvictionPolicy policy;
+
+	/** 重みの上限 */
+	private volatile long maximumWeight;
+
+	/** 重みの合計 */
+	private volatile long weight;
+
+	/** 追い出し件数 */
+	private volatile long evictionCount;
+
+	/** 統計 */
+	private volatile StatisticsRecorder recorder;
+
+	/** メモリ使用量の通知リスナー */
+	private NotificationListener memoryListener;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aMaximumWeight 重みの上限
+	 * @param aWeigher 重み
+	 */
+	public WeightedStore(final long aMaximumWeight, final Weigher<K, V> aWeigher) {
+		super(WeightedStore.class);
+		if (0 > aMaximumWeight) {
+			throw new IllegalArgumentException("Maximum weight must not be negative.");
+		}
+		weigher = aWeigher;
+		data = new ConcurrentHashMap<K, Node<K, V>>();
+		lock = new ReentrantLock();
+		head = new Node<K, V>(null, null, 0);
+		head.prev = head;
+		head.next = head;
+		policy = EvictionPolicy.LRU;
+		maximumWeight = aMaximumWeight;
+		weight = 0;
+		evictionCount = 0;
+	}
+
+	/**
+	 * 追い出し方法を設定する。
+	 *
+	 * @param aPolicy 追い出し方法
+	 */
+	public void setEvictionPolicy(final EvictionPolicy aPolicy) {
+		policy = aPolicy;
+	}
+
+	/**
+	 * 追い出し件数の記録先を設定する。
+	 * <p>
+	 * 統計の件数・重みの取得元としてこのストアを登録する。
+	 * </p>
+	 *
+	 * @param aRecorder 統計
+	 */
+	public void setStatisticsRecorder(final StatisticsRecorder aRecorder) {
+		recorder = aRecorder;
+		if (null != aRecorder) {
+			aRecorder.setSizeSource(new StoreSizeSource() {
+				@Override
+				public long getSize() {
+					return size();
+				}
+
+				@Override
+				public long getWeight() {
+					return WeightedStore.this.getWeight();
+				}
+			});
+		}
+	}
+
+	/**
+	 * 重みの上限を変更する。
+	 * <p>
+	 * 現在の合計が新しい上限を超える場合は直ちに追い出す。
+	 * </p>
+	 *
+	 * @param aMaximumWeight 重みの上限
+	 */
+	public void setMaximumWeight(final long aMaximumWeight) {
+		if (0 > aMaximumWeight) {
+			throw new IllegalArgumentException("Maximum weight must not be negative.");
+		}
+		lock.lock();
+		try {
+			maximumWeight = aMaximumWeight;
+			evict(maximumWeight);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		if (null == aKey || null == aValue) {
+			throw new NullPointerException("Key or value is null.");
+		}
+		int w = weigher.weigh(aKey, aValue);
+		if (0 > w) {
+			throw new IllegalArgumentException("Negative weight : " + w);
+		}
+		lock.lock();
+		try {
+			Node<K, V> node = new Node<K, V>(aKey, aValue, w);
+			if (w > maximumWeight) {
+				// 上限を超えるエントリーは他のエントリーを追い出さずに直ちに追い出す
+				Node<K, V> old = data.remove(aKey);
+				if (null != old) {
+					unlink(old);
+					weight -= old.weight;
+				}
+				evictionCount++;
+				notifyEviction(node);
+				return;
+			}
+			Node<K, V> old = data.put(aKey, node);
+			if (null != old) {
+				unlink(old);
+				weight -= old.weight;
+			}
+			linkLast(node);
+			weight += w;
+			publish(StoreEventType.PUT, aKey, aValue);
+			evict(maximumWeight);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		Node<K, V> node = data.get(aKey);
+		if (null == node) {
+			return aDefault;
+		}
+		if (EvictionPolicy.LRU == policy && lock.tryLock()) {
+			try {
+				// ロック取得前に削除・置換されている場合はリンクが外れている
+				if (null != node.next) {
+					unlink(node);
+					linkLast(node);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		return node.value;
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		return data.containsKey(aKey);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		lock.lock();
+		try {
+			Node<K, V> node = data.remove(aKey);
+			if (null != node) {
+				unlink(node);
+				weight -= node.weight;
+				publish(StoreEventType.REMOVE, aKey, node.value);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	protected boolean isStoreEventSupported() {
+		return true;
+	}
+
+	/**
+	 * 格納件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public int size() {
+		return data.size();
+	}
+
+	/**
+	 * 重みの合計を取得する。
+	 *
+	 * @return 重み
+	 */
+	public long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * 重みの上限を取得する。
+	 *
+	 * @return 重み
+	 */
+	public long getMaximumWeight() {
+		return maximumWeight;
+	}
+
+	/**
+	 * 追い出した件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * すべての値を削除する。
+	 */
+	public void clear() {
+		lock.lock();
+		try {
+			Node<K, V> node;
+			while (head != (node = head.next)) {
+				unlink(node);
+				data.remove(node.key, node);
+			}
+			weight = 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 重みの合計が指定した割合減るまで追い出す。
+	 *
+	 * @param aRatio 割合(0～1)
+	 * @return 追い出した重み
+	 */
+	public long shed(final double aRatio) {
+		lock.lock();
+		try {
+			long before = weight;
+			evict((long) (before * (1.0 - Math.min(1.0, Math.max(0.0, aRatio)))));
+			return before - weight;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * GC後のヒープ使用率に応じた追い出しを有効にする。
+	 * <p>
+	 * 旧世代のヒープ領域にGC後の使用量の閾値を設定し、超過の通知を受けるたびに{@link #shed(double)}を呼び出す。
+	 * 新世代の領域はGC直後も使用率が高くなるため対象としない。
+	 * 閾値はJVM全体で共有されるため、複数のストアで有効にした場合は最も低い閾値を設定し、全てのストアで無効にした時点で解除する。
+	 * 他に閾値を設定している処理がある場合は上書きされます。
+	 * </p>
+	 *
+	 * @param aThreshold ヒープ使用率の閾値(0～1)
+	 * @param aShedRatio 通知ごとに減らす重みの割合(0～1)
+	 * @return 閾値を設定したヒープ領域の数
+	 */
+	public synchronized int enableMemoryPressureShedding(final double aThreshold, final double aShedRatio) {
+		disableMemoryPressureShedding();
+		final List<String> pools = new ArrayList<String>();
+		for (MemoryPoolMXBean pool : getTenuredPools()) {
+			pools.add(pool.getName());
+		}
+		memoryListener = new NotificationListener() {
+			@Override
+			public void handleNotification(final Notification aNotification, final Object aHandback) {
+				if (!MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(aNotification.getType())) {
+					return;
+				}
+				MemoryNotificationInfo info = MemoryNotificationInfo.from((CompositeData) aNotification.getUserData());
+				if (pools.contains(info.getPoolName())) {
+					long shed = shed(aShedRatio);
+					warn("Heap usage exceeded threshold. Shed " + shed + " of weight.");
+				}
+			}
+		};
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		((NotificationEmitter) memory).addNotificationListener(memoryListener, null, null);
+		synchronized (PRESSURE_THRESHOLDS) {
+			PRESSURE_THRESHOLDS.put(this, aThreshold);
+			applyPressureThreshold();
+		}
+		return pools.size();
+	}
+
+	/**
+	 * GC後のヒープ使用率に応じた追い出しを無効にする。
+	 * <p>
+	 * 他に有効にしているストアがない場合は、設定した閾値を解除する。
+	 * </p>
+	 */
+	public synchronized void disableMemoryPressureShedding() {
+		if (null == memoryListener) {
+			return;
+		}
+		synchronized (PRESSURE_THRESHOLDS) {
+			PRESSURE_THRESHOLDS.remove(this);
+			applyPressureThreshold();
+		}
+		try {
+			((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(memoryListener);
+		} catch (ListenerNotFoundException ex) {
+			warn(ex);
+		}
+		memoryListener = null;
+	}
+
+	/**
+	 * エントリーが追い出された時に呼び出される。
+	 * <p>
+	 * ロックを保持した状態で呼び出されるため、時間のかかる処理は行わないでください。
+	 * </p>
+	 *
+	 * @param aKey キー
+	 * @param aValue 値
+	 */
+	protected void onEviction(final K aKey, final V aValue) {
+	}
+
+	/**
+	 * 重みの合計が指定値以下になるまで先頭から追い出す。ロックを保持した状態で呼び出すこと。
+	 */
+	private void evict(final long aWeight) {
+		List<Node<K, V>> evicted = null;
+		while (weight > aWeight && head != head.next) {
+			Node<K, V> node = head.next;
+			unlink(node);
+			data.remove(node.key, node);
+			weight -= node.weight;
+			if (null == evicted) {
+				evicted = new ArrayList<Node<K, V>>();
+			}
+			evicted.add(node);
+		}
+		if (null == evicted) {
+			return;
+		}
+		evictionCount += evicted.size();
+		for (Node<K, V> node : evicted) {
+			notifyEviction(node);
+		}
+	}
+
+	private void notifyEviction(final Node<K, V> aNode) {
+		StatisticsRecorder statistics = recorder;
+		if (null != statistics) {
+			statistics.recordEviction();
+		}
+		onEviction(aNode.key, aNode.value);
+		publish(StoreEventType.EVICT, aNode.key, aNode.value);
+	}
+
+	/**
+	 * 有効にしているストアのうち最も低い閾値を旧世代のヒープ領域に設定する。{@link #PRESSURE_THRESHOLDS}の同期内で呼び出すこと。
+	 */
+	private static void applyPressureThreshold() {
+		double threshold = Double.MAX_VALUE;
+		for (Double value : PRESSURE_THRESHOLDS.values()) {
+			threshold = Math.min(threshold, value.doubleValue());
+		}
+		for (MemoryPoolMXBean pool : getTenuredPools()) {
+			if (PRESSURE_THRESHOLDS.isEmpty()) {
+				pool.setCollectionUsageThreshold(0);
+			} else {
+				pool.setCollectionUsageThreshold((long) (pool.getUsage().getMax() * threshold));
+			}
+		}
+	}
+
+	/**
+	 * 旧世代のヒープ領域を取得する。
+	 * <p>
+	 * 使用量の閾値に対応したヒープ領域を旧世代とみなす。新世代(Eden・Survivor)の領域は使用量の閾値に対応していない。
+	 * </p>
+	 */
+	private static List<MemoryPoolMXBean> getTenuredPools() {
+		List<MemoryPoolMXBean> pools = new ArrayList<MemoryPoolMXBean>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (MemoryType.HEAP == pool.getType() && pool.isUsageThresholdSupported() && pool.isCollectionUsageThresholdSupported()
+					&& 0 < pool.getUsage().getMax()) {
+				pools.add(pool);
+			}
+		}
+		return pools;
+	}
+
+	private void linkLast(final Node<K, V> aNode) {
+		aNode.prev = head.prev;
+		aNode.next = head;
+		head.prev.next = aNode;
+		head.prev = aNode;
+	}
+
+	private void unlink(final Node<K, V> aNode) {
+		aNode.prev.next = aNode.next;
+		aNode.next.prev = aNode.prev;
+		aNode.prev = null;
+		aNode.next = null;
+	}
+
+	/**
+	 * このクラスは、エントリーと追い出し順序のリンクを保持するクラスです。
+	 */
+	private static final class Node<K, V> {
+
+		private final K key;
+
+		private final V value;
+
+		private final int weight;
+
+		private Node<K, V> prev;
+
+		private volatile Node<K, V> next;
+
+		private Node(final K aKey, final V aValue, final int aWeight) {
+			key = aKey;
+			value = aValue;
+			weight = aWeight;
+		}
+	}
+}
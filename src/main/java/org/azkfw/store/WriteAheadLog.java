@@ -0,0 +1,787 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.azkfw.lang.LoggingObject;
+
+/**
+ * このクラスは、永続ストアの更新を先行して記録する先行書き込みログ(WAL)クラスです。
+ * <p>
+ * レコードはディレクトリ内のセグメントファイルへ追記し、1から始まる連番のレコード番号(LSN)を付与します。
+ * ディスクへの同期は{@link Durability}で指定します。{@link Durability#SYNC}の場合、同期待ちの書き込みのうち１つが代表して
+ * その時点までの全レコードを同期するため(グループコミット)、並行して書き込むほど１件あたりの同期回数は減少します。
+ * </p>
+ * <p>
+ * 起動時は全セグメントを走査してチェックサムを検証します。最後のセグメントの末尾に書き込み途中のレコードがある場合は切り捨て、
+ * それ以降の書き込みを継続します。最後以外のセグメントは切り替え時に同期済みのため、不正なレコードがある場合は破損として例外とします。{@link #checkpoint(long)}で指定したレコード番号までを含むセグメントは不要として削除します。
+ * </p>
+ *
+ * <pre>
+ * レコード形式 : CRC(int)、レコード番号(long)、長さ(int)、内容
+ * チェックポイント形式 : レコード番号(long)、CRC(int)
+ * </pre>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class WriteAheadLog extends LoggingObject implements Closeable {
+
+	/** セグメントファイルの拡張子 */
+	public static final String LOG_SUFFIX = ".wal";
+
+	/** チェックポイントファイル名 */
+	public static final String CHECKPOINT_FILE = "checkpoint";
+
+	/** デフォルトセグメントサイズ */
+	public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+	/** レコードヘッダーサイズ */
+	private static final int HEADER_SIZE = 16;
+
+	/** ディレクトリ */
+	private final File directory;
+
+	/** セグメント(開始レコード番号順) */
+	private final List<Segment> segments;
+
+	/** 書き込みロック */
+	private final ReentrantLock writeLock;
+
+	/** 同期ロック */
+	private final ReentrantLock syncLock;
+
+	/** 同期済みのレコード番号 */
+	private final AtomicLong syncedLsn;
+
+	/** 書き込み中のセグメント */
+	private Segment active;
+
+	/** 次のレコード番号 */
+	private long nextLsn;
+
+	/** 書き込み済みのレコード番号 */
+	private volatile long writtenLsn;
+
+	/** チェックポイントのレコード番号 */
+	private volatile long checkpointLsn;
+
+	/** セグメントサイズ */
+	private long maxSegmentSize;
+
+	/** デフォルトの同期水準 */
+	private Durability durability;
+
+	/** 非同期同期の間隔(ミリ秒) */
+	private long syncInterval;
+
+	/** 同期スレッド */
+	private ScheduledExecutorService syncer;
+
+	/** クローズ済み */
+	private volatile boolean closed;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * ディレクトリ内の既存セグメントを検証し、続きのレコード番号から書き込みを開始する。
+	 * </p>
+	 *
+	 * @param aDirectory ディレクトリ
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public WriteAheadLog(final File aDirectory) throws IOException {
+		super(WriteAheadLog.class);
+		directory = aDirectory;
+		segments = new ArrayList<Segment>();
+		writeLock = new ReentrantLock();
+		syncLock = new ReentrantLock();
+		syncedLsn = new AtomicLong();
+		maxSegmentSize = DEFAULT_SEGMENT_SIZE;
+		durability = Durability.SYNC;
+		syncInterval = 100;
+		closed = false;
+
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Failed to create directory : " + directory.getPath());
+		}
+		checkpointLsn = readCheckpoint();
+		load();
+	}
+
+	/**
+	 * セグメントサイズを設定する。
+	 *
+	 * @param aSize バイト数
+	 */
+	public void setMaxSegmentSize(final long aSize) {
+		maxSegmentSize = aSize;
+	}
+
+	/**
+	 * {@link #append(byte[])}で使用する同期水準を設定する。
+	 *
+	 * @param aDurability 同期水準
+	 */
+	public void setDurability(final Durability aDurability) {
+		durability = aDurability;
+	}
+
+	/**
+	 * 同期水準を取得する。
+	 *
+	 * @return 同期水準
+	 */
+	public Durability getDurability() {
+		return durability;
+	}
+
+	/**
+	 * {@link Durability#ASYNC}での同期間隔を設定する。
+	 * <p>
+	 * 同期スレッドの開始前に設定すること。
+	 * </p>
+	 *
+	 * @param aInterval 間隔
+	 * @param aUnit 単位
+	 */
+	public void setSyncInterval(final long aInterval, final TimeUnit aUnit) {
+		syncInterval = Math.max(1, aUnit.toMillis(aInterval));
+	}
+
+	/**
+	 * レコードを追記する。
+	 *
+	 * @param aPayload レコードの内容
+	 * @return レコード番号
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public long append(final byte[] aPayload) throws IOException {
+		return append(aPayload, durability);
+	}
+
+	/**
+	 * レコードを追記する。
+	 *
+	 * @param aPayload レコードの内容
+	 * @param aDurability 同期水準
+	 * @return レコード番号
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public long append(final byte[] aPayload, final Durability aDurability) throws IOException {
+		return append(aPayload, aDurability, null);
+	}
+
+	/**
+	 * レコードを追記し、追記と同じ書き込みロック内で処理を実行する。
+	 * <p>
+	 * 処理はレコード番号の順に実行されるため、ログへ記録した順序と同じ順序で更新を反映する場合に使用する。
+	 * 処理内でこのログを操作しないこと。
+	 * </p>
+	 *
+	 * @param aPayload レコードの内容
+	 * @param aDurability 同期水準
+	 * @param aAction 追記後に実行する処理
+	 * @return レコード番号
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public long append(final byte[] aPayload, final Durability aDurability, final Runnable aAction) throws IOException {
+		ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + aPayload.length);
+		record.position(HEADER_SIZE);
+		record.put(aPayload);
+		record.putInt(12, aPayload.length);
+
+		long lsn;
+		writeLock.lock();
+		try {
+			ensureOpen();
+			if (active.size >= maxSegmentSize) {
+				roll();
+			}
+			lsn = nextLsn;
+			record.putLong(4, lsn);
+			record.putInt(0, checksum(record.array(), record.capacity()));
+			record.flip();
+			active.append(record);
+			active.lastLsn = lsn;
+			nextLsn = lsn + 1;
+			writtenLsn = lsn;
+			if (null != aAction) {
+				aAction.run();
+			}
+		} finally {
+			writeLock.unlock();
+		}
+		commit(lsn, aDurability);
+		return lsn;
+	}
+
+	/**
+	 * 同期水準に従ってレコードを確定する。
+	 * <p>
+	 * {@link #append(byte[], Durability)}に{@link Durability#NONE}を指定して追記したレコードを、後から確定する場合に使用する。
+	 * {@link Durability#SYNC}の場合は同期が完了するまで待機し、{@link Durability#ASYNC}の場合は同期スレッドに委ねる。
+	 * </p>
+	 *
+	 * @param aLsn レコード番号
+	 * @param aDurability 同期水準
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public void commit(final long aLsn, final Durability aDurability) throws IOException {
+		if (Durability.SYNC == aDurability) {
+			sync(aLsn);
+		} else if (Durability.ASYNC == aDurability && null == syncer) {
+			startSyncer();
+		}
+	}
+
+	/**
+	 * 指定したレコード番号までをディスクへ同期する。
+	 * <p>
+	 * 同期中に呼び出した場合は先行する同期の完了を待ち、その同期で対象が確定していなければ、
+	 * その時点までに書き込まれた全レコードを代表して同期する。
+	 * </p>
+	 *
+	 * @param aLsn レコード番号
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public void sync(final long aLsn) throws IOException {
+		if (syncedLsn.get() >= aLsn) {
+			return;
+		}
+		syncLock.lock();
+		try {
+			// 待機中に他の書き込みが代表して同期した場合
+			if (syncedLsn.get() >= aLsn) {
+				return;
+			}
+			long target;
+			Segment segment;
+			writeLock.lock();
+			try {
+				ensureOpen();
+				target = writtenLsn;
+				segment = active;
+			} finally {
+				writeLock.unlock();
+			}
+			try {
+				segment.channel.force(false);
+			} catch (ClosedChannelException ex) {
+				// セグメント切り替え時に同期済み
+				ensureOpen();
+			}
+			advanceSynced(target);
+		} finally {
+			syncLock.unlock();
+		}
+	}
+
+	/**
+	 * チェックポイントを記録する。
+	 * <p>
+	 * 指定したレコード番号までの内容が別の手段で永続化されたことを記録し、それ以前のレコードのみを含むセグメントを削除する。
+	 * 書き込み中のセグメントは削除しない。
+	 * </p>
+	 *
+	 * @param aLsn レコード番号
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public void checkpoint(final long aLsn) throws IOException {
+		if (aLsn <= checkpointLsn) {
+			return;
+		}
+		writeCheckpoint(aLsn);
+		checkpointLsn = aLsn;
+
+		List<Segment> removed = new ArrayList<Segment>();
+		writeLock.lock();
+		try {
+			while (1 < segments.size() && segments.get(0).lastLsn <= aLsn) {
+				removed.add(segments.remove(0));
+			}
+		} finally {
+			writeLock.unlock();
+		}
+		for (Segment segment : removed) {
+			deleteFile(segment.file);
+		}
+	}
+
+	/**
+	 * 指定したレコード番号より後のレコードを順に再生する。
+	 *
+	 * @param aFromLsn レコード番号(このレコード番号は含まない)
+	 * @param aHandler ハンドラー
+	 * @return 再生したレコード数
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public long replay(final long aFromLsn, final WriteAheadLogHandler aHandler) throws IOException {
+		List<Segment> targets = new ArrayList<Segment>();
+		List<Long> sizes = new ArrayList<Long>();
+		writeLock.lock();
+		try {
+			for (Segment segment : segments) {
+				if (segment.lastLsn > aFromLsn) {
+					targets.add(segment);
+					sizes.add(segment.size);
+				}
+			}
+		} finally {
+			writeLock.unlock();
+		}
+
+		long count = 0;
+		for (int i = 0; i < targets.size(); i++) {
+			Segment segment = targets.get(i);
+			long size = sizes.get(i);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file)));
+			try {
+				long position = 0;
+				while (position < size) {
+					int crc = in.readInt();
+					long lsn = in.readLong();
+					int length = in.readInt();
+					byte[] record = new byte[HEADER_SIZE + length];
+					ByteBuffer.wrap(record).putInt(crc).putLong(lsn).putInt(length);
+					in.readFully(record, HEADER_SIZE, length);
+					if (crc != checksum(record, record.length)) {
+						throw new IOException("Broken log record : " + segment.file.getPath() + " at " + position);
+					}
+					if (lsn > aFromLsn) {
+						byte[] payload = new byte[length];
+						System.arraycopy(record, HEADER_SIZE, payload, 0, length);
+						aHandler.handle(lsn, payload);
+						count++;
+					}
+					position += record.length;
+				}
+			} finally {
+				in.close();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 最後に書き込んだレコード番号を取得する。
+	 *
+	 * @return レコード番号、レコードがない場合0
+	 */
+	public long getLastLsn() {
+		return writtenLsn;
+	}
+
+	/**
+	 * 同期済みのレコード番号を取得する。
+	 *
+	 * @return レコード番号
+	 */
+	public long getSyncedLsn() {
+		return syncedLsn.get();
+	}
+
+	/**
+	 * チェックポイントのレコード番号を取得する。
+	 *
+	 * @return レコード番号、チェックポイントがない場合0
+	 */
+	public long getCheckpointLsn() {
+		return checkpointLsn;
+	}
+
+	/**
+	 * セグメント数を取得する。
+	 *
+	 * @return セグメント数
+	 */
+	public int getSegmentCount() {
+		writeLock.lock();
+		try {
+			return segments.size();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		ScheduledExecutorService executor = syncer;
+		if (null != executor) {
+			executor.shutdown();
+			try {
+				executor.awaitTermination(10, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		writeLock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			active.channel.force(false);
+			advanceSynced(writtenLsn);
+			closed = true;
+			active.close();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	private synchronized void startSyncer() {
+		if (null != syncer || closed) {
+			return;
+		}
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable aRunnable) {
+				Thread thread = new Thread(aRunnable, "WriteAheadLog-sync");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		executor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				if (closed) {
+					return;
+				}
+				try {
+					sync(writtenLsn);
+				} catch (IOException ex) {
+					if (!closed) {
+						error("Failed to sync write-ahead log.", ex);
+					}
+				}
+			}
+		}, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+		syncer = executor;
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Write-ahead log is closed : " + directory.getPath());
+		}
+	}
+
+	private void advanceSynced(final long aLsn) {
+		long current;
+		while ((current = syncedLsn.get()) < aLsn) {
+			if (syncedLsn.compareAndSet(current, aLsn)) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * 書き込み中のセグメントを同期して閉じ、新しいセグメントへ切り替える。書き込みロックを保持した状態で呼び出すこと。
+	 */
+	private void roll() throws IOException {
+		active.channel.force(false);
+		advanceSynced(active.lastLsn);
+		active.close();
+		active = new Segment(nextLsn, logFile(nextLsn), true);
+		segments.add(active);
+		// 新しいセグメントのディレクトリエントリを永続化する
+		syncDirectory(directory);
+	}
+
+	/**
+	 * 既存のセグメントを検証し、書き込み中のセグメントを決定する。
+	 */
+	private void load() throws IOException {
+		List<Long> ids = new ArrayList<Long>();
+		File[] files = directory.listFiles();
+		if (null != files) {
+			for (File file : files) {
+				String name = file.getName();
+				if (name.endsWith(LOG_SUFFIX)) {
+					try {
+						ids.add(Long.valueOf(name.substring(0, name.length() - LOG_SUFFIX.length())));
+					} catch (NumberFormatException ex) {
+						warn("Ignore unknown file : " + file.getPath());
+					}
+				}
+			}
+		}
+		Collections.sort(ids);
+
+		long expected = -1;
+		for (int i = 0; i < ids.size(); i++) {
+			long id = ids.get(i);
+			if (-1 != expected && id != expected) {
+				throw new IOException("Missing log segment before : " + logFile(id).getPath());
+			}
+			Segment segment = new Segment(id, logFile(id), true);
+			try {
+				long position = scan(segment);
+				if (position < segment.size) {
+					if (i + 1 < ids.size()) {
+						// 切り替え前に同期したセグメントのため、書き込み途中ではなく破損
+						throw new IOException("Broken log record : " + segment.file.getPath() + " at " + position);
+					}
+					warn("Truncate broken log segment : " + segment.file.getPath() + " at " + position);
+					segment.channel.truncate(position);
+					segment.channel.force(true);
+					segment.size = position;
+				}
+			} finally {
+				segment.close();
+			}
+			segments.add(segment);
+			expected = segment.lastLsn + 1;
+		}
+
+		nextLsn = Math.max(checkpointLsn + 1, (-1 == expected) ? 1 : expected);
+		writtenLsn = nextLsn - 1;
+		syncedLsn.set(writtenLsn);
+
+		Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+		if (null != last && last.lastLsn + 1 == nextLsn && last.size < maxSegmentSize) {
+			active = new Segment(last.startLsn, last.file, true);
+			active.lastLsn = last.lastLsn;
+			segments.set(segments.size() - 1, active);
+		} else {
+			active = new Segment(nextLsn, logFile(nextLsn), true);
+			segments.add(active);
+			syncDirectory(directory);
+		}
+		if (1 < nextLsn) {
+			info("Recovered write-ahead log up to " + writtenLsn + " from " + segments.size() + " segments.");
+		}
+	}
+
+	/**
+	 * セグメントを走査し、正常なレコードの終端位置を求める。
+	 *
+	 * @return 正常なレコードの終端位置
+	 */
+	private long scan(final Segment aSegment) throws IOException {
+		long position = 0;
+		long length = aSegment.channel.size();
+		long expected = aSegment.startLsn;
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while (position + HEADER_SIZE <= length) {
+			header.clear();
+			aSegment.read(position, header);
+			long lsn = header.getLong(4);
+			int size = header.getInt(12);
+			if (lsn != expected || 0 > size || position + HEADER_SIZE + size > length) {
+				break;
+			}
+			ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + size);
+			aSegment.read(position, record);
+			if (record.getInt(0) != checksum(record.array(), record.capacity())) {
+				break;
+			}
+			position += record.capacity();
+			expected++;
+		}
+		aSegment.lastLsn = expected - 1;
+		return position;
+	}
+
+	private long readCheckpoint() throws IOException {
+		File file = new File(directory, CHECKPOINT_FILE);
+		// 置き換え前に停止した書き込み途中のファイル
+		deleteFile(new File(file.getPath() + ".tmp"));
+		if (!file.isFile()) {
+			return 0;
+		}
+		DataInputStream in = new DataInputStream(new FileInputStream(file));
+		try {
+			byte[] data = new byte[8];
+			in.readFully(data);
+			int crc = in.readInt();
+			if (crc != checksum(data)) {
+				throw new IOException("Broken checkpoint file : " + file.getPath());
+			}
+			return ByteBuffer.wrap(data).getLong();
+		} catch (EOFException ex) {
+			throw new IOException("Broken checkpoint file : " + file.getPath(), ex);
+		} finally {
+			in.close();
+		}
+	}
+
+	private void writeCheckpoint(final long aLsn) throws IOException {
+		File file = new File(directory, CHECKPOINT_FILE);
+		File temp = new File(file.getPath() + ".tmp");
+		byte[] data = ByteBuffer.allocate(8).putLong(aLsn).array();
+		FileOutputStream stream = new FileOutputStream(temp);
+		try {
+			DataOutputStream out = new DataOutputStream(stream);
+			out.write(data);
+			out.writeInt(checksum(data));
+			out.flush();
+			stream.getFD().sync();
+		} finally {
+			stream.close();
+		}
+		replaceFile(temp, file);
+	}
+
+	/**
+	 * 一時ファイルでファイルを置き換え、ディレクトリを同期する。
+	 * <p>
+	 * 置き換えは不可分に行うため、途中で停止した場合も置き換え前後いずれかのファイルが残る。
+	 * </p>
+	 *
+	 * @param aTemp 一時ファイル(同期済みであること)
+	 * @param aFile ファイル
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	static void replaceFile(final File aTemp, final File aFile) throws IOException {
+		try {
+			Files.move(aTemp.toPath(), aFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException ex) {
+			throw new IOException("Failed to replace file atomically : " + aFile.getPath(), ex);
+		}
+		syncDirectory(aFile.getAbsoluteFile().getParentFile());
+	}
+
+	/**
+	 * ディレクトリを同期し、ファイルの作成・名前変更・削除を永続化する。
+	 *
+	 * @param aDirectory ディレクトリ
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	static void syncDirectory(final File aDirectory) throws IOException {
+		FileChannel channel;
+		try {
+			channel = FileChannel.open(aDirectory.toPath(), StandardOpenOption.READ);
+		} catch (IOException ex) {
+			// ディレクトリを開けないプラットフォーム(Windows)では同期しない
+			return;
+		}
+		try {
+			channel.force(true);
+		} catch (IOException ex) {
+			// ディレクトリの同期に対応していないファイルシステム
+		} finally {
+			channel.close();
+		}
+	}
+
+	private File logFile(final long aLsn) {
+		return new File(directory, String.format("%016d", aLsn) + LOG_SUFFIX);
+	}
+
+	private void deleteFile(final File aFile) {
+		if (aFile.exists() && !aFile.delete()) {
+			warn("Failed to delete file : " + aFile.getPath());
+		}
+	}
+
+	/**
+	 * レコードのCRCを算出する。対象はレコード番号以降。
+	 */
+	private static int checksum(final byte[] aRecord, final int aSize) {
+		CRC32 crc = new CRC32();
+		crc.update(aRecord, 4, aSize - 4);
+		return (int) crc.getValue();
+	}
+
+	private static int checksum(final byte[] aData) {
+		CRC32 crc = new CRC32();
+		crc.update(aData, 0, aData.length);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * このクラスは、セグメントファイルを表現するクラスです。
+	 */
+	private static final class Segment {
+
+		private final long startLsn;
+
+		private final File file;
+
+		private final RandomAccessFile raf;
+
+		private final FileChannel channel;
+
+		private volatile long size;
+
+		private volatile long lastLsn;
+
+		private Segment(final long aStartLsn, final File aFile, final boolean aWritable) throws IOException {
+			startLsn = aStartLsn;
+			file = aFile;
+			raf = new RandomAccessFile(aFile, aWritable ? "rw" : "r");
+			channel = raf.getChannel();
+			size = channel.size();
+			lastLsn = aStartLsn - 1;
+		}
+
+		private void append(final ByteBuffer aRecord) throws IOException {
+			long offset = size;
+			while (aRecord.hasRemaining()) {
+				offset += channel.write(aRecord, offset);
+			}
+			size = offset;
+		}
+
+		private void read(final long aPosition, final ByteBuffer aBuffer) throws IOException {
+			long offset = aPosition;
+			while (aBuffer.hasRemaining()) {
+				int read = channel.read(aBuffer, offset);
+				if (0 > read) {
+					throw new EOFException("Unexpected end of segment : " + file.getPath());
+				}
+				offset += read;
+			}
+		}
+
+		private void close() throws IOException {
+			raf.close();
+		}
+	}
+}
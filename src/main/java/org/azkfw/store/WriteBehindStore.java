@@ -0,0 +1,414 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * このクラスは、書き込みを遅延してまとめて委譲先へ反映するストアクラスです。
+ * <p>
+ * 格納・削除はメモリ上の保留領域に記録して直ちに戻り、書き出しスレッドが保留件数がバッチサイズに達した時点、
+ * または一定間隔で委譲先ストアへまとめて反映します。反映前に同じキーへ複数回書き込んだ場合は最後の値のみを反映します。
+ * 参照は保留中の値を優先するため、書き込んだ値は反映前でも参照できます。
+ * </p>
+ * <p>
+ * {@link #putAsync(Object, Object)}などが返すフューチャーは委譲先への反映が完了した時点で完了します。
+ * 反映に失敗した場合、フューチャーに例外を設定し、値は保留領域から破棄されます。
+ * </p>
+ * <p>
+ * 値に<code>null</code>は指定できません。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class WriteBehindStore<K, V> extends AbstractStore<K, V> implements AsyncStore<K, V>, Closeable {
+
+	/** 委譲先ストア */
+	private final Store<K, V> store;
+
+	/** 保留中の書き込み */
+	private final ConcurrentMap<K, Pending<V>> pending;
+
+	/** 反映中の書き込み */
+	private final ConcurrentMap<K, Pending<V>> flushing;
+
+	/** バッチサイズ */
+	private final int batchSize;
+
+	/** 反映間隔(ナノ秒) */
+	private final long flushInterval;
+
+	/** 書き出しスレッドの待機用ロック */
+	private final ReentrantLock lock;
+
+	/** 書き出しスレッドの起床条件 */
+	private final Condition wakeUp;
+
+	/** 反映処理の排他ロック */
+	private final ReentrantLock flushLock;
+
+	/** 書き出しスレッド */
+	private final Thread flusher;
+
+	/** 参照用エグゼキューター */
+	private final ExecutorService readExecutor;
+
+	/** 書き込み受付とクローズの排他ロック */
+	private final ReentrantReadWriteLock closeLock;
+
+	/** クローズ済み */
+	private volatile boolean closed;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aStore 委譲先ストア
+	 * @param aBatchSize 一度に反映する最大件数
+	 * @param aFlushInterval 反映間隔
+	 * @param aUnit 時間単位
+	 */
+	public WriteBehindStore(final Store<K, V> aStore, final int aBatchSize, final long aFlushInterval, final TimeUnit aUnit) {
+		super(WriteBehindStore.class);
+		if (0 >= aBatchSize) {
+			throw new IllegalArgumentException("Batch size must be positive.");
+		}
+		store = aStore;
+		batchSize = aBatchSize;
+		flushInterval = aUnit.toNanos(aFlushInterval);
+		pending = new ConcurrentHashMap<K, Pending<V>>();
+		flushing = new ConcurrentHashMap<K, Pending<V>>();
+		lock = new ReentrantLock();
+		wakeUp = lock.newCondition();
+		flushLock = new ReentrantLock();
+		closeLock = new ReentrantReadWriteLock();
+		closed = false;
+		readExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable aRunnable) {
+				Thread thread = new Thread(aRunnable, "WriteBehindStore-reader");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		flusher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				runFlusher();
+			}
+		}, "WriteBehindStore-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	@Override
+	public void put(final K aKey, final V aValue) {
+		putAsync(aKey, aValue);
+	}
+
+	@Override
+	public StoreFuture<Void> putAsync(final K aKey, final V aValue) {
+		if (null == aValue) {
+			throw new NullPointerException("Value is null.");
+		}
+		return enqueue(aKey, aValue);
+	}
+
+	@Override
+	public void putAll(final Map<K, V> aMap) {
+		for (Map.Entry<K, V> entry : aMap.entrySet()) {
+			putAsync(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	public V get(final K aKey) {
+		return get(aKey, null);
+	}
+
+	@Override
+	public V get(final K aKey, final V aDefault) {
+		Pending<V> entry = findPending(aKey);
+		if (null != entry) {
+			return entry.removed ? aDefault : entry.value;
+		}
+		return store.get(aKey, aDefault);
+	}
+
+	@Override
+	public StoreFuture<V> getAsync(final K aKey) {
+		Pending<V> entry = findPending(aKey);
+		if (null != entry) {
+			return StoreFuture.completed(entry.removed ? null : entry.value);
+		}
+		final StoreFuture<V> future = new StoreFuture<V>();
+		readExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					future.set(get(aKey));
+				} catch (Throwable ex) {
+					future.setException(ex);
+				}
+			}
+		});
+		return future;
+	}
+
+	@Override
+	public boolean has(final K aKey) {
+		Pending<V> entry = findPending(aKey);
+		if (null != entry) {
+			return !entry.removed;
+		}
+		return store.has(aKey);
+	}
+
+	@Override
+	public void remove(final K aKey) {
+		removeAsync(aKey);
+	}
+
+	@Override
+	public StoreFuture<Void> removeAsync(final K aKey) {
+		return enqueue(aKey, null);
+	}
+
+	/**
+	 * 保留中の件数を取得する。
+	 *
+	 * @return 件数
+	 */
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * 保留中のすべての書き込みを委譲先へ反映する。
+	 */
+	public void flush() {
+		while (!pending.isEmpty()) {
+			flushBatch();
+		}
+	}
+
+	/**
+	 * 保留中の書き込みを反映し、書き出しスレッドを停止する。
+	 */
+	@Override
+	public void close() {
+		// 受付中の書き込みが保留領域へ登録されるのを待ってからクローズする
+		closeLock.writeLock().lock();
+		try {
+			closed = true;
+		} finally {
+			closeLock.writeLock().unlock();
+		}
+		signal();
+		try {
+			flusher.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+		readExecutor.shutdown();
+	}
+
+	private StoreFuture<Void> enqueue(final K aKey, final V aValue) {
+		StoreFuture<Void> future = new StoreFuture<Void>();
+		closeLock.readLock().lock();
+		try {
+			if (closed) {
+				throw new StoreException("Store is closed.");
+			}
+			while (true) {
+				Pending<V> current = pending.get(aKey);
+				Pending<V> next = new Pending<V>(aValue, null == aValue, future, current);
+				if (null == current) {
+					if (null == pending.putIfAbsent(aKey, next)) {
+						break;
+					}
+				} else if (pending.replace(aKey, current, next)) {
+					break;
+				}
+			}
+		} finally {
+			closeLock.readLock().unlock();
+		}
+		if (pending.size() >= batchSize) {
+			signal();
+		}
+		return future;
+	}
+
+	private Pending<V> findPending(final K aKey) {
+		Pending<V> entry = pending.get(aKey);
+		if (null == entry) {
+			entry = flushing.get(aKey);
+		}
+		return entry;
+	}
+
+	private void signal() {
+		lock.lock();
+		try {
+			wakeUp.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void runFlusher() {
+		while (!closed) {
+			lock.lock();
+			try {
+				if (pending.size() < batchSize && !closed) {
+					wakeUp.awaitNanos(flushInterval);
+				}
+			} catch (InterruptedException ex) {
+				break;
+			} finally {
+				lock.unlock();
+			}
+			try {
+				do {
+					flushBatch();
+				} while (pending.size() >= batchSize && !closed);
+			} catch (RuntimeException ex) {
+				error("Write-behind flush failed.", ex);
+			}
+		}
+	}
+
+	/**
+	 * 保留中の書き込みを最大バッチサイズ分反映する。
+	 */
+	private void flushBatch() {
+		flushLock.lock();
+		try {
+			Map<K, Pending<V>> batch = new HashMap<K, Pending<V>>();
+			Iterator<K> keys = pending.keySet().iterator();
+			while (keys.hasNext() && batch.size() < batchSize) {
+				K key = keys.next();
+				Pending<V> entry = pending.get(key);
+				if (null == entry) {
+					continue;
+				}
+				// 参照が委譲先の古い値を読まないよう、保留領域から外す前に反映中として登録する
+				flushing.put(key, entry);
+				if (pending.remove(key, entry)) {
+					batch.put(key, entry);
+				} else {
+					flushing.remove(key, entry);
+				}
+			}
+			if (batch.isEmpty()) {
+				return;
+			}
+
+			Map<K, V> puts = new HashMap<K, V>();
+			List<K> removes = new ArrayList<K>();
+			for (Map.Entry<K, Pending<V>> entry : batch.entrySet()) {
+				if (entry.getValue().removed) {
+					removes.add(entry.getKey());
+				} else {
+					puts.put(entry.getKey(), entry.getValue().value);
+				}
+			}
+			Throwable failure = null;
+			try {
+				if (!puts.isEmpty()) {
+					store.putAll(puts);
+				}
+				for (K key : removes) {
+					store.remove(key);
+				}
+			} catch (Throwable ex) {
+				failure = ex;
+				error("Failed to write " + batch.size() + " entries.", ex);
+			}
+			for (Map.Entry<K, Pending<V>> entry : batch.entrySet()) {
+				flushing.remove(entry.getKey(), entry.getValue());
+				entry.getValue().complete(failure);
+			}
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	/**
+	 * このクラスは、保留中の書き込みを表現するクラスです。
+	 * <p>
+	 * 同じキーへの書き込みは最新の値に集約し、上書きされた値は保持せず完了通知先のフューチャーのみを連結して保持します。
+	 * </p>
+	 */
+	private static final class Pending<V> {
+
+		private final V value;
+
+		private final boolean removed;
+
+		private final Waiter waiters;
+
+		private Pending(final V aValue, final boolean aRemoved, final StoreFuture<Void> aFuture, final Pending<V> aPrevious) {
+			value = aValue;
+			removed = aRemoved;
+			waiters = new Waiter(aFuture, (null == aPrevious) ? null : aPrevious.waiters);
+		}
+
+		private void complete(final Throwable aFailure) {
+			for (Waiter waiter = waiters; null != waiter; waiter = waiter.next) {
+				if (null == aFailure) {
+					waiter.future.set(null);
+				} else {
+					waiter.future.setException(aFailure);
+				}
+			}
+		}
+	}
+
+	/**
+	 * このクラスは、完了通知先のフューチャーを連結するクラスです。
+	 */
+	private static final class Waiter {
+
+		private final StoreFuture<Void> future;
+
+		private final Waiter next;
+
+		private Waiter(final StoreFuture<Void> aFuture, final Waiter aNext) {
+			future = aFuture;
+			next = aNext;
+		}
+	}
+}
@@ -0,0 +1,252 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * このクラスは、文字列キーの存在判定を行うブルームフィルタークラスです。
+ * <p>
+ * {@link #mightContain(CharSequence)}が<code>false</code>を返した場合、キーは確実に存在しません。
+ * <code>true</code>を返した場合は、設定した偽陽性率の範囲で誤判定を含みます。
+ * </p>
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public final class BloomFilter {
+
+	/** ファイル識別子 */
+	private static final int MAGIC = 0x415A4246; // "AZBF"
+
+	/** フォーマットバージョン */
+	private static final int FORMAT_VERSION = 1;
+
+	/** ビット配列 */
+	private final long[] bits;
+
+	/** ビット数 */
+	private final long numBits;
+
+	/** ハッシュ関数の数 */
+	private final int numHashFunctions;
+
+	/** 登録件数 */
+	private long count;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aExpectedInsertions 想定登録件数
+	 * @param aFalsePositiveProbability 偽陽性率(0より大きく1未満)
+	 */
+	public BloomFilter(final long aExpectedInsertions, final double aFalsePositiveProbability) {
+		if (0 >= aFalsePositiveProbability || 1 <= aFalsePositiveProbability) {
+			throw new IllegalArgumentException("False positive probability must be between 0 and 1.");
+		}
+		long n = Math.max(1, aExpectedInsertions);
+		long m = (long) Math.ceil(-n * Math.log(aFalsePositiveProbability) / (Math.log(2) * Math.log(2)));
+		m = Math.max(64, m);
+		int k = (int) Math.round((double) m / n * Math.log(2));
+		numHashFunctions = Math.max(1, Math.min(k, 30));
+
+		long words = (m + 63) >>> 6;
+		if (Integer.MAX_VALUE < words) {
+			throw new IllegalArgumentException("Too many bits required : " + m);
+		}
+		bits = new long[(int) words];
+		numBits = words << 6;
+		count = 0;
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param aBits ビット配列
+	 * @param aNumHashFunctions ハッシュ関数の数
+	 * @param aCount 登録件数
+	 */
+	private BloomFilter(final long[] aBits, final int aNumHashFunctions, final long aCount) {
+		bits = aBits;
+		numBits = ((long) aBits.length) << 6;
+		numHashFunctions = aNumHashFunctions;
+		count = aCount;
+	}
+
+	/**
+	 * キーを登録する。
+	 *
+	 * @param aKey キー
+	 */
+	public void put(final CharSequence aKey) {
+		long h1 = hash(aKey);
+		long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+		long combined = h1;
+		for (int i = 0; i < numHashFunctions; i++) {
+			long index = (combined & Long.MAX_VALUE) % numBits;
+			bits[(int) (index >>> 6)] |= (1L << index);
+			combined += h2;
+		}
+		count++;
+	}
+
+	/**
+	 * キーが登録されている可能性があるか判断する。
+	 *
+	 * @param aKey キー
+	 * @return 登録されている可能性がある場合、<code>true</code>を返す。
+	 */
+	public boolean mightContain(final CharSequence aKey) {
+		long h1 = hash(aKey);
+		long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+		long combined = h1;
+		for (int i = 0; i < numHashFunctions; i++) {
+			long index = (combined & Long.MAX_VALUE) % numBits;
+			if (0 == (bits[(int) (index >>> 6)] & (1L << index))) {
+				return false;
+			}
+			combined += h2;
+		}
+		return true;
+	}
+
+	/**
+	 * 登録件数を取得する。
+	 *
+	 * @return 登録件数
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * ビット数を取得する。
+	 *
+	 * @return ビット数
+	 */
+	public long getNumBits() {
+		return numBits;
+	}
+
+	/**
+	 * ハッシュ関数の数を取得する。
+	 *
+	 * @return ハッシュ関数の数
+	 */
+	public int getNumHashFunctions() {
+		return numHashFunctions;
+	}
+
+	/**
+	 * 現在の登録件数から推定される偽陽性率を取得する。
+	 *
+	 * @return 偽陽性率
+	 */
+	public double getExpectedFalsePositiveProbability() {
+		return Math.pow(1 - Math.exp(-numHashFunctions * (double) count / numBits), numHashFunctions);
+	}
+
+	/**
+	 * ストリームへ書き出す。
+	 *
+	 * @param aStream ストリーム
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public void writeTo(final OutputStream aStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(aStream);
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeInt(numHashFunctions);
+		out.writeLong(count);
+		out.writeInt(bits.length);
+		for (long word : bits) {
+			out.writeLong(word);
+		}
+		out.flush();
+	}
+
+	/**
+	 * ストリームから読み込む。
+	 *
+	 * @param aStream ストリーム
+	 * @return ブルームフィルター
+	 * @throws IOException IO操作時に問題が発生した場合
+	 */
+	public static BloomFilter readFrom(final InputStream aStream) throws IOException {
+		DataInputStream in = new DataInputStream(aStream);
+		if (MAGIC != in.readInt()) {
+			throw new IOException("Not a bloom filter stream.");
+		}
+		int version = in.readInt();
+		if (FORMAT_VERSION != version) {
+			throw new IOException("Unsupported bloom filter version : " + version);
+		}
+		int numHashFunctions = in.readInt();
+		long count = in.readLong();
+		int length = in.readInt();
+		if (0 >= length || 0 >= numHashFunctions) {
+			throw new IOException("Broken bloom filter stream.");
+		}
+		long[] bits = new long[length];
+		for (int i = 0; i < length; i++) {
+			bits[i] = in.readLong();
+		}
+		return new BloomFilter(bits, numHashFunctions, count);
+	}
+
+	/**
+	 * 文字列の64bitハッシュ値を算出する。
+	 *
+	 * @param aKey キー
+	 * @return ハッシュ値
+	 */
+	private static long hash(final CharSequence aKey) {
+		int length = aKey.length();
+		long h = 0x27D4EB2F165667C5L ^ (length * 0xC6A4A7935BD1E995L);
+		int i = 0;
+		for (; i + 4 <= length; i += 4) {
+			long block = ((long) aKey.charAt(i)) | ((long) aKey.charAt(i + 1) << 16) | ((long) aKey.charAt(i + 2) << 32) | ((long) aKey.charAt(i + 3) << 48);
+			h ^= mix(block);
+			h = Long.rotateLeft(h, 27) * 0x9E3779B97F4A7C15L + 0x52DCE729L;
+		}
+		long tail = 0;
+		for (int shift = 0; i < length; i++, shift += 16) {
+			tail |= ((long) aKey.charAt(i)) << shift;
+		}
+		h ^= mix(tail);
+		return mix(h);
+	}
+
+	/**
+	 * 64bit値を攪拌する。
+	 *
+	 * @param aValue 値
+	 * @return 攪拌後の値
+	 */
+	private static long mix(final long aValue) {
+		long z = aValue;
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return z ^ (z >>> 33);
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.azkfw.core.AbstractTestCase;
+import org.azkfw.util.BloomFilter;
+import org.azkfw.util.FileUtility;
+import org.azkfw.util.PathUtility;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link CsvBloomFilterBuilder}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CsvBloomFilterBuilderTest extends AbstractTestCase {
+
+	@Test
+	public void testBuild() throws IOException {
+		File file = File.createTempFile("bloom", ".csv");
+		file.deleteOnExit();
+		CsvBufferedWriter writer = new CsvBufferedWriter(file, "UTF-8");
+		try {
+			writer.writeCsvLine("ID", "NAME");
+			for (int i = 0; i < 10000; i++) {
+				writer.writeCsvLine("KEY" + i, "name," + i);
+			}
+		} finally {
+			writer.close();
+		}
+
+		CsvBloomFilterBuilder builder = new CsvBloomFilterBuilder(file, "UTF-8");
+		builder.setHeader(true);
+		builder.setFalsePositiveProbability(0.01);
+		BloomFilter filter = builder.build();
+
+		File indexFile = CsvBloomFilterBuilder.getIndexFile(file);
+		indexFile.deleteOnExit();
+		assertTrue("インデックスファイル", CsvBloomFilterBuilder.isIndexAvailable(file));
+		assertEquals("登録件数", 10000, filter.getCount());
+		assertFalse("ヘッダー", filter.mightContain("ID"));
+
+		BloomFilter loaded = CsvBloomFilterBuilder.load(file);
+		assertEquals(filter.getNumBits(), loaded.getNumBits());
+		assertEquals(filter.getNumHashFunctions(), loaded.getNumHashFunctions());
+		for (int i = 0; i < 10000; i++) {
+			assertTrue(loaded.mightContain("KEY" + i));
+		}
+
+		int falsePositive = 0;
+		for (int i = 10000; i < 110000; i++) {
+			if (loaded.mightContain("KEY" + i)) {
+				falsePositive++;
+			}
+		}
+		assertTrue("偽陽性率 : " + falsePositive, falsePositive < 2000);
+	}
+
+	@Test
+	public void testKeyColumn() throws IOException {
+		File file = getResourceAsFile(PathUtility.replaseEnvSeparator("csv/utf8.csv"));
+		File copy = File.createTempFile("bloom", ".csv");
+		copy.deleteOnExit();
+		FileUtility.copy(file, copy);
+
+		CsvBloomFilterBuilder builder = new CsvBloomFilterBuilder(copy, "UTF-8");
+		builder.setKeyColumn(1);
+		builder.setHeader(true);
+		BloomFilter filter = builder.build();
+		CsvBloomFilterBuilder.getIndexFile(copy).deleteOnExit();
+
+		assertEquals(3, filter.getCount());
+		assertTrue(filter.mightContain("佐藤"));
+		assertTrue(filter.mightContain("田中"));
+		assertTrue(filter.mightContain("吉田"));
+		assertFalse(filter.mightContain("名前"));
+	}
+}
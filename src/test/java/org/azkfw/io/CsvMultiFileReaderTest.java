@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.azkfw.core.AbstractTestCase;
+import org.azkfw.util.FileUtility;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link CsvMultiFileReader}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CsvMultiFileReaderTest extends AbstractTestCase {
+
+	@Test
+	public void testRead() throws IOException {
+		File directory = File.createTempFile("multi", "");
+		directory.delete();
+		directory.mkdirs();
+		try {
+			int[] rows = { 10, 2000, 0, 555, 3000, 1 };
+			for (int i = 0; i < rows.length; i++) {
+				CsvBufferedWriter writer = new CsvBufferedWriter(new File(directory, "data" + i + ".csv"), "UTF-8");
+				try {
+					writer.writeCsvLine("FILE", "ROW");
+					for (int j = 0; j < rows[i]; j++) {
+						writer.writeCsvLine(Integer.toString(i), Integer.toString(j));
+					}
+				} finally {
+					writer.close();
+				}
+			}
+			new File(directory, "ignore.txt").createNewFile();
+
+			CsvMultiFileReader reader = new CsvMultiFileReader(directory, Pattern.compile("^.*\\.csv$"), Charset.forName("UTF-8"));
+			reader.setThreads(3);
+			reader.setBatchSize(100);
+			reader.setQueueSize(2);
+			reader.setHeader(true);
+			assertEquals("ファイル数", rows.length, reader.getFiles().size());
+			assertEquals("data4.csv", reader.getFiles().get(0).getName());
+
+			Map<String, Integer> next = new HashMap<String, Integer>();
+			int total = 0;
+			try {
+				CsvFileLine line;
+				while (null != (line = reader.readCsvLine())) {
+					String name = line.getFile().getName();
+					assertEquals("data" + line.getData().get(0) + ".csv", name);
+					int expected = next.containsKey(name) ? next.get(name) : 0;
+					assertEquals("ファイル内の順序", expected, Integer.parseInt(line.getData().get(1)));
+					assertEquals("行番号", expected + 2, line.getLineNumber());
+					next.put(name, expected + 1);
+					total++;
+				}
+			} finally {
+				reader.close();
+			}
+			int sum = 0;
+			for (int row : rows) {
+				sum += row;
+			}
+			assertEquals(sum, total);
+		} finally {
+			FileUtility.remove(directory);
+		}
+	}
+
+	@Test
+	public void testFailure() throws IOException {
+		List<File> files = new ArrayList<File>();
+		files.add(new File("????????????????????.csv"));
+		CsvMultiFileReader reader = new CsvMultiFileReader(files, "UTF-8");
+		try {
+			reader.readCsvLine();
+			fail();
+		} catch (IOException ex) {
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		CsvMultiFileReader reader = new CsvMultiFileReader(new ArrayList<File>(), "UTF-8");
+		try {
+			assertNull(reader.readCsvLine());
+		} finally {
+			reader.close();
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link CsvPipeline}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CsvPipelineTest extends AbstractTestCase {
+
+	@Test
+	public void testExecute() throws Exception {
+		File input = createInput(10000);
+		File output = File.createTempFile("pipeline", ".csv");
+		output.deleteOnExit();
+
+		CsvBufferedReader reader = new CsvBufferedReader(input, "UTF-8");
+		CsvBufferedWriter writer = new CsvBufferedWriter(output, "UTF-8");
+		CsvPipelineStatistics statistics;
+		try {
+			CsvPipeline pipeline = new CsvPipeline(reader, writer, new CsvTransformer() {
+				@Override
+				public List<String> transform(final List<String> aData) {
+					int value = Integer.parseInt(aData.get(0));
+					if (0 == value % 2) {
+						return null;
+					}
+					List<String> result = new ArrayList<String>();
+					result.add(aData.get(0));
+					result.add(aData.get(1).toUpperCase());
+					return result;
+				}
+			});
+			pipeline.setHeader(true);
+			pipeline.setThreads(4);
+			pipeline.setBlockSize(100);
+			pipeline.setQueueSize(3);
+			statistics = pipeline.execute();
+		} finally {
+			reader.close();
+			writer.close();
+		}
+
+		assertEquals("読み込み行数", 10000, statistics.getReadLines());
+		assertEquals("書き出し行数", 5000, statistics.getWrittenLines());
+		assertEquals("ブロック数", 100, statistics.getBlocks());
+
+		CsvBufferedReader result = new CsvBufferedReader(output, "UTF-8");
+		try {
+			assertEquals("ヘッダー", "ID,NAME", result.readLine());
+			List<String> data;
+			int expected = 1;
+			while (null != (data = result.readCsvLine())) {
+				assertEquals("行順序", Integer.toString(expected), data.get(0));
+				assertEquals("変換結果", "NAME," + expected, data.get(1));
+				expected += 2;
+			}
+			assertEquals(10001, expected);
+		} finally {
+			result.close();
+		}
+	}
+
+	@Test
+	public void testTransformError() throws Exception {
+		File input = createInput(5000);
+		File output = File.createTempFile("pipeline", ".csv");
+		output.deleteOnExit();
+
+		CsvBufferedReader reader = new CsvBufferedReader(input, "UTF-8");
+		CsvBufferedWriter writer = new CsvBufferedWriter(output, "UTF-8");
+		try {
+			CsvPipeline pipeline = new CsvPipeline(reader, writer, new CsvTransformer() {
+				@Override
+				public List<String> transform(final List<String> aData) throws CsvPipelineException {
+					if ("3000".equals(aData.get(0))) {
+						throw new CsvPipelineException("invalid data");
+					}
+					return aData;
+				}
+			});
+			pipeline.setThreads(2);
+			pipeline.setBlockSize(10);
+			pipeline.setQueueSize(2);
+			pipeline.execute();
+			fail("例外が発生しない");
+		} catch (CsvPipelineException ex) {
+			assertEquals("invalid data", ex.getMessage());
+		} finally {
+			reader.close();
+			writer.close();
+		}
+	}
+
+	@Test
+	public void testRuntimeError() throws Exception {
+		File input = createInput(100);
+		File output = File.createTempFile("pipeline", ".csv");
+		output.deleteOnExit();
+
+		CsvBufferedReader reader = new CsvBufferedReader(input, "UTF-8");
+		CsvBufferedWriter writer = new CsvBufferedWriter(output, "UTF-8");
+		try {
+			CsvPipeline pipeline = new CsvPipeline(reader, writer, new CsvTransformer() {
+				@Override
+				public List<String> transform(final List<String> aData) {
+					Integer.parseInt(aData.get(1));
+					return aData;
+				}
+			});
+			pipeline.setHeader(true);
+			pipeline.execute();
+			fail("例外が発生しない");
+		} catch (CsvPipelineException ex) {
+			assertEquals("Failed to transform line 2", ex.getMessage());
+			assertTrue(ex.getCause() instanceof NumberFormatException);
+		} finally {
+			reader.close();
+			writer.close();
+		}
+	}
+
+	private File createInput(final int aSize) throws IOException {
+		File file = File.createTempFile("pipeline", ".csv");
+		file.deleteOnExit();
+		CsvBufferedWriter writer = new CsvBufferedWriter(file, "UTF-8");
+		try {
+			writer.writeCsvLine("ID", "NAME");
+			for (int i = 1; i <= aSize; i++) {
+				writer.writeCsvLine(Integer.toString(i), "name," + i);
+			}
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+}
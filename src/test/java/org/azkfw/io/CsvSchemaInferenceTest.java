@@ -0,0 +1,164 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Calendar;
+
+import org.azkfw.core.AbstractTestCase;
+import org.azkfw.util.PathUtility;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link CsvSchemaInference}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CsvSchemaInferenceTest extends AbstractTestCase {
+
+	@Test
+	public void testInfer() throws IOException {
+		File file = File.createTempFile("schema", ".csv");
+		file.deleteOnExit();
+		CsvBufferedWriter writer = new CsvBufferedWriter(file, "UTF-8");
+		try {
+			writer.writeCsvLine("ID", "AMOUNT", "PRICE", "FLAG", "DATE", "CODE", "NOTE", "BIG");
+			for (int i = 0; i < 5000; i++) {
+				String note = (0 == i % 7) ? "" : "note " + i;
+				writer.writeCsvLine(Integer.toString(i), Long.toString(i * 10000000000L), (i / 4) + ".25", (0 == i % 2) ? "TRUE" : "false",
+						"2014-10-17", "00" + i, note, Long.toString(Long.MAX_VALUE - i));
+			}
+		} finally {
+			writer.close();
+		}
+
+		CsvSchemaInference inference = new CsvSchemaInference();
+		inference.setHeadSampleSize(100);
+		inference.setRandomSampleSize(200);
+		inference.setSeed(1L);
+		CsvSchema schema = inference.infer(file, "UTF-8");
+
+		assertEquals("列数", 8, schema.size());
+		assertTrue(schema.isHeader());
+		assertEquals(CsvColumnType.INTEGER, schema.getColumn(0).getType());
+		assertEquals(CsvColumnType.LONG, schema.getColumn(1).getType());
+		assertEquals(CsvColumnType.DOUBLE, schema.getColumn(2).getType());
+		assertEquals(CsvColumnType.BOOLEAN, schema.getColumn(3).getType());
+		assertEquals(CsvColumnType.DATE, schema.getColumn(4).getType());
+		assertEquals("yyyy-MM-dd", schema.getColumn(4).getDatePattern());
+		assertEquals(CsvColumnType.STRING, schema.getColumn(5).getType());
+		assertEquals(CsvColumnType.STRING, schema.getColumn(6).getType());
+		assertTrue("空値", schema.getColumn(6).isNullable());
+		assertFalse(schema.getColumn(0).isNullable());
+		assertEquals(CsvColumnType.LONG, schema.getColumn(7).getType());
+		assertEquals(4, schema.indexOf("DATE"));
+
+		CsvBufferedReader reader = new CsvBufferedReader(file, "UTF-8");
+		try {
+			reader.readLine();
+			CsvRecord record = new CsvRecord(schema);
+			long sum = 0;
+			int count = 0;
+			while (reader.readCsvRecord(record)) {
+				assertEquals(count, record.getInt("ID"));
+				assertEquals(count * 10000000000L, record.getLong(1));
+				assertEquals((count / 4) + 0.25, record.getDouble("PRICE"), 0.0);
+				assertEquals(0 == count % 2, record.getBoolean(3));
+				assertEquals("00" + count, record.getString("CODE"));
+				assertEquals(Long.MAX_VALUE - count, record.get(7));
+				sum += record.getInt(0);
+				count++;
+			}
+			assertEquals(5000, count);
+			assertEquals(4999L * 5000L / 2L, sum);
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testInferReader() throws IOException {
+		File file = getResourceAsFile(PathUtility.replaseEnvSeparator("csv/utf8.csv"));
+		CsvSchema schema;
+		CsvBufferedReader reader = new CsvBufferedReader(file, "UTF-8");
+		try {
+			schema = new CsvSchemaInference().infer(reader);
+		} finally {
+			reader.close();
+		}
+		assertEquals(4, schema.size());
+		assertEquals("No.", schema.getColumn(0).getName());
+		assertEquals(CsvColumnType.INTEGER, schema.getColumn(0).getType());
+		assertEquals(CsvColumnType.STRING, schema.getColumn(2).getType());
+
+		reader = new CsvBufferedReader(file, "UTF-8");
+		try {
+			reader.readLine();
+			CsvRecord record = new CsvRecord(schema);
+			assertTrue(reader.readCsvRecord(record));
+			assertEquals(Integer.valueOf(1), record.get("No."));
+			assertEquals("佐藤", record.get(1));
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testRecord() {
+		CsvRecord record = new CsvRecord();
+		record.parse("\"a,b\",\"x\"\"y\",,-12, 3.5 ,1e3,2014/10/17,TRUE", ',');
+		assertEquals(8, record.size());
+		assertEquals("a,b", record.getString(0));
+		assertEquals("x\"y", record.getString(1));
+		assertTrue(record.isNull(2));
+		assertEquals(-12, record.getInt(3));
+		assertEquals(3.5, record.getDouble(4), 0.0);
+		assertEquals(1000.0, record.getDouble(5), 0.0);
+		assertTrue(record.getBoolean(7));
+		try {
+			record.getInt(0);
+			fail();
+		} catch (NumberFormatException ex) {
+		}
+
+		record.parse("9223372036854775807,-9223372036854775808,9223372036854775808,0.1", ',');
+		assertEquals(Long.MAX_VALUE, record.getLong(0));
+		assertEquals(Long.MIN_VALUE, record.getLong(1));
+		try {
+			record.getLong(2);
+			fail();
+		} catch (NumberFormatException ex) {
+		}
+		assertEquals(0.1, record.getDouble(3), 0.0);
+
+		record.parse("", ',');
+		assertEquals(0, record.size());
+
+		CsvRecord dated = new CsvRecord(new CsvSchema(Arrays.asList(new CsvColumn("D", CsvColumnType.DATE, true, "yyyy/MM/dd")), false));
+		dated.parse("2014/10/17", ',');
+		Calendar c = Calendar.getInstance();
+		c.setTime(dated.getDate(0));
+		assertEquals(2014, c.get(Calendar.YEAR));
+		assertEquals(9, c.get(Calendar.MONTH));
+		assertEquals(17, c.get(Calendar.DAY_OF_MONTH));
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.azkfw.core.AbstractTestCase;
+import org.azkfw.store.ConcurrentStore;
+import org.azkfw.store.ImmutableStore;
+import org.azkfw.store.ImmutableStoreBuilder;
+import org.azkfw.store.StringListSerializer;
+import org.azkfw.store.StringSerializer;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link CsvStoreBuilder}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CsvStoreBuilderTest extends AbstractTestCase {
+
+	@Test
+	public void testBuild() throws Exception {
+		File file = createFile(20000);
+		CsvStoreBuilder builder = new CsvStoreBuilder(file, "UTF-8");
+		builder.setHeader(true);
+		builder.setThreads(4);
+		builder.setBlockSize(100);
+		ConcurrentStore<String, List<String>> store = new ConcurrentStore<String, List<String>>();
+		CsvPipelineStatistics statistics = builder.build(store);
+
+		assertEquals("読み込み行数(ヘッダーを除く)", 20002, statistics.getReadLines());
+		assertEquals("登録行数(空行を除く)", 20001, statistics.getWrittenLines());
+		assertEquals(20000, store.size());
+		assertEquals(Arrays.asList("KEY5", "名前,5", "5"), store.get("KEY5"));
+		assertFalse("ヘッダー", store.has("ID"));
+		// 重複キーは後の行が有効
+		assertEquals(Arrays.asList("KEY0", "上書き", "0"), store.get("KEY0"));
+	}
+
+	@Test
+	public void testKeyColumns() throws Exception {
+		File file = createFile(1000);
+		CsvStoreBuilder builder = new CsvStoreBuilder(file, "UTF-8");
+		builder.setHeader(true);
+		builder.setKeyColumns(2, 0);
+		builder.setKeySeparator(":");
+		builder.setTransformer(new CsvTransformer() {
+			@Override
+			public List<String> transform(final List<String> aData) {
+				if ("上書き".equals(aData.get(1))) {
+					return null;
+				}
+				return aData.subList(1, 2);
+			}
+		});
+		ConcurrentStore<String, List<String>> store = new ConcurrentStore<String, List<String>>();
+		builder.build(store);
+
+		assertEquals(1000, store.size());
+		assertEquals(Arrays.asList("名前,7"), store.get("7:KEY7"));
+		assertEquals("変換結果がnullの行は登録しない", Arrays.asList("名前,0"), store.get("0:KEY0"));
+	}
+
+	@Test
+	public void testBuildImmutable() throws Exception {
+		File file = createFile(5000);
+		CsvStoreBuilder builder = new CsvStoreBuilder(file, "UTF-8");
+		builder.setHeader(true);
+		ImmutableStoreBuilder<String, List<String>> immutable = new ImmutableStoreBuilder<String, List<String>>(new StringSerializer(),
+				new StringListSerializer());
+		builder.build(immutable);
+
+		ImmutableStore<String, List<String>> store = immutable.build();
+		assertEquals(5000, store.size());
+		assertEquals(Arrays.asList("KEY4999", "名前,4999", "4999"), store.get("KEY4999"));
+		assertEquals(Arrays.asList("KEY0", "上書き", "0"), store.get("KEY0"));
+	}
+
+	@Test
+	public void testTransformError() throws Exception {
+		File file = createFile(1000);
+		CsvStoreBuilder builder = new CsvStoreBuilder(file, "UTF-8");
+		builder.setTransformer(new CsvTransformer() {
+			@Override
+			public List<String> transform(final List<String> aData) {
+				return Arrays.asList(String.valueOf(Integer.parseInt(aData.get(2))));
+			}
+		});
+		try {
+			builder.build(new ConcurrentStore<String, List<String>>());
+			fail("ヘッダー行の変換に失敗する");
+		} catch (CsvPipelineException ex) {
+			assertTrue(ex.getMessage(), ex.getMessage().contains("line 1"));
+		}
+	}
+
+	private static File createFile(final int aRows) throws IOException {
+		File file = File.createTempFile("store", ".csv");
+		file.deleteOnExit();
+		CsvBufferedWriter writer = new CsvBufferedWriter(file, "UTF-8");
+		try {
+			writer.writeCsvLine("ID", "NAME", "NO");
+			for (int i = 0; i < aRows; i++) {
+				writer.writeCsvLine("KEY" + i, "名前," + i, String.valueOf(i));
+				if (i == aRows / 2) {
+					writer.writeCsvLine();
+				}
+			}
+			writer.writeCsvLine("KEY0", "上書き", "0");
+		} finally {
+			writer.close();
+		}
+		return file;
+	}
+}
@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Calendar;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link FixedWidthReader}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class FixedWidthReaderTest extends AbstractTestCase {
+
+	private static FixedWidthLayout createLayout() {
+		FixedWidthLayout layout = new FixedWidthLayout();
+		layout.addColumn("ID", 6, CsvColumnType.INTEGER);
+		layout.addColumn("NAME", 10, CsvColumnType.STRING);
+		layout.addFiller(2);
+		layout.addColumn("AMOUNT", 8, CsvColumnType.DOUBLE);
+		layout.addColumn("DATE", 8, CsvColumnType.DATE, "yyyyMMdd");
+		return layout;
+	}
+
+	private static String pad(final String aValue, final int aLength, final boolean aLeft) {
+		StringBuilder s = new StringBuilder();
+		for (int i = aValue.length(); i < aLength; i++) {
+			s.append(' ');
+		}
+		return aLeft ? s + aValue : aValue + s;
+	}
+
+	@Test
+	public void testMappedFile() throws IOException {
+		File file = File.createTempFile("fixed", ".dat");
+		file.deleteOnExit();
+		OutputStream stream = new FileOutputStream(file);
+		try {
+			for (int i = 0; i < 1000; i++) {
+				String line = pad(Integer.toString(i), 6, true) + pad("NAME" + i, 10, false) + "XX" + pad(i + ".5", 8, true) + "20141017\r\n";
+				stream.write(line.getBytes("ISO-8859-1"));
+			}
+		} finally {
+			stream.close();
+		}
+
+		FixedWidthLayout layout = createLayout();
+		assertEquals(34, layout.getRecordLength());
+		FixedWidthReader reader = new FixedWidthReader(file, layout, Charset.forName("ISO-8859-1"));
+		try {
+			// 領域の再割り当てを発生させる
+			reader.setMappingSize(100);
+			FixedWidthRecord record = new FixedWidthRecord(layout);
+			int count = 0;
+			while (reader.readRecord(record)) {
+				assertEquals(4, record.size());
+				assertEquals(count, record.getInt("ID"));
+				assertEquals("NAME" + count, record.getString(1));
+				assertEquals(count + 0.5, record.getDouble("AMOUNT"), 0.0);
+				count++;
+			}
+			assertEquals(1000, count);
+			assertEquals(1000, reader.getRecordNumber());
+
+			Calendar c = Calendar.getInstance();
+			c.setTime(record.getDate("DATE"));
+			assertEquals(2014, c.get(Calendar.YEAR));
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testStreamMultiByte() throws IOException {
+		FixedWidthLayout layout = new FixedWidthLayout();
+		layout.addColumn("CODE", 4, CsvColumnType.STRING);
+		layout.addColumn("NAME", 10, CsvColumnType.STRING);
+		layout.addColumn("AGE", 3, CsvColumnType.INTEGER);
+
+		Charset sjis = Charset.forName("Shift_JIS");
+		byte[] data = ("0001佐藤太郎   20\n" + "0002田中       40\n" + "0003           32").getBytes(sjis);
+		FixedWidthReader reader = new FixedWidthReader(new ByteArrayInputStream(data), layout, sjis);
+		try {
+			FixedWidthRecord record = new FixedWidthRecord(layout);
+			assertTrue(reader.readRecord(record));
+			assertEquals("0001", record.getString("CODE"));
+			assertEquals("佐藤太郎", record.getString("NAME"));
+			assertEquals(20, record.getInt("AGE"));
+
+			assertTrue(reader.readRecord(record));
+			assertEquals("田中", record.getString(1));
+			assertEquals(Integer.valueOf(40), record.get(2));
+
+			assertTrue(reader.readRecord(record));
+			assertTrue("空値", record.isNull(1));
+			assertNull(record.get(1));
+			assertEquals(32, record.getInt(2));
+
+			assertFalse(reader.readRecord(record));
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testTruncated() throws IOException {
+		FixedWidthLayout layout = new FixedWidthLayout();
+		layout.addColumn("A", 4, CsvColumnType.STRING);
+		FixedWidthReader reader = new FixedWidthReader(new ByteArrayInputStream("ABCDEF".getBytes("US-ASCII")), layout, Charset.forName("US-ASCII"));
+		try {
+			FixedWidthRecord record = new FixedWidthRecord(layout);
+			assertTrue(reader.readRecord(record));
+			assertEquals("ABCD", record.getString(0));
+			reader.readRecord(record);
+			fail();
+		} catch (IOException ex) {
+		} finally {
+			reader.close();
+		}
+	}
+}
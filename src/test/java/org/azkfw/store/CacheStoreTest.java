@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link CacheStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CacheStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testBasic() {
+		CacheStore<String, String> store = new CacheStore<String, String>(100);
+		store.put("A", "a");
+		store.put("B", "b");
+		assertEquals("a", store.get("A"));
+		assertEquals("default", store.get("C", "default"));
+		assertTrue(store.has("B"));
+		store.put("B", "b2");
+		assertEquals("b2", store.get("B"));
+		assertEquals(2, store.size());
+
+		store.remove("A");
+		assertFalse(store.has("A"));
+		assertEquals(1, store.size());
+
+		store.clear();
+		assertEquals(0, store.size());
+		assertFalse(store.has("B"));
+	}
+
+	@Test
+	public void testMaximumSize() {
+		final List<Integer> evicted = new ArrayList<Integer>();
+		CacheStore<Integer, Integer> store = new CacheStore<Integer, Integer>(1000, 4) {
+			@Override
+			protected void onEviction(final Integer aKey, final Integer aValue) {
+				evicted.add(aKey);
+			}
+		};
+		for (int i = 0; i < 10000; i++) {
+			store.put(i, i);
+			assertTrue("上限件数", store.size() <= 1000);
+		}
+		assertEquals(1000, store.getMaximumSize());
+		assertEquals(10000 - store.size(), store.getEvictionCount());
+		assertEquals(store.getEvictionCount(), evicted.size());
+		for (Integer key : evicted) {
+			assertFalse(store.has(key));
+		}
+	}
+
+	@Test
+	public void testScanResistance() {
+		CacheStore<Integer, Integer> store = new CacheStore<Integer, Integer>(1000, 1);
+		for (int i = 0; i < 500; i++) {
+			store.put(i, i);
+		}
+		for (int n = 0; n < 5; n++) {
+			for (int i = 0; i < 500; i++) {
+				store.get(i);
+			}
+		}
+		// 一度しか参照されないキーの走査
+		for (int i = 100000; i < 200000; i++) {
+			if (null == store.get(i)) {
+				store.put(i, i);
+			}
+		}
+		int hit = 0;
+		for (int i = 0; i < 500; i++) {
+			if (store.has(i)) {
+				hit++;
+			}
+		}
+		assertTrue("頻出キーの残存数 : " + hit, hit > 450);
+	}
+}
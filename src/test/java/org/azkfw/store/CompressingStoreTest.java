@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link CompressingStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class CompressingStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testCompress() {
+		ConcurrentStore<String, byte[]> bytes = new ConcurrentStore<String, byte[]>();
+		CompressingStore<String, String> store = new CompressingStore<String, String>(bytes, new StringSerializer());
+		String json = createText(200);
+		store.put("JSON", json);
+		store.put("SMALL", "小さい値");
+		store.put("NULL", null);
+
+		assertEquals(json, store.get("JSON"));
+		assertEquals("小さい値", store.get("SMALL"));
+		assertNull(store.get("NULL"));
+		assertTrue(store.has("NULL"));
+		assertEquals("デフォルト値", store.get("NONE", "デフォルト値"));
+		assertTrue("圧縮後サイズ : " + bytes.get("JSON").length, bytes.get("JSON").length * 4 < json.length());
+		assertEquals("閾値未満は無圧縮", 0, bytes.get("SMALL")[0]);
+		assertTrue("圧縮率 : " + store.getCompressionRatio(), 0.25 > store.getCompressionRatio());
+
+		store.remove("JSON");
+		assertFalse(store.has("JSON"));
+	}
+
+	@Test
+	public void testIncompressible() {
+		ConcurrentStore<String, byte[]> bytes = new ConcurrentStore<String, byte[]>();
+		CompressingStore<String, byte[]> store = new CompressingStore<String, byte[]>(bytes, new ByteArraySerializer(), new DeflateCodec());
+		byte[] random = new byte[4096];
+		new Random(1).nextBytes(random);
+		Map<String, byte[]> map = new HashMap<String, byte[]>();
+		map.put("RANDOM", random);
+		map.put("ZERO", new byte[4096]);
+		store.putAll(map);
+
+		assertTrue(Arrays.equals(random, store.get("RANDOM")));
+		assertTrue(Arrays.equals(new byte[4096], store.get("ZERO")));
+		assertEquals("圧縮できない値は無圧縮", 4097, bytes.get("RANDOM").length);
+		assertTrue(100 > bytes.get("ZERO").length);
+	}
+
+	@Test
+	public void testCodecs() {
+		Random random = new Random(2);
+		byte[][] samples = new byte[][] { new byte[0], new byte[] { 1 }, createText(500).getBytes(), new byte[70000], createMixed(random, 300000),
+				createMixed(random, 1000) };
+		new Random(3).nextBytes(samples[3]);
+		for (CompressionCodec codec : new CompressionCodec[] { new LzCodec(), new DeflateCodec() }) {
+			for (byte[] sample : samples) {
+				byte[] compressed = new byte[3 + codec.maxCompressedLength(sample.length)];
+				int length = codec.compress(sample, 0, sample.length, compressed, 3);
+				byte[] restored = new byte[sample.length + 2];
+				codec.decompress(compressed, 3, length, restored, 2, sample.length);
+				assertTrue(codec.getClass().getSimpleName() + " : " + sample.length, Arrays.equals(sample, Arrays.copyOfRange(restored, 2, restored.length)));
+			}
+		}
+	}
+
+	@Test
+	public void testBrokenData() {
+		LzCodec codec = new LzCodec();
+		byte[] text = createText(100).getBytes();
+		byte[] compressed = new byte[codec.maxCompressedLength(text.length)];
+		int length = codec.compress(text, 0, text.length, compressed, 0);
+		try {
+			codec.decompress(compressed, 0, length - 10, new byte[text.length], 0, text.length);
+			fail("壊れたデータ");
+		} catch (StoreException ex) {
+		}
+	}
+
+	private static String createText(final int aRows) {
+		StringBuilder s = new StringBuilder();
+		s.append("[");
+		for (int i = 0; i < aRows; i++) {
+			s.append("{\"id\":").append(i).append(",\"name\":\"商品").append(i % 17).append("\",\"status\":\"ACTIVE\",\"price\":").append(i * 10).append("},");
+		}
+		s.append("]");
+		return s.toString();
+	}
+
+	/**
+	 * 繰り返しと乱数が混在するデータを生成する。
+	 */
+	private static byte[] createMixed(final Random aRandom, final int aSize) {
+		byte[] data = new byte[aSize];
+		int i = 0;
+		while (i < aSize) {
+			int run = Math.min(aSize - i, 1 + aRandom.nextInt(600));
+			if (aRandom.nextBoolean() && 0 < i) {
+				int from = aRandom.nextInt(i);
+				for (int j = 0; j < run; j++) {
+					data[i + j] = data[from + j];
+				}
+			} else {
+				for (int j = 0; j < run; j++) {
+					data[i + j] = (byte) aRandom.nextInt(4);
+				}
+			}
+			i += run;
+		}
+		return data;
+	}
+}
@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link ConcurrentSortedStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class ConcurrentSortedStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testRange() {
+		ConcurrentSortedStore<Integer, String> store = new ConcurrentSortedStore<Integer, String>();
+		for (int i = 0; i < 100; i += 2) {
+			store.put(i, "値" + i);
+		}
+		assertEquals(50, store.size());
+		assertEquals("開始含む・終了含まない", keys(10, 12, 14, 16, 18), keysOf(store.range(10, 20)));
+		assertEquals(keys(10, 12), keysOf(store.range(9, 13)));
+		assertEquals("先頭から", keys(0, 2), keysOf(store.range(null, 4)));
+		assertEquals("末尾まで", keys(96, 98), keysOf(store.range(95, null)));
+		assertEquals(50, keysOf(store.range(null, null)).size());
+		assertTrue("逆転した範囲", keysOf(store.range(20, 10)).isEmpty());
+
+		assertEquals(Integer.valueOf(0), store.first().getKey());
+		assertEquals(Integer.valueOf(98), store.last().getKey());
+		assertEquals(Integer.valueOf(10), store.floor(11).getKey());
+		assertEquals(Integer.valueOf(12), store.ceiling(11).getKey());
+		assertEquals(Integer.valueOf(10), store.floor(10).getKey());
+		assertNull(store.floor(-1));
+		assertNull(store.ceiling(99));
+		assertEquals("値10", store.floor(11).getValue());
+
+		store.remove(10);
+		assertEquals(Integer.valueOf(8), store.floor(11).getKey());
+		store.clear();
+		assertTrue(store.isEmpty());
+		assertNull(store.first());
+	}
+
+	@Test
+	public void testComparator() {
+		ConcurrentSortedStore<String, String> store = new ConcurrentSortedStore<String, String>(Collections.reverseOrder());
+		store.put("a", "1");
+		store.put("b", "2");
+		store.put("c", "3");
+		assertEquals("c", store.first().getKey());
+		assertEquals(2, count(store.range("c", "a")));
+	}
+
+	@Test
+	public void testConcurrent() throws InterruptedException {
+		final ConcurrentSortedStore<Integer, Integer> store = new ConcurrentSortedStore<Integer, Integer>();
+		final int threads = 4;
+		final CountDownLatch end = new CountDownLatch(threads * 2);
+		final AtomicInteger errors = new AtomicInteger();
+		for (int t = 0; t < threads; t++) {
+			final int base = t * 10000;
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = base; i < base + 10000; i++) {
+							store.put(i, i);
+						}
+					} finally {
+						end.countDown();
+					}
+				}
+			}).start();
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int n = 0; n < 100; n++) {
+							Integer previous = null;
+							for (Map.Entry<Integer, Integer> entry : store.range(5000, 25000)) {
+								if (null != previous && previous >= entry.getKey()) {
+									errors.incrementAndGet();
+								}
+								previous = entry.getKey();
+							}
+						}
+					} finally {
+						end.countDown();
+					}
+				}
+			}).start();
+		}
+		assertTrue(end.await(30, TimeUnit.SECONDS));
+		assertEquals("順序", 0, errors.get());
+		assertEquals(40000, store.size());
+		assertEquals(20000, count(store.range(5000, 25000)));
+	}
+
+	private static List<Integer> keys(final Integer... aKeys) {
+		List<Integer> keys = new ArrayList<Integer>();
+		Collections.addAll(keys, aKeys);
+		return keys;
+	}
+
+	private static <K, V> List<K> keysOf(final Iterable<Map.Entry<K, V>> aEntries) {
+		List<K> keys = new ArrayList<K>();
+		for (Map.Entry<K, V> entry : aEntries) {
+			keys.add(entry.getKey());
+		}
+		return keys;
+	}
+
+	private static int count(final Iterable<?> aEntries) {
+		int count = 0;
+		for (Object entry : aEntries) {
+			count++;
+		}
+		return count;
+	}
+}
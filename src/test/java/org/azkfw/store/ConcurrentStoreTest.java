@@ -0,0 +1,254 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link ConcurrentStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class ConcurrentStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testBasic() {
+		ConcurrentStore<String, String> store = new ConcurrentStore<String, String>();
+		assertTrue(store.isEmpty());
+		assertNull(store.get("A"));
+		assertEquals("default", store.get("A", "default"));
+		assertFalse(store.has("A"));
+
+		store.put("A", "a");
+		store.put("B", null);
+		assertEquals("a", store.get("A"));
+		assertTrue("null値", store.has("B"));
+		assertNull("null値", store.get("B", "default"));
+		assertFalse(store.putIfAbsent("A", "x"));
+		assertEquals("a", store.get("A"));
+		assertTrue(store.putIfAbsent("C", "c"));
+		assertEquals(3, store.size());
+
+		store.remove("A");
+		assertFalse(store.has("A"));
+		assertEquals(2, store.size());
+
+		store.clear();
+		assertTrue(store.isEmpty());
+		assertFalse(store.has("C"));
+
+		try {
+			store.put(null, "a");
+			fail("nullキー");
+		} catch (NullPointerException ex) {
+		}
+	}
+
+	@Test
+	public void testResize() {
+		ConcurrentStore<Integer, Integer> store = new ConcurrentStore<Integer, Integer>(0, 4);
+		Map<Integer, Integer> map = new HashMap<Integer, Integer>();
+		for (int i = 0; i < 100000; i++) {
+			map.put(i, i * 2);
+		}
+		store.putAll(map);
+		assertEquals(100000, store.size());
+		for (int i = 0; i < 100000; i++) {
+			assertEquals(Integer.valueOf(i * 2), store.get(i));
+		}
+		for (int i = 0; i < 100000; i += 2) {
+			store.remove(i);
+		}
+		assertEquals(50000, store.size());
+		for (int i = 0; i < 100000; i++) {
+			assertEquals(1 == i % 2, store.has(i));
+		}
+	}
+
+	@Test
+	public void testConcurrent() throws InterruptedException {
+		final ConcurrentStore<Integer, Integer> store = new ConcurrentStore<Integer, Integer>();
+		final int threads = 8;
+		final int size = 20000;
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch end = new CountDownLatch(threads);
+		final AtomicInteger errors = new AtomicInteger();
+		for (int t = 0; t < threads; t++) {
+			final int offset = t * size;
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int i = offset; i < offset + size; i++) {
+							store.put(i, i);
+							if (!Integer.valueOf(i).equals(store.get(i))) {
+								errors.incrementAndGet();
+							}
+						}
+						for (int i = offset; i < offset + size; i += 2) {
+							store.remove(i);
+						}
+					} catch (InterruptedException ex) {
+						errors.incrementAndGet();
+					} finally {
+						end.countDown();
+					}
+				}
+			}).start();
+		}
+		start.countDown();
+		end.await();
+
+		assertEquals("読み込みエラー", 0, errors.get());
+		assertEquals(threads * size / 2, store.size());
+		for (int i = 0; i < threads * size; i++) {
+			assertEquals(1 == i % 2, store.has(i));
+		}
+	}
+
+	@Test
+	public void testSnapshot() {
+		ConcurrentStore<Integer, String> store = new ConcurrentStore<Integer, String>(16, 4);
+		for (int i = 0; i < 1000; i++) {
+			store.put(i, "値" + i);
+		}
+		StoreSnapshot<Integer, String> snapshot = store.snapshot();
+		try {
+			// 取得後の更新・削除・追加・拡張はスナップショットに反映されない
+			for (int i = 0; i < 500; i++) {
+				store.put(i, "更新" + i);
+			}
+			for (int i = 500; i < 700; i++) {
+				store.remove(i);
+			}
+			for (int i = 1000; i < 5000; i++) {
+				store.put(i, "追加" + i);
+			}
+			assertEquals(1000, snapshot.size());
+			Map<Integer, String> entries = new HashMap<Integer, String>();
+			for (Map.Entry<Integer, String> entry : snapshot) {
+				assertNull("重複 : " + entry.getKey(), entries.put(entry.getKey(), entry.getValue()));
+			}
+			assertEquals(1000, entries.size());
+			for (int i = 0; i < 1000; i++) {
+				assertEquals("値" + i, entries.get(i));
+			}
+		} finally {
+			snapshot.close();
+		}
+		assertEquals("更新0", store.get(0));
+		assertFalse(store.has(500));
+		assertEquals(4800, store.size());
+		try {
+			snapshot.iterator();
+			fail("解放後に走査できる");
+		} catch (IllegalStateException ex) {
+		}
+
+		// 解放後は直接更新に戻る
+		store.put(0, "再更新");
+		assertEquals("再更新", store.get(0));
+	}
+
+	@Test
+	public void testSnapshotConcurrent() throws InterruptedException {
+		final ConcurrentStore<Integer, Integer> store = new ConcurrentStore<Integer, Integer>();
+		for (int i = 0; i < 10000; i++) {
+			store.put(i, 0);
+		}
+		final AtomicBoolean running = new AtomicBoolean(true);
+		final CountDownLatch end = new CountDownLatch(4);
+		for (int t = 0; t < 4; t++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						int round = 1;
+						while (running.get()) {
+							for (int i = 0; i < 10000; i++) {
+								store.put(i, round);
+							}
+							round++;
+						}
+					} finally {
+						end.countDown();
+					}
+				}
+			}).start();
+		}
+		try {
+			for (int n = 0; n < 20; n++) {
+				StoreSnapshot<Integer, Integer> snapshot = store.snapshot();
+				try {
+					int count = 0;
+					for (Map.Entry<Integer, Integer> entry : snapshot) {
+						assertNotNull(entry.getValue());
+						count++;
+					}
+					assertEquals("走査件数", 10000, count);
+				} finally {
+					snapshot.close();
+				}
+			}
+		} finally {
+			running.set(false);
+		}
+		assertTrue(end.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testExport() throws IOException {
+		ConcurrentStore<String, String> store = new ConcurrentStore<String, String>();
+		for (int i = 0; i < 3000; i++) {
+			store.put("KEY" + i, "値" + i);
+		}
+		store.put("NULL", null);
+		StoreExporter<String, String> exporter = new StoreExporter<String, String>(new StringSerializer(), new StringSerializer());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(3001, exporter.export(store, out));
+
+		ConcurrentStore<String, String> restored = new ConcurrentStore<String, String>();
+		assertEquals(3001, exporter.importTo(new ByteArrayInputStream(out.toByteArray()), restored));
+		assertEquals(3001, restored.size());
+		assertEquals("値2999", restored.get("KEY2999"));
+		assertTrue(restored.has("NULL"));
+		assertNull(restored.get("NULL", "X"));
+
+		byte[] broken = out.toByteArray();
+		broken[0] = 0;
+		try {
+			exporter.importTo(new ByteArrayInputStream(broken), restored);
+			fail("不正な形式");
+		} catch (IOException ex) {
+		}
+	}
+}
@@ -0,0 +1,304 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.azkfw.core.AbstractTestCase;
+import org.azkfw.util.FileUtility;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link DurableStore}クラスおよび{@link WriteAheadLog}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class DurableStoreTest extends AbstractTestCase {
+
+	private final List<File> directories = new ArrayList<File>();
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File directory : directories) {
+			FileUtility.remove(directory);
+		}
+		super.tearDown();
+	}
+
+	@Test
+	public void testRecover() throws IOException {
+		File directory = createDirectory();
+		DurableStore<String, String> store = open(directory);
+		for (int i = 0; i < 100; i++) {
+			store.put("KEY" + i, "値" + i);
+		}
+		for (int i = 0; i < 100; i += 2) {
+			store.remove("KEY" + i);
+		}
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("KEY1", "更新");
+		map.put("NEW", "追加");
+		store.putAll(map);
+		// クローズせずに開き直す(異常終了)
+		DurableStore<String, String> recovered = open(directory);
+		try {
+			assertEquals("更新", recovered.get("KEY1"));
+			assertEquals("追加", recovered.get("NEW"));
+			assertEquals("値3", recovered.get("KEY3"));
+			assertFalse("削除済み", recovered.has("KEY0"));
+			assertEquals(151, recovered.getWriteAheadLog().getLastLsn());
+		} finally {
+			recovered.close();
+			store.close();
+		}
+	}
+
+	@Test
+	public void testCheckpoint() throws IOException {
+		File directory = createDirectory();
+		DurableStore<String, String> store = open(directory);
+		store.getWriteAheadLog().setMaxSegmentSize(1024);
+		for (int i = 0; i < 200; i++) {
+			store.put("KEY" + i, "値" + i);
+		}
+		assertTrue("セグメント数", 1 < store.getWriteAheadLog().getSegmentCount());
+		assertEquals(200, store.checkpoint());
+		assertEquals("チェックポイント以前のセグメント削除", 1, store.getWriteAheadLog().getSegmentCount());
+		store.put("KEY0", "更新");
+		store.remove("KEY1");
+		store.close();
+
+		DurableStore<String, String> recovered = open(directory);
+		try {
+			assertEquals("更新", recovered.get("KEY0"));
+			assertFalse(recovered.has("KEY1"));
+			assertEquals("値199", recovered.get("KEY199"));
+			assertEquals(202, recovered.getWriteAheadLog().getLastLsn());
+			assertEquals(200, recovered.getWriteAheadLog().getCheckpointLsn());
+		} finally {
+			recovered.close();
+		}
+	}
+
+	@Test
+	public void testTornTail() throws IOException {
+		File directory = createDirectory();
+		WriteAheadLog log = new WriteAheadLog(directory);
+		for (int i = 0; i < 10; i++) {
+			log.append(("record" + i).getBytes("UTF-8"));
+		}
+		log.close();
+
+		// 最後のレコードの書き込み途中で停止した状態を再現する
+		File segment = new File(directory, String.format("%016d", 1) + WriteAheadLog.LOG_SUFFIX);
+		RandomAccessFile raf = new RandomAccessFile(segment, "rw");
+		try {
+			raf.setLength(raf.length() - 3);
+		} finally {
+			raf.close();
+		}
+
+		log = new WriteAheadLog(directory);
+		try {
+			assertEquals("末尾の切り捨て", 9, log.getLastLsn());
+			assertEquals(10, log.append("after".getBytes("UTF-8")));
+			final List<String> records = new ArrayList<String>();
+			long count = log.replay(7, new WriteAheadLogHandler() {
+				@Override
+				public void handle(final long aLsn, final byte[] aPayload) {
+					records.add(aLsn + ":" + new String(aPayload));
+				}
+			});
+			assertEquals(3, count);
+			assertEquals("[8:record7, 9:record8, 10:after]", records.toString());
+		} finally {
+			log.close();
+		}
+	}
+
+	@Test
+	public void testBrokenSegment() throws IOException {
+		File directory = createDirectory();
+		WriteAheadLog log = new WriteAheadLog(directory);
+		log.setMaxSegmentSize(256);
+		for (int i = 0; i < 50; i++) {
+			log.append(("record" + i).getBytes("UTF-8"));
+		}
+		assertTrue(1 < log.getSegmentCount());
+		log.close();
+
+		// 最後以外のセグメントの破損は書き込み途中ではないため、後続のセグメントを破棄せずに例外とする
+		File segment = new File(directory, String.format("%016d", 1) + WriteAheadLog.LOG_SUFFIX);
+		RandomAccessFile raf = new RandomAccessFile(segment, "rw");
+		try {
+			raf.seek(raf.length() - 1);
+			raf.write(raf.read() ^ 0xFF);
+		} finally {
+			raf.close();
+		}
+		int files = directory.list().length;
+		try {
+			new WriteAheadLog(directory).close();
+			fail("破損したセグメント");
+		} catch (IOException ex) {
+			assertEquals("後続のセグメントを保持", files, directory.list().length);
+		}
+	}
+
+	@Test
+	public void testIncompleteSnapshot() throws IOException {
+		File directory = createDirectory();
+		DurableStore<String, String> store = open(directory);
+		store.put("KEY1", "値1");
+		store.checkpoint();
+		store.put("KEY2", "値2");
+		store.close();
+
+		// 置き換え前に停止した一時ファイルは破棄する
+		File snapshot = new File(directory, DurableStore.SNAPSHOT_FILE);
+		File temp = new File(snapshot.getPath() + ".tmp");
+		FileUtility.copy(snapshot, temp);
+		RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+		try {
+			raf.setLength(5);
+		} finally {
+			raf.close();
+		}
+		DurableStore<String, String> recovered = open(directory);
+		try {
+			assertFalse(temp.exists());
+			assertEquals("値1", recovered.get("KEY1"));
+			assertEquals("値2", recovered.get("KEY2"));
+		} finally {
+			recovered.close();
+		}
+
+		// チェックポイント以前のログは削除済みのため、スナップショットがない場合は復元しない
+		assertTrue(snapshot.delete());
+		try {
+			open(directory).close();
+			fail("スナップショットなし");
+		} catch (IOException ex) {
+		}
+	}
+
+	@Test
+	public void testConcurrentOrder() throws Exception {
+		File directory = createDirectory();
+		final DurableStore<String, String> store = open(directory);
+		store.setDurability(Durability.NONE);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		List<Thread> workers = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++) {
+			final int id = t;
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 500; i++) {
+							store.put("KEY" + (i % 10), id + ":" + i);
+						}
+					} catch (Throwable ex) {
+						failure.compareAndSet(null, ex);
+					}
+				}
+			});
+			thread.start();
+			workers.add(thread);
+		}
+		for (Thread thread : workers) {
+			thread.join();
+		}
+		assertNull(failure.get());
+		store.close();
+
+		// ログの再生結果と反映済みの内容が一致する
+		DurableStore<String, String> recovered = open(directory);
+		try {
+			for (int i = 0; i < 10; i++) {
+				assertEquals(store.get("KEY" + i), recovered.get("KEY" + i));
+			}
+		} finally {
+			recovered.close();
+		}
+	}
+
+	@Test
+	public void testGroupCommit() throws Exception {
+		File directory = createDirectory();
+		final WriteAheadLog log = new WriteAheadLog(directory);
+		final int threads = 8;
+		final int records = 200;
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		List<Thread> workers = new ArrayList<Thread>();
+		for (int t = 0; t < threads; t++) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int i = 0; i < records; i++) {
+							long lsn = log.append(new byte[32], Durability.SYNC);
+							if (log.getSyncedLsn() < lsn) {
+								failure.compareAndSet(null, new AssertionError("未同期 : " + lsn));
+							}
+						}
+					} catch (Throwable ex) {
+						failure.compareAndSet(null, ex);
+					}
+				}
+			});
+			thread.start();
+			workers.add(thread);
+		}
+		start.countDown();
+		for (Thread thread : workers) {
+			thread.join();
+		}
+		try {
+			assertNull(failure.get());
+			assertEquals(threads * records, log.getLastLsn());
+			assertEquals(threads * records, log.getSyncedLsn());
+		} finally {
+			log.close();
+		}
+	}
+
+	private static DurableStore<String, String> open(final File aDirectory) throws IOException {
+		return new DurableStore<String, String>(aDirectory, new ConcurrentStore<String, String>(), new StringSerializer(), new StringSerializer());
+	}
+
+	private File createDirectory() throws IOException {
+		File directory = File.createTempFile("durable", "");
+		directory.delete();
+		directory.mkdirs();
+		directories.add(directory);
+		return directory;
+	}
+}
@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link ExpiringStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class ExpiringStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testExpireAfterWrite() {
+		FakeTicker ticker = new FakeTicker();
+		ExpiringStore<String, String> store = new ExpiringStore<String, String>(10, 0, TimeUnit.SECONDS);
+		store.setTicker(ticker);
+
+		store.put("A", "a");
+		ticker.advance(5, TimeUnit.SECONDS);
+		store.put("B", "b");
+		store.put("C", "c", 1, TimeUnit.HOURS);
+		assertEquals("a", store.get("A"));
+
+		ticker.advance(6, TimeUnit.SECONDS);
+		assertFalse("期限切れ", store.has("A"));
+		assertEquals("default", store.get("A", "default"));
+		assertEquals("b", store.get("B"));
+
+		ticker.advance(5, TimeUnit.SECONDS);
+		assertNull(store.get("B"));
+		assertEquals("個別期限", "c", store.get("C"));
+
+		ticker.advance(1, TimeUnit.HOURS);
+		assertFalse(store.has("C"));
+		store.cleanUp();
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void testExpireAfterAccess() {
+		FakeTicker ticker = new FakeTicker();
+		ExpiringStore<String, String> store = new ExpiringStore<String, String>(0, 10, TimeUnit.SECONDS);
+		store.setTicker(ticker);
+
+		store.put("A", "a");
+		store.put("B", "b");
+		for (int i = 0; i < 10; i++) {
+			ticker.advance(5, TimeUnit.SECONDS);
+			assertEquals("参照による延長", "a", store.get("A"));
+		}
+		assertFalse(store.has("B"));
+		store.cleanUp();
+		assertEquals(1, store.size());
+
+		ticker.advance(11, TimeUnit.SECONDS);
+		store.cleanUp();
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void testCleanUp() {
+		FakeTicker ticker = new FakeTicker();
+		final List<Integer> expired = new ArrayList<Integer>();
+		ExpiringStore<Integer, Integer> store = new ExpiringStore<Integer, Integer>(0, 0, TimeUnit.SECONDS) {
+			@Override
+			protected void onExpiration(final Integer aKey, final Integer aValue) {
+				expired.add(aKey);
+			}
+		};
+		store.setTicker(ticker);
+		for (int i = 1; i <= 10000; i++) {
+			// 1秒～約2.7時間の期限を分散させる
+			store.put(i, i, i, TimeUnit.SECONDS);
+		}
+		store.put(0, 0);
+		store.remove(5000);
+
+		ticker.advance(100, TimeUnit.SECONDS);
+		store.cleanUp();
+		for (int i = 1; i <= 10000; i++) {
+			assertEquals(i > 100 && 5000 != i, store.has(i));
+		}
+		assertTrue("期限切れ件数 : " + expired.size(), expired.size() >= 90 && expired.size() <= 100);
+
+		ticker.advance(3, TimeUnit.HOURS);
+		store.cleanUp();
+		assertEquals("削除済みを除く", 9999, expired.size());
+		assertEquals("無期限", 1, store.size());
+		assertTrue(store.has(0));
+	}
+
+	@Test
+	public void testOverwrite() {
+		FakeTicker ticker = new FakeTicker();
+		final List<String> expired = new ArrayList<String>();
+		ExpiringStore<String, String> store = new ExpiringStore<String, String>(10, 0, TimeUnit.SECONDS) {
+			@Override
+			protected void onExpiration(final String aKey, final String aValue) {
+				expired.add(aValue);
+			}
+		};
+		store.setTicker(ticker);
+
+		store.put("A", "a1", 1, TimeUnit.SECONDS);
+		store.put("A", "a2", 0, TimeUnit.SECONDS);
+		store.put("B", "b1", 1, TimeUnit.HOURS);
+		store.put("B", "b2");
+		ticker.advance(5, TimeUnit.SECONDS);
+		store.cleanUp();
+		assertEquals("上書き前の期限は無効", "a2", store.get("A"));
+		assertEquals("b2", store.get("B"));
+
+		ticker.advance(6, TimeUnit.SECONDS);
+		store.cleanUp();
+		assertEquals("無期限", "a2", store.get("A"));
+		assertFalse("上書き後の期限", store.has("B"));
+		assertEquals("[b2]", expired.toString());
+	}
+
+	/**
+	 * このクラスは、テスト用に時刻を操作できるティッカーです。
+	 */
+	private static final class FakeTicker implements Ticker {
+
+		private long nanos = 123456789L;
+
+		@Override
+		public long read() {
+			return nanos;
+		}
+
+		private void advance(final long aDuration, final TimeUnit aUnit) {
+			nanos += aUnit.toNanos(aDuration);
+		}
+	}
+}
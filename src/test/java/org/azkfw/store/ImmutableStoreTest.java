@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link ImmutableStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class ImmutableStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testBuild() {
+		ImmutableStoreBuilder<String, String> builder = new ImmutableStoreBuilder<String, String>(new StringSerializer(), new StringSerializer());
+		for (int i = 0; i < 50000; i++) {
+			builder.put("KEY" + i, "値" + i);
+		}
+		builder.put("KEY0", "上書き");
+		builder.put("NULL", null);
+		assertEquals(50001, builder.size());
+
+		ImmutableStore<String, String> store = builder.build();
+		assertEquals(50001, store.size());
+		assertEquals("上書き", store.get("KEY0"));
+		for (int i = 1; i < 50000; i++) {
+			assertEquals("値" + i, store.get("KEY" + i));
+		}
+		assertNull(store.get("NULL"));
+		assertTrue(store.has("NULL"));
+		assertFalse(store.has("KEY50000"));
+		assertEquals("デフォルト値", store.get("NONE", "デフォルト値"));
+		try {
+			store.put("KEY1", "更新");
+			fail("読み取り専用");
+		} catch (UnsupportedOperationException ex) {
+		}
+	}
+
+	@Test
+	public void testSmall() {
+		for (int size = 0; size < 40; size++) {
+			ImmutableStoreBuilder<Long, Long> builder = new ImmutableStoreBuilder<Long, Long>(new LongSerializer(), new LongSerializer());
+			Map<Long, Long> map = new HashMap<Long, Long>();
+			for (long i = 0; i < size; i++) {
+				map.put(i * 7, i);
+			}
+			builder.putAll(map);
+			ImmutableStore<Long, Long> store = builder.build();
+			for (long i = 0; i < size; i++) {
+				assertEquals("件数 : " + size, Long.valueOf(i), store.get(i * 7));
+			}
+			assertFalse(store.has(-1L));
+		}
+	}
+
+	@Test
+	public void testOpen() throws IOException {
+		File file = File.createTempFile("immutable", ".store");
+		file.deleteOnExit();
+		ImmutableStoreBuilder<String, Long> builder = new ImmutableStoreBuilder<String, Long>(new StringSerializer(), new LongSerializer());
+		for (long i = 0; i < 10000; i++) {
+			builder.put("KEY" + i, i);
+		}
+		builder.write(file);
+
+		ImmutableStore<String, Long> store = ImmutableStore.open(file, new StringSerializer(), new LongSerializer());
+		try {
+			assertEquals(10000, store.size());
+			for (long i = 0; i < 10000; i++) {
+				assertEquals(Long.valueOf(i), store.get("KEY" + i));
+			}
+			assertFalse(store.has("KEY10000"));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testDisplacementLimit() {
+		assertEquals(1 << 24, ImmutableStoreBuilder.displacementLimit(0));
+		assertEquals(1 << 24, ImmutableStoreBuilder.displacementLimit(1000));
+		assertEquals("件数に比例", 32 * 10000000, ImmutableStoreBuilder.displacementLimit(10000000));
+		assertEquals(Integer.MAX_VALUE, ImmutableStoreBuilder.displacementLimit(Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void testBrokenFile() throws IOException {
+		File file = File.createTempFile("immutable", ".store");
+		file.deleteOnExit();
+		try {
+			ImmutableStore.open(file, new StringSerializer(), new StringSerializer());
+			fail("空ファイル");
+		} catch (IOException ex) {
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link InstrumentedStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class InstrumentedStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testCount() {
+		InstrumentedStore<String, String> store = new InstrumentedStore<String, String>(new ConcurrentStore<String, String>());
+		store.put("A", "1");
+		store.put("B", null);
+		assertEquals("1", store.get("A"));
+		assertNull("null値もヒット", store.get("B", "X"));
+		assertEquals("既定値", "X", store.get("C", "X"));
+		assertNull(store.get("D"));
+		store.remove("A");
+
+		StoreStatistics statistics = store.getStatistics();
+		assertEquals("ヒット", 2, statistics.getHitCount());
+		assertEquals("ミス", 2, statistics.getMissCount());
+		assertEquals(0.5, statistics.getHitRatio(), 0.0001);
+		assertEquals("格納", 2, statistics.getPutCount());
+		assertEquals("削除", 1, statistics.getRemoveCount());
+
+		store.getRecorder().reset();
+		statistics = store.getStatistics();
+		assertEquals(0, statistics.getRequestCount());
+		assertEquals(1.0, statistics.getHitRatio(), 0.0001);
+	}
+
+	@Test
+	public void testLatency() {
+		final AtomicLong time = new AtomicLong();
+		final AtomicLong step = new AtomicLong();
+		InstrumentedStore<Integer, Integer> store = new InstrumentedStore<Integer, Integer>(new ConcurrentStore<Integer, Integer>());
+		store.setTicker(new Ticker() {
+			@Override
+			public long read() {
+				return time.addAndGet(step.get());
+			}
+		});
+		for (int i = 1; i <= 1000; i++) {
+			step.set(i * 1000L);
+			store.get(i);
+		}
+		StoreStatistics statistics = store.getStatistics();
+		assertEquals(1000000, statistics.getMaxGetTime());
+		assertEquals(500500.0, statistics.getAverageGetTime(), 0.1);
+		long p50 = statistics.getGetTimePercentile(50);
+		assertTrue("中央値 : " + p50, 500000 <= p50 && 500000 * 1.125 >= p50);
+		long p99 = statistics.getGetTimePercentile(99);
+		assertTrue("99%値 : " + p99, 990000 <= p99 && 1000000 >= p99);
+		assertEquals(0, statistics.getPutTimePercentile(99));
+	}
+
+	@Test
+	public void testHistogramBucket() {
+		for (long value = 0; value < 100000; value++) {
+			int index = LatencyHistogram.indexOf(value);
+			long upper = LatencyHistogram.upperBoundOf(index);
+			assertTrue("上限 : " + value, value <= upper);
+			assertTrue("誤差 : " + value, upper - value <= value / LatencyHistogram.SUB_BUCKETS);
+		}
+		assertTrue(LatencyHistogram.BUCKET_COUNT > LatencyHistogram.indexOf(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testEvictionAndLoad() {
+		StatisticsRecorder recorder = new StatisticsRecorder();
+		CacheStore<Integer, Integer> cache = new CacheStore<Integer, Integer>(100);
+		cache.setStatisticsRecorder(recorder);
+		LoadingStore<Integer, Integer> loading = new LoadingStore<Integer, Integer>(cache, new AbstractStoreLoader<Integer, Integer>() {
+			@Override
+			public Integer load(final Integer aKey) {
+				if (0 > aKey) {
+					throw new StoreException("読み込み失敗");
+				}
+				return aKey * 2;
+			}
+		});
+		loading.setStatisticsRecorder(recorder);
+		InstrumentedStore<Integer, Integer> store = new InstrumentedStore<Integer, Integer>(loading, recorder);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(Integer.valueOf(i * 2), store.get(i));
+		}
+		try {
+			store.get(-1);
+			fail();
+		} catch (StoreException ex) {
+		}
+		StoreStatistics statistics = store.getStatistics();
+		assertEquals("追い出し", cache.getEvictionCount(), statistics.getEvictionCount());
+		assertTrue(900 <= statistics.getEvictionCount());
+		assertEquals("読み込み成功", 1000, statistics.getLoadSuccessCount());
+		assertEquals("読み込み失敗", 1, statistics.getLoadFailureCount());
+		assertTrue(0 < statistics.getTotalLoadTime());
+		assertEquals("件数", cache.size(), statistics.getSize());
+		assertEquals("重みなし", -1, statistics.getWeight());
+	}
+
+	@Test
+	public void testSize() {
+		StatisticsRecorder recorder = new StatisticsRecorder();
+		assertEquals("取得元なし", -1, recorder.snapshot().getSize());
+		WeightedStore<String, String> weighted = new WeightedStore<String, String>(100, new Weigher<String, String>() {
+			@Override
+			public int weigh(final String aKey, final String aValue) {
+				return aValue.length();
+			}
+		});
+		weighted.setStatisticsRecorder(recorder);
+		weighted.put("A", "12345");
+		weighted.put("B", "123");
+		StoreStatistics statistics = recorder.snapshot();
+		assertEquals(2, statistics.getSize());
+		assertEquals(8, statistics.getWeight());
+		assertTrue(statistics.toString().startsWith("size=2, weight=8, "));
+	}
+
+	@Test
+	public void testConcurrent() throws InterruptedException {
+		final InstrumentedStore<Integer, Integer> store = new InstrumentedStore<Integer, Integer>(new ConcurrentStore<Integer, Integer>());
+		final int threads = 8;
+		final CountDownLatch end = new CountDownLatch(threads);
+		for (int t = 0; t < threads; t++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 10000; i++) {
+							store.put(i, i);
+							store.get(i);
+						}
+					} finally {
+						end.countDown();
+					}
+				}
+			}).start();
+		}
+		assertTrue(end.await(30, TimeUnit.SECONDS));
+		StoreStatistics statistics = store.getStatistics();
+		assertEquals(threads * 10000, statistics.getPutCount());
+		assertEquals(threads * 10000, statistics.getHitCount());
+	}
+}
@@ -0,0 +1,247 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link LoadingStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class LoadingStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testSingleFlight() throws InterruptedException {
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch release = new CountDownLatch(1);
+		final LoadingStore<String, String> store = new LoadingStore<String, String>(new ConcurrentStore<String, String>(),
+				new AbstractStoreLoader<String, String>() {
+					@Override
+					public String load(final String aKey) {
+						loads.incrementAndGet();
+						try {
+							release.await();
+						} catch (InterruptedException ex) {
+							throw new StoreException(ex);
+						}
+						return "値:" + aKey;
+					}
+				});
+
+		final int threads = 16;
+		final CountDownLatch end = new CountDownLatch(threads);
+		final AtomicInteger correct = new AtomicInteger();
+		for (int i = 0; i < threads; i++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						if ("値:A".equals(store.get("A"))) {
+							correct.incrementAndGet();
+						}
+					} finally {
+						end.countDown();
+					}
+				}
+			}).start();
+		}
+		Thread.sleep(100);
+		release.countDown();
+		assertTrue(end.await(10, TimeUnit.SECONDS));
+		assertEquals("読み込み回数", 1, loads.get());
+		assertEquals(threads, correct.get());
+		assertTrue(store.getStore().has("A"));
+	}
+
+	@Test
+	public void testGetAll() {
+		final AtomicInteger batches = new AtomicInteger();
+		LoadingStore<Integer, String> store = new LoadingStore<Integer, String>(new ConcurrentStore<Integer, String>(),
+				new AbstractStoreLoader<Integer, String>() {
+					@Override
+					public String load(final Integer aKey) {
+						return (0 == aKey % 2) ? "値" + aKey : null;
+					}
+
+					@Override
+					public Map<Integer, String> loadAll(final Collection<? extends Integer> aKeys) {
+						batches.incrementAndGet();
+						return super.loadAll(aKeys);
+					}
+				});
+		store.put(1, "既存");
+		Map<Integer, String> result = store.getAll(Arrays.asList(1, 2, 3, 4));
+		assertEquals("一括読み込み", 1, batches.get());
+		assertEquals(3, result.size());
+		assertEquals("既存", result.get(1));
+		assertEquals("値2", result.get(2));
+		assertFalse("nullは格納しない", store.has(3));
+		assertEquals("default", store.get(3, "default"));
+	}
+
+	@Test
+	public void testGetAllFailure() {
+		final AtomicInteger loads = new AtomicInteger();
+		LoadingStore<Integer, String> store = new LoadingStore<Integer, String>(new ConcurrentStore<Integer, String>(),
+				new AbstractStoreLoader<Integer, String>() {
+					@Override
+					public String load(final Integer aKey) {
+						loads.incrementAndGet();
+						return "値" + aKey;
+					}
+
+					@Override
+					public Map<Integer, String> loadAll(final Collection<? extends Integer> aKeys) {
+						return null;
+					}
+				});
+		StatisticsRecorder recorder = new StatisticsRecorder();
+		store.setStatisticsRecorder(recorder);
+		assertTrue("nullは全件なし", store.getAll(Arrays.asList(1, 2)).isEmpty());
+		assertEquals("一括読み込みの記録", 1, recorder.snapshot().getLoadSuccessCount());
+		// 読み込み中のまま残っている場合は待機し続ける
+		assertEquals("値1", store.get(1));
+		assertEquals(1, loads.get());
+
+		// 格納に失敗した場合も全キーの読み込みを完了させる
+		final AtomicInteger puts = new AtomicInteger();
+		store = new LoadingStore<Integer, String>(new ConcurrentStore<Integer, String>() {
+			@Override
+			public void put(final Integer aKey, final String aValue) {
+				if (1 == puts.incrementAndGet()) {
+					throw new StoreException("put failed");
+				}
+				super.put(aKey, aValue);
+			}
+		}, new AbstractStoreLoader<Integer, String>() {
+			@Override
+			public String load(final Integer aKey) {
+				return "値" + aKey;
+			}
+		});
+		try {
+			store.getAll(Arrays.asList(1, 2, 3));
+			fail("例外が発生しない");
+		} catch (StoreException ex) {
+			assertEquals("put failed", ex.getMessage());
+		}
+		assertTrue("残りのキーは格納", store.getStore().has(2) && store.getStore().has(3));
+		for (int i = 1; i <= 3; i++) {
+			assertEquals("値" + i, store.get(i));
+		}
+	}
+
+	@Test
+	public void testLoadFailure() {
+		LoadingStore<String, String> store = new LoadingStore<String, String>(new ConcurrentStore<String, String>(),
+				new AbstractStoreLoader<String, String>() {
+					@Override
+					public String load(final String aKey) {
+						throw new StoreException("load failed");
+					}
+				});
+		try {
+			store.get("A");
+			fail("例外が発生しない");
+		} catch (StoreException ex) {
+			assertEquals("load failed", ex.getMessage());
+		}
+		assertFalse(store.has("A"));
+	}
+
+	@Test
+	public void testRefreshAfterWrite() {
+		final AtomicInteger version = new AtomicInteger();
+		final long[] now = { 0 };
+		LoadingStore<String, String> store = new LoadingStore<String, String>(new ConcurrentStore<String, String>(),
+				new AbstractStoreLoader<String, String>() {
+					@Override
+					public String load(final String aKey) {
+						return aKey + version.incrementAndGet();
+					}
+				});
+		store.setTicker(new Ticker() {
+			@Override
+			public long read() {
+				return now[0];
+			}
+		});
+		store.setRefreshAfterWrite(10, TimeUnit.SECONDS, new Executor() {
+			@Override
+			public void execute(final Runnable aCommand) {
+				aCommand.run();
+			}
+		});
+
+		assertEquals("A1", store.get("A"));
+		now[0] += TimeUnit.SECONDS.toNanos(5);
+		assertEquals("A1", store.get("A"));
+		now[0] += TimeUnit.SECONDS.toNanos(6);
+		// 同期エグゼキューターのため、参照時点で再読み込みが完了する
+		assertEquals("A1", store.get("A"));
+		assertEquals("A2", store.get("A"));
+		Map<String, String> map = new HashMap<String, String>();
+		map.put("A", "手動");
+		store.putAll(map);
+		assertEquals("手動", store.get("A"));
+	}
+
+	@Test
+	public void testWriteTimesPruned() {
+		ConcurrentStore<Integer, String> backend = new ConcurrentStore<Integer, String>();
+		LoadingStore<Integer, String> store = new LoadingStore<Integer, String>(backend, new AbstractStoreLoader<Integer, String>() {
+			@Override
+			public String load(final Integer aKey) {
+				return null;
+			}
+		});
+		store.setRefreshAfterWrite(10, TimeUnit.SECONDS, new Executor() {
+			@Override
+			public void execute(final Runnable aCommand) {
+				aCommand.run();
+			}
+		});
+
+		store.put(0, "値");
+		backend.remove(0);
+		assertNull(store.get(0));
+		assertEquals("参照時に値が存在しない", 0, store.getWriteTimeCount());
+
+		// 委譲先で追い出された値の格納時刻は件数の増加時に破棄する
+		for (int i = 0; i < 100000; i++) {
+			store.put(i, "値" + i);
+			backend.remove(i);
+		}
+		assertTrue("格納時刻の件数", store.getWriteTimeCount() <= 1024);
+		store.put(-1, "値");
+		assertTrue(store.has(-1));
+	}
+}
@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.azkfw.core.AbstractTestCase;
+import org.azkfw.util.FileUtility;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link LogStructuredStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class LogStructuredStoreTest extends AbstractTestCase {
+
+	private final List<File> directories = new ArrayList<File>();
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File directory : directories) {
+			FileUtility.remove(directory);
+		}
+		super.tearDown();
+	}
+
+	@Test
+	public void testReopen() throws IOException {
+		File directory = createDirectory();
+		LogStructuredStore<String, String> store = open(directory);
+		store.setMaxSegmentSize(4096);
+		for (int i = 0; i < 1000; i++) {
+			store.put("KEY" + i, "値" + i);
+		}
+		for (int i = 0; i < 1000; i += 2) {
+			store.remove("KEY" + i);
+		}
+		store.put("KEY1", "更新");
+		assertEquals(500, store.size());
+		assertTrue("セグメントの切り替え", store.getSegmentCount() > 1);
+		store.close();
+
+		store = open(directory);
+		try {
+			assertEquals(500, store.size());
+			assertEquals("更新", store.get("KEY1"));
+			for (int i = 2; i < 1000; i++) {
+				assertEquals((0 == i % 2) ? null : "値" + i, store.get("KEY" + i));
+			}
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testCompact() throws IOException {
+		File directory = createDirectory();
+		LogStructuredStore<String, String> store = open(directory);
+		store.setMaxSegmentSize(8192);
+		for (int n = 0; n < 10; n++) {
+			for (int i = 0; i < 200; i++) {
+				store.put("KEY" + i, "値" + n + "-" + i);
+			}
+		}
+		for (int i = 0; i < 100; i++) {
+			store.remove("KEY" + i);
+		}
+		long before = store.getTotalBytes();
+		store.compact();
+		assertTrue("圧縮", store.getTotalBytes() < before / 5);
+		assertEquals(store.getLiveBytes(), store.getTotalBytes());
+		for (int i = 0; i < 200; i++) {
+			assertEquals((i < 100) ? null : "値9-" + i, store.get("KEY" + i));
+		}
+		store.put("KEY0", "復活");
+		store.close();
+
+		store = open(directory);
+		try {
+			assertEquals(101, store.size());
+			assertEquals("復活", store.get("KEY0"));
+			assertNull("削除済み", store.get("KEY1"));
+			assertEquals("値9-150", store.get("KEY150"));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testBrokenSegment() throws IOException {
+		File directory = createDirectory();
+		LogStructuredStore<String, Long> store = new LogStructuredStore<String, Long>(directory, new StringSerializer(), new LongSerializer());
+		for (long i = 0; i < 10; i++) {
+			store.put("KEY" + i, i);
+		}
+		store.close();
+
+		// ヒントファイルを削除し、最後のレコードを破損させる
+		File data = null;
+		for (File file : directory.listFiles()) {
+			if (file.getName().endsWith(LogStructuredStore.HINT_SUFFIX)) {
+				assertTrue(file.delete());
+			} else {
+				data = file;
+			}
+		}
+		RandomAccessFile raf = new RandomAccessFile(data, "rw");
+		try {
+			raf.seek(raf.length() - 1);
+			raf.write(0x7F);
+		} finally {
+			raf.close();
+		}
+
+		store = new LogStructuredStore<String, Long>(directory, new StringSerializer(), new LongSerializer());
+		try {
+			assertEquals(9, store.size());
+			assertFalse(store.has("KEY9"));
+			assertEquals(Long.valueOf(8), store.get("KEY8"));
+			store.put("KEY9", 99L);
+			assertEquals(Long.valueOf(99), store.get("KEY9"));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testCrashDuringCompact() throws IOException {
+		for (int crash = 1; crash <= 3; crash++) {
+			File directory = createDirectory();
+			final int limit = crash;
+			final List<Long> deleted = new ArrayList<Long>();
+			LogStructuredStore<String, String> store = new LogStructuredStore<String, String>(directory, new StringSerializer(),
+					new StringSerializer()) {
+				@Override
+				void onSegmentDeleted(final long aId) {
+					deleted.add(aId);
+					if (deleted.size() == limit) {
+						throw new IllegalStateException("異常終了");
+					}
+				}
+			};
+			store.setMaxSegmentSize(4096);
+			for (int i = 0; i < 200; i++) {
+				store.put("KEY" + i, "値" + i);
+			}
+			for (int i = 0; i < 200; i += 2) {
+				store.remove("KEY" + i);
+			}
+			try {
+				store.compact();
+				fail("異常終了していない");
+			} catch (IllegalStateException ex) {
+				// 削除の途中で異常終了
+			}
+			for (int i = 1; i < deleted.size(); i++) {
+				assertTrue("古い順に削除", deleted.get(i - 1) < deleted.get(i));
+			}
+
+			store = open(directory);
+			try {
+				assertEquals(100, store.size());
+				for (int i = 0; i < 200; i++) {
+					assertEquals("削除済みのキーが復活しない", (0 == i % 2) ? null : "値" + i, store.get("KEY" + i));
+				}
+			} finally {
+				store.close();
+			}
+		}
+	}
+
+	private static LogStructuredStore<String, String> open(final File aDirectory) throws IOException {
+		return new LogStructuredStore<String, String>(aDirectory, new StringSerializer(), new StringSerializer());
+	}
+
+	private File createDirectory() throws IOException {
+		File directory = File.createTempFile("log", "");
+		directory.delete();
+		directory.mkdirs();
+		directories.add(directory);
+		return directory;
+	}
+}
@@ -0,0 +1,166 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link MappedStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class MappedStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testReopen() throws IOException {
+		File file = createFile();
+		// 領域境界をまたぐレコードを発生させるため小さな領域でマップする
+		MappedStore<String, String> store = new MappedStore<String, String>(file, new StringSerializer(), new StringSerializer(), 64, 4096);
+		for (int i = 0; i < 2000; i++) {
+			store.put("KEY" + i, "値" + i);
+		}
+		for (int i = 0; i < 2000; i += 4) {
+			store.remove("KEY" + i);
+		}
+		store.put("KEY1", "更新");
+		store.remove("NONE");
+		assertEquals(1500, store.size());
+		store.close();
+
+		store = new MappedStore<String, String>(file, new StringSerializer(), new StringSerializer(), 1, 4096);
+		try {
+			assertFalse("正常クローズ", store.isRecovered());
+			assertEquals(1500, store.size());
+			assertEquals("更新", store.get("KEY1"));
+			for (int i = 2; i < 2000; i++) {
+				if (0 == i % 4) {
+					assertFalse(store.has("KEY" + i));
+				} else {
+					assertEquals("値" + i, store.get("KEY" + i));
+				}
+			}
+			store.put("KEY0", "復活");
+			assertEquals("復活", store.get("KEY0"));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testRecovery() throws IOException {
+		File file = createFile();
+		MappedStore<String, Long> store = new MappedStore<String, Long>(file, new StringSerializer(), new LongSerializer(), 16, 1024);
+		for (long i = 0; i < 100; i++) {
+			store.put("KEY" + i, i);
+		}
+		store.remove("KEY50");
+		long end = store.getDataSize();
+		store.put("BROKEN", -1L);
+		// クローズせずに最後のレコードを破損させる
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.seek(store.getDataSize() - 1);
+			raf.write(0x7F);
+		} finally {
+			raf.close();
+		}
+
+		MappedStore<String, Long> recovered = new MappedStore<String, Long>(file, new StringSerializer(), new LongSerializer());
+		try {
+			assertTrue("復旧処理", recovered.isRecovered());
+			assertEquals(end, recovered.getDataSize());
+			assertEquals(99, recovered.size());
+			assertFalse("破損レコード", recovered.has("BROKEN"));
+			assertFalse("削除レコード", recovered.has("KEY50"));
+			for (long i = 0; i < 100; i++) {
+				if (50 != i) {
+					assertEquals(Long.valueOf(i), recovered.get("KEY" + i));
+				}
+			}
+		} finally {
+			recovered.close();
+		}
+	}
+
+	@Test
+	public void testRecoveryTwice() throws IOException {
+		File file = createFile();
+		MappedStore<String, Long> store = new MappedStore<String, Long>(file, new StringSerializer(), new LongSerializer(), 16, 1024);
+		for (long i = 0; i < 50; i++) {
+			store.put("KEY" + i, i);
+		}
+		long start = store.getDataSize();
+		for (long i = 50; i < 100; i++) {
+			store.put("KEY" + i, i);
+		}
+		// クローズせずにKEY50のレコードを破損させる
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.seek(start + 20);
+			raf.write(0x7F);
+		} finally {
+			raf.close();
+		}
+
+		MappedStore<String, Long> recovered = new MappedStore<String, Long>(file, new StringSerializer(), new LongSerializer());
+		assertTrue("復旧処理", recovered.isRecovered());
+		assertEquals(50, recovered.size());
+		// 破損したレコードと同じ長さのレコードを追記し、再度クローズせずに開く
+		recovered.put("KEY50", 500L);
+
+		recovered = new MappedStore<String, Long>(file, new StringSerializer(), new LongSerializer());
+		try {
+			assertTrue("復旧処理", recovered.isRecovered());
+			assertEquals(51, recovered.size());
+			assertEquals(Long.valueOf(500), recovered.get("KEY50"));
+			assertFalse("古いレコードが復活しない", recovered.has("KEY51"));
+		} finally {
+			recovered.close();
+		}
+	}
+
+	@Test
+	public void testInvalidFile() throws IOException {
+		File file = createFile();
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.writeLong(0x1234567812345678L);
+		} finally {
+			raf.close();
+		}
+		try {
+			new MappedStore<String, String>(file, new StringSerializer(), new StringSerializer());
+			fail("不正なファイル");
+		} catch (IOException ex) {
+		}
+	}
+
+	private static File createFile() throws IOException {
+		File file = File.createTempFile("mapped", ".store");
+		file.deleteOnExit();
+		file.delete();
+		return file;
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link OffHeapStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class OffHeapStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testBasic() {
+		OffHeapStore<String, String> store = new OffHeapStore<String, String>(new StringSerializer(), new StringSerializer(), 4 * 1024 * 1024);
+		try {
+			store.put("A", "あいう");
+			store.put("B", "𠮷野家");
+			store.put("C", "");
+			assertEquals("あいう", store.get("A"));
+			assertEquals("サロゲートペア", "𠮷野家", store.get("B"));
+			assertEquals("", store.get("C"));
+			assertEquals("default", store.get("D", "default"));
+			assertTrue(store.has("A"));
+			assertFalse(store.has("D"));
+			assertEquals(3, store.size());
+
+			long used = store.getMemoryUsed();
+			store.put("A", "かきく");
+			assertEquals("かきく", store.get("A"));
+			assertEquals("上書き時の解放", used, store.getMemoryUsed());
+
+			store.remove("A");
+			assertFalse(store.has("A"));
+			assertEquals(2, store.size());
+
+			store.clear();
+			assertEquals(0, store.size());
+			assertEquals(0, store.getMemoryUsed());
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testManyEntries() {
+		OffHeapStore<Long, byte[]> store = new OffHeapStore<Long, byte[]>(new LongSerializer(), new ByteArraySerializer(), 16 * 1024 * 1024,
+				1024 * 1024, 64 * 1024, 4);
+		try {
+			for (long i = 0; i < 50000; i++) {
+				store.put(i, value(i));
+			}
+			assertEquals(50000, store.size());
+			for (long i = 0; i < 50000; i += 3) {
+				store.remove(i);
+			}
+			for (long i = 0; i < 50000; i++) {
+				if (0 == i % 3) {
+					assertFalse(store.has(i));
+				} else {
+					assertTrue(Arrays.equals(value(i), store.get(i)));
+				}
+			}
+			long used = store.getMemoryUsed();
+			for (long i = 0; i < 50000; i += 3) {
+				store.put(i, value(i));
+			}
+			assertTrue("解放領域の再利用", store.getMemoryUsed() > used);
+			assertEquals(50000, store.size());
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testCapacity() {
+		OffHeapStore<Long, byte[]> store = new OffHeapStore<Long, byte[]>(new LongSerializer(), new ByteArraySerializer(), 1024 * 1024,
+				1024 * 1024, 64 * 1024, 1);
+		try {
+			byte[] value = new byte[1000];
+			long count = 0;
+			while (store.offer(count, value)) {
+				count++;
+			}
+			// 1016バイトのレコードは1024バイトのサイズクラスに割り当てられる
+			assertEquals(1024, count);
+			try {
+				store.put(count, value);
+				fail("容量不足");
+			} catch (StoreException ex) {
+			}
+			store.remove(0L);
+			assertTrue(store.offer(count, value));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testSegmentIndex() {
+		OffHeapStore<Long, byte[]> store = new OffHeapStore<Long, byte[]>(new LongSerializer(), new ByteArraySerializer(), 1024 * 1024,
+				64 * 1024, 64 * 1024, 4096);
+		try {
+			boolean[] used = new boolean[4096];
+			int count = 0;
+			Random random = new Random(45678);
+			for (int i = 0; i < 100000; i++) {
+				int index = store.segmentIndexOf(random.nextInt());
+				if (!used[index]) {
+					used[index] = true;
+					count++;
+				}
+			}
+			assertEquals("256を超えるセグメントも使用する", 4096, count);
+		} finally {
+			store.close();
+		}
+
+		store = new OffHeapStore<Long, byte[]>(new LongSerializer(), new ByteArraySerializer(), 1024 * 1024, 64 * 1024, 64 * 1024, 1);
+		try {
+			assertEquals(0, store.segmentIndexOf(-1));
+		} finally {
+			store.close();
+		}
+	}
+
+	private static byte[] value(final long aKey) {
+		byte[] value = new byte[(int) (aKey % 100)];
+		Arrays.fill(value, (byte) aKey);
+		return value;
+	}
+}
@@ -0,0 +1,232 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link PartitionedStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class PartitionedStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testRingBalance() {
+		ConsistentHashRing<String> ring = new ConsistentHashRing<String>();
+		for (int i = 0; i < 4; i++) {
+			ring.addNode("node" + i, "node" + i);
+		}
+		Map<String, Integer> counts = new HashMap<String, Integer>();
+		for (int i = 0; i < 100000; i++) {
+			String node = ring.locate("KEY" + i);
+			Integer count = counts.get(node);
+			counts.put(node, (null == count) ? 1 : count + 1);
+		}
+		assertEquals(4, counts.size());
+		for (Integer count : counts.values()) {
+			assertTrue("偏り : " + counts, 15000 < count && 35000 > count);
+		}
+	}
+
+	@Test
+	public void testRingMovement() {
+		ConsistentHashRing<String> ring = new ConsistentHashRing<String>();
+		for (int i = 0; i < 4; i++) {
+			ring.addNode("node" + i, "node" + i);
+		}
+		ConsistentHashRing<String> before = new ConsistentHashRing<String>(ring);
+		ring.addNode("node4", "node4");
+		int moved = 0;
+		for (int i = 0; i < 100000; i++) {
+			String key = "KEY" + i;
+			String owner = ring.locate(key);
+			if (!owner.equals(before.locate(key))) {
+				assertEquals("追加したノードへのみ移動", "node4", owner);
+				moved++;
+			}
+		}
+		assertTrue("移動件数 : " + moved, 12000 < moved && 30000 > moved);
+
+		before = new ConsistentHashRing<String>(ring);
+		ring.removeNode("node1");
+		for (int i = 0; i < 100000; i++) {
+			String key = "KEY" + i;
+			if (!ring.locate(key).equals(before.locate(key))) {
+				assertEquals("削除したノードからのみ移動", "node1", before.locate(key));
+			}
+		}
+	}
+
+	@Test
+	public void testPartition() {
+		List<ConcurrentStore<String, String>> shards = new ArrayList<ConcurrentStore<String, String>>();
+		PartitionedStore<String, String> store = new PartitionedStore<String, String>();
+		for (int i = 0; i < 3; i++) {
+			ConcurrentStore<String, String> shard = new ConcurrentStore<String, String>();
+			shards.add(shard);
+			store.addShard("shard" + i, shard);
+		}
+		assertTrue(store.isMigrating());
+		// 空の状態で構成したため移動対象はない
+		store.completeMigration();
+		assertFalse(store.isMigrating());
+		Map<String, String> map = new HashMap<String, String>();
+		for (int i = 0; i < 3000; i++) {
+			map.put("KEY" + i, "値" + i);
+		}
+		store.putAll(map);
+		int total = 0;
+		for (ConcurrentStore<String, String> shard : shards) {
+			assertTrue("分散", 0 < shard.size());
+			total += shard.size();
+		}
+		assertEquals(3000, total);
+		assertEquals("値10", store.get("KEY10"));
+		assertSame(store.locate("KEY10"), store.locate("KEY10"));
+		assertTrue(store.locate("KEY10").has("KEY10"));
+		store.remove("KEY10");
+		assertFalse(store.has("KEY10"));
+		assertEquals("既定値", "X", store.get("KEY10", "X"));
+	}
+
+	@Test
+	public void testMigration() {
+		PartitionedStore<String, String> store = new PartitionedStore<String, String>();
+		ConcurrentStore<String, String> shard0 = new ConcurrentStore<String, String>();
+		ConcurrentStore<String, String> shard1 = new ConcurrentStore<String, String>();
+		store.addShard("shard0", shard0);
+		store.addShard("shard1", shard1);
+		for (int i = 0; i < 3000; i++) {
+			store.put("KEY" + i, "値" + i);
+		}
+
+		ConcurrentStore<String, String> shard2 = new ConcurrentStore<String, String>();
+		store.addShard("shard2", shard2);
+		assertTrue(store.isMigrating());
+		assertEquals("追加直後は空", 0, shard2.size());
+		for (int i = 0; i < 1500; i++) {
+			assertEquals("参照時に移動", "値" + i, store.get("KEY" + i));
+		}
+		assertTrue(0 < shard2.size());
+		assertEquals(3000, shard0.size() + shard1.size() + shard2.size());
+
+		List<String> keys = new ArrayList<String>();
+		for (int i = 0; i < 3000; i++) {
+			keys.add("KEY" + i);
+		}
+		int moved = store.migrate(keys);
+		assertTrue("一括移動", 0 < moved);
+		assertEquals("再移動なし", 0, store.migrate(keys));
+		store.completeMigration();
+		assertFalse(store.isMigrating());
+		for (int i = 0; i < 3000; i++) {
+			assertEquals("値" + i, store.get("KEY" + i));
+		}
+
+		store.removeShard("shard0");
+		store.put("KEY0", "更新");
+		assertEquals("更新", store.get("KEY0"));
+		store.migrate(keys);
+		store.completeMigration();
+		assertEquals(0, shard0.size());
+		assertEquals(3000, shard1.size() + shard2.size());
+		assertEquals("更新", store.get("KEY0"));
+	}
+
+	@Test
+	public void testRemote() throws IOException {
+		List<StoreServer<String, String>> servers = new ArrayList<StoreServer<String, String>>();
+		List<RemoteStore<String, String>> clients = new ArrayList<RemoteStore<String, String>>();
+		PartitionedStore<String, String> store = new PartitionedStore<String, String>();
+		try {
+			for (int i = 0; i < 3; i++) {
+				StoreServer<String, String> server = new StoreServer<String, String>(new ConcurrentStore<String, String>(), new StringSerializer(),
+						new StringSerializer());
+				server.start();
+				servers.add(server);
+				RemoteStore<String, String> client = new RemoteStore<String, String>(server.getAddress(), new StringSerializer(),
+						new StringSerializer());
+				clients.add(client);
+				store.addShard("server" + i, client);
+			}
+			for (int i = 0; i < 1000; i++) {
+				store.put("KEY" + i, "値" + i);
+			}
+			Map<String, String> map = new HashMap<String, String>();
+			for (int i = 1000; i < 2000; i++) {
+				map.put("KEY" + i, "値" + i);
+			}
+			store.putAll(map);
+			for (int i = 0; i < 2000; i++) {
+				assertEquals("値" + i, store.get("KEY" + i));
+			}
+			store.put("NULL", null);
+			assertTrue("null値", store.has("NULL"));
+			assertNull(store.get("NULL", "X"));
+			store.remove("KEY0");
+			assertFalse(store.has("KEY0"));
+			assertEquals("X", store.get("KEY0", "X"));
+		} finally {
+			for (RemoteStore<String, String> client : clients) {
+				client.close();
+			}
+			for (StoreServer<String, String> server : servers) {
+				server.close();
+			}
+		}
+	}
+
+	@Test
+	public void testRemoteError() throws IOException {
+		StoreServer<String, String> server = new StoreServer<String, String>(new ConcurrentStore<String, String>() {
+			@Override
+			public void put(final String aKey, final String aValue) {
+				throw new StoreException("書き込み失敗");
+			}
+		}, new StringSerializer(), new StringSerializer());
+		server.start();
+		RemoteStore<String, String> client = new RemoteStore<String, String>(server.getAddress(), new StringSerializer(), new StringSerializer());
+		try {
+			try {
+				client.put("A", "1");
+				fail("例外が発生しない");
+			} catch (StoreException ex) {
+				assertTrue(ex.getMessage().contains("書き込み失敗"));
+			}
+			assertFalse("エラー後も継続", client.has("A"));
+		} finally {
+			client.close();
+			server.close();
+		}
+		try {
+			new RemoteStore<String, String>(server.getAddress(), new StringSerializer(), new StringSerializer()).get("A");
+			fail("停止後に接続できる");
+		} catch (StoreException ex) {
+		}
+	}
+}
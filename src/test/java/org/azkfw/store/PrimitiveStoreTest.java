@@ -0,0 +1,232 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link LongLongStore}などのプリミティブ型ストアクラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class PrimitiveStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testLongLongStore() {
+		LongLongStore store = new LongLongStore();
+		assertFalse(store.has(0L));
+		assertEquals(0L, store.get(1L));
+		assertEquals(-1L, store.getOrDefault(1L, -1L));
+
+		store.put(0L, 100L);
+		store.put(1L, 200L);
+		store.put(Long.MIN_VALUE, 300L);
+		assertTrue("キー0", store.has(0L));
+		assertEquals(100L, store.get(0L));
+		assertEquals(300L, store.get(Long.MIN_VALUE));
+		assertEquals(3, store.size());
+
+		long[] keys = store.keys();
+		Arrays.sort(keys);
+		assertTrue(Arrays.equals(new long[] { Long.MIN_VALUE, 0L, 1L }, keys));
+
+		store.remove(0L);
+		assertFalse(store.has(0L));
+		assertEquals(-1L, store.getOrDefault(0L, -1L));
+		assertEquals(2, store.size());
+
+		store.clear();
+		assertTrue(store.isEmpty());
+	}
+
+	@Test
+	public void testRandom() {
+		Random random = new Random(12345);
+		LongDoubleStore store = new LongDoubleStore(4);
+		Map<Long, Double> expected = new HashMap<Long, Double>();
+		for (int i = 0; i < 200000; i++) {
+			// 衝突と削除を多発させるため狭い範囲のキーを使用する
+			long key = random.nextInt(5000) - 2500;
+			if (random.nextBoolean()) {
+				double value = random.nextDouble();
+				store.put(key, value);
+				expected.put(key, value);
+			} else {
+				store.remove(key);
+				expected.remove(key);
+			}
+		}
+		assertEquals(expected.size(), store.size());
+		for (long key = -2500; key < 2500; key++) {
+			Double value = expected.get(key);
+			assertEquals(null != value, store.has(key));
+			assertEquals((null != value) ? value.doubleValue() : Double.NaN, store.getOrDefault(key, Double.NaN));
+		}
+	}
+
+	@Test
+	public void testIntDoubleStore() {
+		IntDoubleStore store = new IntDoubleStore(2);
+		assertFalse(store.has(0));
+		assertEquals(0.0, store.get(0));
+		store.put(0, 1.5);
+		store.put(Integer.MIN_VALUE, -2.5);
+		store.put(Integer.MAX_VALUE, Double.NaN);
+		assertTrue("キー0", store.has(0));
+		assertEquals(1.5, store.get(0));
+		assertEquals(-2.5, store.get(Integer.MIN_VALUE));
+		assertTrue(Double.isNaN(store.getOrDefault(Integer.MAX_VALUE, 0.0)));
+
+		// 初期容量を超えて拡張する
+		for (int i = 1; i <= 10000; i++) {
+			store.put(i * 31, i);
+		}
+		assertEquals(10003, store.size());
+		for (int i = 1; i <= 10000; i++) {
+			assertEquals((double) i, store.get(i * 31));
+		}
+		int[] keys = store.keys();
+		assertEquals(10003, keys.length);
+		Arrays.sort(keys);
+		assertEquals(Integer.MIN_VALUE, keys[0]);
+		assertEquals(0, keys[1]);
+
+		store.remove(0);
+		assertFalse(store.has(0));
+		assertEquals(-1.0, store.getOrDefault(0, -1.0));
+		store.remove(0);
+		assertEquals(10002, store.size());
+		store.clear();
+		assertTrue(store.isEmpty());
+		assertFalse(store.has(Integer.MIN_VALUE));
+
+		// 衝突と削除を多発させ、後続要素の詰め直しを検証する
+		Random random = new Random(23456);
+		store = new IntDoubleStore(4);
+		Map<Integer, Double> expected = new HashMap<Integer, Double>();
+		for (int i = 0; i < 200000; i++) {
+			int key = random.nextInt(5000) - 2500;
+			if (random.nextBoolean()) {
+				double value = random.nextDouble();
+				store.put(key, value);
+				expected.put(key, value);
+			} else {
+				store.remove(key);
+				expected.remove(key);
+			}
+		}
+		assertEquals(expected.size(), store.size());
+		for (int key = -2500; key < 2500; key++) {
+			Double value = expected.get(key);
+			assertEquals(null != value, store.has(key));
+			assertEquals((null != value) ? value.doubleValue() : Double.NaN, store.getOrDefault(key, Double.NaN));
+		}
+	}
+
+	@Test
+	public void testLongObjectStore() {
+		LongObjectStore<String> store = new LongObjectStore<String>(2);
+		assertFalse(store.has(0L));
+		assertNull(store.get(0L));
+		store.put(0L, "ゼロ");
+		store.put(Long.MIN_VALUE, "最小");
+		store.put(1L, null);
+		assertTrue("キー0", store.has(0L));
+		assertEquals("ゼロ", store.get(0L));
+		assertEquals("最小", store.get(Long.MIN_VALUE));
+		assertTrue("null値", store.has(1L));
+		assertEquals("null値はデフォルトにしない", null, store.getOrDefault(1L, "default"));
+
+		// 初期容量を超えて拡張する
+		for (long i = 2; i <= 10000; i++) {
+			store.put(i << 32, "値" + i);
+		}
+		assertEquals(10002, store.size());
+		for (long i = 2; i <= 10000; i++) {
+			assertEquals("値" + i, store.get(i << 32));
+		}
+		long[] keys = store.keys();
+		assertEquals(10002, keys.length);
+		Arrays.sort(keys);
+		assertEquals(Long.MIN_VALUE, keys[0]);
+		assertEquals(0L, keys[1]);
+
+		store.remove(0L);
+		assertFalse(store.has(0L));
+		assertEquals("default", store.getOrDefault(0L, "default"));
+		assertEquals(10001, store.size());
+		store.clear();
+		assertTrue(store.isEmpty());
+		assertNull(store.get(Long.MIN_VALUE));
+
+		// 衝突と削除を多発させ、後続要素の詰め直しを検証する
+		Random random = new Random(34567);
+		store = new LongObjectStore<String>(4);
+		Map<Long, String> expected = new HashMap<Long, String>();
+		for (int i = 0; i < 200000; i++) {
+			long key = random.nextInt(5000) - 2500;
+			if (random.nextBoolean()) {
+				String value = "値" + i;
+				store.put(key, value);
+				expected.put(key, value);
+			} else {
+				store.remove(key);
+				expected.remove(key);
+			}
+		}
+		assertEquals(expected.size(), store.size());
+		for (long key = -2500; key < 2500; key++) {
+			assertEquals(expected.containsKey(key), store.has(key));
+			assertEquals(expected.get(key), store.get(key));
+		}
+	}
+
+	@Test
+	public void testIntObjectStore() {
+		IntObjectStore<String> store = new IntObjectStore<String>();
+		for (int i = -1000; i < 1000; i++) {
+			store.put(i * 31, "値" + i);
+		}
+		assertEquals(2000, store.size());
+		assertEquals("値0", store.get(0));
+		assertEquals("値-5", store.get(-155));
+		assertNull(store.get(1));
+		assertEquals("default", store.getOrDefault(1, "default"));
+		for (int i = -1000; i < 1000; i += 2) {
+			store.remove(i * 31);
+		}
+		for (int i = -1000; i < 1000; i++) {
+			assertEquals(0 != i % 2, store.has(i * 31));
+		}
+
+		IntIntStore counts = new IntIntStore();
+		for (int i = 0; i < 100; i++) {
+			counts.put(i % 10, counts.get(i % 10) + 1);
+		}
+		assertEquals(10, counts.size());
+		assertEquals(10, counts.get(3));
+	}
+}
@@ -0,0 +1,341 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link StoreListener}への変更イベント通知のユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class StoreListenerTest extends AbstractTestCase {
+
+	@Test
+	public void testPutAndRemove() throws InterruptedException {
+		ConcurrentStore<String, Integer> store = new ConcurrentStore<String, Integer>();
+		RecordingListener<String, Integer> listener = new RecordingListener<String, Integer>(1002);
+		store.addStoreListener(listener);
+		for (int i = 0; i < 1000; i++) {
+			store.put("KEY" + i, i);
+		}
+		store.remove("KEY0");
+		store.remove("NONE");
+		assertFalse(store.putIfAbsent("KEY1", -1));
+		store.putIfAbsent("NEW", 1);
+
+		assertTrue("通知完了", listener.await());
+		List<StoreEvent<String, Integer>> events = listener.getEvents();
+		assertEquals("存在しないキーの削除は通知しない", 1002, events.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(StoreEventType.PUT, events.get(i).getType());
+			assertEquals("発生順", "KEY" + i, events.get(i).getKey());
+		}
+		assertEquals(StoreEventType.REMOVE, events.get(1000).getType());
+		assertEquals(Integer.valueOf(0), events.get(1000).getValue());
+		assertEquals("NEW", events.get(1001).getKey());
+		assertTrue("まとめて通知", listener.batches.get() < 1002);
+
+		// 解除後のイベントは、後から登録したリスナーへの通知完了時点でも届いていない
+		store.removeStoreListener(listener);
+		RecordingListener<String, Integer> other = new RecordingListener<String, Integer>(1);
+		store.addStoreListener(other);
+		store.put("AFTER", 1);
+		assertTrue(other.await());
+		assertEquals(1002, listener.getEvents().size());
+	}
+
+	@Test
+	public void testEviction() throws InterruptedException {
+		WeightedStore<String, String> store = new WeightedStore<String, String>(10, new Weigher<String, String>() {
+			@Override
+			public int weigh(final String aKey, final String aValue) {
+				return aValue.length();
+			}
+		});
+		RecordingListener<String, String> listener = new RecordingListener<String, String>(5);
+		store.addStoreListener(listener);
+		store.put("A", "12345");
+		store.put("B", "12345");
+		store.put("C", "123");
+		store.put("D", "12345678901");
+
+		assertTrue(listener.await());
+		assertEquals("[PUT(A=12345), PUT(B=12345), PUT(C=123), EVICT(A=12345), EVICT(D=12345678901)]", listener.getEvents().toString());
+	}
+
+	@Test
+	public void testCacheEviction() throws InterruptedException {
+		CacheStore<Integer, Integer> store = new CacheStore<Integer, Integer>(100);
+		final AtomicInteger evictions = new AtomicInteger();
+		store.addStoreListener(new StoreListener<Integer, Integer>() {
+			@Override
+			public void onEvents(final List<StoreEvent<Integer, Integer>> aEvents) {
+				for (StoreEvent<Integer, Integer> event : aEvents) {
+					if (StoreEventType.EVICT == event.getType()) {
+						evictions.incrementAndGet();
+					}
+				}
+			}
+		});
+		for (int i = 0; i < 1000; i++) {
+			store.put(i, i);
+		}
+		long expected = store.getEvictionCount();
+		for (int i = 0; i < 100 && expected != evictions.get(); i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(expected, evictions.get());
+	}
+
+	@Test
+	public void testOrder() throws InterruptedException {
+		final CacheStore<Integer, Integer> store = new CacheStore<Integer, Integer>(64);
+		final int threads = 4;
+		final int count = 5000;
+		RecordingListener<Integer, Integer> listener = new RecordingListener<Integer, Integer>(threads * count);
+		store.addStoreListener(listener, threads * count * 2, OverflowPolicy.BLOCK);
+		List<Thread> workers = new ArrayList<Thread>();
+		for (int t = 0; t < threads; t++) {
+			final int id = t;
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < count; i++) {
+						store.put(i % 128, id * count + i);
+					}
+				}
+			});
+			thread.start();
+			workers.add(thread);
+		}
+		for (Thread thread : workers) {
+			thread.join();
+		}
+		assertTrue(listener.await(threads * count + (int) store.getEvictionCount()));
+
+		// キーごとのイベントを再生した結果がストアの内容と一致する
+		Map<Integer, Integer> replayed = new HashMap<Integer, Integer>();
+		for (StoreEvent<Integer, Integer> event : listener.getEvents()) {
+			if (StoreEventType.PUT == event.getType()) {
+				replayed.put(event.getKey(), event.getValue());
+			} else {
+				assertTrue("格納前の追い出し : " + event, replayed.containsKey(event.getKey()));
+				replayed.remove(event.getKey());
+			}
+		}
+		for (int i = 0; i < 128; i++) {
+			assertEquals("キー " + i, store.get(i), replayed.get(i));
+		}
+	}
+
+	@Test
+	public void testOverflow() throws InterruptedException {
+		ConcurrentStore<Integer, Integer> store = new ConcurrentStore<Integer, Integer>();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+		StoreListener<Integer, Integer> slow = new StoreListener<Integer, Integer>() {
+			@Override
+			public void onEvents(final List<StoreEvent<Integer, Integer>> aEvents) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				for (StoreEvent<Integer, Integer> event : aEvents) {
+					received.add(event.getKey());
+				}
+			}
+		};
+		store.addStoreListener(slow, 10, OverflowPolicy.DROP_NEWEST);
+		store.put(0, 0);
+		// 最初のイベントを取り出して通知中の間に溜める
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		for (int i = 1; i < 100; i++) {
+			store.put(i, i);
+		}
+		assertEquals("破棄件数", 89, store.getDroppedEventCount(slow));
+		release.countDown();
+		for (int i = 0; i < 100 && 11 > received.size(); i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(11, received.size());
+		assertEquals(Integer.valueOf(10), received.get(10));
+	}
+
+	@Test
+	public void testBlock() throws InterruptedException {
+		ConcurrentStore<Integer, Integer> store = new ConcurrentStore<Integer, Integer>();
+		RecordingListener<Integer, Integer> listener = new RecordingListener<Integer, Integer>(5000) {
+			@Override
+			public void onEvents(final List<StoreEvent<Integer, Integer>> aEvents) {
+				try {
+					Thread.sleep(1);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				super.onEvents(aEvents);
+			}
+		};
+		store.addStoreListener(listener, 16, OverflowPolicy.BLOCK);
+		for (int i = 0; i < 5000; i++) {
+			store.put(i, i);
+		}
+		assertTrue(listener.await());
+		assertEquals("待機により破棄しない", 5000, listener.getEvents().size());
+		assertEquals(0, store.getDroppedEventCount(listener));
+	}
+
+	@Test
+	public void testListenerFailure() throws InterruptedException {
+		ConcurrentStore<Integer, Integer> store = new ConcurrentStore<Integer, Integer>();
+		final CountDownLatch calls = new CountDownLatch(2);
+		store.addStoreListener(new StoreListener<Integer, Integer>() {
+			@Override
+			public void onEvents(final List<StoreEvent<Integer, Integer>> aEvents) {
+				calls.countDown();
+				throw new IllegalStateException("テスト");
+			}
+		});
+		RecordingListener<Integer, Integer> listener = new RecordingListener<Integer, Integer>(2);
+		store.addStoreListener(listener);
+		store.put(1, 1);
+		// 例外で終わった通知の後に発生したイベント
+		for (int i = 0; i < 1000 && 1 < calls.getCount(); i++) {
+			Thread.sleep(10);
+		}
+		store.put(2, 2);
+		assertTrue("他のリスナーへ影響しない", listener.await());
+		assertTrue("例外後も通知を継続", calls.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testTieredStore() throws InterruptedException, IOException {
+		ConcurrentStore<String, String> disk = new ConcurrentStore<String, String>();
+		RecordingListener<String, String> tierListener = new RecordingListener<String, String>(1);
+		disk.addStoreListener(tierListener);
+		TieredStore<String, String> store = new TieredStore<String, String>(10, new OffHeapStore<String, String>(new StringSerializer(),
+				new StringSerializer(), 64 * 1024), disk);
+		try {
+			RecordingListener<String, String> listener = new RecordingListener<String, String>(1002);
+			store.addStoreListener(listener);
+			for (int i = 0; i < 1000; i++) {
+				store.put("KEY" + i, "値" + i);
+			}
+			for (int i = 0; i < 1000; i++) {
+				assertEquals("値" + i, store.get("KEY" + i));
+			}
+			store.remove("KEY0");
+			store.remove("NONE");
+			store.remove("KEY999");
+
+			assertTrue("通知完了", listener.await(1002));
+			List<StoreEvent<String, String>> events = listener.getEvents();
+			for (int i = 0; i < 1000; i++) {
+				assertEquals("昇格・降格は通知しない", StoreEventType.PUT, events.get(i).getType());
+			}
+			assertEquals("[REMOVE(KEY0=値0), REMOVE(KEY999=値999)]", events.subList(1000, 1002).toString());
+			assertTrue("下位の階層には階層間の移動が通知される", tierListener.await());
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testUnsupported() {
+		try {
+			new LoadingStore<String, String>(new ConcurrentStore<String, String>(), new AbstractStoreLoader<String, String>() {
+				@Override
+				public String load(final String aKey) {
+					return null;
+				}
+			}).addStoreListener(new RecordingListener<String, String>(1));
+			fail("イベントを発生させないストア");
+		} catch (UnsupportedOperationException ex) {
+		}
+	}
+
+	/**
+	 * このクラスは、受け取ったイベントを記録するリスナーです。
+	 */
+	private static class RecordingListener<K, V> implements StoreListener<K, V> {
+
+		private final List<StoreEvent<K, V>> events = new ArrayList<StoreEvent<K, V>>();
+
+		private final AtomicInteger batches = new AtomicInteger();
+
+		private final int expected;
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		private RecordingListener(final int aExpected) {
+			expected = aExpected;
+		}
+
+		@Override
+		public void onEvents(final List<StoreEvent<K, V>> aEvents) {
+			batches.incrementAndGet();
+			synchronized (events) {
+				events.addAll(aEvents);
+				if (events.size() >= expected) {
+					latch.countDown();
+				}
+				events.notifyAll();
+			}
+		}
+
+		private boolean await() throws InterruptedException {
+			return latch.await(10, TimeUnit.SECONDS);
+		}
+
+		private boolean await(final int aSize) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + 10000;
+			synchronized (events) {
+				while (events.size() < aSize) {
+					long timeout = deadline - System.currentTimeMillis();
+					if (0 >= timeout) {
+						return false;
+					}
+					events.wait(timeout);
+				}
+				return events.size() == aSize;
+			}
+		}
+
+		private List<StoreEvent<K, V>> getEvents() {
+			synchronized (events) {
+				return new ArrayList<StoreEvent<K, V>>(events);
+			}
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link StringSortedStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class StringSortedStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testPrefix() {
+		StringSortedStore<Integer> store = new StringSortedStore<Integer>();
+		String[] keys = { "a", "ab", "abc", "abd", "abz", "ac", "b", "ab\uFFFF", "abc/1", "ab\uFFFF\uFFFF", "a\uFFFF", "a\uFFFFb" };
+		for (int i = 0; i < keys.length; i++) {
+			store.put(keys[i], i);
+		}
+		List<String> expected = new ArrayList<String>();
+		Collections.addAll(expected, "ab", "abc", "abc/1", "abd", "abz", "ab\uFFFF", "ab\uFFFF\uFFFF");
+		assertEquals(expected, keysOf(store.prefix("ab")));
+		assertEquals("最大文字で終わる接頭辞", keys("ab\uFFFF", "ab\uFFFF\uFFFF"), keysOf(store.prefix("ab\uFFFF")));
+		assertEquals(keys("a\uFFFF", "a\uFFFFb"), keysOf(store.prefix("a\uFFFF")));
+		assertTrue("該当なし", keysOf(store.prefix("x")).isEmpty());
+		assertEquals("全件", keys.length, keysOf(store.prefix("")).size());
+	}
+
+	@Test
+	public void testUpperBound() {
+		assertEquals("ac", StringSortedStore.upperBound("ab"));
+		assertEquals("b", StringSortedStore.upperBound("a\uFFFF"));
+		assertNull(StringSortedStore.upperBound("\uFFFF\uFFFF"));
+	}
+
+	private static List<String> keys(final String... aKeys) {
+		List<String> keys = new ArrayList<String>();
+		Collections.addAll(keys, aKeys);
+		return keys;
+	}
+
+	private static <V> List<String> keysOf(final Iterable<Map.Entry<String, V>> aEntries) {
+		List<String> keys = new ArrayList<String>();
+		for (Map.Entry<String, V> entry : aEntries) {
+			keys.add(entry.getKey());
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,211 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link TieredStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class TieredStoreTest extends AbstractTestCase {
+
+	@Test
+	public void testDemotion() throws IOException {
+		ConcurrentStore<Long, byte[]> disk = new ConcurrentStore<Long, byte[]>();
+		TieredStore<Long, byte[]> store = new TieredStore<Long, byte[]>(100, offHeap(), disk);
+		try {
+			for (long i = 0; i < 2000; i++) {
+				store.put(i, value(i));
+			}
+			assertTrue("ヒープ階層の件数", 100 >= store.getHeapSize());
+			assertTrue("オフヒープ階層への降格", 0 < store.getOffHeapSize());
+			assertTrue("ディスク階層への降格", 0 < disk.size());
+			assertEquals("全件", 2000, store.getHeapSize() + store.getOffHeapSize() + disk.size());
+
+			for (long i = 0; i < 2000; i++) {
+				assertTrue(store.has(i));
+				assertEquals("値 : " + i, i, store.get(i)[0] & 0xFF | (store.get(i)[1] & 0xFFL) << 8);
+			}
+			assertTrue("オフヒープ階層のヒット", 0 < store.getOffHeapHitCount());
+			assertTrue("ディスク階層のヒット", 0 < store.getDiskHitCount());
+			assertTrue("昇格", 0 < store.getPromotionCount());
+			assertEquals(0, store.getMissCount());
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testPromotion() throws IOException {
+		ConcurrentStore<Long, byte[]> disk = new ConcurrentStore<Long, byte[]>();
+		TieredStore<Long, byte[]> store = new TieredStore<Long, byte[]>(100, offHeap(), disk);
+		try {
+			for (long i = 0; i < 2000; i++) {
+				store.put(i, value(i));
+			}
+			long key = -1;
+			for (long i = 0; i < 2000; i++) {
+				if (disk.has(i)) {
+					key = i;
+					break;
+				}
+			}
+			assertTrue(0 <= key);
+			assertNotNull(store.get(key));
+			assertFalse("ディスク階層から削除", disk.has(key));
+			for (int i = 0; i < 10; i++) {
+				assertNotNull(store.get(key));
+			}
+			assertTrue("ヒープ階層のヒット", 0 < store.getHeapHitCount());
+
+			store.put(key, new byte[] { 1 });
+			assertEquals("更新", 1, store.get(key).length);
+			store.remove(key);
+			assertFalse("削除", store.has(key));
+			assertNull(store.get(key));
+			assertEquals(1, store.getMissCount());
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testHasDuringPromotion() throws Exception {
+		final TieredStore<Long, byte[]> store = new TieredStore<Long, byte[]>(10, offHeap(), new ConcurrentStore<Long, byte[]>());
+		try {
+			for (long i = 0; i < 1000; i++) {
+				store.put(i, value(i));
+			}
+			final AtomicInteger errors = new AtomicInteger();
+			final CountDownLatch end = new CountDownLatch(1);
+			Thread reader = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int n = 0; n < 100; n++) {
+							for (long i = 0; i < 1000; i++) {
+								store.get(i);
+							}
+						}
+					} finally {
+						end.countDown();
+					}
+				}
+			});
+			reader.start();
+			while (0 < end.getCount()) {
+				for (long i = 0; i < 1000; i++) {
+					if (!store.has(i)) {
+						errors.incrementAndGet();
+					}
+				}
+			}
+			assertEquals("昇格中の値が参照できない", 0, errors.get());
+			for (long i = 0; i < 1000; i++) {
+				assertNotNull("値 : " + i, store.get(i));
+			}
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testMappedDisk() throws IOException {
+		File file = File.createTempFile("tiered", ".dat");
+		file.deleteOnExit();
+		file.delete();
+		MappedStore<String, String> disk = new MappedStore<String, String>(file, new StringSerializer(), new StringSerializer(), 1024,
+				16 * 1024 * 1024);
+		OffHeapStore<String, String> offHeap = new OffHeapStore<String, String>(new StringSerializer(), new StringSerializer(), 64 * 1024,
+				64 * 1024, 16 * 1024, 1);
+		TieredStore<String, String> store = new TieredStore<String, String>(50, offHeap, disk);
+		try {
+			for (int i = 0; i < 5000; i++) {
+				store.put("KEY" + i, "値" + i);
+			}
+			assertTrue(0 < disk.size());
+			for (int i = 0; i < 5000; i++) {
+				assertEquals("値" + i, store.get("KEY" + i));
+			}
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		final ConcurrentStore<Long, byte[]> disk = new ConcurrentStore<Long, byte[]>();
+		final TieredStore<Long, byte[]> store = new TieredStore<Long, byte[]>(100, offHeap(), disk);
+		try {
+			final int threads = 8;
+			final CountDownLatch end = new CountDownLatch(threads);
+			final AtomicInteger errors = new AtomicInteger();
+			for (int t = 0; t < threads; t++) {
+				final long base = t * 1000L;
+				new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							for (long i = base; i < base + 1000; i++) {
+								store.put(i, value(i));
+							}
+							for (int n = 0; n < 3; n++) {
+								for (long i = base; i < base + 1000; i++) {
+									byte[] value = store.get(i);
+									if (null == value || value.length != value(i).length || value[0] != value(i)[0]) {
+										errors.incrementAndGet();
+									}
+								}
+							}
+						} catch (RuntimeException ex) {
+							errors.incrementAndGet();
+						} finally {
+							end.countDown();
+						}
+					}
+				}).start();
+			}
+			assertTrue(end.await(60, TimeUnit.SECONDS));
+			assertEquals("不整合", 0, errors.get());
+		} finally {
+			store.close();
+		}
+	}
+
+	private static OffHeapStore<Long, byte[]> offHeap() {
+		return new OffHeapStore<Long, byte[]>(new LongSerializer(), new ByteArraySerializer(), 256 * 1024, 256 * 1024, 16 * 1024, 4);
+	}
+
+	private static byte[] value(final long aKey) {
+		byte[] value = new byte[2 + (int) (aKey % 200)];
+		value[0] = (byte) aKey;
+		value[1] = (byte) (aKey >>> 8);
+		return value;
+	}
+}
@@ -0,0 +1,218 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link WeightedStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class WeightedStoreTest extends AbstractTestCase {
+
+	private static final Weigher<String, byte[]> BYTES = new Weigher<String, byte[]>() {
+		@Override
+		public int weigh(final String aKey, final byte[] aValue) {
+			return aValue.length;
+		}
+	};
+
+	@Test
+	public void testBudget() {
+		WeightedStore<String, byte[]> store = new WeightedStore<String, byte[]>(10000, BYTES);
+		for (int i = 0; i < 100; i++) {
+			store.put("KEY" + i, new byte[(i % 10 + 1) * 100]);
+			assertTrue("上限 : " + store.getWeight(), 10000 >= store.getWeight());
+		}
+		assertTrue(0 < store.getEvictionCount());
+		assertTrue("最新は保持", store.has("KEY99"));
+		assertFalse("最古は追い出し", store.has("KEY0"));
+
+		long total = 0;
+		for (int i = 0; i < 100; i++) {
+			byte[] value = store.get("KEY" + i);
+			if (null != value) {
+				total += value.length;
+			}
+		}
+		assertEquals("重みの合計", total, store.getWeight());
+
+		store.put("KEY99", new byte[1]);
+		assertEquals("置換", total - 1000 + 1, store.getWeight());
+		store.remove("KEY99");
+		assertEquals(total - 1000, store.getWeight());
+		store.clear();
+		assertEquals(0, store.getWeight());
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void testLru() {
+		WeightedStore<String, byte[]> store = new WeightedStore<String, byte[]>(300, BYTES);
+		store.put("A", new byte[100]);
+		store.put("B", new byte[100]);
+		store.put("C", new byte[100]);
+		assertNotNull(store.get("A"));
+		store.put("D", new byte[100]);
+		assertTrue("参照したエントリーは保持", store.has("A"));
+		assertFalse(store.has("B"));
+
+		WeightedStore<String, byte[]> fifo = new WeightedStore<String, byte[]>(300, BYTES);
+		fifo.setEvictionPolicy(EvictionPolicy.FIFO);
+		fifo.put("A", new byte[100]);
+		fifo.put("B", new byte[100]);
+		fifo.put("C", new byte[100]);
+		assertNotNull(fifo.get("A"));
+		fifo.put("D", new byte[100]);
+		assertFalse("参照しても格納順に追い出し", fifo.has("A"));
+		assertTrue(fifo.has("B"));
+	}
+
+	@Test
+	public void testOversized() {
+		final List<String> evicted = new ArrayList<String>();
+		WeightedStore<String, byte[]> store = new WeightedStore<String, byte[]>(1000, BYTES) {
+			@Override
+			protected void onEviction(final String aKey, final byte[] aValue) {
+				evicted.add(aKey);
+			}
+		};
+		store.put("A", new byte[500]);
+		store.put("B", new byte[400]);
+		store.put("B", new byte[2000]);
+		assertTrue("他のエントリーは保持", store.has("A"));
+		assertFalse("上限超過", store.has("B"));
+		assertEquals(500, store.getWeight());
+		assertEquals("B", evicted.get(0));
+
+		store.put("C", new byte[400]);
+		store.put("D", new byte[400]);
+		assertEquals("A", evicted.get(1));
+		assertEquals(2, store.getEvictionCount());
+
+		store.setMaximumWeight(400);
+		assertEquals(400, store.getWeight());
+		assertTrue(store.has("D"));
+	}
+
+	@Test
+	public void testShed() {
+		StatisticsRecorder recorder = new StatisticsRecorder();
+		WeightedStore<String, byte[]> store = new WeightedStore<String, byte[]>(100000, BYTES);
+		store.setStatisticsRecorder(recorder);
+		for (int i = 0; i < 100; i++) {
+			store.put("KEY" + i, new byte[1000]);
+		}
+		assertEquals(100000, store.getWeight());
+		assertEquals(25000, store.shed(0.25));
+		assertEquals(75, store.size());
+		assertEquals(25, recorder.snapshot().getEvictionCount());
+
+		assertTrue(0 <= store.enableMemoryPressureShedding(0.9, 0.5));
+		store.disableMemoryPressureShedding();
+		store.disableMemoryPressureShedding();
+	}
+
+	@Test
+	public void testMemoryPressureThreshold() {
+		WeightedStore<String, byte[]> store1 = new WeightedStore<String, byte[]>(100000, BYTES);
+		WeightedStore<String, byte[]> store2 = new WeightedStore<String, byte[]>(100000, BYTES);
+		int count = store1.enableMemoryPressureShedding(0.9, 0.5);
+		store2.enableMemoryPressureShedding(0.8, 0.5);
+		try {
+			int pools = 0;
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				if (MemoryType.HEAP != pool.getType() || !pool.isCollectionUsageThresholdSupported()) {
+					continue;
+				}
+				if (pool.isUsageThresholdSupported()) {
+					assertEquals("最も低い閾値 : " + pool.getName(), (long) (pool.getUsage().getMax() * 0.8), pool.getCollectionUsageThreshold());
+					pools++;
+				} else {
+					assertEquals("新世代は対象外 : " + pool.getName(), 0, pool.getCollectionUsageThreshold());
+				}
+			}
+			assertEquals(pools, count);
+
+			// 他のストアが有効な間は閾値を解除しない
+			store2.disableMemoryPressureShedding();
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				if (MemoryType.HEAP == pool.getType() && pool.isUsageThresholdSupported() && pool.isCollectionUsageThresholdSupported()) {
+					assertEquals((long) (pool.getUsage().getMax() * 0.9), pool.getCollectionUsageThreshold());
+				}
+			}
+			store1.disableMemoryPressureShedding();
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				if (MemoryType.HEAP == pool.getType() && pool.isCollectionUsageThresholdSupported()) {
+					assertEquals("解除", 0, pool.getCollectionUsageThreshold());
+				}
+			}
+		} finally {
+			store1.disableMemoryPressureShedding();
+			store2.disableMemoryPressureShedding();
+		}
+	}
+
+	@Test
+	public void testConcurrent() throws InterruptedException {
+		final WeightedStore<String, byte[]> store = new WeightedStore<String, byte[]>(50000, BYTES);
+		final int threads = 8;
+		final CountDownLatch end = new CountDownLatch(threads);
+		for (int t = 0; t < threads; t++) {
+			final int base = t;
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 5000; i++) {
+							store.put("KEY" + (i % 500), new byte[(base * 37 + i) % 300]);
+							store.get("KEY" + ((i * 7) % 500));
+							if (0 == i % 10) {
+								store.remove("KEY" + ((i * 3) % 500));
+							}
+						}
+					} finally {
+						end.countDown();
+					}
+				}
+			}).start();
+		}
+		assertTrue(end.await(30, TimeUnit.SECONDS));
+		assertTrue(50000 >= store.getWeight());
+		long total = 0;
+		for (int i = 0; i < 500; i++) {
+			byte[] value = store.get("KEY" + i);
+			if (null != value) {
+				total += value.length;
+			}
+		}
+		assertEquals("重みの整合性", total, store.getWeight());
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.store;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.azkfw.core.AbstractTestCase;
+import org.junit.Test;
+
+/**
+ * このクラスは、{@link WriteBehindStore}クラスのユニットテストを行うクラスです。
+ *
+ * @since 1.6.1
+ * @version 1.6.1 2026/10/19
+ * @author Kawakicchi
+ */
+public class WriteBehindStoreTest extends AbstractTestCase {
+
+	private static final Executor DIRECT = new Executor() {
+		@Override
+		public void execute(final Runnable aCommand) {
+			aCommand.run();
+		}
+	};
+
+	@Test
+	public void testReadYourWrites() {
+		ConcurrentStore<String, String> backend = new ConcurrentStore<String, String>();
+		WriteBehindStore<String, String> store = new WriteBehindStore<String, String>(backend, 1000, 1, TimeUnit.HOURS);
+		try {
+			store.put("A", "1");
+			store.put("B", "2");
+			assertEquals("保留中の値", "1", store.get("A"));
+			assertFalse("未反映", backend.has("A"));
+
+			store.remove("B");
+			assertFalse("保留中の削除", store.has("B"));
+			assertEquals("既定値", "X", store.get("B", "X"));
+
+			store.flush();
+			assertEquals(0, store.getPendingCount());
+			assertEquals("1", backend.get("A"));
+			assertFalse(backend.has("B"));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testCoalesce() {
+		final AtomicInteger writes = new AtomicInteger();
+		ConcurrentStore<String, Integer> backend = new ConcurrentStore<String, Integer>() {
+			@Override
+			public void putAll(final Map<String, Integer> aMap) {
+				writes.addAndGet(aMap.size());
+				super.putAll(aMap);
+			}
+		};
+		WriteBehindStore<String, Integer> store = new WriteBehindStore<String, Integer>(backend, 1000, 1, TimeUnit.HOURS);
+		try {
+			StoreFuture<Void> first = null;
+			for (int i = 0; i < 100; i++) {
+				StoreFuture<Void> future = store.putAsync("K", i);
+				if (null == first) {
+					first = future;
+				}
+			}
+			assertEquals("集約", 1, store.getPendingCount());
+			store.flush();
+			assertEquals("書き込み件数", 1, writes.get());
+			assertEquals(Integer.valueOf(99), backend.get("K"));
+			assertTrue("集約された書き込みの完了", first.isDone());
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testBatchFlush() throws InterruptedException, ExecutionException {
+		ConcurrentStore<Integer, Integer> backend = new ConcurrentStore<Integer, Integer>();
+		WriteBehindStore<Integer, Integer> store = new WriteBehindStore<Integer, Integer>(backend, 64, 1, TimeUnit.HOURS);
+		try {
+			final CountDownLatch done = new CountDownLatch(1);
+			StoreFuture<Void> last = null;
+			for (int i = 0; i < 64; i++) {
+				last = store.putAsync(i, i * 10);
+			}
+			last.addListener(new Runnable() {
+				@Override
+				public void run() {
+					done.countDown();
+				}
+			}, DIRECT);
+			assertTrue("バッチサイズ到達で反映", done.await(10, TimeUnit.SECONDS));
+			assertNull(last.get());
+			assertEquals(Integer.valueOf(630), backend.get(63));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testInterval() throws InterruptedException, ExecutionException, TimeoutException {
+		ConcurrentStore<String, String> backend = new ConcurrentStore<String, String>();
+		WriteBehindStore<String, String> store = new WriteBehindStore<String, String>(backend, 1000, 20, TimeUnit.MILLISECONDS);
+		try {
+			StoreFuture<Void> future = store.putAsync("A", "1");
+			future.get(10, TimeUnit.SECONDS);
+			assertEquals("一定間隔で反映", "1", backend.get("A"));
+			assertEquals("1", store.getAsync("A").get(10, TimeUnit.SECONDS));
+			assertNull(store.getAsync("Z").get(10, TimeUnit.SECONDS));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testFailure() throws InterruptedException {
+		ConcurrentStore<String, String> backend = new ConcurrentStore<String, String>() {
+			@Override
+			public void putAll(final Map<String, String> aMap) {
+				throw new StoreException("書き込み失敗");
+			}
+		};
+		WriteBehindStore<String, String> store = new WriteBehindStore<String, String>(backend, 1000, 1, TimeUnit.HOURS);
+		try {
+			StoreFuture<Void> future = store.putAsync("A", "1");
+			store.flush();
+			try {
+				future.get();
+				fail("例外が発生しない");
+			} catch (ExecutionException ex) {
+				assertTrue(ex.getCause() instanceof StoreException);
+			}
+			assertNull("失敗した値は破棄", store.get("A"));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testClose() {
+		ConcurrentStore<Integer, Integer> backend = new ConcurrentStore<Integer, Integer>();
+		WriteBehindStore<Integer, Integer> store = new WriteBehindStore<Integer, Integer>(backend, 1000, 1, TimeUnit.HOURS);
+		for (int i = 0; i < 500; i++) {
+			store.put(i, i);
+		}
+		store.close();
+		assertEquals("クローズ時に反映", 500, backend.size());
+		try {
+			store.put(1, 1);
+			fail("クローズ後の書き込み");
+		} catch (StoreException ex) {
+		}
+	}
+
+	@Test
+	public void testCloseWhileWriting() throws InterruptedException {
+		final ConcurrentStore<Integer, Integer> backend = new ConcurrentStore<Integer, Integer>();
+		final WriteBehindStore<Integer, Integer> store = new WriteBehindStore<Integer, Integer>(backend, 1000, 1, TimeUnit.HOURS);
+		final AtomicInteger accepted = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(4);
+		Thread[] threads = new Thread[4];
+		for (int n = 0; n < threads.length; n++) {
+			final int base = n * 1000000;
+			threads[n] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					started.countDown();
+					try {
+						for (int i = 0;; i++) {
+							store.put(base + i, i);
+							accepted.incrementAndGet();
+						}
+					} catch (StoreException ex) {
+						// クローズ後の書き込み
+					}
+				}
+			});
+			threads[n].start();
+		}
+		started.await();
+		Thread.sleep(20);
+		store.close();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals("受け付けた書き込みはすべて反映", accepted.get(), backend.size());
+		assertEquals(0, store.getPendingCount());
+	}
+}